@@ -8,7 +8,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
 @EnableJpaAuditing
-@EntityScan(basePackages = "com.leagueos")
+@EntityScan(basePackages = {"com.leagueos", "org.springframework.modulith.events.jpa"})
 @EnableJpaRepositories(basePackages = "com.leagueos")
 public class LeagueOsApplication {
 
@@ -3,7 +3,9 @@ package com.leagueos.modules.competition.api;
 import com.leagueos.modules.competition.domain.Match;
 import com.leagueos.modules.competition.service.MatchSchedulerService;
 import com.leagueos.shared.context.TenantContext;
+import com.leagueos.shared.infrastructure.idempotency.IdempotencyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,6 +17,7 @@ import java.util.UUID;
 public class CompetitionController {
 
     private final MatchSchedulerService schedulerService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/matches")
     public Match scheduleMatch(
@@ -42,14 +45,16 @@ public class CompetitionController {
     }
 
     @PatchMapping("/matches/{matchId}/result")
-    public Match recordResult(
+    public ResponseEntity<?> recordResult(
             @RequestHeader("X-Tenant-ID") UUID tenantId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @PathVariable UUID matchId,
             @RequestParam int homeScore,
             @RequestParam int awayScore) {
         TenantContext.setCurrentTenant(tenantId);
         try {
-            return schedulerService.recordResult(matchId, homeScore, awayScore);
+            return idempotencyService.execute("match-result", idempotencyKey, List.of(matchId, homeScore, awayScore),
+                    () -> ResponseEntity.ok(schedulerService.recordResult(matchId, homeScore, awayScore)));
         } finally {
             TenantContext.clear();
         }
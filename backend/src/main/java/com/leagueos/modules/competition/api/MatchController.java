@@ -1,15 +1,21 @@
 package com.leagueos.modules.competition.api;
 
+import com.leagueos.modules.competition.api.dto.MatchLiveStateDTO;
 import com.leagueos.modules.competition.domain.Match;
 import com.leagueos.modules.competition.domain.MatchEvent;
 import com.leagueos.modules.competition.service.MatchService;
 import com.leagueos.shared.context.TenantContext;
+import com.leagueos.shared.infrastructure.idempotency.IdempotencyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/matches")
@@ -17,17 +23,21 @@ import java.util.UUID;
 public class MatchController {
 
     private final MatchService matchService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/{matchId}/report")
-    public ResponseEntity<Void> submitMatchReport(
+    public ResponseEntity<?> submitMatchReport(
             @RequestHeader("X-Tenant-ID") UUID tenantId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @PathVariable UUID matchId, 
             @RequestBody List<MatchEvent> events) {
         
         TenantContext.setCurrentTenant(tenantId);
         try {
-            matchService.submitMatchReport(matchId, events);
-            return ResponseEntity.ok().build();
+            return idempotencyService.execute("match-report", idempotencyKey, List.of(matchId, events), () -> {
+                matchService.submitMatchReport(matchId, events);
+                return ResponseEntity.ok().build();
+            });
         } finally {
             TenantContext.clear();
         }
@@ -72,4 +82,69 @@ public class MatchController {
             TenantContext.clear();
         }
     }
+
+    // ---- Live scorekeeping ----
+    // Responses carry the match version as ETag; sending it back in If-Match makes the write fail
+    // with 409 if another scorekeeper changed the match in between.
+
+    @PostMapping("/{matchId}/live/start")
+    public ResponseEntity<MatchLiveStateDTO> startLiveMatch(
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @PathVariable UUID matchId) {
+
+        return live(tenantId, () -> matchService.startLiveMatch(matchId, expectedVersion(ifMatch)));
+    }
+
+    @PostMapping("/{matchId}/live/events")
+    public ResponseEntity<MatchLiveStateDTO> addLiveEvent(
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @PathVariable UUID matchId,
+            @RequestBody MatchEvent event) {
+
+        return live(tenantId, () -> matchService.addLiveEvent(matchId, event, expectedVersion(ifMatch)));
+    }
+
+    @DeleteMapping("/{matchId}/live/events/{eventId}")
+    public ResponseEntity<MatchLiveStateDTO> retractLiveEvent(
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @PathVariable UUID matchId,
+            @PathVariable UUID eventId) {
+
+        return live(tenantId, () -> matchService.retractLiveEvent(matchId, eventId, expectedVersion(ifMatch)));
+    }
+
+    @PostMapping("/{matchId}/live/finish")
+    public ResponseEntity<MatchLiveStateDTO> finishLiveMatch(
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @PathVariable UUID matchId) {
+
+        return live(tenantId, () -> matchService.finishLiveMatch(matchId, expectedVersion(ifMatch)));
+    }
+
+    private ResponseEntity<MatchLiveStateDTO> live(UUID tenantId, Supplier<MatchLiveStateDTO> call) {
+        TenantContext.setCurrentTenant(tenantId);
+        try {
+            MatchLiveStateDTO state = call.get();
+            return ResponseEntity.ok().eTag(String.valueOf(state.getVersion())).body(state);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /** Version from an If-Match header ("7", W/"7" or 7); -1 (no check) when absent or "*". */
+    static long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return -1;
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) value = value.substring(2);
+        value = value.replace("\"", "");
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match debe ser la versión del partido.");
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package com.leagueos.modules.competition.api;
+
+import com.leagueos.modules.competition.api.dto.SeasonDataVersionDTO;
+import com.leagueos.modules.tenant.service.TenantSettingsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Conditional GET for the public endpoints.
+ *
+ * The strong ETag is a hash of the view, its parameters, the data versions of the seasons the
+ * view reads and the last change of the tenant's settings (points, visible widgets); Last-Modified
+ * is the latest change among them. Controllers set the tenant context before calling. A matching
+ * If-None-Match (or If-Modified-Since) is answered with 304 before the body supplier runs.
+ * Responses vary by the tenant header so a shared cache never mixes leagues.
+ */
+@Component
+public class PublicConditionalResponses {
+
+    static final String TENANT_HEADER = "X-Tenant-ID";
+
+    private final CacheControl cacheControl;
+    private final TenantSettingsService tenantSettingsService;
+
+    public PublicConditionalResponses(
+            TenantSettingsService tenantSettingsService,
+            @Value("${app.http.public-cache.max-age-seconds:15}") long maxAgeSeconds,
+            @Value("${app.http.public-cache.s-maxage-seconds:60}") long sharedMaxAgeSeconds) {
+        this.tenantSettingsService = tenantSettingsService;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .sMaxAge(Duration.ofSeconds(sharedMaxAgeSeconds))
+                .cachePublic();
+    }
+
+    /** ETag + Last-Modified response for a view computed purely from the given seasons' data. */
+    public <T> ResponseEntity<T> respond(WebRequest request, String view, Object discriminator,
+                                         Collection<SeasonDataVersionDTO> seasons, Supplier<T> body) {
+        LocalDateTime settingsChangedAt = settingsChangedAt();
+        return respond(request, etag(view, discriminator, seasons, settingsChangedAt),
+                lastModified(seasons, settingsChangedAt), body);
+    }
+
+    /**
+     * ETag-only response, for bodies that also carry time-limited content (signed URLs): the
+     * discriminator must rotate with that content, which a data-derived Last-Modified cannot express.
+     */
+    public <T> ResponseEntity<T> respondWithoutLastModified(WebRequest request, String view, Object discriminator,
+                                                            Collection<SeasonDataVersionDTO> seasons, Supplier<T> body) {
+        return respond(request, etag(view, discriminator, seasons, settingsChangedAt()), -1, body);
+    }
+
+    // ---- Private helpers ----
+
+    private <T> ResponseEntity<T> respond(WebRequest request, String etag, long lastModified, Supplier<T> body) {
+        boolean notModified = lastModified >= 0
+                ? request.checkNotModified(etag, lastModified)
+                : request.checkNotModified(etag);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(TENANT_HEADER);
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return notModified ? builder.build() : builder.body(body.get());
+    }
+
+    private LocalDateTime settingsChangedAt() {
+        return tenantSettingsService.getCurrentSettings().getUpdatedAt();
+    }
+
+    static String etag(String view, Object discriminator, Collection<SeasonDataVersionDTO> seasons,
+                       LocalDateTime settingsChangedAt) {
+        StringBuilder key = new StringBuilder(view).append('|').append(Objects.toString(discriminator, ""))
+                .append('|').append(Objects.toString(settingsChangedAt, ""));
+        seasons.stream()
+                .sorted(Comparator.comparing(SeasonDataVersionDTO::getSeasonId))
+                .forEach(s -> key.append('|').append(s.getSeasonId())
+                        .append(':').append(s.getStatus())
+                        .append(':').append(s.getCurrentMatchday())
+                        .append(':').append(s.getDataVersion()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static long lastModified(Collection<SeasonDataVersionDTO> seasons, LocalDateTime settingsChangedAt) {
+        return Stream.concat(seasons.stream().map(SeasonDataVersionDTO::getDataChangedAt), Stream.of(settingsChangedAt))
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .map(PublicConditionalResponses::toEpochMillis)
+                .orElse(-1L);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,54 @@
+package com.leagueos.modules.competition.api;
+
+import com.leagueos.modules.competition.api.dto.LiveMatchScoreDTO;
+import com.leagueos.modules.competition.service.LiveScoreHub;
+import com.leagueos.modules.competition.service.StatsService;
+import com.leagueos.shared.context.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Live score feed of a season as Server-Sent Events. The first event is a "snapshot" with the
+ * current score of every in-progress match; after that the feed carries GOAL, YELLOW_CARD,
+ * RED_CARD, MATCH_FINISHED, ... events as they are recorded (see {@link LiveScoreHub}).
+ *
+ * The tenant is taken from the query string as well as the usual header because the browser
+ * EventSource API cannot set request headers.
+ */
+@RestController
+@RequestMapping("/api/public/matches/live")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*") // For development
+public class PublicLiveScoreController {
+
+    private final StatsService statsService;
+    private final LiveScoreHub liveScoreHub;
+
+    @GetMapping(value = "/{seasonId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @PathVariable UUID seasonId,
+            @RequestHeader(value = "X-Tenant-ID", required = false) UUID headerTenantId,
+            @RequestParam(value = "tenantId", required = false) UUID paramTenantId) {
+
+        UUID tenantId = headerTenantId != null ? headerTenantId : paramTenantId;
+        if (tenantId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta el tenant (cabecera X-Tenant-ID o parámetro tenantId).");
+        }
+
+        TenantContext.setCurrentTenant(tenantId);
+        try {
+            // Nothing may hold a database connection once the emitter is returned: the stream stays open for minutes
+            List<LiveMatchScoreDTO> snapshot = statsService.getLiveScoreSnapshot(tenantId, seasonId);
+            return liveScoreHub.subscribe(tenantId, seasonId, snapshot);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -1,19 +1,22 @@
 package com.leagueos.modules.competition.api;
 
-import com.leagueos.modules.competition.domain.Match;
-import com.leagueos.modules.competition.domain.MatchStage;
+import com.leagueos.modules.competition.api.dto.PublicMatchDTO;
+import com.leagueos.modules.competition.api.dto.SeasonDataVersionDTO;
 import com.leagueos.modules.competition.persistence.MatchRepository;
-import com.leagueos.modules.league.domain.Season;
-import com.leagueos.modules.league.persistence.SeasonRepository;
-import com.leagueos.modules.media.service.StorageService;
+import com.leagueos.modules.competition.service.SeasonDataVersionService;
+import com.leagueos.modules.league.domain.SeasonStatus;
+import com.leagueos.modules.media.service.ImageDerivativeService;
 import com.leagueos.shared.context.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/public/matches")
@@ -21,108 +24,77 @@ import java.util.UUID;
 @CrossOrigin(origins = "*") // For development
 public class PublicMatchController {
 
-    private final SeasonRepository seasonRepository;
+    // Signed logo URLs live 120 minutes (reused for ~90): the ETag rotates well within that,
+    // so a client revalidating against a 304 never keeps URLs that are about to expire.
+    private static final Duration LOGO_URL_ROTATION = Duration.ofMinutes(15);
+
     private final MatchRepository matchRepository;
-    private final StorageService storageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final SeasonDataVersionService seasonDataVersionService;
+    private final PublicConditionalResponses conditionalResponses;
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<Match>> getUpcomingMatches(
-            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+    public ResponseEntity<List<PublicMatchDTO>> getUpcomingMatches(
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            WebRequest request) {
         
         TenantContext.setCurrentTenant(tenantId);
         try {
-            // Find all active seasons for this tenant
-            List<Season> activeSeasons = seasonRepository.findByTenantIdAndStatus(tenantId, com.leagueos.modules.league.domain.SeasonStatus.ACTIVE);
-            
-            List<Match> upcomingMatches = new ArrayList<>();
-            // For each active season, fetch all matches for its current matchday
-            for (Season season : activeSeasons) {
-                List<Match> seasonMatches = matchRepository.findBySeasonId(season.getId());
-                if (seasonMatches == null || seasonMatches.isEmpty()) continue;
-                
-                List<Match> regularMatches = seasonMatches.stream()
-                        .filter(m -> m.getStage() == MatchStage.REGULAR && m.getMatchday() != null)
-                        .toList();
-                
-                if (regularMatches.isEmpty()) continue;
-                
-                int currentMatchday = season.getCurrentMatchday() != null ? season.getCurrentMatchday() : 1;
-                        
-                for (Match m : regularMatches) {
-                    if (m.getMatchday() == currentMatchday) {
-                        upcomingMatches.add(m);
-                    }
-                }
-            }
-
-            // Sort by match date
-            upcomingMatches.sort((m1, m2) -> {
-                if (m1.getMatchDate() == null || m2.getMatchDate() == null) return 0;
-                return m1.getMatchDate().compareTo(m2.getMatchDate());
+            return conditionalResponses.respondWithoutLastModified(request, "upcoming", logoUrlEpoch(),
+                    getActiveSeasons(tenantId), () -> {
+                // Current matchday of every active season, already sorted by date
+                List<PublicMatchDTO> upcomingMatches = matchRepository.findPublicCurrentMatchdayFixtures(tenantId);
+                signTeamLogos(upcomingMatches);
+                return upcomingMatches;
             });
-
-            signMatchTeamLogos(upcomingMatches);
-
-            return ResponseEntity.ok(upcomingMatches);
         } finally {
             TenantContext.clear();
         }
     }
 
     @GetMapping("/season")
-    public ResponseEntity<List<Match>> getAllMatchesForSeason(
-            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+    public ResponseEntity<List<PublicMatchDTO>> getAllMatchesForSeason(
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            WebRequest request) {
         
         TenantContext.setCurrentTenant(tenantId);
         try {
-            List<Season> activeSeasons = seasonRepository.findByTenantIdAndStatus(tenantId, com.leagueos.modules.league.domain.SeasonStatus.ACTIVE);
-            
-            List<Match> allSeasonMatches = new ArrayList<>();
-            for (Season season : activeSeasons) {
-                List<Match> matches = matchRepository.findAll();
-                for (Match m : matches) {
-                    if (m.getSeason().getId().equals(season.getId()) && m.getStage() == MatchStage.REGULAR && m.getMatchday() != null) {
-                        allSeasonMatches.add(m);
-                    }
-                }
-            }
-
-            // Sort by matchday first, then by match date
-            allSeasonMatches.sort((m1, m2) -> {
-                int matchdayCompare = m1.getMatchday().compareTo(m2.getMatchday());
-                if (matchdayCompare != 0) return matchdayCompare;
-                
-                if (m1.getMatchDate() == null || m2.getMatchDate() == null) return 0;
-                return m1.getMatchDate().compareTo(m2.getMatchDate());
+            return conditionalResponses.respondWithoutLastModified(request, "season-fixtures", logoUrlEpoch(),
+                    getActiveSeasons(tenantId), () -> {
+                // Sorted by matchday first, then by match date
+                List<PublicMatchDTO> allSeasonMatches = matchRepository.findPublicSeasonFixtures(tenantId);
+                signTeamLogos(allSeasonMatches);
+                return allSeasonMatches;
             });
-
-            signMatchTeamLogos(allSeasonMatches);
-
-            return ResponseEntity.ok(allSeasonMatches);
         } finally {
             TenantContext.clear();
         }
     }
 
-    private void signMatchTeamLogos(List<Match> matches) {
-        if (matches == null || storageService == null) return;
-        for (Match m : matches) {
-            if (m.getHomeTeam() != null && m.getHomeTeam().getLogoUrl() != null && !m.getHomeTeam().getLogoUrl().isBlank()) {
-                String logo = m.getHomeTeam().getLogoUrl();
-                try {
-                    m.getHomeTeam().setSignedLogoUrl(logo.startsWith("http") ? logo : storageService.getSignedUrl(logo, 120));
-                } catch (Exception ignored) {
-                    m.getHomeTeam().setSignedLogoUrl(logo);
-                }
-            }
-            if (m.getAwayTeam() != null && m.getAwayTeam().getLogoUrl() != null && !m.getAwayTeam().getLogoUrl().isBlank()) {
-                String logo = m.getAwayTeam().getLogoUrl();
-                try {
-                    m.getAwayTeam().setSignedLogoUrl(logo.startsWith("http") ? logo : storageService.getSignedUrl(logo, 120));
-                } catch (Exception ignored) {
-                    m.getAwayTeam().setSignedLogoUrl(logo);
-                }
-            }
+    private List<SeasonDataVersionDTO> getActiveSeasons(UUID tenantId) {
+        return seasonDataVersionService.getVersions(tenantId).stream()
+                .filter(s -> s.getStatus() == SeasonStatus.ACTIVE)
+                .collect(Collectors.toList());
+    }
+
+    private long logoUrlEpoch() {
+        return Instant.now().getEpochSecond() / LOGO_URL_ROTATION.getSeconds();
+    }
+
+    private void signTeamLogos(List<PublicMatchDTO> matches) {
+        if (matches == null || imageDerivativeService == null) return;
+        for (PublicMatchDTO m : matches) {
+            m.setHomeTeamLogoUrl(signLogo(m.getHomeTeamLogoUrl()));
+            m.setAwayTeamLogoUrl(signLogo(m.getAwayTeamLogoUrl()));
+        }
+    }
+
+    private String signLogo(String logo) {
+        if (logo == null || logo.isBlank() || logo.startsWith("http")) return logo;
+        try {
+            return imageDerivativeService.getSignedUrl(logo, ImageDerivativeService.THUMBNAIL, 120);
+        } catch (Exception ignored) {
+            return logo;
         }
     }
 }
@@ -3,20 +3,27 @@ package com.leagueos.modules.competition.api;
 import com.leagueos.modules.competition.api.dto.PlayerStatDTO;
 import com.leagueos.modules.competition.api.dto.PlayerScorerDTO;
 import com.leagueos.modules.competition.api.dto.PlayerProfileStatsDTO;
+import com.leagueos.modules.competition.api.dto.SeasonDataVersionDTO;
 import com.leagueos.modules.competition.api.dto.TeamStatDTO;
 import com.leagueos.modules.competition.api.dto.TeamStandingDTO;
+import com.leagueos.modules.competition.service.SeasonDataVersionService;
+import com.leagueos.modules.competition.service.StatsCache;
 import com.leagueos.modules.competition.service.StatsService;
-import com.leagueos.modules.league.domain.Season;
-import com.leagueos.modules.league.persistence.SeasonRepository;
+import com.leagueos.modules.league.domain.SeasonStatus;
 import com.leagueos.shared.context.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * Public stats. Every response carries an ETag derived from the data versions of the seasons it
+ * reads, so re-polls that find nothing new get a 304 without touching the stats queries.
+ */
 @RestController
 @RequestMapping("/api/public/stats")
 @RequiredArgsConstructor
@@ -24,23 +31,27 @@ import java.util.stream.Collectors;
 public class PublicStatsController {
 
     private final StatsService statsService;
-    private final SeasonRepository seasonRepository;
+    private final StatsCache statsCache;
+    private final SeasonDataVersionService seasonDataVersionService;
+    private final PublicConditionalResponses conditionalResponses;
 
     @GetMapping("/scorers/top")
     public ResponseEntity<List<PlayerScorerDTO>> getTopScorers(
             @RequestParam(required = false) UUID seasonId,
-            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            WebRequest request) {
         TenantContext.setCurrentTenant(tenantId);
         try {
-            List<UUID> seasonIds;
+            List<SeasonDataVersionDTO> seasons = seasonDataVersionService.getVersions(tenantId);
             if (seasonId != null) {
-                seasonIds = List.of(seasonId);
-            } else {
-                List<Season> seasons = seasonRepository.findByTenantId(tenantId);
-                if (seasons == null || seasons.isEmpty()) return ResponseEntity.ok(List.of());
-                seasonIds = seasons.stream().map(Season::getId).collect(Collectors.toList());
+                seasons = seasons.stream().filter(s -> s.getSeasonId().equals(seasonId)).collect(Collectors.toList());
             }
-            return ResponseEntity.ok(statsService.getTopScorersForSeason(seasonIds));
+            List<UUID> seasonIds = seasonId != null ? List.of(seasonId) : seasonIds(seasons);
+            return conditionalResponses.respond(request, "scorers", seasonId, seasons, () -> {
+                if (seasonIds.isEmpty()) return List.of();
+                return statsCache.get(StatsCache.View.TOP_SCORERS, seasonIds, null,
+                        () -> statsService.getTopScorersForSeason(seasonIds));
+            });
         } finally {
             TenantContext.clear();
         }
@@ -48,14 +59,17 @@ public class PublicStatsController {
 
     @GetMapping("/discipline/general")
     public ResponseEntity<List<PlayerStatDTO>> getGeneralDisciplineStats(
-            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            WebRequest request) {
         TenantContext.setCurrentTenant(tenantId);
         try {
-            List<Season> activeSeasons = getActiveSeasons(tenantId);
-            if (activeSeasons.isEmpty()) return ResponseEntity.ok(List.of());
-
-            List<UUID> seasonIds = activeSeasons.stream().map(Season::getId).collect(Collectors.toList());
-            return ResponseEntity.ok(statsService.getTopRedCardsByPlayerForSeason(seasonIds));
+            List<SeasonDataVersionDTO> activeSeasons = getActiveSeasons(tenantId);
+            List<UUID> seasonIds = seasonIds(activeSeasons);
+            return conditionalResponses.respond(request, "discipline-general", null, activeSeasons, () -> {
+                if (seasonIds.isEmpty()) return List.of();
+                return statsCache.get(StatsCache.View.RED_CARDS_BY_PLAYER, seasonIds, null,
+                        () -> statsService.getTopRedCardsByPlayerForSeason(seasonIds));
+            });
         } finally {
             TenantContext.clear();
         }
@@ -63,20 +77,23 @@ public class PublicStatsController {
 
     @GetMapping("/discipline/matchday")
     public ResponseEntity<List<PlayerStatDTO>> getMatchdayDisciplineStats(
-            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            WebRequest request) {
         TenantContext.setCurrentTenant(tenantId);
         try {
-            List<Season> activeSeasons = getActiveSeasons(tenantId);
-            if (activeSeasons.isEmpty()) return ResponseEntity.ok(List.of());
-
-            List<UUID> seasonIds = activeSeasons.stream().map(Season::getId).collect(Collectors.toList());
+            List<SeasonDataVersionDTO> activeSeasons = getActiveSeasons(tenantId);
+            List<UUID> seasonIds = seasonIds(activeSeasons);
             Integer maxMatchday = activeSeasons.stream()
-                .map(Season::getCurrentMatchday)
+                .map(SeasonDataVersionDTO::getCurrentMatchday)
                 .filter(m -> m != null)
                 .max(Integer::compareTo)
                 .orElse(1);
 
-            return ResponseEntity.ok(statsService.getTopRedCardsByPlayerForMatchday(seasonIds, maxMatchday));
+            return conditionalResponses.respond(request, "discipline-matchday", maxMatchday, activeSeasons, () -> {
+                if (seasonIds.isEmpty()) return List.of();
+                return statsCache.get(StatsCache.View.RED_CARDS_BY_PLAYER_MATCHDAY, seasonIds, maxMatchday,
+                        () -> statsService.getTopRedCardsByPlayerForMatchday(seasonIds, maxMatchday));
+            });
         } finally {
             TenantContext.clear();
         }
@@ -84,14 +101,17 @@ public class PublicStatsController {
 
     @GetMapping("/discipline/teams")
     public ResponseEntity<List<TeamStatDTO>> getTeamDisciplineStats(
-            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            WebRequest request) {
         TenantContext.setCurrentTenant(tenantId);
         try {
-            List<Season> activeSeasons = getActiveSeasons(tenantId);
-            if (activeSeasons.isEmpty()) return ResponseEntity.ok(List.of());
-
-            List<UUID> seasonIds = activeSeasons.stream().map(Season::getId).collect(Collectors.toList());
-            return ResponseEntity.ok(statsService.getTopRedCardsByTeamForSeason(seasonIds));
+            List<SeasonDataVersionDTO> activeSeasons = getActiveSeasons(tenantId);
+            List<UUID> seasonIds = seasonIds(activeSeasons);
+            return conditionalResponses.respond(request, "discipline-teams", null, activeSeasons, () -> {
+                if (seasonIds.isEmpty()) return List.of();
+                return statsCache.get(StatsCache.View.RED_CARDS_BY_TEAM, seasonIds, null,
+                        () -> statsService.getTopRedCardsByTeamForSeason(seasonIds));
+            });
         } finally {
             TenantContext.clear();
         }
@@ -100,10 +120,16 @@ public class PublicStatsController {
     @GetMapping("/seasons/{seasonId}/standings")
     public ResponseEntity<List<TeamStandingDTO>> getStandings(
             @PathVariable UUID seasonId,
-            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            WebRequest request) {
         TenantContext.setCurrentTenant(tenantId);
         try {
-            return ResponseEntity.ok(statsService.calculateStandings(seasonId));
+            List<SeasonDataVersionDTO> season = seasonDataVersionService.getVersions(tenantId).stream()
+                    .filter(s -> s.getSeasonId().equals(seasonId))
+                    .collect(Collectors.toList());
+            return conditionalResponses.respond(request, "standings", seasonId, season,
+                    () -> statsCache.get(StatsCache.View.STANDINGS, List.of(seasonId), null,
+                            () -> statsService.calculateStandings(seasonId)));
         } finally {
             TenantContext.clear();
         }
@@ -112,16 +138,25 @@ public class PublicStatsController {
     @GetMapping("/players/{playerId}")
     public ResponseEntity<PlayerProfileStatsDTO> getPlayerStats(
             @PathVariable UUID playerId,
-            @RequestHeader("X-Tenant-ID") UUID tenantId) {
+            @RequestHeader("X-Tenant-ID") UUID tenantId,
+            WebRequest request) {
         TenantContext.setCurrentTenant(tenantId);
         try {
-            return ResponseEntity.ok(statsService.getPlayerProfileStats(playerId));
+            // A player's profile spans every season of the league
+            return conditionalResponses.respond(request, "player", playerId, seasonDataVersionService.getVersions(tenantId),
+                    () -> statsService.getPlayerProfileStats(playerId));
         } finally {
             TenantContext.clear();
         }
     }
 
-    private List<Season> getActiveSeasons(UUID tenantId) {
-        return seasonRepository.findByTenantIdAndStatus(tenantId, com.leagueos.modules.league.domain.SeasonStatus.ACTIVE);
+    private List<SeasonDataVersionDTO> getActiveSeasons(UUID tenantId) {
+        return seasonDataVersionService.getVersions(tenantId).stream()
+                .filter(s -> s.getStatus() == SeasonStatus.ACTIVE)
+                .collect(Collectors.toList());
+    }
+
+    private List<UUID> seasonIds(List<SeasonDataVersionDTO> seasons) {
+        return seasons.stream().map(SeasonDataVersionDTO::getSeasonId).collect(Collectors.toList());
     }
 }
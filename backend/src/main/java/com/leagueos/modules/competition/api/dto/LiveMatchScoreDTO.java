@@ -0,0 +1,26 @@
+package com.leagueos.modules.competition.api.dto;
+
+import com.leagueos.modules.competition.domain.Match;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveMatchScoreDTO {
+    private UUID matchId;
+    private UUID homeTeamId;
+    private String homeTeamName;
+    private UUID awayTeamId;
+    private String awayTeamName;
+    private Integer homeScore;
+    private Integer awayScore;
+    private LocalDateTime matchDate;
+    private Match.MatchStatus status;
+}
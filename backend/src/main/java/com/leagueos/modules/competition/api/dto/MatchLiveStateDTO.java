@@ -0,0 +1,29 @@
+package com.leagueos.modules.competition.api.dto;
+
+import com.leagueos.modules.competition.domain.Match;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/** Score and version of a match after a live scorekeeping call; {@code eventId} is set when an event was added. */
+@Getter
+@Setter
+@NoArgsConstructor
+public class MatchLiveStateDTO {
+    private UUID matchId;
+    private Match.MatchStatus status;
+    private Integer homeScore;
+    private Integer awayScore;
+    private Long version;
+    private UUID eventId;
+
+    public MatchLiveStateDTO(UUID matchId, Match.MatchStatus status, Integer homeScore, Integer awayScore, Long version) {
+        this.matchId = matchId;
+        this.status = status;
+        this.homeScore = homeScore;
+        this.awayScore = awayScore;
+        this.version = version;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -20,4 +21,7 @@ public class PlayerProfileStatsDTO {
     private int yellowCards;
     private int redCards;
     private Integer suspendedUntilMatchday;
+
+    // Per-season breakdown, most recent season first
+    private List<PlayerSeasonStatsDTO> seasons;
 }
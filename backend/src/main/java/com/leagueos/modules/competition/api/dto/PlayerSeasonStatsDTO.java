@@ -0,0 +1,39 @@
+package com.leagueos.modules.competition.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerSeasonStatsDTO {
+    private UUID seasonId;
+    private String seasonName;
+    private int matchesPlayed;
+    private int goals;
+    private int yellowCards;
+    private int redCards;
+
+    // Player-level value read in the same query; surfaced on PlayerProfileStatsDTO only
+    @JsonIgnore
+    private Integer suspendedUntilMatchday;
+
+    // Constructor for the conditional-aggregation query in MatchEventRepository.
+    // Appearances are the reliable source for matches played; distinct matches with any event are the fallback.
+    public PlayerSeasonStatsDTO(UUID seasonId, String seasonName, Long appearances, Long distinctMatches,
+                                Long goals, Long yellowCards, Long redCards, Integer suspendedUntilMatchday) {
+        this.seasonId = seasonId;
+        this.seasonName = seasonName;
+        this.matchesPlayed = (int) (appearances != null && appearances > 0 ? appearances : distinctMatches != null ? distinctMatches : 0);
+        this.goals = goals != null ? goals.intValue() : 0;
+        this.yellowCards = yellowCards != null ? yellowCards.intValue() : 0;
+        this.redCards = redCards != null ? redCards.intValue() : 0;
+        this.suspendedUntilMatchday = suspendedUntilMatchday;
+    }
+}
@@ -0,0 +1,37 @@
+package com.leagueos.modules.competition.api.dto;
+
+import com.leagueos.modules.competition.domain.Match;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fixture card row for the public site, projected straight from the matches query.
+ * Team logo fields hold the stored key until the controller replaces them with a signed URL.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicMatchDTO {
+    private UUID id;
+    private UUID seasonId;
+    private String seasonName;
+    private Integer matchday;
+    private LocalDateTime matchDate;
+    private String location;
+    private String fieldLocationUrl;
+    private UUID homeTeamId;
+    private String homeTeamName;
+    private String homeTeamLogoUrl;
+    private UUID awayTeamId;
+    private String awayTeamName;
+    private String awayTeamLogoUrl;
+    private Integer homeScore;
+    private Integer awayScore;
+    private Match.MatchStatus status;
+}
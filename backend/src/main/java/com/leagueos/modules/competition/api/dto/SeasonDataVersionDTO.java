@@ -0,0 +1,26 @@
+package com.leagueos.modules.competition.api.dto;
+
+import com.leagueos.modules.league.domain.SeasonStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-season inputs of the public views: which seasons are active, their current matchday and
+ * the version of their match data. Cheap to load, and enough to tell whether a response changed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeasonDataVersionDTO {
+    private UUID seasonId;
+    private SeasonStatus status;
+    private Integer currentMatchday;
+    private Long dataVersion;
+    private LocalDateTime dataChangedAt;
+}
@@ -6,6 +6,7 @@ import com.leagueos.modules.competition.domain.PlayoffTie;
 import com.leagueos.modules.competition.persistence.MatchRepository;
 import com.leagueos.modules.competition.persistence.PlayoffTieRepository;
 import com.leagueos.modules.competition.service.PlayoffService;
+import com.leagueos.modules.competition.service.StandingsProjectionService;
 import com.leagueos.modules.league.domain.Division;
 import com.leagueos.modules.league.domain.Season;
 import com.leagueos.modules.league.domain.SeasonStatus;
@@ -42,6 +43,7 @@ public class BomberazoImportService {
     private final PlayoffTieRepository playoffTieRepository;
     private final MatchRepository matchRepository;
     private final PlayoffService playoffService;
+    private final StandingsProjectionService standingsProjectionService;
 
     @Transactional
     public void resolveQuarters() {
@@ -171,6 +173,7 @@ public class BomberazoImportService {
 
                 playoffService.resolveTie(tie.getId());
             }
+            standingsProjectionService.invalidate(season.getId());
         }
         scheduleSemis();
     }
@@ -255,7 +258,7 @@ public class BomberazoImportService {
 
         log.warn("INICIANDO PURGA DE DATOS PARA TENANT: {}", tenantId);
 
-        // Delete order: match_events, matches, team_registrations, teams
+        // Delete order: match_events, matches, team_standings, team_registrations, teams
         entityManager.createNativeQuery("DELETE FROM match_events WHERE tenant_id = :tenantId")
                 .setParameter("tenantId", tenantId)
                 .executeUpdate();
@@ -264,6 +267,10 @@ public class BomberazoImportService {
                 .setParameter("tenantId", tenantId)
                 .executeUpdate();
 
+        entityManager.createNativeQuery("DELETE FROM team_standings WHERE tenant_id = :tenantId")
+                .setParameter("tenantId", tenantId)
+                .executeUpdate();
+
         entityManager.createNativeQuery("DELETE FROM team_registrations WHERE tenant_id = :tenantId")
                 .setParameter("tenantId", tenantId)
                 .executeUpdate();
@@ -336,6 +343,7 @@ public class BomberazoImportService {
 
                 createMatch(activeSeason, homeTeam, awayTeam, homeScore, awayScore, matchday, isDoubleForfeit);
             }
+            activeSeasons.forEach(season -> standingsProjectionService.invalidate(season.getId()));
         } catch (Exception e) {
             log.error("Error importando CSV", e);
             throw new RuntimeException("Error al procesar el archivo CSV: " + e.getMessage(), e);
@@ -0,0 +1,45 @@
+package com.leagueos.modules.competition.domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the live score feed of a season: a goal, a card or a change of match state,
+ * always carrying the match score as recorded at that point.
+ */
+public record LiveScoreEvent(
+        UUID tenantId,
+        UUID seasonId,
+        UUID matchId,
+        Type type,
+        UUID teamId,
+        UUID playerId,
+        Integer homeScore,
+        Integer awayScore,
+        LocalDateTime occurredAt) {
+
+    public enum Type {
+        MATCH_STARTED,
+        GOAL,
+        YELLOW_CARD,
+        RED_CARD,
+        EVENT_RETRACTED,
+        MATCH_FINISHED
+    }
+
+    public static LiveScoreEvent finished(Match match, LocalDateTime occurredAt) {
+        return new LiveScoreEvent(match.getTenantId(), match.getSeason().getId(), match.getId(), Type.MATCH_FINISHED,
+                null, null, match.getHomeScore(), match.getAwayScore(), occurredAt);
+    }
+
+    /** Live feed type of a recorded match event, or null for events the feed does not show. */
+    public static Type typeOf(MatchEvent.MatchEventType eventType) {
+        if (eventType == null) return null;
+        return switch (eventType) {
+            case GOAL -> Type.GOAL;
+            case YELLOW_CARD -> Type.YELLOW_CARD;
+            case RED_CARD -> Type.RED_CARD;
+            default -> null;
+        };
+    }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -73,6 +74,10 @@ public class Match extends BaseEntity {
     @Column(name = "is_double_forfeit")
     private Boolean isDoubleForfeit = false;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public enum MatchStatus {
         SCHEDULED, IN_PROGRESS, FINISHED, CANCELLED
     }
@@ -11,6 +11,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -48,4 +49,8 @@ public class PlayoffTie extends BaseEntity {
 
     @Column(name = "next_tie_id")
     private UUID nextTieId;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,11 @@
+package com.leagueos.modules.competition.domain;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a match of a season (result, events, schedule), the set of teams
+ * in its standings, the season's state (status, current matchday) or how its teams or
+ * players are displayed changes. Consumers use it to drop derived data for that season.
+ */
+public record SeasonMatchesChangedEvent(UUID tenantId, UUID seasonId) {
+}
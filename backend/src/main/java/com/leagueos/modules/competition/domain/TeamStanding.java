@@ -0,0 +1,61 @@
+package com.leagueos.modules.competition.domain;
+
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.domain.Team;
+import com.leagueos.shared.infrastructure.persistence.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Persisted standings row for a team in a season.
+ * Maintained incrementally by StandingsProjectionService as match results are recorded.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "team_standings")
+public class TeamStanding extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "season_id", nullable = false)
+    private Season season;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "team_id", nullable = false)
+    private Team team;
+
+    @Column(name = "played", nullable = false)
+    private int played;
+
+    @Column(name = "won", nullable = false)
+    private int won;
+
+    @Column(name = "drawn", nullable = false)
+    private int drawn;
+
+    @Column(name = "lost", nullable = false)
+    private int lost;
+
+    @Column(name = "goals_for", nullable = false)
+    private int goalsFor;
+
+    @Column(name = "goals_against", nullable = false)
+    private int goalsAgainst;
+
+    @Column(name = "points", nullable = false)
+    private int points;
+
+    /** Last five results, oldest first (e.g. "WWDLW"). */
+    @Column(name = "form", nullable = false, length = 5)
+    private String form = "";
+
+    public int getGoalDifference() {
+        return goalsFor - goalsAgainst;
+    }
+}
@@ -4,6 +4,7 @@ import com.leagueos.modules.competition.domain.MatchEvent;
 import com.leagueos.modules.competition.api.dto.PlayerStatDTO;
 import com.leagueos.modules.competition.api.dto.TeamStatDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,16 +15,31 @@ import java.util.UUID;
 @Repository
 public interface MatchEventRepository extends JpaRepository<MatchEvent, UUID> {
     List<MatchEvent> findByMatchId(UUID matchId);
-    void deleteByMatchId(UUID matchId);
+    List<MatchEvent> findByMatchIdAndEventType(UUID matchId, MatchEvent.MatchEventType eventType);
+    java.util.Optional<MatchEvent> findByIdAndMatchId(UUID id, UUID matchId);
 
-    @Query("SELECT COUNT(e) FROM MatchEvent e WHERE e.player.id = :playerId AND e.eventType = :eventType")
-    int countEventsByPlayerIdAndEventType(@Param("playerId") UUID playerId, @Param("eventType") com.leagueos.modules.competition.domain.MatchEvent.MatchEventType eventType);
+    /** Single bulk DELETE (the derived variant loads and removes events one by one). */
+    @Modifying
+    @Query("DELETE FROM MatchEvent e WHERE e.match.id = :matchId")
+    void deleteByMatchId(@Param("matchId") UUID matchId);
 
-    @Query("SELECT COUNT(DISTINCT e.match.id) FROM MatchEvent e WHERE e.player.id = :playerId AND e.eventType = :eventType")
-    int countMatchesByPlayerIdAndEventType(@Param("playerId") UUID playerId, @Param("eventType") com.leagueos.modules.competition.domain.MatchEvent.MatchEventType eventType);
-
-    @Query("SELECT COUNT(DISTINCT e.match.id) FROM MatchEvent e WHERE e.player.id = :playerId")
-    int countDistinctMatchesByPlayerId(@Param("playerId") UUID playerId);
+    /**
+     * Goals, cards and matches played by one player, one row per season, in a single aggregation.
+     * Starts from the player, so one without events still gets a row (with a null season) carrying
+     * the player-level suspension.
+     */
+    @Query("SELECT new com.leagueos.modules.competition.api.dto.PlayerSeasonStatsDTO(s.id, s.name, " +
+           "COUNT(DISTINCT CASE WHEN e.eventType = 'APPEARANCE' THEN m.id END), " +
+           "COUNT(DISTINCT m.id), " +
+           "SUM(CASE WHEN e.eventType = 'GOAL' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN e.eventType = 'YELLOW_CARD' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN e.eventType = 'RED_CARD' THEN 1 ELSE 0 END), " +
+           "p.suspendedUntilMatchday) " +
+           "FROM Player p LEFT JOIN MatchEvent e ON e.player = p LEFT JOIN e.match m LEFT JOIN m.season s " +
+           "WHERE p.id = :playerId " +
+           "GROUP BY s.id, s.name, s.startDate, p.suspendedUntilMatchday " +
+           "ORDER BY s.startDate DESC NULLS LAST")
+    List<com.leagueos.modules.competition.api.dto.PlayerSeasonStatsDTO> findSeasonStatsByPlayerId(@Param("playerId") UUID playerId);
 
     @Query("SELECT new com.leagueos.modules.competition.api.dto.TeamStatDTO(t.id, t.name, COUNT(e), 0) " +
            "FROM MatchEvent e JOIN e.match m JOIN e.team t " +
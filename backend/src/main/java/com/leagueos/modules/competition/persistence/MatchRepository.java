@@ -1,8 +1,13 @@
 package com.leagueos.modules.competition.persistence;
 
+import com.leagueos.modules.competition.api.dto.LiveMatchScoreDTO;
+import com.leagueos.modules.competition.api.dto.MatchLiveStateDTO;
 import com.leagueos.modules.competition.api.dto.MatchResultSummaryDTO;
+import com.leagueos.modules.competition.api.dto.PublicMatchDTO;
 import com.leagueos.modules.competition.domain.Match;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -30,5 +35,82 @@ public interface MatchRepository extends JpaRepository<Match, UUID> {
            "WHERE m.season.id = :seasonId AND m.status = 'FINISHED' " +
            "ORDER BY m.matchDate ASC")
     List<MatchResultSummaryDTO> findFinishedMatchSummariesBySeasonId(@Param("seasonId") UUID seasonId);
-}
 
+    /**
+     * Most recent finished matches of a team (newest first) where both sides are part of the
+     * season's standings. Used to refresh the form column without replaying the season.
+     */
+    @Query("SELECT new com.leagueos.modules.competition.api.dto.MatchResultSummaryDTO(" +
+           "m.homeTeam.id, m.homeTeam.name, m.awayTeam.id, m.awayTeam.name, m.homeScore, m.awayScore, m.matchDate, m.isDoubleForfeit) " +
+           "FROM Match m " +
+           "WHERE m.season.id = :seasonId AND m.status = 'FINISHED' " +
+           "AND (m.homeTeam.id = :teamId OR m.awayTeam.id = :teamId) " +
+           "AND EXISTS (SELECT 1 FROM TeamStanding h WHERE h.season.id = :seasonId AND h.team.id = m.homeTeam.id) " +
+           "AND EXISTS (SELECT 1 FROM TeamStanding a WHERE a.season.id = :seasonId AND a.team.id = m.awayTeam.id) " +
+           "ORDER BY m.matchDate DESC")
+    List<MatchResultSummaryDTO> findRecentFinishedMatchSummariesByTeam(@Param("seasonId") UUID seasonId,
+                                                                       @Param("teamId") UUID teamId,
+                                                                       Pageable pageable);
+
+    String PUBLIC_MATCH_PROJECTION =
+            "SELECT new com.leagueos.modules.competition.api.dto.PublicMatchDTO(" +
+            "m.id, s.id, s.name, m.matchday, m.matchDate, m.location, f.locationUrl, " +
+            "h.id, h.name, h.logoUrl, a.id, a.name, a.logoUrl, m.homeScore, m.awayScore, m.status) " +
+            "FROM Match m JOIN m.season s JOIN m.homeTeam h JOIN m.awayTeam a LEFT JOIN m.field f ";
+
+    /** Regular-stage fixtures of each active season's current matchday, for the public home page. */
+    @Query(PUBLIC_MATCH_PROJECTION +
+           "WHERE s.tenantId = :tenantId AND s.status = com.leagueos.modules.league.domain.SeasonStatus.ACTIVE " +
+           "AND m.stage = 'REGULAR' AND m.matchday = COALESCE(s.currentMatchday, 1) " +
+           "ORDER BY m.matchDate ASC NULLS LAST")
+    List<PublicMatchDTO> findPublicCurrentMatchdayFixtures(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Every regular-stage fixture of the tenant's active seasons, for the public calendar.
+     * Backed by idx_seasons_tenant_status and the partial idx_matches_regular_season_matchday_date (V17).
+     */
+    @Query(PUBLIC_MATCH_PROJECTION +
+           "WHERE s.tenantId = :tenantId AND s.status = com.leagueos.modules.league.domain.SeasonStatus.ACTIVE " +
+           "AND m.stage = 'REGULAR' AND m.matchday IS NOT NULL " +
+           "ORDER BY m.matchday ASC, m.matchDate ASC NULLS LAST")
+    List<PublicMatchDTO> findPublicSeasonFixtures(@Param("tenantId") UUID tenantId);
+
+    /** Current score of the season's in-progress matches, sent to a live feed subscriber when it connects. */
+    @Query("SELECT new com.leagueos.modules.competition.api.dto.LiveMatchScoreDTO(" +
+           "m.id, h.id, h.name, a.id, a.name, m.homeScore, m.awayScore, m.matchDate, m.status) " +
+           "FROM Match m JOIN m.homeTeam h JOIN m.awayTeam a " +
+           "WHERE m.season.id = :seasonId AND m.status = 'IN_PROGRESS' " +
+           "ORDER BY m.matchDate ASC NULLS LAST")
+    List<LiveMatchScoreDTO> findLiveScoresBySeasonId(@Param("seasonId") UUID seasonId);
+
+    /**
+     * Live scorekeeping: adds the deltas to the score and bumps the version in a single UPDATE, only while
+     * the match is IN_PROGRESS and, when {@code expectedVersion} is not negative, still at that version.
+     *
+     * @return 1 if applied, 0 if the match is not in play or was changed concurrently
+     */
+    @Modifying
+    @Query("UPDATE Match m SET m.homeScore = COALESCE(m.homeScore, 0) + :homeDelta, " +
+           "m.awayScore = COALESCE(m.awayScore, 0) + :awayDelta, m.version = m.version + 1, m.updatedAt = :now " +
+           "WHERE m.id = :matchId AND m.status = 'IN_PROGRESS' " +
+           "AND (:expectedVersion < 0 OR m.version = :expectedVersion)")
+    int applyLiveScoreDelta(@Param("matchId") UUID matchId,
+                            @Param("homeDelta") int homeDelta,
+                            @Param("awayDelta") int awayDelta,
+                            @Param("expectedVersion") long expectedVersion,
+                            @Param("now") LocalDateTime now);
+
+    /** Puts a SCHEDULED match in play at 0-0; same version rule and return value as {@link #applyLiveScoreDelta}. */
+    @Modifying
+    @Query("UPDATE Match m SET m.status = 'IN_PROGRESS', " +
+           "m.homeScore = 0, m.awayScore = 0, m.version = m.version + 1, m.updatedAt = :now " +
+           "WHERE m.id = :matchId AND m.status = 'SCHEDULED' " +
+           "AND (:expectedVersion < 0 OR m.version = :expectedVersion)")
+    int startLive(@Param("matchId") UUID matchId,
+                  @Param("expectedVersion") long expectedVersion,
+                  @Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.leagueos.modules.competition.api.dto.MatchLiveStateDTO(m.id, m.status, m.homeScore, m.awayScore, m.version) " +
+           "FROM Match m WHERE m.id = :matchId")
+    MatchLiveStateDTO findLiveState(@Param("matchId") UUID matchId);
+}
@@ -1,14 +1,30 @@
 package com.leagueos.modules.competition.persistence;
 
 import com.leagueos.modules.competition.domain.PlayoffTie;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PlayoffTieRepository extends JpaRepository<PlayoffTie, UUID> {
+    /** With its teams, which the bracket endpoint serializes after the session is closed. */
+    @EntityGraph(attributePaths = {"homeSeedTeam", "awaySeedTeam", "advancingTeam"})
     List<PlayoffTie> findBySeasonId(UUID seasonId);
     void deleteBySeasonId(UUID seasonId);
+
+    /**
+     * Loads a tie and bumps its version at commit even if nothing else changes, so two transactions
+     * resolving the same tie (one per finished leg) conflict instead of both acting on a stale read.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT t FROM PlayoffTie t WHERE t.id = :id")
+    Optional<PlayoffTie> findForResolution(@Param("id") UUID id);
 }
@@ -0,0 +1,32 @@
+package com.leagueos.modules.competition.persistence;
+
+import com.leagueos.modules.competition.domain.TeamStanding;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TeamStandingRepository extends JpaRepository<TeamStanding, UUID> {
+
+    @Query("SELECT s FROM TeamStanding s JOIN FETCH s.team t " +
+           "WHERE s.season.id = :seasonId " +
+           "ORDER BY s.points DESC, (s.goalsFor - s.goalsAgainst) DESC, s.goalsFor DESC, t.name ASC")
+    List<TeamStanding> findRankedBySeasonId(@Param("seasonId") UUID seasonId);
+
+    /** Row-locks the standings of the given teams so concurrent results for the same team serialize. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TeamStanding s WHERE s.season.id = :seasonId AND s.team.id IN :teamIds ORDER BY s.team.id")
+    List<TeamStanding> findForUpdate(@Param("seasonId") UUID seasonId, @Param("teamIds") Collection<UUID> teamIds);
+
+    @Modifying
+    @Query("DELETE FROM TeamStanding s WHERE s.season.id = :seasonId")
+    void deleteBySeasonId(@Param("seasonId") UUID seasonId);
+}
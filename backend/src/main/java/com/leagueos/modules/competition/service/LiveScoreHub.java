@@ -0,0 +1,275 @@
+package com.leagueos.modules.competition.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueos.modules.competition.domain.LiveScoreEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out hub for the live score SSE feed, one topic per tenant and season.
+ *
+ * Subscribers are async SseEmitters, so an idle connection holds no thread. Each event is encoded
+ * into an SSE frame once and offered to every subscriber's bounded queue; a small shared sender
+ * pool drains the queues. A subscriber whose queue is full (a client that stopped reading) is
+ * dropped instead of slowing the others down, and a periodic heartbeat comment flushes out dead
+ * connections and keeps proxies from closing idle ones.
+ */
+@Slf4j
+@Component
+public class LiveScoreHub implements DisposableBean {
+
+    private record Topic(UUID tenantId, UUID seasonId) {
+    }
+
+    private static final Set<DataWithMediaType> HEARTBEAT = frame(":hb\n\n");
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long emitterTimeoutMillis;
+    private final Map<Topic, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter dropped;
+    private final Counter published;
+
+    public LiveScoreHub(
+            ObjectMapper objectMapper,
+            @Value("${app.live.max-subscribers:20000}") int maxSubscribers,
+            @Value("${app.live.queue-capacity:32}") int queueCapacity,
+            @Value("${app.live.sender-threads:4}") int senderThreads,
+            @Value("${app.live.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${app.live.emitter-timeout-minutes:30}") long emitterTimeoutMinutes,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.emitterTimeoutMillis = Duration.ofMinutes(emitterTimeoutMinutes).toMillis();
+        AtomicInteger threadIds = new AtomicInteger();
+        // Platform threads even when spring.threads.virtual.enabled is on: SseEmitter.send is synchronized,
+        // so a write stuck on a stalled client would pin a virtual thread's carrier
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "live-score-sender-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "live-score-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+
+        Gauge.builder("live.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open live score SSE connections")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("live.subscribers.dropped")
+                .description("Subscribers disconnected because they fell too far behind")
+                .register(meterRegistry);
+        this.published = Counter.builder("live.events.published")
+                .description("Live score events fanned out")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a feed for a season. {@code snapshot}, if given, is sent first as a "snapshot" event
+     * so a client joining mid-match starts from the current scores.
+     */
+    public SseEmitter subscribe(UUID tenantId, UUID seasonId, Object snapshot) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Demasiadas conexiones en vivo, intenta más tarde.");
+        }
+        Topic topic = new Topic(tenantId, seasonId);
+        SseEmitter emitter = createEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        emitter.onCompletion(subscriber::ended);
+        emitter.onTimeout(subscriber::ended);
+        emitter.onError(e -> subscriber.ended());
+        // Atomic per topic with remove(): never adds to a set that a concurrent last remove() dropped
+        topics.compute(topic, (t, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+
+        subscriber.offer(snapshot != null ? encode("snapshot", snapshot) : HEARTBEAT);
+        return emitter;
+    }
+
+    /** Publishes once the current transaction commits (immediately when there is none). */
+    public void publishAfterCommit(LiveScoreEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    public void publish(LiveScoreEvent event) {
+        Set<Subscriber> subscribers = topics.get(new Topic(event.tenantId(), event.seasonId()));
+        if (subscribers == null || subscribers.isEmpty()) return;
+
+        Set<DataWithMediaType> frame = encode(event.type().name(), event);
+        published.increment();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> s.close(false)));
+        senders.shutdownNow();
+    }
+
+    // ---- Private helpers ----
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void heartbeat() {
+        topics.values().forEach(subscribers -> subscribers.forEach(s -> s.offer(HEARTBEAT)));
+    }
+
+    private Set<DataWithMediaType> encode(String name, Object payload) {
+        try {
+            String frame = "id:" + sequence.incrementAndGet() + "\n"
+                    + "event:" + name + "\n"
+                    + "data:" + objectMapper.writeValueAsString(payload) + "\n\n";
+            return frame(frame);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento en vivo.", e);
+        }
+    }
+
+    private static Set<DataWithMediaType> frame(String text) {
+        return Set.of(new DataWithMediaType(text, MediaType.TEXT_PLAIN));
+    }
+
+    /** One connection: a bounded outbox drained by at most one sender thread at a time. */
+    private final class Subscriber {
+        private final Topic topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> outbox = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        Subscriber(Topic topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (closed.get()) return;
+            if (!outbox.offer(frame)) {
+                // A full outbox means a drain is pending or stuck in send(); it completes the emitter
+                // once it gets there, so the publishing thread never touches a stalled connection
+                dropped.increment();
+                log.debug("LiveScoreHub: dropping slow subscriber of season {}", topic.seasonId());
+                remove();
+                outbox.clear();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> frame;
+                while (!closed.get() && (frame = outbox.poll()) != null) {
+                    try {
+                        emitter.send(frame);
+                    } catch (IOException | IllegalStateException e) {
+                        close(true);
+                        return;
+                    }
+                }
+                if (closed.get()) {
+                    close(false);
+                    return;
+                }
+                draining.set(false);
+                // An offer may have slipped in between the last poll and releasing the flag
+            } while (!outbox.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close(boolean failed) {
+            remove();
+            outbox.clear();
+            if (!completed.compareAndSet(false, true)) return;
+            try {
+                if (failed) {
+                    emitter.completeWithError(new IOException("Live score client disconnected"));
+                } else {
+                    emitter.complete();
+                }
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+
+        /** The container finished the request (client gone, timeout or error). */
+        void ended() {
+            completed.set(true);
+            remove();
+        }
+
+        void remove() {
+            AtomicBoolean removed = new AtomicBoolean();
+            topics.computeIfPresent(topic, (t, subscribers) -> {
+                removed.set(subscribers.remove(this));
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            if (removed.get()) {
+                subscriberCount.decrementAndGet();
+            }
+            closed.set(true);
+        }
+    }
+}
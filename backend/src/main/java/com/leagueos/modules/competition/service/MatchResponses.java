@@ -0,0 +1,40 @@
+package com.leagueos.modules.competition.service;
+
+import com.leagueos.modules.competition.domain.Match;
+import com.leagueos.modules.competition.domain.MatchEvent;
+import com.leagueos.modules.competition.domain.PlayoffTie;
+import org.hibernate.Hibernate;
+
+import java.util.List;
+
+/**
+ * Several endpoints return matches (and report events) as JSON after the service transaction has
+ * ended; with open-in-view off nothing can load a lazy association at that point. These helpers
+ * load the playoff tie of a match and its teams while the session is still open.
+ */
+final class MatchResponses {
+
+    private MatchResponses() {
+    }
+
+    static Match loaded(Match match) {
+        PlayoffTie tie = match.getPlayoffTie();
+        if (tie != null) {
+            Hibernate.initialize(tie);
+            Hibernate.initialize(tie.getHomeSeedTeam());
+            Hibernate.initialize(tie.getAwaySeedTeam());
+            Hibernate.initialize(tie.getAdvancingTeam());
+        }
+        return match;
+    }
+
+    static List<Match> loaded(List<Match> matches) {
+        matches.forEach(MatchResponses::loaded);
+        return matches;
+    }
+
+    static List<MatchEvent> loadedEvents(List<MatchEvent> events) {
+        events.forEach(event -> loaded(event.getMatch()));
+        return events;
+    }
+}
@@ -1,12 +1,18 @@
 package com.leagueos.modules.competition.service;
 
+import com.leagueos.modules.competition.domain.LiveScoreEvent;
 import com.leagueos.modules.competition.domain.Match;
+import com.leagueos.modules.competition.domain.MatchStage;
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
 import com.leagueos.modules.competition.persistence.MatchRepository;
 import com.leagueos.shared.domain.exception.ResourceNotFoundException;
+import com.leagueos.shared.infrastructure.aspect.RetryOnConflict;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,24 +21,38 @@ import java.util.UUID;
 public class MatchSchedulerService {
 
     private final MatchRepository matchRepository;
+    private final StandingsProjectionService standingsProjectionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LiveScoreHub liveScoreHub;
+    private final PlayoffService playoffService;
 
     @Transactional
     public Match scheduleMatch(Match match) {
-        return matchRepository.save(match);
+        return MatchResponses.loaded(matchRepository.save(match));
     }
 
     @Transactional(readOnly = true)
     public List<Match> getMatchesBySeason(UUID seasonId) {
-        return matchRepository.findBySeasonId(seasonId);
+        return MatchResponses.loaded(matchRepository.findBySeasonId(seasonId));
     }
 
+    @RetryOnConflict
     @Transactional
     public Match recordResult(UUID matchId, int homeScore, int awayScore) {
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Match not found: " + matchId));
+        StandingsProjectionService.ResultSnapshot previousResult = StandingsProjectionService.ResultSnapshot.of(match);
         match.setHomeScore(homeScore);
         match.setAwayScore(awayScore);
         match.setStatus(Match.MatchStatus.FINISHED);
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        standingsProjectionService.applyResult(saved, previousResult);
+        eventPublisher.publishEvent(new SeasonMatchesChangedEvent(saved.getTenantId(), saved.getSeason().getId()));
+        liveScoreHub.publishAfterCommit(LiveScoreEvent.finished(saved, LocalDateTime.now()));
+
+        if (MatchStage.PLAYOFFS.equals(saved.getStage()) && saved.getPlayoffTie() != null) {
+            playoffService.resolveTie(saved.getPlayoffTie().getId());
+        }
+        return MatchResponses.loaded(saved);
     }
 }
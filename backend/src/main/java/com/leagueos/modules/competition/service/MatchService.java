@@ -1,9 +1,12 @@
 package com.leagueos.modules.competition.service;
 
+import com.leagueos.modules.competition.api.dto.MatchLiveStateDTO;
 import com.leagueos.modules.competition.api.dto.UpdateMatchScheduleRequest;
+import com.leagueos.modules.competition.domain.LiveScoreEvent;
 import com.leagueos.modules.competition.domain.Match;
 import com.leagueos.modules.competition.domain.MatchEvent;
 import com.leagueos.modules.competition.domain.MatchStage;
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
 import com.leagueos.modules.competition.persistence.MatchEventRepository;
 import com.leagueos.modules.competition.persistence.MatchRepository;
 import com.leagueos.modules.league.domain.Team;
@@ -13,14 +16,31 @@ import com.leagueos.modules.registration.persistence.PlayerRepository;
 import com.leagueos.modules.tenant.domain.TenantSettings;
 import com.leagueos.modules.tenant.service.TenantSettingsService;
 import com.leagueos.shared.context.TenantContext;
+import com.leagueos.shared.domain.exception.BusinessRuleException;
+import com.leagueos.shared.domain.exception.ConcurrentUpdateException;
 import com.leagueos.shared.domain.exception.ResourceNotFoundException;
+import com.leagueos.shared.infrastructure.aspect.RetryOnConflict;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.StaleStateException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,31 +52,41 @@ public class MatchService {
     private final TeamRepository teamRepository;
     private final TenantSettingsService tenantSettingsService;
     private final PlayoffService playoffService;
+    private final StandingsProjectionService standingsProjectionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LiveScoreHub liveScoreHub;
 
+    /**
+     * Stores a match report. A resubmission is diffed against the stored events: only new
+     * events are inserted, removed ones deleted and changed notes/suspensions updated in place.
+     */
+    @RetryOnConflict
     @Transactional
     public void submitMatchReport(UUID matchId, List<MatchEvent> events) {
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new ResourceNotFoundException("Match not found: " + matchId));
-
-        matchEventRepository.deleteByMatchId(matchId);
-        matchEventRepository.flush();
+        StandingsProjectionService.ResultSnapshot previousResult = StandingsProjectionService.ResultSnapshot.of(match);
 
         int homeGoals = 0;
         int awayGoals = 0;
         boolean isDoubleForfeit = false;
         TenantSettings settings = tenantSettingsService.getCurrentSettings();
 
-        List<MatchEvent> eventsToSave = new ArrayList<>();
+        List<MatchEvent> incoming = new ArrayList<>();
+        List<MatchEvent> inserted = new ArrayList<>();
 
         if (events != null) {
+            Map<UUID, Player> players = resolvePlayers(events);
+            Map<UUID, Team> teams = resolveTeams(events);
+
             for (MatchEvent eventRaw : events) {
                 if (eventRaw.getEventType() == MatchEvent.MatchEventType.DOUBLE_FORFEIT) {
                     isDoubleForfeit = true;
                     continue;
                 }
 
-                MatchEvent event = buildMatchEvent(eventRaw, match);
-                eventsToSave.add(event);
+                MatchEvent event = buildMatchEvent(eventRaw, match, players, teams);
+                incoming.add(event);
 
                 if (event.getEventType() == MatchEvent.MatchEventType.GOAL && event.getTeam() != null) {
                     if (match.getHomeTeam() != null && match.getHomeTeam().getId().equals(event.getTeam().getId())) {
@@ -65,15 +95,17 @@ public class MatchService {
                         awayGoals++;
                     }
                 }
-
-                if (settings != null && settings.isEnableAutoSuspensions() && event.getEventType() == MatchEvent.MatchEventType.RED_CARD) {
-                    applyAutoSuspension(event, match);
-                }
             }
         }
 
-        if (!eventsToSave.isEmpty()) {
-            matchEventRepository.saveAll(eventsToSave);
+        List<MatchEvent> suspensionSources = reconcileEvents(matchId, incoming, inserted);
+
+        if (settings != null && settings.isEnableAutoSuspensions()) {
+            Map<UUID, Integer> suspensions = new LinkedHashMap<>();
+            for (MatchEvent event : suspensionSources) {
+                collectAutoSuspension(event, match, suspensions);
+            }
+            applyAutoSuspensions(suspensions, match);
         }
 
         match.setHomeScore(homeGoals);
@@ -82,17 +114,26 @@ public class MatchService {
         match.setIsDoubleForfeit(isDoubleForfeit);
         matchRepository.save(match);
 
+        // Corrections that leave the result untouched (a card, a note) don't move the standings
+        if (!Objects.equals(previousResult, StandingsProjectionService.ResultSnapshot.of(match))) {
+            standingsProjectionService.applyResult(match, previousResult);
+        }
+        eventPublisher.publishEvent(new SeasonMatchesChangedEvent(match.getTenantId(), match.getSeason().getId()));
+        publishLiveEvents(match, inserted);
+
         if (MatchStage.PLAYOFFS.equals(match.getStage()) && match.getPlayoffTie() != null) {
             playoffService.resolveTie(match.getPlayoffTie().getId());
         }
     }
 
+    @Transactional
     public List<Match> getMatchesByMatchday(Integer matchday) {
-        return matchRepository.findByMatchday(matchday);
+        return MatchResponses.loaded(matchRepository.findByMatchday(matchday));
     }
 
+    @Transactional
     public List<MatchEvent> getMatchEvents(UUID matchId) {
-        return matchEventRepository.findByMatchId(matchId);
+        return MatchResponses.loadedEvents(matchEventRepository.findByMatchId(matchId));
     }
 
     private final com.leagueos.modules.league.persistence.SoccerFieldRepository soccerFieldRepository;
@@ -123,32 +164,301 @@ public class MatchService {
             match.setLocation(request.getLocation());
         }
 
-        return matchRepository.save(match);
+        Match saved = matchRepository.save(match);
+        eventPublisher.publishEvent(new SeasonMatchesChangedEvent(saved.getTenantId(), saved.getSeason().getId()));
+        return MatchResponses.loaded(saved);
+    }
+
+    // -------------------------------------------------------------------------
+    // Live scorekeeping
+    //
+    // Append-only alternative to submitMatchReport for recording a match as it is played. Every
+    // call costs a constant number of writes (one event row, one conditional UPDATE of the score
+    // and version), however many events the match already has. {@code expectedVersion} is the
+    // match version the caller last saw, or a negative value to skip the check.
+    // -------------------------------------------------------------------------
+
+    /** Puts a scheduled match in play at 0-0. */
+    @Transactional
+    public MatchLiveStateDTO startLiveMatch(UUID matchId, long expectedVersion) {
+        Match match = loadMatch(matchId);
+        if (match.getStatus() != Match.MatchStatus.SCHEDULED) {
+            throw new BusinessRuleException("Solo se puede iniciar un partido programado.");
+        }
+        if (matchRepository.startLive(matchId, expectedVersion, LocalDateTime.now()) == 0) {
+            throw conflict(matchId);
+        }
+        MatchLiveStateDTO state = matchRepository.findLiveState(matchId);
+        publishLiveChange(match, LiveScoreEvent.Type.MATCH_STARTED, null, null, state);
+        return state;
+    }
+
+    /** Records one goal, card or appearance of a match in play; a goal moves the score in the same UPDATE. */
+    @Transactional
+    public MatchLiveStateDTO addLiveEvent(UUID matchId, MatchEvent raw, long expectedVersion) {
+        Match match = loadMatch(matchId);
+        requireInProgress(match);
+        if (raw.getEventType() == null || raw.getEventType() == MatchEvent.MatchEventType.DOUBLE_FORFEIT) {
+            throw new BusinessRuleException("Tipo de evento no válido para un partido en juego.");
+        }
+        UUID teamId = raw.getTeam() != null ? raw.getTeam().getId() : null;
+        if (!isHomeTeam(match, teamId) && !isAwayTeam(match, teamId)) {
+            throw new BusinessRuleException("El equipo del evento no juega este partido.");
+        }
+
+        Player player = null;
+        if (raw.getPlayer() != null && raw.getPlayer().getId() != null) {
+            player = playerRepository.findOnRoster(raw.getPlayer().getId(), teamId, match.getSeason().getId(), match.getTenantId())
+                    .orElseThrow(() -> new BusinessRuleException("El jugador no está registrado en el equipo del evento."));
+        }
+
+        int delta = raw.getEventType() == MatchEvent.MatchEventType.GOAL ? 1 : 0;
+        boolean home = isHomeTeam(match, teamId);
+        if (matchRepository.applyLiveScoreDelta(matchId, home ? delta : 0, home ? 0 : delta,
+                expectedVersion, LocalDateTime.now()) == 0) {
+            throw conflict(matchId);
+        }
+
+        MatchEvent event = new MatchEvent();
+        event.setMatch(match);
+        event.setTenantId(match.getTenantId());
+        event.setTeam(home ? match.getHomeTeam() : match.getAwayTeam());
+        event.setPlayer(player);
+        event.setEventType(raw.getEventType());
+        event.setSuspensionMatchdays(raw.getSuspensionMatchdays());
+        event.setNotes(raw.getNotes());
+        matchEventRepository.save(event);
+
+        MatchLiveStateDTO state = matchRepository.findLiveState(matchId);
+        state.setEventId(event.getId());
+        LiveScoreEvent.Type type = LiveScoreEvent.typeOf(event.getEventType());
+        if (type != null) {
+            publishLiveChange(match, type, teamId, player != null ? player.getId() : null, state);
+        }
+        return state;
+    }
+
+    /** Removes an event recorded by mistake, undoing its effect on the score. */
+    @Transactional
+    public MatchLiveStateDTO retractLiveEvent(UUID matchId, UUID eventId, long expectedVersion) {
+        Match match = loadMatch(matchId);
+        requireInProgress(match);
+        MatchEvent event = matchEventRepository.findByIdAndMatchId(eventId, matchId)
+                .orElseThrow(() -> new ResourceNotFoundException("Match event not found: " + eventId));
+
+        UUID teamId = event.getTeam() != null ? event.getTeam().getId() : null;
+        int delta = event.getEventType() == MatchEvent.MatchEventType.GOAL ? -1 : 0;
+        boolean home = isHomeTeam(match, teamId);
+        if (matchRepository.applyLiveScoreDelta(matchId, home ? delta : 0, home ? 0 : delta,
+                expectedVersion, LocalDateTime.now()) == 0) {
+            throw conflict(matchId);
+        }
+        try {
+            matchEventRepository.delete(event);
+            matchEventRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException | StaleStateException e) {
+            // Another retract of the same event committed first; rolls back this one's score change
+            throw conflict(matchId);
+        }
+
+        MatchLiveStateDTO state = matchRepository.findLiveState(matchId);
+        if (LiveScoreEvent.typeOf(event.getEventType()) != null) {
+            publishLiveChange(match, LiveScoreEvent.Type.EVENT_RETRACTED, teamId,
+                    event.getPlayer() != null ? event.getPlayer().getId() : null, state);
+        }
+        return state;
+    }
+
+    /**
+     * Closes a match in play with its current score: applies red card suspensions, moves the
+     * standings and resolves the playoff tie, as a report submission would.
+     */
+    @RetryOnConflict
+    @Transactional
+    public MatchLiveStateDTO finishLiveMatch(UUID matchId, long expectedVersion) {
+        Match match = loadMatch(matchId);
+        requireInProgress(match);
+        if (expectedVersion >= 0 && expectedVersion != match.getVersion()) {
+            throw conflict(matchId);
+        }
+
+        match.setHomeScore(match.getHomeScore() != null ? match.getHomeScore() : 0);
+        match.setAwayScore(match.getAwayScore() != null ? match.getAwayScore() : 0);
+        match.setStatus(Match.MatchStatus.FINISHED);
+        try {
+            match = matchRepository.saveAndFlush(match);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Without If-Match the caller did not pin a version: let @RetryOnConflict re-run on fresh state
+            if (expectedVersion < 0) throw e;
+            throw conflict(matchId);
+        }
+
+        TenantSettings settings = tenantSettingsService.getCurrentSettings();
+        if (settings != null && settings.isEnableAutoSuspensions()) {
+            Map<UUID, Integer> suspensions = new LinkedHashMap<>();
+            for (MatchEvent redCard : matchEventRepository.findByMatchIdAndEventType(matchId, MatchEvent.MatchEventType.RED_CARD)) {
+                collectAutoSuspension(redCard, match, suspensions);
+            }
+            applyAutoSuspensions(suspensions, match);
+        }
+
+        // IN_PROGRESS never counted in the standings, so there is nothing to reverse
+        standingsProjectionService.applyResult(match, null);
+        eventPublisher.publishEvent(new SeasonMatchesChangedEvent(match.getTenantId(), match.getSeason().getId()));
+        liveScoreHub.publishAfterCommit(LiveScoreEvent.finished(match, LocalDateTime.now()));
+
+        if (MatchStage.PLAYOFFS.equals(match.getStage()) && match.getPlayoffTie() != null) {
+            playoffService.resolveTie(match.getPlayoffTie().getId());
+        }
+        return new MatchLiveStateDTO(match.getId(), match.getStatus(), match.getHomeScore(), match.getAwayScore(), match.getVersion());
     }
 
     // -------------------------------------------------------------------------
     // Private helpers
     // -------------------------------------------------------------------------
 
+    /** Loads a match of the current tenant (find by id bypasses the tenant filter). */
+    private Match loadMatch(UUID matchId) {
+        Match match = matchRepository.findById(matchId)
+                .orElseThrow(() -> new ResourceNotFoundException("Match not found: " + matchId));
+        if (!match.getTenantId().equals(TenantContext.getCurrentTenant())) {
+            throw new ResourceNotFoundException("Match not found: " + matchId);
+        }
+        return match;
+    }
+
+    private void requireInProgress(Match match) {
+        if (match.getStatus() != Match.MatchStatus.IN_PROGRESS) {
+            throw new BusinessRuleException("El partido no está en juego.");
+        }
+    }
+
+    private ConcurrentUpdateException conflict(UUID matchId) {
+        return new ConcurrentUpdateException("El partido " + matchId + " fue modificado por otra persona. Recarga e intenta de nuevo.");
+    }
+
+    private boolean isHomeTeam(Match match, UUID teamId) {
+        return teamId != null && match.getHomeTeam() != null && teamId.equals(match.getHomeTeam().getId());
+    }
+
+    private boolean isAwayTeam(Match match, UUID teamId) {
+        return teamId != null && match.getAwayTeam() != null && teamId.equals(match.getAwayTeam().getId());
+    }
+
+    private void publishLiveChange(Match match, LiveScoreEvent.Type type, UUID teamId, UUID playerId, MatchLiveStateDTO state) {
+        eventPublisher.publishEvent(new SeasonMatchesChangedEvent(match.getTenantId(), match.getSeason().getId()));
+        liveScoreHub.publishAfterCommit(new LiveScoreEvent(match.getTenantId(), match.getSeason().getId(), match.getId(),
+                type, teamId, playerId, state.getHomeScore(), state.getAwayScore(), LocalDateTime.now()));
+    }
+
+    /** Loads every player referenced by the report in one query. */
+    private Map<UUID, Player> resolvePlayers(List<MatchEvent> events) {
+        Set<UUID> ids = new HashSet<>();
+        for (MatchEvent raw : events) {
+            if (raw.getPlayer() != null && raw.getPlayer().getId() != null) ids.add(raw.getPlayer().getId());
+        }
+        if (ids.isEmpty()) return Map.of();
+        return playerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Player::getId, Function.identity()));
+    }
+
+    /** Loads every team referenced by the report in one query. */
+    private Map<UUID, Team> resolveTeams(List<MatchEvent> events) {
+        Set<UUID> ids = new HashSet<>();
+        for (MatchEvent raw : events) {
+            if (raw.getTeam() != null && raw.getTeam().getId() != null) ids.add(raw.getTeam().getId());
+        }
+        if (ids.isEmpty()) return Map.of();
+        return teamRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+    }
+
+    /**
+     * Applies the incoming report on top of the stored events. Events are paired by type, player
+     * and team (repeated goals pair one by one); unpaired incoming events are inserted, unpaired
+     * stored events deleted, and paired ones updated when notes or suspension length differ.
+     *
+     * @param inserted receives the events that were not stored before
+     * @return red cards that are new or whose suspension changed, i.e. those that must (re)apply a suspension
+     */
+    private List<MatchEvent> reconcileEvents(UUID matchId, List<MatchEvent> incoming, List<MatchEvent> inserted) {
+        List<MatchEvent> stored = matchEventRepository.findByMatchId(matchId);
+
+        Map<EventKey, Deque<MatchEvent>> storedByKey = new HashMap<>();
+        for (MatchEvent event : stored) {
+            storedByKey.computeIfAbsent(EventKey.of(event), k -> new ArrayDeque<>()).add(event);
+        }
+
+        List<MatchEvent> toInsert = new ArrayList<>();
+        List<MatchEvent> suspensionSources = new ArrayList<>();
+        for (MatchEvent event : incoming) {
+            Deque<MatchEvent> candidates = storedByKey.get(EventKey.of(event));
+            MatchEvent existing = candidates != null ? candidates.pollFirst() : null;
+            boolean isRedCard = event.getEventType() == MatchEvent.MatchEventType.RED_CARD;
+
+            if (existing == null) {
+                toInsert.add(event);
+                if (isRedCard) suspensionSources.add(event);
+                continue;
+            }
+
+            boolean suspensionChanged = !Objects.equals(existing.getSuspensionMatchdays(), event.getSuspensionMatchdays());
+            if (suspensionChanged || !Objects.equals(existing.getNotes(), event.getNotes())) {
+                // Managed entity: dirty checking issues the UPDATE at flush
+                existing.setSuspensionMatchdays(event.getSuspensionMatchdays());
+                existing.setNotes(event.getNotes());
+            }
+            if (isRedCard && suspensionChanged) suspensionSources.add(existing);
+        }
+
+        List<MatchEvent> toDelete = new ArrayList<>();
+        storedByKey.values().forEach(toDelete::addAll);
+        if (!toDelete.isEmpty()) {
+            if (toDelete.size() == stored.size()) {
+                matchEventRepository.deleteByMatchId(matchId);
+            } else {
+                matchEventRepository.deleteAllInBatch(toDelete);
+            }
+        }
+        if (!toInsert.isEmpty()) {
+            matchEventRepository.saveAll(toInsert);
+            inserted.addAll(toInsert);
+        }
+        return suspensionSources;
+    }
+
+    /**
+     * Pushes the report to the season's live feed once the transaction commits: goals and cards
+     * that were not reported before, then the final score.
+     */
+    private void publishLiveEvents(Match match, List<MatchEvent> inserted) {
+        UUID seasonId = match.getSeason().getId();
+        LocalDateTime now = LocalDateTime.now();
+        for (MatchEvent event : inserted) {
+            LiveScoreEvent.Type type = LiveScoreEvent.typeOf(event.getEventType());
+            if (type == null) continue;
+            liveScoreHub.publishAfterCommit(new LiveScoreEvent(match.getTenantId(), seasonId, match.getId(), type,
+                    event.getTeam() != null ? event.getTeam().getId() : null,
+                    event.getPlayer() != null ? event.getPlayer().getId() : null,
+                    match.getHomeScore(), match.getAwayScore(), now));
+        }
+        liveScoreHub.publishAfterCommit(LiveScoreEvent.finished(match, now));
+    }
+
     /** Factory method that creates a persisted MatchEvent from a raw incoming event. */
-    private MatchEvent buildMatchEvent(MatchEvent raw, Match match) {
+    private MatchEvent buildMatchEvent(MatchEvent raw, Match match, Map<UUID, Player> players, Map<UUID, Team> teams) {
         MatchEvent event = new MatchEvent();
         event.setMatch(match);
         event.setTenantId(match.getTenantId());
 
         if (raw.getPlayer() != null && raw.getPlayer().getId() != null) {
-            Player player = playerRepository.findById(raw.getPlayer().getId()).orElse(null);
-            event.setPlayer(player);
+            event.setPlayer(players.get(raw.getPlayer().getId()));
         } else {
             event.setPlayer(null);
         }
 
-        if (raw.getTeam() != null && raw.getTeam().getId() != null) {
-            Team team = teamRepository.findById(raw.getTeam().getId()).orElse(null);
-            event.setTeam(team != null ? team : match.getHomeTeam());
-        } else {
-            event.setTeam(match.getHomeTeam());
-        }
+        Team team = raw.getTeam() != null && raw.getTeam().getId() != null ? teams.get(raw.getTeam().getId()) : null;
+        event.setTeam(team != null ? team : match.getHomeTeam());
 
         event.setEventType(raw.getEventType());
         event.setSuspensionMatchdays(raw.getSuspensionMatchdays());
@@ -156,13 +466,32 @@ public class MatchService {
         return event;
     }
 
-    private void applyAutoSuspension(MatchEvent event, Match match) {
+    /** Records the suspension a red card implies; a later card for the same player in the report wins. */
+    private void collectAutoSuspension(MatchEvent event, Match match, Map<UUID, Integer> suspensions) {
         if (event.getPlayer() == null) return;
-        Player player = playerRepository.findById(event.getPlayer().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Player not found: " + event.getPlayer().getId()));
         int suspensionDuration = event.getSuspensionMatchdays() != null ? event.getSuspensionMatchdays() : 1;
         int currentMatchday = match.getMatchday() != null ? match.getMatchday() : 0;
-        player.setSuspendedUntilMatchday(currentMatchday + suspensionDuration);
-        playerRepository.save(player);
+        suspensions.put(event.getPlayer().getId(), currentMatchday + suspensionDuration);
+    }
+
+    /** Writes the collected suspensions with one bulk UPDATE per distinct end matchday (usually one). */
+    private void applyAutoSuspensions(Map<UUID, Integer> suspensions, Match match) {
+        if (suspensions.isEmpty()) return;
+        Map<Integer, List<UUID>> playersByEnd = suspensions.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        LocalDateTime now = LocalDateTime.now();
+        playersByEnd.forEach((untilMatchday, playerIds) ->
+                playerRepository.updateSuspendedUntilMatchday(playerIds, untilMatchday, match.getTenantId(), now));
+    }
+
+    /** Identity of an event within a match report; notes and suspension length are mutable attributes. */
+    private record EventKey(MatchEvent.MatchEventType type, UUID playerId, UUID teamId) {
+        static EventKey of(MatchEvent event) {
+            return new EventKey(
+                    event.getEventType(),
+                    event.getPlayer() != null ? event.getPlayer().getId() : null,
+                    event.getTeam() != null ? event.getTeam().getId() : null);
+        }
     }
 }
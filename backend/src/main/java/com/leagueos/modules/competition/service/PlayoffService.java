@@ -4,6 +4,7 @@ import com.leagueos.modules.competition.domain.Match;
 import com.leagueos.modules.competition.domain.MatchStage;
 import com.leagueos.modules.competition.domain.PlayoffRound;
 import com.leagueos.modules.competition.domain.PlayoffTie;
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
 import com.leagueos.modules.competition.persistence.MatchRepository;
 import com.leagueos.modules.competition.persistence.PlayoffTieRepository;
 import com.leagueos.modules.league.domain.Season;
@@ -11,7 +12,9 @@ import com.leagueos.modules.league.domain.Team;
 import com.leagueos.modules.league.persistence.SeasonRepository;
 import com.leagueos.modules.league.persistence.TeamRepository;
 import com.leagueos.shared.domain.exception.ResourceNotFoundException;
+import com.leagueos.shared.infrastructure.aspect.RetryOnConflict;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +31,8 @@ public class PlayoffService {
     private final MatchRepository matchRepository;
     private final SeasonRepository seasonRepository;
     private final TeamRepository teamRepository;
+    private final StandingsProjectionService standingsProjectionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Seed matchups per round (0-based indices into the seededTeamIds list).
@@ -114,9 +119,17 @@ public class PlayoffService {
         }
     }
 
+    /**
+     * Advances the winner of a tie once all its legs are finished. Called once per finished leg, so
+     * legs finishing concurrently race here: the tie is loaded with a forced version bump, making
+     * all but one of the racing transactions fail and re-run (seeing the other legs' results), and
+     * the next tie's own version keeps two sibling ties from seeding the same slot. Repeating the
+     * call for an already propagated winner changes nothing.
+     */
+    @RetryOnConflict
     @Transactional
     public void resolveTie(UUID tieId) {
-        PlayoffTie tie = playoffTieRepository.findById(tieId)
+        PlayoffTie tie = playoffTieRepository.findForResolution(tieId)
                 .orElseThrow(() -> new ResourceNotFoundException("Tie not found: " + tieId));
 
         List<Match> matchLegs = matchRepository.findByPlayoffTieId(tieId);
@@ -130,6 +143,7 @@ public class PlayoffService {
 
         if (tie.getNextTieId() != null) {
             playoffTieRepository.findById(tie.getNextTieId()).ifPresent(nextTie -> {
+                if (isSeeded(nextTie, winner)) return;
                 if (nextTie.getHomeSeedTeam() == null) {
                     nextTie.setHomeSeedTeam(winner);
                 } else if (nextTie.getAwaySeedTeam() == null) {
@@ -139,6 +153,7 @@ public class PlayoffService {
                 playoffTieRepository.save(nextTie);
             });
         }
+        eventPublisher.publishEvent(new SeasonMatchesChangedEvent(tie.getTenantId(), tie.getSeason().getId()));
     }
 
     @Transactional
@@ -148,6 +163,8 @@ public class PlayoffService {
         playoffTieRepository.saveAll(ties);
         matchRepository.deleteBySeasonIdAndStage(seasonId, MatchStage.PLAYOFFS);
         playoffTieRepository.deleteBySeasonId(seasonId);
+        // Finished playoff legs count towards the table, so it must be replayed without them
+        standingsProjectionService.invalidate(seasonId);
     }
 
     // -------------------------------------------------------------------------
@@ -197,6 +214,11 @@ public class PlayoffService {
         }
     }
 
+    private boolean isSeeded(PlayoffTie tie, Team team) {
+        return (tie.getHomeSeedTeam() != null && tie.getHomeSeedTeam().getId().equals(team.getId()))
+                || (tie.getAwaySeedTeam() != null && tie.getAwaySeedTeam().getId().equals(team.getId()));
+    }
+
     private Team determineWinner(PlayoffTie tie, List<Match> matchLegs) {
         Team team1 = tie.getHomeSeedTeam();
         Team team2 = tie.getAwaySeedTeam();
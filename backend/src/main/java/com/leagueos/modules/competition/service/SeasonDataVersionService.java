@@ -0,0 +1,42 @@
+package com.leagueos.modules.competition.service;
+
+import com.leagueos.modules.competition.api.dto.SeasonDataVersionDTO;
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
+import com.leagueos.modules.league.persistence.SeasonRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps seasons.data_version in step with their match data. Public endpoints build their ETags
+ * from these versions, so a poll can be answered without running the stats queries.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeasonDataVersionService {
+
+    private final SeasonRepository seasonRepository;
+
+    /**
+     * Bumps the version inside the transaction that changed the season, as its last statement:
+     * the version can never run ahead of or behind the data, and the season row lock is held only
+     * while the transaction commits.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(SeasonMatchesChangedEvent event) {
+        if (event.seasonId() != null) {
+            seasonRepository.bumpDataVersion(event.seasonId(), LocalDateTime.now());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SeasonDataVersionDTO> getVersions(UUID tenantId) {
+        return seasonRepository.findDataVersionsByTenantId(tenantId);
+    }
+}
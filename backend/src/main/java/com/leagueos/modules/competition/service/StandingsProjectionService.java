@@ -0,0 +1,297 @@
+package com.leagueos.modules.competition.service;
+
+import com.leagueos.core.sport.domain.SportRulesService;
+import com.leagueos.core.sport.domain.SportRulesStrategy;
+import com.leagueos.modules.competition.api.dto.MatchResultSummaryDTO;
+import com.leagueos.modules.competition.domain.Match;
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
+import com.leagueos.modules.competition.domain.TeamStanding;
+import com.leagueos.modules.competition.persistence.MatchRepository;
+import com.leagueos.modules.competition.persistence.TeamStandingRepository;
+import com.leagueos.modules.league.domain.TeamRegistration;
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.persistence.SeasonRepository;
+import com.leagueos.modules.league.persistence.TeamRegistrationRepository;
+import com.leagueos.modules.tenant.domain.WinPointsChangedEvent;
+import com.leagueos.modules.tenant.service.TenantSettingsService;
+import com.leagueos.shared.context.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintains the persisted per-season standings table (team_standings).
+ *
+ * Results are applied incrementally as matches finish; a resubmitted result is first
+ * reversed using the snapshot captured before the match was modified. Anything that
+ * changes the set of teams or bulk-edits matches invalidates the season instead, and
+ * the next read rebuilds it from the finished matches. A new points-per-win setting
+ * invalidates every season of the tenant.
+ */
+@Service
+@RequiredArgsConstructor
+public class StandingsProjectionService {
+
+    private static final int FORM_LENGTH = 5;
+
+    /** Same order as {@link TeamStandingRepository#findRankedBySeasonId}. */
+    private static final Comparator<TeamStanding> RANKING = Comparator
+            .comparingInt(TeamStanding::getPoints).reversed()
+            .thenComparing(Comparator.comparingInt(TeamStanding::getGoalDifference).reversed())
+            .thenComparing(Comparator.comparingInt(TeamStanding::getGoalsFor).reversed())
+            .thenComparing(row -> row.getTeam().getName(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final TeamStandingRepository teamStandingRepository;
+    private final TeamRegistrationRepository teamRegistrationRepository;
+    private final MatchRepository matchRepository;
+    private final TenantSettingsService tenantSettingsService;
+    private final SportRulesService sportRulesService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeasonRepository seasonRepository;
+
+    /**
+     * Applies the current result of a match to the standings, reversing {@code previous} first.
+     * Seasons that have not been projected yet are skipped; they are rebuilt on the next read.
+     */
+    @Transactional
+    public void applyResult(Match match, ResultSnapshot previous) {
+        ResultSnapshot current = ResultSnapshot.of(match);
+        if (current == null && previous == null) return;
+
+        UUID seasonId = match.getSeason().getId();
+        Set<UUID> teamIds = new LinkedHashSet<>();
+        for (ResultSnapshot snapshot : new ResultSnapshot[]{previous, current}) {
+            if (snapshot != null) {
+                teamIds.add(snapshot.getHomeTeamId());
+                teamIds.add(snapshot.getAwayTeamId());
+            }
+        }
+
+        Map<UUID, TeamStanding> rows = new HashMap<>();
+        for (TeamStanding row : teamStandingRepository.findForUpdate(seasonId, teamIds)) {
+            rows.put(row.getTeam().getId(), row);
+        }
+        if (rows.isEmpty()) return;
+
+        SportRulesStrategy rules = resolveRules();
+        int winPoints = tenantSettingsService.getCurrentSettings().getWinPointsOnWin();
+
+        if (previous != null) {
+            apply(rows.get(previous.getHomeTeamId()), rows.get(previous.getAwayTeamId()), previous, -1, rules, winPoints);
+        }
+        if (current != null) {
+            apply(rows.get(current.getHomeTeamId()), rows.get(current.getAwayTeamId()), current, 1, rules, winPoints);
+        }
+
+        for (TeamStanding row : rows.values()) {
+            row.setForm(loadRecentForm(seasonId, row.getTeam().getId()));
+        }
+        teamStandingRepository.saveAll(rows.values());
+    }
+
+    /** Drops the projected rows of a season; the next standings read rebuilds them. */
+    @Transactional
+    public void invalidate(UUID seasonId) {
+        teamStandingRepository.deleteBySeasonId(seasonId);
+        eventPublisher.publishEvent(new SeasonMatchesChangedEvent(TenantContext.getCurrentTenant(), seasonId));
+    }
+
+    /** Runs inside the settings update, so the tables are dropped only if the new value commits. */
+    @EventListener
+    @Transactional
+    public void on(WinPointsChangedEvent event) {
+        for (Season season : seasonRepository.findByTenantId(event.tenantId())) {
+            teamStandingRepository.deleteBySeasonId(season.getId());
+            eventPublisher.publishEvent(new SeasonMatchesChangedEvent(event.tenantId(), season.getId()));
+        }
+    }
+
+    /** Whether the season has approved teams, i.e. whether a rebuild would produce any rows. */
+    @Transactional(readOnly = true)
+    public boolean hasApprovedTeams(UUID seasonId) {
+        return teamRegistrationRepository.existsBySeasonIdAndStatus(seasonId, TeamRegistration.RegistrationStatus.APPROVED);
+    }
+
+    /**
+     * Replays every finished match of the season into fresh standings rows and returns them ranked.
+     * Runs in its own transaction so it can be triggered from read-only callers, which should use
+     * the returned rows: a read-only caller may read from a replica that has not caught up yet.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<TeamStanding> rebuild(UUID seasonId) {
+        teamStandingRepository.deleteBySeasonId(seasonId);
+
+        List<TeamRegistration> registrations = teamRegistrationRepository.findBySeasonIdAndStatus(
+                seasonId, TeamRegistration.RegistrationStatus.APPROVED);
+        if (registrations.isEmpty()) return List.of();
+
+        Map<UUID, TeamStanding> rows = new LinkedHashMap<>();
+        Map<UUID, List<String>> forms = new HashMap<>();
+        for (TeamRegistration reg : registrations) {
+            TeamStanding row = new TeamStanding();
+            row.setTenantId(reg.getTenantId());
+            row.setSeason(reg.getSeason());
+            row.setTeam(reg.getTeam());
+            rows.put(reg.getTeam().getId(), row);
+            forms.put(reg.getTeam().getId(), new ArrayList<>());
+        }
+
+        SportRulesStrategy rules = resolveRules();
+        int winPoints = tenantSettingsService.getCurrentSettings().getWinPointsOnWin();
+
+        for (MatchResultSummaryDTO match : matchRepository.findFinishedMatchSummariesBySeasonId(seasonId)) {
+            ResultSnapshot snapshot = ResultSnapshot.of(match);
+            if (snapshot == null) continue;
+            TeamStanding home = rows.get(snapshot.getHomeTeamId());
+            TeamStanding away = rows.get(snapshot.getAwayTeamId());
+            if (home == null || away == null) continue;
+
+            apply(home, away, snapshot, 1, rules, winPoints);
+            forms.get(snapshot.getHomeTeamId()).add(formLetter(snapshot, snapshot.getHomeTeamId()));
+            forms.get(snapshot.getAwayTeamId()).add(formLetter(snapshot, snapshot.getAwayTeamId()));
+        }
+
+        rows.forEach((teamId, row) -> {
+            List<String> form = forms.get(teamId);
+            row.setForm(String.join("", form.subList(Math.max(0, form.size() - FORM_LENGTH), form.size())));
+        });
+        teamStandingRepository.saveAll(rows.values());
+
+        List<TeamStanding> ranked = new ArrayList<>(rows.values());
+        ranked.sort(RANKING);
+        return ranked;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /** Adds (sign = 1) or removes (sign = -1) one result from both teams' totals. */
+    private void apply(TeamStanding home, TeamStanding away, ResultSnapshot result, int sign,
+                       SportRulesStrategy rules, int winPoints) {
+        if (home == null || away == null) return;
+
+        int homeScore = result.getHomeScore();
+        int awayScore = result.getAwayScore();
+
+        applyGoalStats(home, homeScore, awayScore, sign);
+        applyGoalStats(away, awayScore, homeScore, sign);
+
+        if (result.isDoubleForfeit()) {
+            home.setLost(home.getLost() + sign);
+            away.setLost(away.getLost() + sign);
+            return;
+        }
+
+        if (homeScore > awayScore) {
+            int pts = rules.calculateMatchPoints(buildResult(homeScore, awayScore, true), winPoints);
+            home.setWon(home.getWon() + sign);
+            home.setPoints(home.getPoints() + sign * pts);
+            away.setLost(away.getLost() + sign);
+        } else if (homeScore < awayScore) {
+            int pts = rules.calculateMatchPoints(buildResult(homeScore, awayScore, false), winPoints);
+            away.setWon(away.getWon() + sign);
+            away.setPoints(away.getPoints() + sign * pts);
+            home.setLost(home.getLost() + sign);
+        } else {
+            int pts = rules.calculateMatchPoints(buildResult(homeScore, awayScore, true), winPoints);
+            home.setDrawn(home.getDrawn() + sign);
+            home.setPoints(home.getPoints() + sign * pts);
+            away.setDrawn(away.getDrawn() + sign);
+            away.setPoints(away.getPoints() + sign * pts);
+        }
+    }
+
+    private void applyGoalStats(TeamStanding team, int goalsFor, int goalsAgainst, int sign) {
+        team.setPlayed(team.getPlayed() + sign);
+        team.setGoalsFor(team.getGoalsFor() + sign * goalsFor);
+        team.setGoalsAgainst(team.getGoalsAgainst() + sign * goalsAgainst);
+    }
+
+    private String loadRecentForm(UUID seasonId, UUID teamId) {
+        List<MatchResultSummaryDTO> recent = matchRepository.findRecentFinishedMatchSummariesByTeam(
+                seasonId, teamId, PageRequest.of(0, FORM_LENGTH));
+        StringBuilder form = new StringBuilder();
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            ResultSnapshot snapshot = ResultSnapshot.of(recent.get(i));
+            if (snapshot != null) {
+                form.append(formLetter(snapshot, teamId));
+            }
+        }
+        return form.toString();
+    }
+
+    private String formLetter(ResultSnapshot result, UUID teamId) {
+        if (result.isDoubleForfeit()) return "L";
+        boolean isHome = teamId.equals(result.getHomeTeamId());
+        int scored = isHome ? result.getHomeScore() : result.getAwayScore();
+        int conceded = isHome ? result.getAwayScore() : result.getHomeScore();
+        if (scored > conceded) return "W";
+        if (scored < conceded) return "L";
+        return "D";
+    }
+
+    private SportRulesStrategy resolveRules() {
+        return sportRulesService.getStrategy("SOCCER")
+                .orElseThrow(() -> new IllegalStateException("No se encontró una estrategia de reglas para el deporte SOCCER."));
+    }
+
+    private SportRulesStrategy.MatchResult buildResult(int homeScore, int awayScore, boolean isHomeTeam) {
+        return SportRulesStrategy.MatchResult.builder()
+                .homeScore(homeScore)
+                .awayScore(awayScore)
+                .isHomeTeam(isHomeTeam)
+                .build();
+    }
+
+    /**
+     * Immutable copy of a finished match result. Callers capture one before mutating a match
+     * so the old result can be reversed; {@code null} means the match did not count yet.
+     */
+    @Value
+    public static class ResultSnapshot {
+        UUID homeTeamId;
+        UUID awayTeamId;
+        int homeScore;
+        int awayScore;
+        boolean doubleForfeit;
+
+        public static ResultSnapshot of(Match match) {
+            if (match.getStatus() != Match.MatchStatus.FINISHED
+                    || match.getHomeTeam() == null || match.getAwayTeam() == null) {
+                return null;
+            }
+            return new ResultSnapshot(
+                    match.getHomeTeam().getId(),
+                    match.getAwayTeam().getId(),
+                    match.getHomeScore() != null ? match.getHomeScore() : 0,
+                    match.getAwayScore() != null ? match.getAwayScore() : 0,
+                    Boolean.TRUE.equals(match.getIsDoubleForfeit()));
+        }
+
+        static ResultSnapshot of(MatchResultSummaryDTO match) {
+            if (match.getHomeTeamId() == null || match.getAwayTeamId() == null) return null;
+            return new ResultSnapshot(
+                    match.getHomeTeamId(),
+                    match.getAwayTeamId(),
+                    match.getHomeScore() != null ? match.getHomeScore() : 0,
+                    match.getAwayScore() != null ? match.getAwayScore() : 0,
+                    Boolean.TRUE.equals(match.getIsDoubleForfeit()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.leagueos.modules.competition.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
+import com.leagueos.shared.context.TenantContext;
+import com.leagueos.shared.infrastructure.cache.CacheLoads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache for the public stats views (standings, scorers, discipline).
+ *
+ * Entries are keyed by tenant, view and the set of seasons they were computed from, and are
+ * dropped as soon as a {@link SeasonMatchesChangedEvent} for any of those seasons commits.
+ * Hit/miss/eviction counters are published as the "stats" cache in /actuator/metrics.
+ */
+@Slf4j
+@Component
+public class StatsCache {
+
+    public enum View {
+        STANDINGS,
+        TOP_SCORERS,
+        RED_CARDS_BY_PLAYER,
+        RED_CARDS_BY_PLAYER_MATCHDAY,
+        RED_CARDS_BY_TEAM
+    }
+
+    private record Key(UUID tenantId, View view, Set<UUID> seasonIds, Object discriminator) {
+    }
+
+    private final AsyncCache<Key, Object> cache;
+    private final Counter invalidations;
+
+    public StatsCache(
+            @Value("${app.cache.stats.max-entries:2000}") long maxEntries,
+            @Value("${app.cache.stats.ttl-minutes:30}") long ttlMinutes,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "stats");
+        this.invalidations = Counter.builder("stats.cache.invalidations")
+                .description("Stats cache entries dropped because a match in their seasons changed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached value for the current tenant, or computes and stores it.
+     * {@code discriminator} distinguishes variants of a view over the same seasons (e.g. matchday).
+     * The loader runs on the calling thread, outside the cache lock (see {@link CacheLoads}).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(View view, Collection<UUID> seasonIds, Object discriminator, Supplier<T> loader) {
+        Key key = new Key(TenantContext.getCurrentTenant(), view, Set.copyOf(seasonIds), discriminator);
+        return (T) CacheLoads.getOrLoad(cache, key, k -> loader.get());
+    }
+
+    public void evictSeason(UUID tenantId, UUID seasonId) {
+        AtomicInteger dropped = new AtomicInteger();
+        cache.asMap().keySet().removeIf(key -> {
+            boolean affected = key.seasonIds().contains(seasonId)
+                    && (tenantId == null || key.tenantId() == null || tenantId.equals(key.tenantId()));
+            if (affected) dropped.incrementAndGet();
+            return affected;
+        });
+        int removed = dropped.get();
+        if (removed > 0) {
+            invalidations.increment(removed);
+            log.debug("StatsCache: dropped {} entries for season {}", removed, seasonId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(SeasonMatchesChangedEvent event) {
+        evictSeason(event.tenantId(), event.seasonId());
+    }
+}
@@ -1,42 +1,50 @@
 package com.leagueos.modules.competition.service;
 
-import com.leagueos.core.sport.domain.SportRulesService;
-import com.leagueos.core.sport.domain.SportRulesStrategy;
-import com.leagueos.modules.competition.api.dto.MatchResultSummaryDTO;
+import com.leagueos.modules.competition.api.dto.LiveMatchScoreDTO;
 import com.leagueos.modules.competition.api.dto.PlayerProfileStatsDTO;
 import com.leagueos.modules.competition.api.dto.PlayerScorerDTO;
+import com.leagueos.modules.competition.api.dto.PlayerSeasonStatsDTO;
 import com.leagueos.modules.competition.api.dto.PlayerStatDTO;
 import com.leagueos.modules.competition.api.dto.TeamStandingDTO;
 import com.leagueos.modules.competition.api.dto.TeamStatDTO;
-import com.leagueos.modules.competition.domain.MatchEvent;
+import com.leagueos.modules.competition.domain.TeamStanding;
 import com.leagueos.modules.competition.persistence.MatchEventRepository;
 import com.leagueos.modules.competition.persistence.MatchRepository;
-import com.leagueos.modules.league.domain.TeamRegistration;
-import com.leagueos.modules.league.persistence.TeamRegistrationRepository;
-import com.leagueos.modules.tenant.domain.TenantSettings;
-import com.leagueos.modules.tenant.service.TenantSettingsService;
+import com.leagueos.modules.competition.persistence.TeamStandingRepository;
+import com.leagueos.modules.league.persistence.SeasonRepository;
+import com.leagueos.modules.media.service.ImageDerivativeService;
+import com.leagueos.shared.domain.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class StatsService {
 
     private final MatchEventRepository matchEventRepository;
+    private final TeamStandingRepository teamStandingRepository;
+    private final StandingsProjectionService standingsProjectionService;
+    private final ImageDerivativeService imageDerivativeService;
     private final MatchRepository matchRepository;
-    private final TeamRegistrationRepository teamRegistrationRepository;
-    private final TenantSettingsService tenantSettingsService;
-    private final SportRulesService sportRulesService;
-    private final com.leagueos.modules.media.service.StorageService storageService;
+    private final SeasonRepository seasonRepository;
+
+    /**
+     * Current score of the season's in-progress matches, sent first to a live feed subscriber. Runs in
+     * its own short transaction so the connection is back in the pool before the feed is opened.
+     */
+    @Transactional(readOnly = true)
+    public List<LiveMatchScoreDTO> getLiveScoreSnapshot(UUID tenantId, UUID seasonId) {
+        seasonRepository.findByIdAndTenantId(seasonId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Season not found: " + seasonId));
+        return matchRepository.findLiveScoresBySeasonId(seasonId);
+    }
 
     @Transactional(readOnly = true)
     public List<PlayerStatDTO> getTopRedCardsByPlayerForSeason(List<UUID> seasonIds) {
@@ -61,7 +69,7 @@ public class StatsService {
             if (rawPhoto != null && !rawPhoto.isBlank()) {
                 if (!rawPhoto.startsWith("http://") && !rawPhoto.startsWith("https://") && !rawPhoto.startsWith("data:")) {
                     try {
-                        scorer.setProfilePhotoUrl(storageService.getSignedUrl(rawPhoto, 120));
+                        scorer.setProfilePhotoUrl(imageDerivativeService.getSignedUrl(rawPhoto, ImageDerivativeService.THUMBNAIL, 120));
                     } catch (Exception e) {
                         // ignore fallback to raw key
                     }
@@ -79,105 +87,98 @@ public class StatsService {
 
     @Transactional(readOnly = true)
     public PlayerProfileStatsDTO getPlayerProfileStats(UUID playerId) {
-        int goals = matchEventRepository.countEventsByPlayerIdAndEventType(playerId, MatchEvent.MatchEventType.GOAL);
-        int yellowCards = matchEventRepository.countEventsByPlayerIdAndEventType(playerId, MatchEvent.MatchEventType.YELLOW_CARD);
-        int redCards = matchEventRepository.countEventsByPlayerIdAndEventType(playerId, MatchEvent.MatchEventType.RED_CARD);
-
-        int matchesPlayed = matchEventRepository.countMatchesByPlayerIdAndEventType(playerId, MatchEvent.MatchEventType.APPEARANCE);
+        List<PlayerSeasonStatsDTO> rows = matchEventRepository.findSeasonStatsByPlayerId(playerId);
+        List<PlayerSeasonStatsDTO> seasons = rows.stream().filter(row -> row.getSeasonId() != null).toList();
 
-        // Fallback: count distinct matches where the player appeared (only APPEARANCE events are reliable)
-        // Note: summing other event types risks double-counting matches where a player scored AND got carded.
-        if (matchesPlayed == 0) {
-            matchesPlayed = matchEventRepository.countDistinctMatchesByPlayerId(playerId);
-        }
-
-        return PlayerProfileStatsDTO.builder()
+        PlayerProfileStatsDTO.PlayerProfileStatsDTOBuilder profile = PlayerProfileStatsDTO.builder()
                 .playerId(playerId)
+                .seasons(seasons);
+        int matchesPlayed = 0, goals = 0, yellowCards = 0, redCards = 0;
+        for (PlayerSeasonStatsDTO season : seasons) {
+            matchesPlayed += season.getMatchesPlayed();
+            goals += season.getGoals();
+            yellowCards += season.getYellowCards();
+            redCards += season.getRedCards();
+        }
+        // A player-level value repeated on every row, including the season-less row of a player without events
+        rows.stream()
+                .map(PlayerSeasonStatsDTO::getSuspendedUntilMatchday)
+                .filter(Objects::nonNull)
+                .max(Integer::compare)
+                .ifPresent(profile::suspendedUntilMatchday);
+
+        return profile
+                .matchesPlayed(matchesPlayed)
                 .goals(goals)
                 .yellowCards(yellowCards)
                 .redCards(redCards)
-                .matchesPlayed(matchesPlayed)
-                .suspendedUntilMatchday(null)
                 .build();
     }
 
+    /**
+     * Reads the persisted standings projection for a season. The projection is maintained
+     * incrementally as results come in; if a season with teams has not been projected yet it is
+     * rebuilt once, and the rebuilt rows are used as they are (see {@link #rebuildStandings}).
+     * Seasons without approved teams have no rows to project and are answered without a write.
+     */
     @Transactional(readOnly = true)
     public List<TeamStandingDTO> calculateStandings(UUID seasonId) {
-        List<TeamRegistration> registrations = teamRegistrationRepository.findBySeasonIdAndStatus(
-                seasonId, TeamRegistration.RegistrationStatus.APPROVED);
+        List<TeamStanding> rows = teamStandingRepository.findRankedBySeasonId(seasonId);
+        if (rows.isEmpty() && standingsProjectionService.hasApprovedTeams(seasonId)) {
+            rows = rebuildStandings(seasonId);
+        }
 
-        Map<UUID, TeamStandingDTO> standingsMap = new HashMap<>();
-        for (TeamRegistration reg : registrations) {
-            String logoKey = reg.getTeam().getLogoUrl();
+        List<TeamStandingDTO> standings = new ArrayList<>(rows.size());
+        for (TeamStanding row : rows) {
+            String logoKey = row.getTeam().getLogoUrl();
             String signedLogo = null;
             if (logoKey != null && !logoKey.isBlank()) {
                 try {
-                    signedLogo = logoKey.startsWith("http") ? logoKey : storageService.getSignedUrl(logoKey, 120);
+                    signedLogo = logoKey.startsWith("http") ? logoKey : imageDerivativeService.getSignedUrl(logoKey, ImageDerivativeService.ICON, 120);
                 } catch (Exception ignored) {
                     signedLogo = logoKey;
                 }
             }
 
-            standingsMap.put(reg.getTeam().getId(), TeamStandingDTO.builder()
-                    .id(reg.getTeam().getId())
-                    .team(reg.getTeam().getName())
+            List<String> form = new ArrayList<>();
+            for (char result : row.getForm().toCharArray()) {
+                form.add(String.valueOf(result));
+            }
+
+            standings.add(TeamStandingDTO.builder()
+                    .id(row.getTeam().getId())
+                    .rank(standings.size() + 1)
+                    .team(row.getTeam().getName())
                     .logoUrl(logoKey)
                     .signedLogoUrl(signedLogo)
-                    .played(0).won(0).drawn(0).lost(0)
-                    .goalsFor(0).goalsAgainst(0).goalDifference(0)
-                    .points(0)
-                    .form(new ArrayList<>())
+                    .played(row.getPlayed()).won(row.getWon()).drawn(row.getDrawn()).lost(row.getLost())
+                    .goalsFor(row.getGoalsFor()).goalsAgainst(row.getGoalsAgainst())
+                    .goalDifference(row.getGoalDifference())
+                    .points(row.getPoints())
+                    .form(form)
                     .build());
         }
-
-        List<MatchResultSummaryDTO> matches = matchRepository.findFinishedMatchSummariesBySeasonId(seasonId);
-
-        TenantSettings settings = tenantSettingsService.getCurrentSettings();
-        int winPoints = settings.getWinPointsOnWin();
-        SportRulesStrategy rulesStrategy = sportRulesService.getStrategy("SOCCER")
-                .orElseThrow(() -> new IllegalStateException("No se encontró una estrategia de reglas para el deporte SOCCER."));
-
-        for (MatchResultSummaryDTO match : matches) {
-            if (match.getHomeTeamId() == null || match.getAwayTeamId() == null) continue;
-            TeamStandingDTO home = standingsMap.get(match.getHomeTeamId());
-            TeamStandingDTO away = standingsMap.get(match.getAwayTeamId());
-            if (home == null || away == null) continue;
-
-            int homeScore = match.getHomeScore() != null ? match.getHomeScore() : 0;
-            int awayScore = match.getAwayScore() != null ? match.getAwayScore() : 0;
-
-            applyGoalStats(home, homeScore, awayScore);
-            applyGoalStats(away, awayScore, homeScore);
-
-            applyMatchResult(home, away, match, homeScore, awayScore, rulesStrategy, winPoints);
-        }
-
-        // Truncate form to last 5 matches
-        standingsMap.values().forEach(s -> {
-            if (s.getForm().size() > 5) {
-                s.setForm(s.getForm().subList(s.getForm().size() - 5, s.getForm().size()));
-            }
-        });
-
-        // Sort and assign ranks
-        List<TeamStandingDTO> sorted = standingsMap.values().stream()
-                .sorted(Comparator
-                        .comparingInt(TeamStandingDTO::getPoints).reversed()
-                        .thenComparingInt(TeamStandingDTO::getGoalDifference).reversed()
-                        .thenComparingInt(TeamStandingDTO::getGoalsFor).reversed())
-                .collect(Collectors.toList());
-
-        for (int i = 0; i < sorted.size(); i++) {
-            sorted.get(i).setRank(i + 1);
-        }
-
-        return sorted;
+        return standings;
     }
 
     // -------------------------------------------------------------------------
     // Private helpers
     // -------------------------------------------------------------------------
 
+    /**
+     * Rebuilds the season on the primary and returns its rows. This read-only transaction may be
+     * bound to a replica, which would not see the rebuilt rows yet, so they are never read back.
+     */
+    private List<TeamStanding> rebuildStandings(UUID seasonId) {
+        try {
+            return standingsProjectionService.rebuild(seasonId);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request rebuilt the same season first and has committed: replace its rows
+            // with the same ones rather than read them back from the replica
+            return standingsProjectionService.rebuild(seasonId);
+        }
+    }
+
     /**
      * Generic rank assignment. Items must already be ordered by the ranking value (descending).
      * Ties in value produce equal ranks (dense ranking style).
@@ -198,55 +199,4 @@ public class StatsService {
         }
         return stats;
     }
-
-    private void applyGoalStats(TeamStandingDTO team, int goalsFor, int goalsAgainst) {
-        team.setPlayed(team.getPlayed() + 1);
-        team.setGoalsFor(team.getGoalsFor() + goalsFor);
-        team.setGoalsAgainst(team.getGoalsAgainst() + goalsAgainst);
-        team.setGoalDifference(team.getGoalsFor() - team.getGoalsAgainst());
-    }
-
-    private void applyMatchResult(TeamStandingDTO home, TeamStandingDTO away,
-                                   MatchResultSummaryDTO match, int homeScore, int awayScore,
-                                   SportRulesStrategy rules, int winPoints) {
-        if (Boolean.TRUE.equals(match.getIsDoubleForfeit())) {
-            home.setLost(home.getLost() + 1);
-            home.getForm().add("L");
-            away.setLost(away.getLost() + 1);
-            away.getForm().add("L");
-            return;
-        }
-
-        if (homeScore > awayScore) {
-            int pts = rules.calculateMatchPoints(buildResult(homeScore, awayScore, true), winPoints);
-            home.setWon(home.getWon() + 1);
-            home.setPoints(home.getPoints() + pts);
-            home.getForm().add("W");
-            away.setLost(away.getLost() + 1);
-            away.getForm().add("L");
-        } else if (homeScore < awayScore) {
-            int pts = rules.calculateMatchPoints(buildResult(homeScore, awayScore, false), winPoints);
-            away.setWon(away.getWon() + 1);
-            away.setPoints(away.getPoints() + pts);
-            away.getForm().add("W");
-            home.setLost(home.getLost() + 1);
-            home.getForm().add("L");
-        } else {
-            int pts = rules.calculateMatchPoints(buildResult(homeScore, awayScore, true), winPoints);
-            home.setDrawn(home.getDrawn() + 1);
-            home.setPoints(home.getPoints() + pts);
-            home.getForm().add("D");
-            away.setDrawn(away.getDrawn() + 1);
-            away.setPoints(away.getPoints() + pts);
-            away.getForm().add("D");
-        }
-    }
-
-    private SportRulesStrategy.MatchResult buildResult(int homeScore, int awayScore, boolean isHomeTeam) {
-        return SportRulesStrategy.MatchResult.builder()
-                .homeScore(homeScore)
-                .awayScore(awayScore)
-                .isHomeTeam(isHomeTeam)
-                .build();
-    }
 }
@@ -10,6 +10,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 
@@ -41,4 +42,11 @@ public class Season extends BaseEntity {
 
     @Column(name = "max_active_players_per_team", nullable = false)
     private int maxActivePlayersPerTeam = 26;
+
+    // Maintained only by SeasonRepository.bumpDataVersion, never written through the entity
+    @Column(name = "data_version", insertable = false, updatable = false)
+    private Long dataVersion;
+
+    @Column(name = "data_changed_at", insertable = false, updatable = false)
+    private LocalDateTime dataChangedAt;
 }
@@ -3,6 +3,8 @@ package com.leagueos.modules.league.domain;
 import com.leagueos.shared.infrastructure.persistence.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -28,4 +30,17 @@ public class Tenant extends BaseEntity {
 
     @Column(unique = true, nullable = false)
     private String subdomain;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "isolation_mode", nullable = false)
+    private IsolationMode isolationMode = IsolationMode.SHARED;
+
+    /** Dedicated Postgres schema of the tenant; only meaningful when isolationMode is SCHEMA. */
+    @Column(name = "schema_name", length = 63)
+    private String schemaName;
+
+    public enum IsolationMode {
+        SHARED,
+        SCHEMA
+    }
 }
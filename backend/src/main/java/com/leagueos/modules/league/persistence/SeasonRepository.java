@@ -2,8 +2,13 @@ package com.leagueos.modules.league.persistence;
 
 import com.leagueos.modules.league.domain.Season;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,4 +21,16 @@ public interface SeasonRepository extends JpaRepository<Season, UUID> {
     java.util.Optional<Season> findFirstByStatus(com.leagueos.modules.league.domain.SeasonStatus status);
 
     java.util.Optional<Season> findByIdAndTenantId(UUID id, UUID tenantId);
+
+    // Joins the caller's transaction; starts its own when published outside of one
+    @Transactional
+    @Modifying
+    @Query("UPDATE Season s SET s.dataVersion = s.dataVersion + 1, s.dataChangedAt = :now WHERE s.id = :seasonId")
+    int bumpDataVersion(@Param("seasonId") UUID seasonId, @Param("now") LocalDateTime now);
+
+    /** Everything the public views depend on per season, without loading the entities. */
+    @Query("SELECT new com.leagueos.modules.competition.api.dto.SeasonDataVersionDTO(" +
+           "s.id, s.status, s.currentMatchday, s.dataVersion, s.dataChangedAt) " +
+           "FROM Season s WHERE s.tenantId = :tenantId")
+    List<com.leagueos.modules.competition.api.dto.SeasonDataVersionDTO> findDataVersionsByTenantId(@Param("tenantId") UUID tenantId);
 }
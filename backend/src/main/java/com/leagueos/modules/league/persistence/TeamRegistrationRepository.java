@@ -2,6 +2,8 @@ package com.leagueos.modules.league.persistence;
 
 import com.leagueos.modules.league.domain.TeamRegistration;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +14,10 @@ public interface TeamRegistrationRepository extends JpaRepository<TeamRegistrati
     List<TeamRegistration> findBySeasonId(UUID seasonId);
     List<TeamRegistration> findByStatus(TeamRegistration.RegistrationStatus status);
     List<TeamRegistration> findBySeasonIdAndStatus(UUID seasonId, TeamRegistration.RegistrationStatus status);
+    boolean existsBySeasonIdAndStatus(UUID seasonId, TeamRegistration.RegistrationStatus status);
     java.util.Optional<TeamRegistration> findBySeasonIdAndTeamId(UUID seasonId, UUID teamId);
     void deleteBySeasonId(UUID seasonId);
+
+    @Query("SELECT DISTINCT r.season.id FROM TeamRegistration r WHERE r.team.id = :teamId")
+    List<UUID> findSeasonIdsByTeamId(@Param("teamId") UUID teamId);
 }
@@ -1,6 +1,7 @@
 package com.leagueos.modules.league.service;
 
 import com.leagueos.modules.competition.domain.MatchStage;
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
 import com.leagueos.modules.competition.persistence.MatchRepository;
 import com.leagueos.modules.competition.persistence.PlayoffTieRepository;
 import com.leagueos.modules.league.domain.Season;
@@ -11,12 +12,14 @@ import com.leagueos.modules.league.persistence.SeasonRepository;
 import com.leagueos.modules.league.persistence.TeamRegistrationRepository;
 import com.leagueos.modules.league.persistence.TeamRepository;
 import com.leagueos.modules.league.persistence.TenantRepository;
+import com.leagueos.modules.media.service.ImageDerivativeService;
 import com.leagueos.modules.media.service.StorageService;
 import com.leagueos.shared.context.TenantContext;
 import com.leagueos.shared.domain.exception.ResourceNotFoundException;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,7 +41,10 @@ public class LeagueService {
     private final EntityManager entityManager;
     private final com.leagueos.modules.league.persistence.SoccerFieldRepository soccerFieldRepository;
     private final com.leagueos.modules.media.service.StorageService storageService;
+    private final ImageDerivativeService imageDerivativeService;
     private final com.leagueos.modules.registration.persistence.SeasonRosterRepository seasonRosterRepository;
+    private final com.leagueos.modules.competition.service.StandingsProjectionService standingsProjectionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Team uploadTeamLogo(UUID teamId, byte[] imageBytes, String contentType, UUID tenantId) {
@@ -56,13 +62,14 @@ public class LeagueService {
 
         String oldLogo = team.getLogoUrl();
         if (oldLogo != null && (oldLogo.contains("/teams/") || oldLogo.startsWith("tenants/"))) {
-            storageService.deleteFile(oldLogo);
+            imageDerivativeService.deleteWithDerivatives(oldLogo);
         }
 
-        storageService.uploadFile(filename, imageBytes, contentType != null ? contentType : "image/jpeg");
+        imageDerivativeService.uploadWithDerivatives(filename, imageBytes, contentType != null ? contentType : "image/jpeg");
         team.setLogoUrl(filename);
         Team saved = teamRepository.save(team);
-        saved.setSignedLogoUrl(storageService.getSignedUrl(filename, 120));
+        publishTeamSeasonsChanged(saved);
+        saved.setSignedLogoUrl(imageDerivativeService.getSignedUrl(filename, ImageDerivativeService.THUMBNAIL, 120));
         return saved;
     }
 
@@ -98,7 +105,7 @@ public class LeagueService {
         for (Team team : teams) {
             team.setActivePlayersCount(countMap.getOrDefault(team.getId(), 0));
             if (team.getLogoUrl() != null && !team.getLogoUrl().startsWith("http")) {
-                team.setSignedLogoUrl(storageService.getSignedUrl(team.getLogoUrl(), 120));
+                team.setSignedLogoUrl(imageDerivativeService.getSignedUrl(team.getLogoUrl(), ImageDerivativeService.THUMBNAIL, 120));
             } else {
                 team.setSignedLogoUrl(team.getLogoUrl());
             }
@@ -130,8 +137,9 @@ public class LeagueService {
         }
 
         Team saved = teamRepository.save(team);
+        publishTeamSeasonsChanged(saved);
         if (saved.getLogoUrl() != null && !saved.getLogoUrl().startsWith("http")) {
-            saved.setSignedLogoUrl(storageService.getSignedUrl(saved.getLogoUrl(), 120));
+            saved.setSignedLogoUrl(imageDerivativeService.getSignedUrl(saved.getLogoUrl(), ImageDerivativeService.THUMBNAIL, 120));
         } else {
             saved.setSignedLogoUrl(saved.getLogoUrl());
         }
@@ -165,8 +173,9 @@ public class LeagueService {
         }
 
         Team saved = teamRepository.save(team);
+        publishTeamSeasonsChanged(saved);
         if (saved.getLogoUrl() != null && !saved.getLogoUrl().startsWith("http")) {
-            saved.setSignedLogoUrl(storageService.getSignedUrl(saved.getLogoUrl(), 120));
+            saved.setSignedLogoUrl(imageDerivativeService.getSignedUrl(saved.getLogoUrl(), ImageDerivativeService.THUMBNAIL, 120));
         } else {
             saved.setSignedLogoUrl(saved.getLogoUrl());
         }
@@ -228,10 +237,13 @@ public class LeagueService {
                     .peek(s -> s.setStatus(SeasonStatus.COMPLETED))
                     .collect(Collectors.toList());
             seasonRepository.saveAll(toComplete);
+            toComplete.forEach(this::publishSeasonChanged);
         }
 
         targetSeason.setStatus(SeasonStatus.ACTIVE);
-        return seasonRepository.save(targetSeason);
+        Season saved = seasonRepository.save(targetSeason);
+        publishSeasonChanged(saved);
+        return saved;
     }
 
     @Transactional
@@ -239,7 +251,9 @@ public class LeagueService {
         Season season = seasonRepository.findById(seasonId)
                 .orElseThrow(() -> new ResourceNotFoundException("Season not found: " + seasonId));
         season.setCurrentMatchday(season.getCurrentMatchday() + 1);
-        return seasonRepository.save(season);
+        Season saved = seasonRepository.save(season);
+        publishSeasonChanged(saved);
+        return saved;
     }
 
     @Transactional
@@ -247,7 +261,9 @@ public class LeagueService {
         Season season = seasonRepository.findById(seasonId)
                 .orElseThrow(() -> new ResourceNotFoundException("Season not found: " + seasonId));
         season.setCurrentMatchday(matchday);
-        return seasonRepository.save(season);
+        Season saved = seasonRepository.save(season);
+        publishSeasonChanged(saved);
+        return saved;
     }
 
     @Transactional
@@ -259,6 +275,7 @@ public class LeagueService {
             throw new IllegalStateException("Only seasons in DRAFT status can be deleted");
         }
 
+        standingsProjectionService.invalidate(seasonId);
         matchRepository.deleteBySeasonId(seasonId);
         playoffTieRepository.deleteBySeasonId(seasonId);
         teamRegistrationRepository.deleteBySeasonId(seasonId);
@@ -323,6 +340,18 @@ public class LeagueService {
     // Private helpers
     // -------------------------------------------------------------------------
 
+    /** Season status and current matchday decide what the public pages show for a season. */
+    private void publishSeasonChanged(Season season) {
+        eventPublisher.publishEvent(new SeasonMatchesChangedEvent(season.getTenantId(), season.getId()));
+    }
+
+    /** A team's name and logo appear in the fixtures and tables of every season it is registered in. */
+    private void publishTeamSeasonsChanged(Team team) {
+        for (UUID seasonId : teamRegistrationRepository.findSeasonIdsByTeamId(team.getId())) {
+            eventPublisher.publishEvent(new SeasonMatchesChangedEvent(team.getTenantId(), seasonId));
+        }
+    }
+
     private void updateRepresentativeFields(Team team, Team teamDetails) {
         var rep = teamDetails.getRepresentative();
         if (rep.getFirstName() != null) team.getRepresentative().setFirstName(rep.getFirstName());
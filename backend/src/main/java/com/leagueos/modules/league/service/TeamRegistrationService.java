@@ -21,6 +21,7 @@ public class TeamRegistrationService {
     private final TeamRepository teamRepository;
     private final SeasonRepository seasonRepository;
     private final com.leagueos.modules.league.persistence.PersonRepository personRepository;
+    private final com.leagueos.modules.competition.service.StandingsProjectionService standingsProjectionService;
 
     @Transactional
     public TeamRegistration registerTeam(TeamRegistrationRequest request, UUID tenantId) {
@@ -77,6 +78,9 @@ public class TeamRegistrationService {
             registration.setTenantId(tenantId);
             registrations.add(teamRegistrationRepository.save(registration));
         }
+        if (!registrations.isEmpty()) {
+            standingsProjectionService.invalidate(seasonId);
+        }
         return registrations;
     }
 
@@ -88,6 +92,9 @@ public class TeamRegistrationService {
     @Transactional
     public void unenrollTeam(UUID seasonId, UUID teamId) {
         teamRegistrationRepository.findBySeasonIdAndTeamId(seasonId, teamId)
-                .ifPresent(teamRegistrationRepository::delete);
+                .ifPresent(registration -> {
+                    teamRegistrationRepository.delete(registration);
+                    standingsProjectionService.invalidate(seasonId);
+                });
     }
 }
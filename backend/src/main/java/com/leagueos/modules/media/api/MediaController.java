@@ -1,14 +1,26 @@
 package com.leagueos.modules.media.api;
 
+import com.leagueos.modules.media.service.ImageDerivativeBackfill;
+import com.leagueos.modules.media.service.ImageDerivativeService;
+import com.leagueos.modules.media.service.MediaProxyService;
 import com.leagueos.modules.media.service.StorageService;
+import com.leagueos.shared.context.TenantContext;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/media")
@@ -16,34 +28,60 @@ import java.util.Map;
 public class MediaController {
 
     private final StorageService storageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ImageDerivativeBackfill imageDerivativeBackfill;
+    private final MediaProxyService mediaProxyService;
 
+    /**
+     * Signed URL of {@code key}; with {@code size} (64, 128 or 512 px) it points at that derivative of a
+     * logo or player photo, or at the original while the image has no derivatives. WebP, SVG and HEIC
+     * originals never have derivatives and are always signed as uploaded.
+     */
     @GetMapping("/signed-url")
-    public ResponseEntity<Map<String, String>> getSignedUrl(@RequestParam String key) {
+    public ResponseEntity<Map<String, String>> getSignedUrl(@RequestParam String key,
+                                                            @RequestParam(required = false) Integer size) {
         if (key == null || key.trim().isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
         
         // Duration of 60 minutes for the signed URL
-        String url = storageService.getSignedUrl(key, 60);
+        String url = size != null
+                ? imageDerivativeService.getSignedUrl(key, size, 60)
+                : storageService.getSignedUrl(key, 60);
         
         return ResponseEntity.ok(Map.of("url", url));
     }
 
-    @GetMapping("/proxy")
-    public ResponseEntity<byte[]> proxyImage(@RequestParam String key) {
-        if (key == null || key.trim().isEmpty()) {
+    /**
+     * Creates the missing derivatives of this league's logos and photos in the background.
+     */
+    @PostMapping("/derivatives/backfill")
+    @PreAuthorize("hasRole('ROLE_LEAGUE_ADMIN')")
+    public ResponseEntity<Map<String, String>> backfillDerivatives() {
+        UUID tenantId = TenantContext.getCurrentTenant();
+        if (tenantId == null) {
             return ResponseEntity.badRequest().build();
         }
-        
-        byte[] bytes = storageService.getFileBytes(key);
-        if (bytes == null) {
-            return ResponseEntity.notFound().build();
+        if (!imageDerivativeBackfill.start(storageService.buildTenantPrefix(tenantId))) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Ya hay una generación de miniaturas en curso. Intenta más tarde."));
         }
+        return ResponseEntity.accepted().body(Map.of("status", "started"));
+    }
 
-        // Just return as JPEG for PDF rendering simplicity
-        return ResponseEntity.ok()
-                .header("Content-Type", "image/jpeg")
-                .header("Cache-Control", "public, max-age=3600")
-                .body(bytes);
+    /**
+     * Streams an object from R2 (via the local disk cache) with its real headers; supports Range and
+     * If-None-Match.
+     */
+    @GetMapping("/proxy")
+    public void proxyImage(@RequestParam String key,
+                           @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                           HttpServletResponse response) throws IOException {
+        if (key == null || key.trim().isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        mediaProxyService.serve(key, range, ifNoneMatch, response);
     }
 }
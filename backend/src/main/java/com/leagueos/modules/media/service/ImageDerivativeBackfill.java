@@ -0,0 +1,155 @@
+package com.leagueos.modules.media.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Creates the derivatives of team logos and player photos uploaded before {@link ImageDerivativeService}.
+ *
+ * Walks the bucket listing under a prefix page by page and hands each original without derivatives to
+ * one of {@code concurrency} workers; the listing waits while all workers are busy, so at most that many
+ * originals (each capped at {@code max-source-mb}) and their decoded rasters are in memory at once.
+ * Objects that already have derivatives cost a HEAD request, so re-running it is cheap. One backfill runs
+ * per prefix at a time; the startup one covers every tenant of this environment.
+ */
+@Slf4j
+@Component
+public class ImageDerivativeBackfill implements InitializingBean {
+
+    public record Summary(int scanned, int generated, int alreadyPresent, int skipped, int failed) {
+    }
+
+    private final StorageService storageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final int concurrency;
+    private final long maxSourceBytes;
+    private final boolean runOnStartup;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativeBackfill(
+            StorageService storageService,
+            ImageDerivativeService imageDerivativeService,
+            @Value("${app.media.derivatives.backfill.concurrency:2}") int concurrency,
+            @Value("${app.media.derivatives.backfill.max-source-mb:15}") long maxSourceMb,
+            @Value("${app.media.derivatives.backfill.on-startup:false}") boolean runOnStartup) {
+        this.storageService = storageService;
+        this.imageDerivativeService = imageDerivativeService;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxSourceBytes = maxSourceMb * 1024 * 1024;
+        this.runOnStartup = runOnStartup;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (runOnStartup) {
+            start(storageService.buildTenantsPrefix());
+        }
+    }
+
+    /** Starts a backfill of everything under {@code prefix} in the background; false if one is already running there. */
+    public boolean start(String prefix) {
+        if (!running.add(prefix)) {
+            return false;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                run(prefix);
+            } catch (RuntimeException e) {
+                log.error("ImageDerivativeBackfill: aborted under '{}'", prefix, e);
+            } finally {
+                running.remove(prefix);
+            }
+        }, "image-derivative-backfill");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public boolean isRunning(String prefix) {
+        return running.contains(prefix);
+    }
+
+    Summary run(String prefix) {
+        log.info("ImageDerivativeBackfill: starting under '{}' with {} workers", prefix, concurrency);
+        AtomicInteger scanned = new AtomicInteger();
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger alreadyPresent = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore slots = new Semaphore(concurrency);
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "image-derivative-backfill-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (Stream<StorageService.StoredObject> objects = storageService.listObjects(prefix)) {
+            Iterator<StorageService.StoredObject> listing = objects.iterator();
+            while (listing.hasNext()) {
+                StorageService.StoredObject object = listing.next();
+                if (!isOriginal(object.key())) {
+                    continue;
+                }
+                scanned.incrementAndGet();
+                if (object.size() > maxSourceBytes) {
+                    log.info("ImageDerivativeBackfill: skipping {} ({} bytes, over the source limit)", object.key(), object.size());
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                slots.acquire();
+                workers.execute(() -> {
+                    try {
+                        if (imageDerivativeService.hasDerivatives(object.key())) {
+                            alreadyPresent.incrementAndGet();
+                            return;
+                        }
+                        byte[] bytes = storageService.getFileBytes(object.key());
+                        if (bytes == null) {
+                            failed.incrementAndGet();
+                        } else if (imageDerivativeService.storeDerivatives(object.key(), bytes)) {
+                            generated.incrementAndGet();
+                        } else {
+                            skipped.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("ImageDerivativeBackfill: {} failed: {}", object.key(), e.getMessage());
+                        failed.incrementAndGet();
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+            // Every slot back means every worker is done
+            slots.acquire(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+        Summary summary = new Summary(scanned.get(), generated.get(), alreadyPresent.get(), skipped.get(), failed.get());
+        log.info("ImageDerivativeBackfill: finished under '{}': {}", prefix, summary);
+        return summary;
+    }
+
+    /**
+     * Team logos and player photos in a format derivatives can be rendered from, excluding the derivatives
+     * themselves. WebP and other undecodable originals are not downloaded just to be skipped.
+     */
+    private static boolean isOriginal(String key) {
+        return (key.contains("/teams/") || key.contains("/players/"))
+                && !ImageDerivativeService.isDerivativeKey(key)
+                && ImageDerivativeService.canHaveDerivatives(key);
+    }
+}
@@ -0,0 +1,299 @@
+package com.leagueos.modules.media.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Fixed-size derivatives of team logos and player photos, stored next to the original.
+ *
+ * For an original {@code .../club_1a2b3c4d.png} the derivatives are {@code .../club_1a2b3c4d_64.png},
+ * {@code _128.png} and {@code _512.png}: each fits in a square of that many pixels, keeps the aspect
+ * ratio and is never upscaled. PNG originals keep PNG (logos are often transparent), everything else
+ * becomes JPEG, so the key of any size follows from the original key alone. Only formats the JDK's
+ * ImageIO decodes get derivatives (see {@link #canHaveDerivatives}); SVG, WebP and HEIC originals are
+ * always served as uploaded, whatever size a response asks for.
+ *
+ * Whether an original has derivatives (uploaded before this pipeline and not backfilled yet) is looked
+ * up with a HEAD of the smallest one, which is written last. The lookup runs in the background: until
+ * it answers, responses reference the original, so a cold cache never slows a standings request down.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    /** Standings rows, avatars. */
+    public static final int ICON = 64;
+    /** Fixture cards, team and player lists. */
+    public static final int THUMBNAIL = 128;
+    /** Profile pages and printed credentials. */
+    public static final int CARD = 512;
+
+    /** Largest first: each size is scaled down from the previous one, and the smallest marks completion. */
+    static final List<Integer> SIZES = List.of(CARD, THUMBNAIL, ICON);
+
+    /** Extensions of the formats ImageIO reads without plugins. */
+    private static final Set<String> DECODABLE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    private static final Pattern DERIVATIVE_KEY = Pattern.compile(".*_(64|128|512)\\.(jpg|png)$");
+
+    private final StorageService storageService;
+    private final boolean enabled;
+    private final float jpegQuality;
+    private final AsyncLoadingCache<String, Boolean> derivativesPresent;
+
+    public ImageDerivativeService(
+            StorageService storageService,
+            @Value("${app.media.derivatives.enabled:true}") boolean enabled,
+            @Value("${app.media.derivatives.jpeg-quality:0.82}") float jpegQuality,
+            @Value("${app.media.derivatives.lookup-cache.max-entries:20000}") long lookupCacheSize,
+            @Value("${app.media.derivatives.lookup-cache.missing-ttl-minutes:10}") long missingTtlMinutes,
+            MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        this.enabled = enabled;
+        this.jpegQuality = jpegQuality;
+        long presentTtlNanos = TimeUnit.HOURS.toNanos(24);
+        long missingTtlNanos = TimeUnit.MINUTES.toNanos(missingTtlMinutes);
+        this.derivativesPresent = Caffeine.newBuilder()
+                .maximumSize(lookupCacheSize)
+                // HEAD requests block on R2: keep them off the common pool and off request threads
+                .executor(Executors.newFixedThreadPool(2, r -> {
+                    Thread thread = new Thread(r, "image-derivative-lookup");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String key, Boolean present, long currentTime) {
+                        // Present derivatives never change (keys are unique per upload); missing ones may be backfilled
+                        return present ? presentTtlNanos : missingTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Boolean present, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, present, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Boolean present, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync(key -> storageService.exists(derivativeKey(key, ICON)));
+        CaffeineCacheMetrics.monitor(meterRegistry, derivativesPresent, "image-derivatives");
+    }
+
+    /**
+     * Key of the {@code size} derivative of {@code originalKey}; sizes between the fixed ones round up
+     * to the next larger derivative.
+     */
+    public static String derivativeKey(String originalKey, int size) {
+        int fixedSize = SIZES.stream().filter(s -> s >= size).reduce((a, b) -> b).orElse(CARD);
+        int slash = originalKey.lastIndexOf('/');
+        int dot = originalKey.lastIndexOf('.');
+        String base = dot > slash ? originalKey.substring(0, dot) : originalKey;
+        return base + "_" + fixedSize + (isPng(originalKey) ? ".png" : ".jpg");
+    }
+
+    public static boolean isDerivativeKey(String key) {
+        return key != null && DERIVATIVE_KEY.matcher(key).matches();
+    }
+
+    /** Whether an original stored under {@code key} is in a format derivatives can be rendered from. */
+    public static boolean canHaveDerivatives(String key) {
+        int dot = key.lastIndexOf('.');
+        return dot > key.lastIndexOf('/') && DECODABLE_EXTENSIONS.contains(key.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /** Stores the original under {@code key}, then its derivatives. Returns {@code key}. */
+    public String uploadWithDerivatives(String key, byte[] bytes, String contentType) {
+        storageService.uploadFile(key, bytes, contentType);
+        if (enabled) {
+            storeDerivatives(key, bytes);
+        }
+        return key;
+    }
+
+    /**
+     * Renders and stores the derivatives of the original {@code bytes} stored under {@code key}.
+     * Returns false (and stores nothing) when the image cannot be decoded.
+     */
+    public boolean storeDerivatives(String key, byte[] bytes) {
+        if (!canHaveDerivatives(key)) {
+            log.info("ImageDerivativeService: {} is not in a format derivatives are rendered from, serving it as uploaded", key);
+            return false;
+        }
+        boolean png = isPng(key);
+        try {
+            BufferedImage current = decode(bytes, png);
+            if (current == null) {
+                log.info("ImageDerivativeService: {} is not a decodable raster image, serving it as uploaded", key);
+                return false;
+            }
+            for (int size : SIZES) {
+                current = scaleToFit(current, size);
+                storageService.uploadFile(derivativeKey(key, size), encode(current, png), png ? "image/png" : "image/jpeg");
+            }
+            derivativesPresent.put(key, CompletableFuture.completedFuture(true));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("ImageDerivativeService: could not create derivatives of {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Whether {@code key} has derivatives, waiting for the lookup if it is not cached. */
+    public boolean hasDerivatives(String key) {
+        return derivativesPresent.get(key).join();
+    }
+
+    public void deleteWithDerivatives(String key) {
+        if (key == null || key.isBlank()) {
+            return;
+        }
+        storageService.deleteFile(key);
+        for (int size : SIZES) {
+            storageService.deleteFile(derivativeKey(key, size));
+        }
+        derivativesPresent.synchronous().invalidate(key);
+    }
+
+    /**
+     * Signed URL of the {@code size} derivative of {@code key}, or of the original while its derivatives
+     * are missing or still being looked up. External URLs are returned as they are, and originals that
+     * cannot have derivatives (WebP, SVG, HEIC) are signed as they are, without a lookup.
+     */
+    public String getSignedUrl(String key, int size, int durationMinutes) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        if (key.startsWith("http://") || key.startsWith("https://") || key.startsWith("data:")) {
+            return key;
+        }
+        return storageService.getSignedUrl(hasKnownDerivatives(key) ? derivativeKey(key, size) : key, durationMinutes);
+    }
+
+    // ---- Private helpers ----
+
+    private boolean hasKnownDerivatives(String key) {
+        if (!enabled || !canHaveDerivatives(key)) {
+            return false;
+        }
+        CompletableFuture<Boolean> lookup = derivativesPresent.get(key);
+        return lookup.isDone() && !lookup.isCompletedExceptionally() && lookup.join();
+    }
+
+    private static boolean isPng(String key) {
+        return key.toLowerCase(Locale.ROOT).endsWith(".png");
+    }
+
+    /**
+     * Decodes with source subsampling down to no less than twice the largest derivative, so a 12MP
+     * photo never becomes a full-resolution raster. The result is INT_ARGB for PNG output and INT_RGB
+     * (flattened onto white) for JPEG.
+     */
+    private BufferedImage decode(byte[] bytes, boolean keepAlpha) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longEdge / (2 * CARD));
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                BufferedImage decoded = reader.read(0, param);
+                int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+                return decoded.getType() == type ? decoded : redraw(decoded, decoded.getWidth(), decoded.getHeight(), type);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Halves with bilinear filtering down to within 2x of the target, then one bicubic step, to avoid aliasing. */
+    private static BufferedImage scaleToFit(BufferedImage src, int box) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+        if (Math.max(width, height) <= box) {
+            return src;
+        }
+        double scale = (double) box / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        BufferedImage current = src;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = redraw(current, current.getWidth() / 2, current.getHeight() / 2, src.getType());
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            current = redraw(current, targetWidth, targetHeight, src.getType());
+        }
+        return current;
+    }
+
+    private static BufferedImage redraw(BufferedImage src, int width, int height, int type) {
+        BufferedImage out = new BufferedImage(width, height, type);
+        Graphics2D g = out.createGraphics();
+        if (type == BufferedImage.TYPE_INT_RGB) {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+        }
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, width, height, null);
+        g.dispose();
+        return out;
+    }
+
+    private byte[] encode(BufferedImage image, boolean png) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (png) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
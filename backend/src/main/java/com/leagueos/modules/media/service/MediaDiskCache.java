@@ -0,0 +1,148 @@
+package com.leagueos.modules.media.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Node-local disk copies of hot R2 objects served by the media proxy.
+ *
+ * Disabled unless {@code dir} is set. The index lives in memory (Caffeine, weighted by file size and
+ * bounded by {@code max-size-mb}, so W-TinyLFU picks what to evict by frequency as well as recency); an
+ * evicted or expired entry's file is deleted on a background thread. Every stored copy gets its own
+ * file name, so a reader that opened a file keeps reading it even if the entry is replaced or evicted
+ * meanwhile. Objects larger than {@code max-object-mb} are never cached. The index is not persisted:
+ * the directory is emptied at startup. Object keys are unique per upload, so {@code ttl-minutes} only
+ * bounds how long a deleted object can still be served from here.
+ */
+@Slf4j
+@Component
+public class MediaDiskCache {
+
+    /** A cached object: its file and the headers it was served with. */
+    public record CachedObject(Path path, long size, String contentType, String eTag) {
+    }
+
+    private final Path dir;
+    private final long maxObjectBytes;
+    private final Cache<String, CachedObject> index;
+
+    public MediaDiskCache(
+            @Value("${app.media.proxy.cache.dir:}") String dir,
+            @Value("${app.media.proxy.cache.max-size-mb:512}") long maxSizeMb,
+            @Value("${app.media.proxy.cache.max-object-mb:10}") long maxObjectMb,
+            @Value("${app.media.proxy.cache.ttl-minutes:60}") long ttlMinutes,
+            MeterRegistry meterRegistry) {
+        this.dir = dir == null || dir.isBlank() ? null : Path.of(dir);
+        this.maxObjectBytes = maxObjectMb * 1024 * 1024;
+        this.index = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .<String, CachedObject>weigher((key, cached) -> (int) Math.min(cached.size(), Integer.MAX_VALUE))
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                // Deleting files is disk I/O: keep it off the common pool
+                .executor(Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "media-cache-evict");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .removalListener((String key, CachedObject cached, RemovalCause cause) -> {
+                    if (cached != null) {
+                        deleteQuietly(cached.path());
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, index, "media-proxy");
+        if (this.dir != null) {
+            reset();
+        }
+    }
+
+    public boolean accepts(long size) {
+        return dir != null && size >= 0 && size <= maxObjectBytes;
+    }
+
+    /** The cached copy of {@code key}, or null. */
+    public CachedObject get(String key) {
+        return dir != null ? index.getIfPresent(key) : null;
+    }
+
+    /** A new empty file to fill with an object, then {@link #put} or {@link #discard}. */
+    public Path newTempFile() throws IOException {
+        return Files.createTempFile(dir, "fill-", ".tmp");
+    }
+
+    /** Moves a completely written {@code temp} file into the cache as {@code key}. */
+    public void put(String key, Path temp, String contentType, String eTag) {
+        try {
+            Path target = dir.resolve(sha256(key) + "-" + UUID.randomUUID() + ".bin");
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            index.put(key, new CachedObject(target, Files.size(target), contentType, eTag));
+        } catch (IOException e) {
+            log.warn("MediaDiskCache: could not store {}: {}", key, e.getMessage());
+            discard(temp);
+        }
+    }
+
+    public void discard(Path temp) {
+        deleteQuietly(temp);
+    }
+
+    /** Forgets {@code key}; called when an entry's file turns out to be gone. */
+    public void invalidate(String key) {
+        index.invalidate(key);
+    }
+
+    // ---- Private helpers ----
+
+    private void reset() {
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                // Only our own files, in case the directory is shared by mistake
+                files.filter(MediaDiskCache::isCacheFile).forEach(MediaDiskCache::deleteQuietly);
+            }
+        } catch (IOException e) {
+            log.warn("MediaDiskCache: could not prepare {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static boolean isCacheFile(Path path) {
+        String name = path.getFileName().toString();
+        return Files.isRegularFile(path) && (name.endsWith(".bin") || (name.startsWith("fill-") && name.endsWith(".tmp")));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("MediaDiskCache: could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String sha256(String key) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.leagueos.modules.media.service;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams R2 objects to the client for /api/media/proxy (PDF exports load logos and photos through it).
+ *
+ * The object body is copied to the response in small chunks, never held in heap as a whole, with its
+ * real Content-Type, Content-Length and ETag. Single byte ranges ({@code Range}) and
+ * {@code If-None-Match} revalidation are supported; the Range header is parsed here once, so a
+ * request gets the same answer from disk and from R2 (several ranges or a malformed header: the
+ * whole object). Complete reads of small objects are written to the {@link MediaDiskCache} while
+ * they stream, and later requests for them are served from disk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaProxyService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CACHE_CONTROL = "public, max-age=3600";
+
+    /** Inclusive byte range of an object. */
+    record ByteRange(long start, long end) {
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    /** A single range as requested: {@code first-last}, {@code first-} (no last) or the suffix {@code -last} (no first). */
+    record RangeRequest(Long first, Long last) {
+
+        /** The range as a Range header, for R2. */
+        String header() {
+            return "bytes=" + (first != null ? first : "") + "-" + (last != null ? last : "");
+        }
+
+        /** The bytes of an object of {@code size} it covers, or {@link ByteRange#UNSATISFIABLE}. */
+        ByteRange resolve(long size) {
+            if (first == null) {
+                return last > 0 && size > 0 ? new ByteRange(Math.max(0, size - last), size - 1) : ByteRange.UNSATISFIABLE;
+            }
+            long end = last == null ? size - 1 : Math.min(last, size - 1);
+            return first < size ? new ByteRange(first, end) : ByteRange.UNSATISFIABLE;
+        }
+    }
+
+    private final StorageService storageService;
+    private final MediaDiskCache diskCache;
+
+    public void serve(String key, String range, String ifNoneMatch, HttpServletResponse response) throws IOException {
+        RangeRequest requested = range != null ? parseRange(range) : null;
+        MediaDiskCache.CachedObject cached = diskCache.get(key);
+        FileChannel file = cached != null ? open(key, cached.path()) : null;
+        if (file == null) {
+            serveFromStorage(key, requested, ifNoneMatch, response);
+            return;
+        }
+        try (file) {
+            serveCached(cached, file, requested, ifNoneMatch, response);
+        }
+    }
+
+    // ---- Disk cache ----
+
+    private FileChannel open(String key, Path path) throws IOException {
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // Evicted between the lookup and the open
+            diskCache.invalidate(key);
+            return null;
+        }
+    }
+
+    private void serveCached(MediaDiskCache.CachedObject cached, FileChannel file, RangeRequest requested,
+                             String ifNoneMatch, HttpServletResponse response) throws IOException {
+        cacheHeaders(response, cached.eTag());
+        if (matches(ifNoneMatch, cached.eTag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long size = cached.size();
+        ByteRange byteRange = requested != null ? requested.resolve(size) : null;
+        if (byteRange == ByteRange.UNSATISFIABLE) {
+            notSatisfiable(response, size);
+            return;
+        }
+        response.setContentType(contentType(cached.contentType()));
+        if (byteRange == null) {
+            byteRange = new ByteRange(0, size - 1);
+            response.setStatus(HttpServletResponse.SC_OK);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + byteRange.start() + "-" + byteRange.end() + "/" + size);
+        }
+        response.setContentLengthLong(Math.max(0, byteRange.length()));
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        long position = byteRange.start();
+        long remaining = byteRange.length();
+        while (remaining > 0) {
+            long sent = file.transferTo(position, remaining, out);
+            if (sent <= 0) {
+                break;
+            }
+            position += sent;
+            remaining -= sent;
+        }
+    }
+
+    // ---- R2 ----
+
+    private void serveFromStorage(String key, RangeRequest requested, String ifNoneMatch,
+                                  HttpServletResponse response) throws IOException {
+        ResponseInputStream<GetObjectResponse> object;
+        try {
+            object = storageService.openObject(key, requested != null ? requested.header() : null, ifNoneMatch);
+        } catch (S3Exception e) {
+            switch (e.statusCode()) {
+                case HttpServletResponse.SC_NOT_MODIFIED -> {
+                    e.awsErrorDetails().sdkHttpResponse().firstMatchingHeader(HttpHeaders.ETAG)
+                            .ifPresent(eTag -> cacheHeaders(response, eTag));
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                }
+                case HttpServletResponse.SC_NOT_FOUND -> response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                case HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE -> notSatisfiable(key, response);
+                default -> {
+                    log.warn("MediaProxyService: R2 answered {} for {}: {}", e.statusCode(), key, e.getMessage());
+                    response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+                }
+            }
+            return;
+        } catch (SdkException e) {
+            log.warn("MediaProxyService: could not reach R2 for {}: {}", key, e.getMessage());
+            response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+            return;
+        }
+
+        try (object) {
+            GetObjectResponse meta = object.response();
+            cacheHeaders(response, meta.eTag());
+            response.setContentType(contentType(meta.contentType()));
+            response.setContentLengthLong(meta.contentLength());
+            if (meta.contentRange() != null) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, meta.contentRange());
+            } else {
+                response.setStatus(HttpServletResponse.SC_OK);
+            }
+            if (meta.contentRange() == null && diskCache.accepts(meta.contentLength())) {
+                streamAndCache(key, object, meta, response.getOutputStream());
+            } else {
+                object.transferTo(response.getOutputStream());
+            }
+        } catch (IOException e) {
+            // Client went away: drop the R2 connection instead of draining the rest of the object
+            object.abort();
+            throw e;
+        }
+    }
+
+    /** Copies the body to the client and to a cache file; the file is kept only if the whole object arrived. */
+    private void streamAndCache(String key, ResponseInputStream<GetObjectResponse> object, GetObjectResponse meta,
+                                OutputStream client) throws IOException {
+        Path temp = diskCache.newTempFile();
+        boolean complete = false;
+        try (OutputStream file = Files.newOutputStream(temp)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long total = 0;
+            int read;
+            while ((read = object.read(buffer)) != -1) {
+                client.write(buffer, 0, read);
+                file.write(buffer, 0, read);
+                total += read;
+            }
+            complete = total == meta.contentLength();
+        } finally {
+            if (complete) {
+                diskCache.put(key, temp, meta.contentType(), meta.eTag());
+            } else {
+                diskCache.discard(temp);
+            }
+        }
+    }
+
+    /** R2's 416 does not reliably say how large the object is: ask for it so the client can retry. */
+    private void notSatisfiable(String key, HttpServletResponse response) {
+        try {
+            notSatisfiable(response, storageService.getObjectSize(key));
+        } catch (SdkException e) {
+            log.warn("MediaProxyService: could not read the size of {}: {}", key, e.getMessage());
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+    }
+
+    // ---- Headers ----
+
+    private static void notSatisfiable(HttpServletResponse response, long size) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+    }
+
+    private static void cacheHeaders(HttpServletResponse response, String eTag) {
+        if (eTag != null) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    }
+
+    private static String contentType(String stored) {
+        return stored != null && !stored.isBlank() ? stored : "application/octet-stream";
+    }
+
+    /** Whether {@code ifNoneMatch} lists {@code eTag} (weak comparison) or is {@code *}. */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The single range in a {@code Range} header, or null when the header should be ignored (malformed,
+     * or several ranges: the whole object is sent instead).
+     */
+    static RangeRequest parseRange(String header) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                return suffix >= 0 ? new RangeRequest(null, suffix) : null;
+            }
+            long start = Long.parseLong(first);
+            if (last.isEmpty()) {
+                return new RangeRequest(start, null);
+            }
+            long end = Long.parseLong(last);
+            return start >= 0 && end >= start ? new RangeRequest(start, end) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
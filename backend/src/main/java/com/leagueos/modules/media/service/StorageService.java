@@ -1,19 +1,40 @@
 package com.leagueos.modules.media.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
 import java.net.URI;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class StorageService {
 
@@ -22,41 +43,90 @@ public class StorageService {
     private final String bucketName;
     private final String environment;
 
+    /**
+     * Presigned GET URLs keyed by object key and requested duration. An entry is handed out
+     * while at least (1 - reuseFraction) of its validity remains (a 120-minute URL is reused
+     * for 90 minutes at the default 0.75) and is re-signed in the background shortly before that.
+     */
+    private final Cache<SignedUrlKey, SignedUrl> signedUrls;
+    private final Set<SignedUrlKey> refreshing = ConcurrentHashMap.newKeySet();
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    private final double reuseFraction;
+    private final double refreshFraction;
+    private final Counter backgroundRefreshes;
+
+    @Autowired
     public StorageService(
             @Value("${cloudflare.r2.access-key}") String accessKey,
             @Value("${cloudflare.r2.secret-key}") String secretKey,
             @Value("${cloudflare.r2.endpoint}") String endpoint,
             @Value("${cloudflare.r2.bucket}") String bucketName,
-            @Value("${app.environment:dev}") String environment) {
+            @Value("${app.environment:dev}") String environment,
+            @Value("${app.storage.signed-url-cache.max-entries:10000}") long signedUrlCacheSize,
+            @Value("${app.storage.signed-url-cache.reuse-fraction:0.75}") double reuseFraction,
+            MeterRegistry meterRegistry) {
+        this(buildS3Client(accessKey, secretKey, endpoint), buildS3Presigner(accessKey, secretKey, endpoint),
+                bucketName, environment, signedUrlCacheSize, reuseFraction, meterRegistry,
+                Clock.systemUTC(), ForkJoinPool.commonPool());
+    }
 
+    /**
+     * {@code clock} drives the signed URL windows and {@code refreshExecutor} runs the background
+     * re-signing; tests pass a clock they advance and a same-thread executor.
+     */
+    StorageService(S3Client s3Client, S3Presigner s3Presigner, String bucketName, String environment,
+                   long signedUrlCacheSize, double reuseFraction, MeterRegistry meterRegistry,
+                   Clock clock, Executor refreshExecutor) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
         this.bucketName = bucketName;
         this.environment = (environment != null && !environment.isBlank()) ? environment.trim().toLowerCase() : "dev";
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+        this.reuseFraction = Math.min(Math.max(reuseFraction, 0.0), 1.0);
+        this.refreshFraction = this.reuseFraction * 0.9;
 
-        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+        this.signedUrls = Caffeine.newBuilder()
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .maximumSize(signedUrlCacheSize)
+                .expireAfter(new Expiry<SignedUrlKey, SignedUrl>() {
+                    @Override
+                    public long expireAfterCreate(SignedUrlKey key, SignedUrl value, long currentTime) {
+                        return nanosUntil(value.reuseUntil());
+                    }
 
-        software.amazon.awssdk.services.s3.S3Configuration s3Config = software.amazon.awssdk.services.s3.S3Configuration.builder()
-                .pathStyleAccessEnabled(true)
-                .build();
+                    @Override
+                    public long expireAfterUpdate(SignedUrlKey key, SignedUrl value, long currentTime, long currentDuration) {
+                        return nanosUntil(value.reuseUntil());
+                    }
 
-        this.s3Client = S3Client.builder()
-                .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                .region(Region.US_EAST_1) // R2 uses us-east-1 as default for S3 compat
-                .endpointOverride(URI.create(endpoint))
-                .serviceConfiguration(s3Config)
-                .build();
-
-        this.s3Presigner = S3Presigner.builder()
-                .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                .region(Region.US_EAST_1)
-                .endpointOverride(URI.create(endpoint))
-                .serviceConfiguration(s3Config)
+                    @Override
+                    public long expireAfterRead(SignedUrlKey key, SignedUrl value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
                 .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, signedUrls, "presigned-urls");
+        this.backgroundRefreshes = Counter.builder("storage.presigned-urls.refreshes")
+                .description("Presigned URLs re-signed in the background before their reuse window ended")
+                .register(meterRegistry);
     }
 
     public String buildTenantKey(java.util.UUID tenantId, String module, String filename) {
         return environment + "/tenants/" + tenantId + "/" + module + "/" + filename;
     }
 
+    /** Everything tenants uploaded in this environment. */
+    public String buildTenantsPrefix() {
+        return environment + "/tenants/";
+    }
+
+    public String buildTenantPrefix(java.util.UUID tenantId) {
+        return environment + "/tenants/" + tenantId + "/";
+    }
+
     public String buildPlayerKey(java.util.UUID tenantId, String teamName, String playerName, String extension) {
         String teamSlug = toSlug(teamName);
         String playerSlug = toSlug(playerName);
@@ -97,12 +167,21 @@ public class StorageService {
             return null;
         }
 
-        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(durationMinutes))
-                .getObjectRequest(b -> b.bucket(bucketName).key(key))
-                .build();
+        SignedUrlKey cacheKey = new SignedUrlKey(key, durationMinutes);
+        SignedUrl signed = signedUrls.get(cacheKey, this::presign);
+        if (clock.instant().isAfter(signed.refreshFrom()) && refreshing.add(cacheKey)) {
+            refreshExecutor.execute(() -> refreshSignedUrl(cacheKey));
+        }
+        return signed.url();
+    }
 
-        return s3Presigner.presignGetObject(presignRequest).url().toString();
+    /**
+     * Opens {@code key} for streaming; the caller must close (or abort) the stream. {@code range} and
+     * {@code ifNoneMatch} are passed through as HTTP headers and may be null. Failures, including
+     * 404, 304 and 416 answers, propagate as exceptions.
+     */
+    public ResponseInputStream<GetObjectResponse> openObject(String key, String range, String ifNoneMatch) {
+        return s3Client.getObject(b -> b.bucket(bucketName).key(key).range(range).ifNoneMatch(ifNoneMatch));
     }
 
     public byte[] getFileBytes(String key) {
@@ -117,10 +196,42 @@ public class StorageService {
         }
     }
 
+    /** Size in bytes of the object under {@code key}; errors (including "not found") propagate. */
+    public long getObjectSize(String key) {
+        return s3Client.headObject(b -> b.bucket(bucketName).key(key)).contentLength();
+    }
+
+    /**
+     * Whether an object exists under {@code key}. Errors other than "not found" propagate, so callers
+     * can tell a missing object from an unreachable bucket.
+     */
+    public boolean exists(String key) {
+        try {
+            s3Client.headObject(b -> b.bucket(bucketName).key(key));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (software.amazon.awssdk.services.s3.model.S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /** Objects under {@code prefix}, fetched page by page as the stream is consumed. */
+    public Stream<StoredObject> listObjects(String prefix) {
+        return s3Client.listObjectsV2Paginator(b -> b.bucket(bucketName).prefix(prefix))
+                .contents()
+                .stream()
+                .map(object -> new StoredObject(object.key(), object.size()));
+    }
+
     public void deleteFile(String key) {
         if (key == null || key.isBlank()) {
             return;
         }
+        signedUrls.asMap().keySet().removeIf(cached -> cached.objectKey().equals(key));
         try {
             s3Client.deleteObject(software.amazon.awssdk.services.s3.model.DeleteObjectRequest.builder()
                     .bucket(bucketName)
@@ -130,4 +241,70 @@ public class StorageService {
             // Fail silently to avoid breaking business operations if object does not exist
         }
     }
+
+    // ---- Private helpers ----
+
+    private static S3Client buildS3Client(String accessKey, String secretKey, String endpoint) {
+        return S3Client.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+                .region(Region.US_EAST_1) // R2 uses us-east-1 as default for S3 compat
+                .endpointOverride(URI.create(endpoint))
+                .serviceConfiguration(pathStyle())
+                .build();
+    }
+
+    private static S3Presigner buildS3Presigner(String accessKey, String secretKey, String endpoint) {
+        return S3Presigner.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create(endpoint))
+                .serviceConfiguration(pathStyle())
+                .build();
+    }
+
+    private static software.amazon.awssdk.services.s3.S3Configuration pathStyle() {
+        return software.amazon.awssdk.services.s3.S3Configuration.builder()
+                .pathStyleAccessEnabled(true)
+                .build();
+    }
+
+    private SignedUrl presign(SignedUrlKey cacheKey) {
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(cacheKey.durationMinutes()))
+                .getObjectRequest(b -> b.bucket(bucketName).key(cacheKey.objectKey()))
+                .build();
+
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(presignRequest);
+        Instant signedAt = clock.instant();
+        long validityMillis = Duration.between(signedAt, presigned.expiration()).toMillis();
+        return new SignedUrl(
+                presigned.url().toString(),
+                signedAt.plusMillis((long) (validityMillis * refreshFraction)),
+                signedAt.plusMillis((long) (validityMillis * reuseFraction)));
+    }
+
+    private void refreshSignedUrl(SignedUrlKey cacheKey) {
+        try {
+            signedUrls.put(cacheKey, presign(cacheKey));
+            backgroundRefreshes.increment();
+        } catch (Exception e) {
+            // The current URL stays valid until its reuse window ends; the next miss re-signs synchronously
+            log.warn("Could not refresh presigned URL for {}: {}", cacheKey.objectKey(), e.getMessage());
+        } finally {
+            refreshing.remove(cacheKey);
+        }
+    }
+
+    private long nanosUntil(Instant instant) {
+        return Math.max(0, Duration.between(clock.instant(), instant).toNanos());
+    }
+
+    public record StoredObject(String key, long size) {
+    }
+
+    private record SignedUrlKey(String objectKey, int durationMinutes) {
+    }
+
+    private record SignedUrl(String url, Instant refreshFrom, Instant reuseUntil) {
+    }
 }
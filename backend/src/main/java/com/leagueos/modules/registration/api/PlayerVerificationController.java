@@ -1,22 +1,29 @@
 package com.leagueos.modules.registration.api;
 
+import com.leagueos.modules.media.service.ImageDerivativeService;
 import com.leagueos.modules.media.service.StorageService;
+import com.leagueos.modules.registration.api.dto.IneExtractionJobDTO;
 import com.leagueos.modules.registration.api.dto.PlayerRegistrationRequest;
 import com.leagueos.modules.registration.api.dto.PlayerResponse;
-import com.leagueos.modules.registration.service.IneExtractionResult;
-import com.leagueos.modules.registration.service.IneExtractionService;
+import com.leagueos.modules.registration.domain.IneExtractionJob;
+import com.leagueos.modules.registration.service.IneExtractionJobService;
+import com.leagueos.modules.registration.service.IneRegistrationService;
 import com.leagueos.modules.registration.service.PlayerRegistrationService;
 import com.leagueos.shared.context.TenantContext;
-import com.leagueos.shared.domain.exception.BusinessRuleException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
@@ -24,24 +31,14 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PlayerVerificationController {
 
-    private final IneExtractionService ineExtractionService;
+    // Longest a status request may wait for its job to finish (wait_seconds)
+    private static final int MAX_JOB_WAIT_SECONDS = 30;
+
+    private final IneRegistrationService ineRegistrationService;
+    private final IneExtractionJobService ineExtractionJobService;
     private final StorageService storageService;
+    private final ImageDerivativeService imageDerivativeService;
     private final PlayerRegistrationService playerRegistrationService;
-    private final com.leagueos.modules.league.persistence.TeamRepository teamRepository;
-    private final com.leagueos.modules.registration.persistence.SeasonRosterRepository seasonRosterRepository;
-
-    private String resolveTeamName(UUID teamId, UUID playerId) {
-        if (teamId != null) {
-            return teamRepository.findById(teamId).map(com.leagueos.modules.league.domain.Team::getName).orElse("general");
-        }
-        if (playerId != null) {
-            return seasonRosterRepository.findByPlayerId(playerId).stream()
-                    .findFirst()
-                    .map(roster -> roster.getTeam() != null ? roster.getTeam().getName() : "general")
-                    .orElse("general");
-        }
-        return "general";
-    }
 
     private String getFileExtension(MultipartFile file, String defaultExt) {
         if (file != null && file.getContentType() != null) {
@@ -66,50 +63,9 @@ public class PlayerVerificationController {
         UUID tenantId = TenantContext.getCurrentTenant();
         log.info("Starting verify-ine for tenant: {}, team: {}", tenantId, teamId);
 
-        // 1. Extract data AND face crop using Gemini
-        log.info("Calling Gemini OCR for INE image (size: {} bytes)...", ineImage.getSize());
-        IneExtractionResult extractedData = ineExtractionService.extractDataFromIne(
-                ineImage.getBytes(), ineImage.getContentType());
-        log.info("Gemini extracted: name={} {}, CURP={}", extractedData.getNombre(), extractedData.getApellidoPaterno(), extractedData.getCurp());
-
-        byte[] faceBytes = extractedData.getCroppedFaceBytes();
-        if (faceBytes == null || faceBytes.length == 0) {
-            throw new BusinessRuleException("No se pudo extraer el rostro del INE. Intenta con una foto más clara.");
-        }
-
-        // 2. Prepare request and pre-validate business rules BEFORE uploading to R2
-        PlayerRegistrationRequest request = new PlayerRegistrationRequest();
-        request.setFirstName(extractedData.getNombre());
-
-        String lastName = extractedData.getApellidoPaterno();
-        if (extractedData.getApellidoMaterno() != null) {
-            lastName += " " + extractedData.getApellidoMaterno();
-        }
-        request.setLastName(lastName);
-        request.setBirthDate(extractedData.getFechaNacimiento());
-        request.setCurp(extractedData.getCurp());
-        request.setTeamId(teamId);
-        request.setJerseyNumber(jerseyNumber);
-        request.setIsForeign(false);
-
-        playerRegistrationService.validateRegistrationPreconditions(request, teamId, tenantId);
-
-        // 3. Upload server-cropped face to R2
-        String teamName = resolveTeamName(teamId, null);
-        String fullName = (extractedData.getNombre() + " " + (extractedData.getApellidoPaterno() != null ? extractedData.getApellidoPaterno() : "") + " " + (extractedData.getApellidoMaterno() != null ? extractedData.getApellidoMaterno() : "")).trim();
-        String faceFilename = storageService.buildPlayerKey(tenantId, teamName, fullName, ".jpg");
-        log.info("Uploading cropped face ({} bytes) to R2 at key {}...", faceBytes.length, faceFilename);
-        storageService.uploadFile(faceFilename, faceBytes, "image/jpeg");
-        request.setProfilePhotoUrl(faceFilename);
-
-        try {
-            PlayerResponse response = playerRegistrationService.registerPlayer(request, teamId, tenantId);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.warn("Registration failed after upload, deleting orphaned file from R2: {}", faceFilename);
-            storageService.deleteFile(faceFilename);
-            throw e;
-        }
+        PlayerResponse response = ineRegistrationService.registerFromIne(
+                tenantId, ineImage.getBytes(), ineImage.getContentType(), teamId, jerseyNumber);
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -123,42 +79,63 @@ public class PlayerVerificationController {
 
         UUID tenantId = TenantContext.getCurrentTenant();
 
-        IneExtractionResult extractedData = ineExtractionService.extractDataFromIne(
-                ineImage.getBytes(), ineImage.getContentType());
+        PlayerResponse response = ineRegistrationService.verifyFromIne(
+                tenantId, id, ineImage.getBytes(), ineImage.getContentType(), jerseyNumber);
+        return ResponseEntity.ok(response);
+    }
 
-        byte[] faceBytes = extractedData.getCroppedFaceBytes();
-        if (faceBytes == null || faceBytes.length == 0) {
-            throw new BusinessRuleException("No se pudo extraer el rostro del INE. Intenta con una foto más clara.");
-        }
+    /**
+     * Queues an INE registration scan and returns at once (202) with the job to poll at
+     * GET /api/players/ine-jobs/{jobId}. Same parameters and outcome as /verify-ine.
+     */
+    @PostMapping(value = "/verify-ine/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<IneExtractionJobDTO> submitRegistrationJob(
+            @RequestParam("ine_image") MultipartFile ineImage,
+            @RequestParam(value = "team_id", required = false) UUID teamId,
+            @RequestParam(value = "jersey_number", required = false) Integer jerseyNumber) throws Exception {
 
-        PlayerRegistrationRequest request = new PlayerRegistrationRequest();
-        request.setFirstName(extractedData.getNombre());
+        IneExtractionJob job = ineExtractionJobService.submitRegistration(
+                ineImage.getBytes(), ineImage.getContentType(), teamId, jerseyNumber);
+        return accepted(job);
+    }
 
-        String lastName = extractedData.getApellidoPaterno();
-        if (extractedData.getApellidoMaterno() != null) {
-            lastName += " " + extractedData.getApellidoMaterno();
-        }
-        request.setLastName(lastName);
-        request.setBirthDate(extractedData.getFechaNacimiento());
-        request.setCurp(extractedData.getCurp());
-        request.setJerseyNumber(jerseyNumber);
+    /**
+     * Queues an INE verification scan of an existing PENDING_VERIFICATION player (see /{id}/verify-ine).
+     */
+    @PostMapping(value = "/{id}/verify-ine/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<IneExtractionJobDTO> submitVerificationJob(
+            @PathVariable UUID id,
+            @RequestParam("ine_image") MultipartFile ineImage,
+            @RequestParam(value = "jersey_number", required = false) Integer jerseyNumber) throws Exception {
 
-        // Pre-validate before uploading to R2
-        playerRegistrationService.validateVerificationPreconditions(id, request, tenantId);
+        IneExtractionJob job = ineExtractionJobService.submitVerification(
+                id, ineImage.getBytes(), ineImage.getContentType(), jerseyNumber);
+        return accepted(job);
+    }
 
-        String teamName = resolveTeamName(null, id);
-        String fullName = (extractedData.getNombre() + " " + (extractedData.getApellidoPaterno() != null ? extractedData.getApellidoPaterno() : "") + " " + (extractedData.getApellidoMaterno() != null ? extractedData.getApellidoMaterno() : "")).trim();
-        String faceFilename = storageService.buildPlayerKey(tenantId, teamName, fullName, ".jpg");
-        storageService.uploadFile(faceFilename, faceBytes, "image/jpeg");
-        request.setProfilePhotoUrl(faceFilename);
+    /**
+     * Status of an INE job. With wait_seconds the response is held (without a request thread) until
+     * the job finishes or the wait elapses; unfinished jobs carry a Retry-After hint.
+     */
+    @GetMapping("/ine-jobs/{jobId}")
+    public DeferredResult<ResponseEntity<IneExtractionJobDTO>> getIneJob(
+            @PathVariable UUID jobId,
+            @RequestParam(value = "wait_seconds", defaultValue = "0") int waitSeconds) {
 
-        try {
-            PlayerResponse response = playerRegistrationService.verifyPlayer(id, request, tenantId);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            storageService.deleteFile(faceFilename);
-            throw e;
+        UUID tenantId = TenantContext.getCurrentTenant();
+        int wait = Math.min(Math.max(waitSeconds, 0), MAX_JOB_WAIT_SECONDS);
+        DeferredResult<ResponseEntity<IneExtractionJobDTO>> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait));
+
+        // Register before reading, so a job finishing in between still completes the wait
+        CompletableFuture<Void> finished = wait > 0 ? ineExtractionJobService.whenFinished(jobId) : null;
+        IneExtractionJob job = ineExtractionJobService.getJob(jobId, tenantId);
+        if (finished == null || job.status().isFinished()) {
+            result.setResult(jobStatus(job));
+            return result;
         }
+        result.onTimeout(() -> result.setResult(jobStatus(ineExtractionJobService.getJob(jobId, tenantId))));
+        finished.thenRun(() -> result.setResult(jobStatus(ineExtractionJobService.getJob(jobId, tenantId))));
+        return result;
     }
 
     /**
@@ -189,11 +166,11 @@ public class PlayerVerificationController {
         playerRegistrationService.validateRegistrationPreconditions(request, teamId, tenantId);
 
         // 2. Upload photo to R2
-        String teamName = resolveTeamName(teamId, null);
+        String teamName = ineRegistrationService.resolveTeamName(teamId, null);
         String fullName = (firstName + " " + (lastName != null ? lastName : "")).trim();
         String ext = getFileExtension(faceCrop, ".webp");
         String faceFilename = storageService.buildPlayerKey(tenantId, teamName, fullName, ext);
-        storageService.uploadFile(faceFilename, faceCrop.getBytes(), faceCrop.getContentType());
+        imageDerivativeService.uploadWithDerivatives(faceFilename, faceCrop.getBytes(), faceCrop.getContentType());
         request.setProfilePhotoUrl(faceFilename);
 
         try {
@@ -201,7 +178,7 @@ public class PlayerVerificationController {
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.warn("Foreign registration failed after upload, deleting orphaned file from R2: {}", faceFilename);
-            storageService.deleteFile(faceFilename);
+            imageDerivativeService.deleteWithDerivatives(faceFilename);
             throw e;
         }
     }
@@ -233,11 +210,11 @@ public class PlayerVerificationController {
         // Pre-validate before uploading to R2
         playerRegistrationService.validateVerificationPreconditions(id, request, tenantId);
 
-        String teamName = resolveTeamName(null, id);
+        String teamName = ineRegistrationService.resolveTeamName(null, id);
         String fullName = (firstName + " " + (lastName != null ? lastName : "")).trim();
         String ext = getFileExtension(faceCrop, ".webp");
         String faceFilename = storageService.buildPlayerKey(tenantId, teamName, fullName, ext);
-        storageService.uploadFile(faceFilename, faceCrop.getBytes(), faceCrop.getContentType());
+        imageDerivativeService.uploadWithDerivatives(faceFilename, faceCrop.getBytes(), faceCrop.getContentType());
         request.setProfilePhotoUrl(faceFilename);
 
         try {
@@ -245,8 +222,36 @@ public class PlayerVerificationController {
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.warn("Foreign verification failed after upload, deleting orphaned file from R2: {}", faceFilename);
-            storageService.deleteFile(faceFilename);
+            imageDerivativeService.deleteWithDerivatives(faceFilename);
             throw e;
         }
     }
+
+    private ResponseEntity<IneExtractionJobDTO> accepted(IneExtractionJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/players/ine-jobs/" + job.id()))
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(toDto(job));
+    }
+
+    private ResponseEntity<IneExtractionJobDTO> jobStatus(IneExtractionJob job) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!job.status().isFinished()) {
+            response.header(HttpHeaders.RETRY_AFTER, "2");
+        }
+        return response.body(toDto(job));
+    }
+
+    private IneExtractionJobDTO toDto(IneExtractionJob job) {
+        IneExtractionJobDTO dto = new IneExtractionJobDTO();
+        dto.setId(job.id());
+        dto.setStatus(job.status());
+        dto.setAttempts(job.attempts());
+        dto.setCreatedAt(job.createdAt());
+        dto.setStartedAt(job.startedAt());
+        dto.setFinishedAt(job.finishedAt());
+        dto.setPlayer(ineExtractionJobService.readResult(job));
+        dto.setErrorMessage(job.status() == IneExtractionJob.Status.FAILED ? job.errorMessage() : null);
+        return dto;
+    }
 }
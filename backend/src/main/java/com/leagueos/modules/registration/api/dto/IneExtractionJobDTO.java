@@ -0,0 +1,21 @@
+package com.leagueos.modules.registration.api.dto;
+
+import com.leagueos.modules.registration.domain.IneExtractionJob;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class IneExtractionJobDTO {
+    private UUID id;
+    private IneExtractionJob.Status status;
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    /** Set once the job SUCCEEDED */
+    private PlayerResponse player;
+    /** Reason shown to the user once the job FAILED */
+    private String errorMessage;
+}
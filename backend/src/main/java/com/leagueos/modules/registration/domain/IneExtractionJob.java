@@ -0,0 +1,38 @@
+package com.leagueos.modules.registration.domain;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An INE scan queued for background processing (table ine_extraction_jobs). {@code playerId} is set
+ * when the scan verifies an existing player and null for a new registration; {@code image} is only
+ * loaded for the worker that claimed the job.
+ */
+public record IneExtractionJob(
+        UUID id,
+        UUID tenantId,
+        UUID playerId,
+        UUID teamId,
+        Integer jerseyNumber,
+        String mimeType,
+        byte[] image,
+        Status status,
+        int attempts,
+        UUID resultPlayerId,
+        String resultBody,
+        String errorMessage,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.leagueos.modules.registration.persistence;
+
+import com.leagueos.modules.registration.domain.IneExtractionJob;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to ine_extraction_jobs. The table is global (shared schema, polled across tenants),
+ * so it goes through JdbcTemplate rather than the tenant-routed Hibernate session.
+ *
+ * Every transition out of RUNNING is fenced on the node that claimed the job and on the attempt
+ * number, so a worker whose lease was taken over cannot overwrite the newer attempt's outcome.
+ */
+@Repository
+public class IneExtractionJobStore {
+
+    /** A queued job and its position within its tenant's queue (1 = next for that tenant). */
+    public record Candidate(UUID id, UUID tenantId, int tenantRank, LocalDateTime createdAt) {
+    }
+
+    private static final String COLUMNS = """
+            id, tenant_id, player_id, team_id, jersey_number, mime_type, status, attempts,
+            result_player_id, result_body, error_message, created_at, started_at, finished_at
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO ine_extraction_jobs (id, tenant_id, player_id, team_id, jersey_number, mime_type, image,
+                                             status, attempts, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 'QUEUED', 0, ?, ?)
+            """;
+
+    private static final String FIND_SQL = "SELECT " + COLUMNS + " FROM ine_extraction_jobs WHERE id = ? AND tenant_id = ?";
+
+    private static final String FIND_CLAIMED_SQL = "SELECT " + COLUMNS + ", image FROM ine_extraction_jobs WHERE id = ?";
+
+    private static final String QUEUED_CANDIDATES_SQL = """
+            SELECT id, tenant_id, tenant_rank, created_at FROM (
+                SELECT id, tenant_id, created_at,
+                       ROW_NUMBER() OVER (PARTITION BY tenant_id ORDER BY created_at, id) AS tenant_rank
+                FROM ine_extraction_jobs
+                WHERE status = 'QUEUED'
+            ) queued
+            WHERE tenant_rank <= ?
+            ORDER BY tenant_rank, created_at
+            """;
+
+    private static final String RUNNING_BY_TENANT_SQL = """
+            SELECT tenant_id, COUNT(*) AS running FROM ine_extraction_jobs WHERE status = 'RUNNING' GROUP BY tenant_id
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE ine_extraction_jobs
+            SET status = 'RUNNING', attempts = attempts + 1, claimed_by = ?, lease_expires_at = ?, started_at = ?, updated_at = ?
+            WHERE id = ? AND status = 'QUEUED'
+            """;
+
+    private static final String RENEW_LEASES_SQL = """
+            UPDATE ine_extraction_jobs SET lease_expires_at = ?
+            WHERE status = 'RUNNING' AND claimed_by = ?
+            """;
+
+    private static final String SUCCEED_SQL = """
+            UPDATE ine_extraction_jobs
+            SET status = 'SUCCEEDED', result_player_id = ?, result_body = ?, error_message = NULL, image = NULL,
+                claimed_by = NULL, lease_expires_at = NULL, finished_at = ?, updated_at = ?
+            WHERE id = ? AND status = 'RUNNING' AND claimed_by = ? AND attempts = ?
+            """;
+
+    private static final String RECORD_RESULT_PLAYER_SQL = """
+            UPDATE ine_extraction_jobs SET result_player_id = ?, updated_at = ?
+            WHERE id = ? AND status = 'RUNNING' AND claimed_by = ? AND attempts = ?
+            """;
+
+    private static final String FAIL_SQL = """
+            UPDATE ine_extraction_jobs
+            SET status = 'FAILED', error_message = ?, image = NULL,
+                claimed_by = NULL, lease_expires_at = NULL, finished_at = ?, updated_at = ?
+            WHERE id = ? AND status = 'RUNNING' AND claimed_by = ? AND attempts = ?
+            """;
+
+    private static final String REQUEUE_SQL = """
+            UPDATE ine_extraction_jobs
+            SET status = 'QUEUED', error_message = ?, claimed_by = NULL, lease_expires_at = NULL, updated_at = ?
+            WHERE id = ? AND status = 'RUNNING' AND claimed_by = ? AND attempts = ?
+            """;
+
+    private static final String REQUEUE_EXPIRED_SQL = """
+            UPDATE ine_extraction_jobs
+            SET status = 'QUEUED', claimed_by = NULL, lease_expires_at = NULL, updated_at = ?
+            WHERE status = 'RUNNING' AND lease_expires_at < ? AND attempts < ?
+            """;
+
+    private static final String FAIL_EXPIRED_SQL = """
+            UPDATE ine_extraction_jobs
+            SET status = 'FAILED', error_message = ?, image = NULL,
+                claimed_by = NULL, lease_expires_at = NULL, finished_at = ?, updated_at = ?
+            WHERE status = 'RUNNING' AND lease_expires_at < ? AND attempts >= ?
+            """;
+
+    private static final String PURGE_SQL = "DELETE FROM ine_extraction_jobs WHERE finished_at < ?";
+
+    private static final RowMapper<IneExtractionJob> JOB_WITHOUT_IMAGE = (rs, i) -> map(rs, null);
+    private static final RowMapper<IneExtractionJob> JOB_WITH_IMAGE = (rs, i) -> map(rs, rs.getBytes("image"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IneExtractionJobStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(UUID id, UUID tenantId, UUID playerId, UUID teamId, Integer jerseyNumber, String mimeType,
+                       byte[] image, LocalDateTime now) {
+        jdbcTemplate.update(INSERT_SQL, id, tenantId, playerId, teamId, jerseyNumber, mimeType, image,
+                Timestamp.valueOf(now), Timestamp.valueOf(now));
+    }
+
+    /** The job without its image, only if it belongs to {@code tenantId}. */
+    public Optional<IneExtractionJob> findById(UUID id, UUID tenantId) {
+        return jdbcTemplate.query(FIND_SQL, JOB_WITHOUT_IMAGE, id, tenantId).stream().findFirst();
+    }
+
+    /** Up to {@code perTenant} oldest queued jobs of every tenant, first-in-line of each tenant first. */
+    public List<Candidate> findQueuedCandidates(int perTenant) {
+        return jdbcTemplate.query(QUEUED_CANDIDATES_SQL, (rs, i) -> new Candidate(
+                rs.getObject("id", UUID.class),
+                rs.getObject("tenant_id", UUID.class),
+                rs.getInt("tenant_rank"),
+                rs.getTimestamp("created_at").toLocalDateTime()), perTenant);
+    }
+
+    public Map<UUID, Integer> countRunningByTenant() {
+        Map<UUID, Integer> running = new HashMap<>();
+        jdbcTemplate.query(RUNNING_BY_TENANT_SQL, rs -> {
+            running.put(rs.getObject("tenant_id", UUID.class), rs.getInt("running"));
+        });
+        return running;
+    }
+
+    /** Moves a queued job to RUNNING for {@code nodeId}; returns it with its image, or empty if another node won. */
+    public Optional<IneExtractionJob> claim(UUID id, String nodeId, LocalDateTime now, LocalDateTime leaseUntil) {
+        int claimed = jdbcTemplate.update(CLAIM_SQL, nodeId, Timestamp.valueOf(leaseUntil), Timestamp.valueOf(now),
+                Timestamp.valueOf(now), id);
+        if (claimed == 0) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.query(FIND_CLAIMED_SQL, JOB_WITH_IMAGE, id).stream().findFirst();
+    }
+
+    public int renewLeases(String nodeId, LocalDateTime leaseUntil) {
+        return jdbcTemplate.update(RENEW_LEASES_SQL, Timestamp.valueOf(leaseUntil), nodeId);
+    }
+
+    public boolean succeed(IneExtractionJob job, String nodeId, UUID playerId, String resultBody, LocalDateTime now) {
+        return jdbcTemplate.update(SUCCEED_SQL, playerId, resultBody, Timestamp.valueOf(now), Timestamp.valueOf(now),
+                job.id(), nodeId, job.attempts()) == 1;
+    }
+
+    /**
+     * Notes the player an attempt created. Called inside the transaction that writes the player, so
+     * the player and the note commit together and a retried job does not register the player again.
+     * False if the attempt no longer owns the job; the caller then rolls the player back.
+     */
+    public boolean recordResultPlayer(IneExtractionJob job, String nodeId, UUID playerId, LocalDateTime now) {
+        return jdbcTemplate.update(RECORD_RESULT_PLAYER_SQL, playerId, Timestamp.valueOf(now), job.id(), nodeId,
+                job.attempts()) == 1;
+    }
+
+    public boolean fail(IneExtractionJob job, String nodeId, String errorMessage, LocalDateTime now) {
+        return jdbcTemplate.update(FAIL_SQL, errorMessage, Timestamp.valueOf(now), Timestamp.valueOf(now),
+                job.id(), nodeId, job.attempts()) == 1;
+    }
+
+    public boolean requeue(IneExtractionJob job, String nodeId, String errorMessage, LocalDateTime now) {
+        return jdbcTemplate.update(REQUEUE_SQL, errorMessage, Timestamp.valueOf(now), job.id(), nodeId, job.attempts()) == 1;
+    }
+
+    /**
+     * Jobs whose lease lapsed (their node died or restarted): queued again while attempts remain,
+     * failed with {@code exhaustedMessage} otherwise. Returns the number of jobs requeued.
+     */
+    public int recoverExpired(LocalDateTime now, int maxAttempts, String exhaustedMessage) {
+        Timestamp ts = Timestamp.valueOf(now);
+        jdbcTemplate.update(FAIL_EXPIRED_SQL, exhaustedMessage, ts, ts, ts, maxAttempts);
+        return jdbcTemplate.update(REQUEUE_EXPIRED_SQL, ts, ts, maxAttempts);
+    }
+
+    public int purgeFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(cutoff));
+    }
+
+    // ---- Private helpers ----
+
+    private static IneExtractionJob map(ResultSet rs, byte[] image) throws SQLException {
+        return new IneExtractionJob(
+                rs.getObject("id", UUID.class),
+                rs.getObject("tenant_id", UUID.class),
+                rs.getObject("player_id", UUID.class),
+                rs.getObject("team_id", UUID.class),
+                (Integer) rs.getObject("jersey_number"),
+                rs.getString("mime_type"),
+                image,
+                IneExtractionJob.Status.valueOf(rs.getString("status")),
+                rs.getInt("attempts"),
+                rs.getObject("result_player_id", UUID.class),
+                rs.getString("result_body"),
+                rs.getString("error_message"),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("started_at")),
+                toLocalDateTime(rs.getTimestamp("finished_at")));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -2,11 +2,34 @@ package com.leagueos.modules.registration.persistence;
 
 import com.leagueos.modules.registration.domain.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PlayerRepository extends JpaRepository<Player, UUID> {
+
+    /** Bulk suspension update; tenant is matched explicitly because the tenantFilter does not apply to DML. */
+    @Modifying
+    @Query("UPDATE Player p SET p.suspendedUntilMatchday = :untilMatchday, p.updatedAt = :now " +
+           "WHERE p.id IN :playerIds AND p.tenantId = :tenantId")
+    int updateSuspendedUntilMatchday(@Param("playerIds") Collection<UUID> playerIds,
+                                     @Param("untilMatchday") Integer untilMatchday,
+                                     @Param("tenantId") UUID tenantId,
+                                     @Param("now") LocalDateTime now);
+
+    /** The player if registered with the team for the season, in the tenant (ids sent by clients are not trusted). */
+    @Query("SELECT r.player FROM SeasonRoster r WHERE r.player.id = :playerId AND r.team.id = :teamId " +
+           "AND r.season.id = :seasonId AND r.player.tenantId = :tenantId")
+    Optional<Player> findOnRoster(@Param("playerId") UUID playerId,
+                                  @Param("teamId") UUID teamId,
+                                  @Param("seasonId") UUID seasonId,
+                                  @Param("tenantId") UUID tenantId);
 }
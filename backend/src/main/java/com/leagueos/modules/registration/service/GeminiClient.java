@@ -0,0 +1,278 @@
+package com.leagueos.modules.registration.service;
+
+import com.leagueos.shared.domain.exception.BusinessRuleException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Gemini generateContent across the configured models, in order of preference.
+ *
+ * The first available model is called; if it has not answered within the hedge delay (its recent p95
+ * latency, clamped) the next model is called alongside it, and a failed call is replaced by the next
+ * model straight away. The first response the caller's parser accepts wins and calls still in flight
+ * are cancelled; a response the parser rejects ends the request the same way, since another model
+ * reading the same photo would not change the verdict. Each model has a {@link ModelCircuitBreaker}
+ * fed by transport errors, 5xx and 429 only, so a model that keeps failing is skipped instead of
+ * costing every scan a timeout.
+ *
+ * Meters (per model): gemini.request.latency (successful calls, with p95), gemini.requests{outcome}.
+ */
+@Slf4j
+@Component
+public class GeminiClient {
+
+    static final String SATURATED_MESSAGE =
+            "El servicio de IA de Google está saturado temporalmente. Intenta de nuevo en unos segundos.";
+
+    private static final double HEDGE_PERCENTILE = 0.95;
+    // Each model may be tried this many times per request, as the sequential retry loop used to
+    private static final int ROUNDS = 2;
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String apiKey;
+    private final List<String> models;
+    private final Duration requestTimeout;
+    private final Duration deadline;
+    private final boolean hedgeEnabled;
+    private final Duration defaultHedgeDelay;
+    private final Duration minHedgeDelay;
+    private final long minSamples;
+    private final Map<String, ModelStats> stats = new LinkedHashMap<>();
+    private final Counter hedges;
+
+    private record ModelStats(ModelCircuitBreaker breaker, Timer latency, Counter failed, Counter cancelled,
+                              Counter skipped) {
+    }
+
+    public GeminiClient(
+            @Value("${gemini.api-key}") String apiKey,
+            @Value("${gemini.base-url:https://generativelanguage.googleapis.com}") String baseUrl,
+            @Value("${gemini.models:gemini-3-flash-preview,gemini-flash-latest,gemini-3.1-flash-lite-preview}") List<String> models,
+            @Value("${gemini.request-timeout-ms:30000}") long requestTimeoutMillis,
+            @Value("${gemini.deadline-ms:60000}") long deadlineMillis,
+            @Value("${gemini.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${gemini.hedge.default-delay-ms:4000}") long defaultHedgeDelayMillis,
+            @Value("${gemini.hedge.min-delay-ms:500}") long minHedgeDelayMillis,
+            @Value("${gemini.hedge.min-samples:20}") long minSamples,
+            @Value("${gemini.breaker.failure-threshold:3}") int breakerFailureThreshold,
+            @Value("${gemini.breaker.open-seconds:30}") long breakerOpenSeconds,
+            MeterRegistry meterRegistry) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.models = List.copyOf(models);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.deadline = Duration.ofMillis(deadlineMillis);
+        this.hedgeEnabled = hedgeEnabled;
+        this.defaultHedgeDelay = Duration.ofMillis(defaultHedgeDelayMillis);
+        this.minHedgeDelay = Duration.ofMillis(minHedgeDelayMillis);
+        this.minSamples = minSamples;
+
+        for (String model : this.models) {
+            ModelCircuitBreaker breaker = new ModelCircuitBreaker(breakerFailureThreshold, Duration.ofSeconds(breakerOpenSeconds));
+            Gauge.builder("gemini.circuit.open", breaker, b -> b.state() == ModelCircuitBreaker.State.CLOSED ? 0 : 1)
+                    .tag("model", model)
+                    .description("1 while calls to the model are being skipped after repeated failures")
+                    .register(meterRegistry);
+            stats.put(model, new ModelStats(breaker,
+                    Timer.builder("gemini.request.latency")
+                            .tag("model", model)
+                            .description("Latency of successful Gemini calls; its p95 sets the hedge delay")
+                            .publishPercentiles(HEDGE_PERCENTILE)
+                            .distributionStatisticExpiry(Duration.ofMinutes(5))
+                            .register(meterRegistry),
+                    requests(meterRegistry, model, "failed"),
+                    requests(meterRegistry, model, "cancelled"),
+                    requests(meterRegistry, model, "skipped")));
+        }
+        this.hedges = Counter.builder("gemini.hedges")
+                .description("Backup Gemini calls started because the previous one was slower than its p95")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends {@code requestBody} (JSON) and returns the first response {@code parser} accepts. A
+     * {@link BusinessRuleException} from the parser (the content was rejected) is rethrown at once; if no
+     * model answers at all, a "saturated" one is thrown.
+     */
+    public <T> T generateContent(byte[] requestBody, Function<String, T> parser) {
+        Deque<String> plan = new ArrayDeque<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            plan.addAll(models);
+        }
+        BlockingQueue<Call<T>> completed = new LinkedBlockingQueue<>();
+        List<Call<T>> inFlight = new ArrayList<>();
+        long deadlineAt = System.nanoTime() + deadline.toNanos();
+
+        try {
+            while (true) {
+                if (inFlight.isEmpty() && !launchNext(plan, inFlight, completed, requestBody, parser)) {
+                    break;
+                }
+                long now = System.nanoTime();
+                if (now >= deadlineAt) {
+                    log.warn("Gemini: no valid answer within {} ms", deadline.toMillis());
+                    break;
+                }
+                boolean canHedge = hedgeEnabled && inFlight.size() < MAX_IN_FLIGHT && !plan.isEmpty();
+                Call<T> newest = inFlight.get(inFlight.size() - 1);
+                long hedgeAt = newest.startedAt + hedgeDelay(newest.model).toNanos();
+                long waitUntil = canHedge ? Math.min(deadlineAt, hedgeAt) : deadlineAt;
+
+                Call<T> done = completed.poll(Math.max(0, waitUntil - now), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (canHedge && System.nanoTime() >= hedgeAt
+                            && launchNext(plan, inFlight, completed, requestBody, parser)) {
+                        log.info("Gemini: {} slower than its p95, hedging with {}", newest.model,
+                                inFlight.get(inFlight.size() - 1).model);
+                        hedges.increment();
+                    }
+                    continue;
+                }
+
+                inFlight.remove(done);
+                ModelStats model = stats.get(done.model);
+                if (done.error == null) {
+                    model.breaker().onSuccess();
+                    model.latency().record(done.finishedAt - done.startedAt, TimeUnit.NANOSECONDS);
+                    return done.value;
+                }
+                if (done.error instanceof BusinessRuleException e) {
+                    // The model is healthy, the photo is not: no hedge, no failure recorded
+                    model.breaker().onSuccess();
+                    throw e;
+                }
+                log.warn("Gemini model {} failed: {}", done.model, done.error.getMessage());
+                if (done.unavailable) {
+                    model.breaker().onFailure();
+                    model.failed().increment();
+                } else {
+                    // Any other 4xx is about the request, not the model's health
+                    model.breaker().onCancelled();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Gemini", e);
+        } finally {
+            for (Call<T> call : inFlight) {
+                if (call.exchange.cancel(true)) {
+                    stats.get(call.model).cancelled().increment();
+                }
+                // Also releases a half-open trial whose answer arrived after the winner
+                stats.get(call.model).breaker().onCancelled();
+            }
+        }
+        throw new BusinessRuleException(SATURATED_MESSAGE);
+    }
+
+    // ---- Private helpers ----
+
+    /** One model call; completion (success, failure or cancellation) is reported on {@code completed}. */
+    private static final class Call<T> {
+        final String model;
+        final long startedAt = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> exchange;
+        volatile long finishedAt;
+        volatile T value;
+        volatile Throwable error;
+        // Transport error, 5xx or 429: counts against the model's breaker
+        volatile boolean unavailable;
+
+        Call(String model) {
+            this.model = model;
+        }
+    }
+
+    private <T> boolean launchNext(Deque<String> plan, List<Call<T>> inFlight, BlockingQueue<Call<T>> completed,
+                                   byte[] requestBody, Function<String, T> parser) {
+        while (!plan.isEmpty()) {
+            String model = plan.poll();
+            ModelStats modelStats = stats.get(model);
+            if (!modelStats.breaker().tryAcquire()) {
+                modelStats.skipped().increment();
+                continue;
+            }
+            log.info("Gemini OCR — model: {}", model);
+            Call<T> call = new Call<>(model);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                            String.format("%s/v1beta/models/%s:generateContent?key=%s", baseUrl, model, apiKey)))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(requestBody))
+                    .build();
+            call.exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            call.exchange.whenComplete((response, error) -> {
+                call.finishedAt = System.nanoTime();
+                if (error != null) {
+                    call.error = error;
+                    call.unavailable = true;
+                } else if (response.statusCode() != 200) {
+                    call.error = new IllegalStateException("HTTP " + response.statusCode());
+                    call.unavailable = response.statusCode() >= 500 || response.statusCode() == 429;
+                } else {
+                    try {
+                        call.value = parser.apply(response.body());
+                    } catch (RuntimeException e) {
+                        call.error = e;
+                    }
+                }
+                completed.add(call);
+            });
+            inFlight.add(call);
+            return true;
+        }
+        return false;
+    }
+
+    private Duration hedgeDelay(String model) {
+        Timer latency = stats.get(model).latency();
+        if (latency.count() < minSamples) {
+            return defaultHedgeDelay;
+        }
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == HEDGE_PERCENTILE && value.value() > 0) {
+                Duration p95 = Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+                if (p95.compareTo(minHedgeDelay) < 0) return minHedgeDelay;
+                if (p95.compareTo(requestTimeout) > 0) return requestTimeout;
+                return p95;
+            }
+        }
+        return defaultHedgeDelay;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String model, String outcome) {
+        return Counter.builder("gemini.requests")
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .description("Gemini calls that did not produce the answer, by reason")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,303 @@
+package com.leagueos.modules.registration.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.leagueos.shared.infrastructure.cache.CacheLoads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Extraction results keyed by tenant and SHA-256 of the uploaded INE image.
+ *
+ * Delegates often upload the same photo again after a registration is rejected (jersey number taken,
+ * duplicate name, ...); the retry then skips EXIF correction, the Gemini round trip and the face crop.
+ * Entries hold the serialized result plus the cropped face, are bounded by {@code max-memory-mb} and
+ * expire {@code ttl-minutes} after the extraction. Only successful extractions with a cropped face are kept,
+ * and concurrent uploads of the same image share one extraction.
+ *
+ * With {@code disk-dir} set, entries pushed out of memory by size are written there (bounded by
+ * {@code disk-max-mb}, same TTL) and moved back into memory on the next hit. The files hold personal
+ * data, so the directory must be local to the node and not shared.
+ */
+@Slf4j
+@Component
+public class IneExtractionCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private record Key(UUID tenantId, String sha256) {
+    }
+
+    /** Serialized {@link IneExtractionResult} (without the face) and the cropped face, as of {@code extractedAt}. */
+    private record Entry(long extractedAt, byte[] json, byte[] face) {
+        int weight() {
+            return ENTRY_OVERHEAD_BYTES + json.length + face.length;
+        }
+    }
+
+    private record SpillFile(Path path, long modified, long size) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final Path diskDir;
+    private final long diskMaxBytes;
+    private final AsyncCache<Key, Entry> cache;
+    private final Counter diskHits;
+    private final Counter spills;
+
+    @Autowired
+    public IneExtractionCache(
+            ObjectMapper objectMapper,
+            @Value("${app.ine.cache.enabled:true}") boolean enabled,
+            @Value("${app.ine.cache.max-memory-mb:64}") long maxMemoryMb,
+            @Value("${app.ine.cache.ttl-minutes:30}") long ttlMinutes,
+            @Value("${app.ine.cache.disk-dir:}") String diskDir,
+            @Value("${app.ine.cache.disk-max-mb:512}") long diskMaxMb,
+            MeterRegistry meterRegistry) {
+        this(objectMapper, enabled, maxMemoryMb, ttlMinutes, diskDir, diskMaxMb, meterRegistry,
+                diskDir == null || diskDir.isBlank() ? ForkJoinPool.commonPool() : spillExecutor());
+    }
+
+    /** {@code executor} runs the cache's maintenance, and with it the spills; tests pass a same-thread one. */
+    IneExtractionCache(ObjectMapper objectMapper, boolean enabled, long maxMemoryMb, long ttlMinutes, String diskDir,
+                       long diskMaxMb, MeterRegistry meterRegistry, Executor executor) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.diskDir = diskDir == null || diskDir.isBlank() ? null : Path.of(diskDir);
+        this.diskMaxBytes = diskMaxMb * 1024 * 1024;
+        this.cache = Caffeine.newBuilder()
+                .executor(executor)
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .<Key, Entry>weigher((key, entry) -> entry.weight())
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis(entry)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // Runs inside the eviction, while the key is still locked: a lookup of the same image waits
+                // for the file instead of finding the entry neither in memory nor on disk
+                .evictionListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && key != null && entry != null) {
+                        spill(key, entry);
+                    }
+                })
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && this.diskDir != null) {
+                        pruneDisk();
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ine-extractions");
+        this.diskHits = Counter.builder("ine.cache.disk.hits")
+                .description("INE extractions served from the local disk spill")
+                .register(meterRegistry);
+        this.spills = Counter.builder("ine.cache.disk.spills")
+                .description("INE extractions written to the local disk spill when memory was full")
+                .register(meterRegistry);
+        if (this.diskDir != null) {
+            pruneDisk();
+        }
+    }
+
+    /**
+     * The cached extraction of {@code image} for the tenant, or {@code extractor}'s result, which is then
+     * cached. The image is hashed before {@code extractor} runs (the extraction wipes the buffer).
+     * Every call returns its own copy, so callers may modify it.
+     */
+    public IneExtractionResult getOrExtract(UUID tenantId, byte[] image, Supplier<IneExtractionResult> extractor) {
+        if (!enabled || tenantId == null) {
+            return extractor.get();
+        }
+        Key key = new Key(tenantId, sha256(image));
+        Entry entry = CacheLoads.getOrLoad(cache, key, k -> {
+            Entry spilled = readSpilled(k);
+            return spilled != null ? spilled : toEntry(extractor.get());
+        });
+        if (entry.face().length == 0) {
+            // No usable face: let a retry of the same photo ask Gemini again
+            cache.synchronous().invalidate(key);
+        }
+        return fromEntry(entry);
+    }
+
+    // ---- Serialization ----
+
+    private Entry toEntry(IneExtractionResult result) {
+        try {
+            byte[] face = result.getCroppedFaceBytes() != null ? result.getCroppedFaceBytes() : new byte[0];
+            return new Entry(System.currentTimeMillis(), objectMapper.writeValueAsBytes(result), face.clone());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize INE extraction", e);
+        }
+    }
+
+    private IneExtractionResult fromEntry(Entry entry) {
+        try {
+            IneExtractionResult result = objectMapper.readValue(entry.json(), IneExtractionResult.class);
+            result.setCroppedFaceBytes(entry.face().length > 0 ? entry.face().clone() : null);
+            return result;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read cached INE extraction", e);
+        }
+    }
+
+    private long remainingMillis(Entry entry) {
+        return entry.extractedAt() + ttlMillis - System.currentTimeMillis();
+    }
+
+    // ---- Disk spill ----
+
+    private Path pathOf(Key key) {
+        return diskDir.resolve(key.tenantId().toString()).resolve(key.sha256() + ".bin");
+    }
+
+    private void spill(Key key, Entry entry) {
+        if (diskDir == null || remainingMillis(entry) <= 0) {
+            return;
+        }
+        try {
+            Path target = pathOf(key);
+            Files.createDirectories(target.getParent());
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(entry.weight());
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                out.writeLong(entry.extractedAt());
+                out.writeInt(entry.json().length);
+                out.write(entry.json());
+                out.writeInt(entry.face().length);
+                out.write(entry.face());
+            }
+            Path temp = Files.createTempFile(target.getParent(), key.sha256(), ".tmp");
+            Files.write(temp, buffer.toByteArray());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            spills.increment();
+        } catch (IOException e) {
+            log.warn("IneExtractionCache: could not spill entry to {}: {}", diskDir, e.getMessage());
+        }
+    }
+
+    /** The spilled entry for {@code key}, removed from disk since it goes back into memory; null if absent or expired. */
+    private Entry readSpilled(Key key) {
+        if (diskDir == null) {
+            return null;
+        }
+        Path path = pathOf(key);
+        try {
+            if (!Files.exists(path)) {
+                return null;
+            }
+            Entry entry;
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(path)))) {
+                long extractedAt = in.readLong();
+                byte[] json = in.readNBytes(in.readInt());
+                byte[] face = in.readNBytes(in.readInt());
+                entry = new Entry(extractedAt, json, face);
+            }
+            Files.deleteIfExists(path);
+            if (remainingMillis(entry) <= 0) {
+                return null;
+            }
+            diskHits.increment();
+            return entry;
+        } catch (IOException e) {
+            log.warn("IneExtractionCache: could not read spilled entry {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Drops expired spill files, then the oldest ones while the directory is over its budget.
+     * Runs at startup and after spills on the spill thread, never on a request thread.
+     */
+    private synchronized void pruneDisk() {
+        if (!Files.isDirectory(diskDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(diskDir)) {
+            List<Path> spilled = files.filter(p -> p.toString().endsWith(".bin")).toList();
+            long cutoff = System.currentTimeMillis() - ttlMillis;
+            long total = 0;
+            List<SpillFile> live = new ArrayList<>();
+            for (Path path : spilled) {
+                long modified = Files.getLastModifiedTime(path).toMillis();
+                if (modified < cutoff) {
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                long size = Files.size(path);
+                total += size;
+                live.add(new SpillFile(path, modified, size));
+            }
+            live.sort(Comparator.comparingLong(SpillFile::modified));
+            for (SpillFile file : live) {
+                if (total <= diskMaxBytes) break;
+                Files.deleteIfExists(file.path());
+                total -= file.size();
+            }
+        } catch (IOException e) {
+            log.warn("IneExtractionCache: could not prune {}: {}", diskDir, e.getMessage());
+        }
+    }
+
+    // Spills are disk writes: keep them off the common pool, which parallel streams and other caches share
+    private static Executor spillExecutor() {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ine-cache-spill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.leagueos.modules.registration.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueos.modules.registration.api.dto.PlayerResponse;
+import com.leagueos.modules.registration.domain.IneExtractionJob;
+import com.leagueos.modules.registration.persistence.IneExtractionJobStore;
+import com.leagueos.modules.registration.persistence.IneExtractionJobStore.Candidate;
+import com.leagueos.shared.context.TenantContext;
+import com.leagueos.shared.domain.exception.BusinessRuleException;
+import com.leagueos.shared.domain.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Background processing of INE scans.
+ *
+ * Submitting stores the image in ine_extraction_jobs and returns at once; a fixed pool of
+ * {@code workers} threads runs the same pipeline as the synchronous endpoints. A single dispatcher
+ * thread hands out free worker slots: it looks at the head of every tenant's queue, skips tenants
+ * already running {@code max-running-per-tenant} jobs and serves the tenant with the fewest running
+ * jobs first (oldest job breaks ties), so one league's registration day cannot starve the others.
+ *
+ * Jobs survive restarts: the node working on a job renews its lease on every dispatch tick, and a
+ * job whose lease lapsed is queued again until {@code max-attempts} is reached. Business-rule
+ * failures (unreadable INE, duplicate CURP, ...) are final; unexpected errors are retried. The saved
+ * player's id is written to the job together with the player, so a retry after a partial success
+ * returns that player instead of registering it again.
+ */
+@Slf4j
+@Service
+public class IneExtractionJobService implements InitializingBean, DisposableBean {
+
+    private static final String GENERIC_FAILURE = "No se pudo procesar el INE. Intenta de nuevo.";
+
+    private final IneExtractionJobStore store;
+    private final IneRegistrationService ineRegistrationService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int workers;
+    private final int maxRunningPerTenant;
+    private final int maxAttempts;
+    private final long pollIntervalMillis;
+    private final Duration lease;
+    private final Duration retention;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Semaphore freeSlots;
+    private final AtomicInteger running = new AtomicInteger();
+    // Completion signals for long-polling clients; entries for jobs finished elsewhere simply expire
+    private final Cache<UUID, CompletableFuture<Void>> completions = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter retried;
+    private final Timer queueWait;
+    private final Timer processing;
+
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService workerPool;
+    private volatile LocalDateTime lastPurge = LocalDateTime.MIN;
+
+    public IneExtractionJobService(
+            IneExtractionJobStore store,
+            IneRegistrationService ineRegistrationService,
+            ObjectMapper objectMapper,
+            @Value("${app.ine.jobs.enabled:true}") boolean enabled,
+            @Value("${app.ine.jobs.workers:4}") int workers,
+            @Value("${app.ine.jobs.max-running-per-tenant:2}") int maxRunningPerTenant,
+            @Value("${app.ine.jobs.max-attempts:3}") int maxAttempts,
+            @Value("${app.ine.jobs.poll-interval-ms:1000}") long pollIntervalMillis,
+            @Value("${app.ine.jobs.lease-seconds:60}") long leaseSeconds,
+            @Value("${app.ine.jobs.retention-hours:72}") long retentionHours,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.ineRegistrationService = ineRegistrationService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.maxRunningPerTenant = Math.max(1, maxRunningPerTenant);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retention = Duration.ofHours(retentionHours);
+        this.freeSlots = new Semaphore(workers);
+
+        Gauge.builder("ine.jobs.running", running, AtomicInteger::get)
+                .description("INE jobs being processed on this node")
+                .register(meterRegistry);
+        this.succeeded = Counter.builder("ine.jobs.finished").tag("outcome", "succeeded")
+                .description("INE jobs that reached a final state").register(meterRegistry);
+        this.failed = Counter.builder("ine.jobs.finished").tag("outcome", "failed")
+                .description("INE jobs that reached a final state").register(meterRegistry);
+        this.retried = Counter.builder("ine.jobs.retried")
+                .description("INE job attempts that failed unexpectedly and were queued again")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("ine.jobs.queue.wait")
+                .description("Time from submission (or requeue) to a worker starting the job")
+                .register(meterRegistry);
+        this.processing = Timer.builder("ine.jobs.processing")
+                .description("Time a worker spends on one INE job attempt")
+                .register(meterRegistry);
+    }
+
+    /** Queues a scan that registers a new player (optionally into {@code teamId}). */
+    public IneExtractionJob submitRegistration(byte[] ineImage, String mimeType, UUID teamId, Integer jerseyNumber) {
+        return submit(null, teamId, ineImage, mimeType, jerseyNumber);
+    }
+
+    /** Queues a scan that verifies the existing PENDING_VERIFICATION player {@code playerId}. */
+    public IneExtractionJob submitVerification(UUID playerId, byte[] ineImage, String mimeType, Integer jerseyNumber) {
+        return submit(playerId, null, ineImage, mimeType, jerseyNumber);
+    }
+
+    public IneExtractionJob getJob(UUID jobId) {
+        return getJob(jobId, requireTenant());
+    }
+
+    /** For callers off the request thread (long-poll completion), where the tenant is no longer in context. */
+    public IneExtractionJob getJob(UUID jobId, UUID tenantId) {
+        return store.findById(jobId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trabajo de INE no encontrado"));
+    }
+
+    /**
+     * Completes once the job finishes on this node. Callers read the job after registering, so a job
+     * that finished just before is not missed; a job finished by another node is caught by re-polling.
+     */
+    public CompletableFuture<Void> whenFinished(UUID jobId) {
+        return completions.get(jobId, id -> new CompletableFuture<>());
+    }
+
+    public PlayerResponse readResult(IneExtractionJob job) {
+        if (job.resultBody() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(job.resultBody(), PlayerResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("IneExtractionJobService: unreadable result for job {}: {}", job.id(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            log.info("IneExtractionJobService: background INE jobs disabled on this node");
+            return;
+        }
+        AtomicInteger threadIds = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "ine-job-worker-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ine-job-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::tick, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (dispatcher != null) dispatcher.shutdownNow();
+        // Interrupted jobs keep their lease until it lapses, then another node (or the next start) retries them
+        if (workerPool != null) workerPool.shutdownNow();
+    }
+
+    // ---- Dispatching ----
+
+    /** Periodic pass: renew our leases, recover abandoned jobs, purge old ones, then hand out free slots. */
+    void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (running.get() > 0) {
+                store.renewLeases(nodeId, now.plus(lease));
+            }
+            int recovered = store.recoverExpired(now, maxAttempts, GENERIC_FAILURE);
+            if (recovered > 0) {
+                log.info("IneExtractionJobService: requeued {} INE jobs whose lease lapsed", recovered);
+            }
+            if (lastPurge.isBefore(now.minusHours(1))) {
+                lastPurge = now;
+                store.purgeFinishedBefore(now.minus(retention));
+            }
+        } catch (RuntimeException e) {
+            log.warn("IneExtractionJobService: maintenance pass failed: {}", e.getMessage());
+        }
+        dispatchSafely();
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.warn("IneExtractionJobService: dispatch pass failed: {}", e.getMessage());
+        }
+    }
+
+    /** Fills free worker slots with the fairest queued jobs. Runs only on the dispatcher thread. */
+    void dispatch() {
+        if (freeSlots.availablePermits() == 0) {
+            return;
+        }
+        Map<UUID, Integer> runningByTenant = store.countRunningByTenant();
+        List<Candidate> candidates = store.findQueuedCandidates(workers);
+        // running + rank = how many jobs the tenant would have running if this one started next, so
+        // sorting on it interleaves tenants towards an even share of the workers
+        candidates = candidates.stream()
+                .sorted(Comparator.<Candidate>comparingInt(c -> runningByTenant.getOrDefault(c.tenantId(), 0) + c.tenantRank())
+                        .thenComparing(Candidate::createdAt))
+                .toList();
+
+        for (Candidate candidate : candidates) {
+            if (runningByTenant.getOrDefault(candidate.tenantId(), 0) >= maxRunningPerTenant) {
+                continue;
+            }
+            if (!freeSlots.tryAcquire()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Optional<IneExtractionJob> claimed = store.claim(candidate.id(), nodeId, now, now.plus(lease));
+            if (claimed.isEmpty()) {
+                freeSlots.release();
+                continue;
+            }
+            runningByTenant.merge(candidate.tenantId(), 1, Integer::sum);
+            queueWait.record(Duration.between(candidate.createdAt(), now));
+            start(claimed.get());
+        }
+    }
+
+    private void start(IneExtractionJob job) {
+        running.incrementAndGet();
+        try {
+            workerPool.execute(() -> {
+                try {
+                    processing.record(() -> process(job));
+                } finally {
+                    running.decrementAndGet();
+                    freeSlots.release();
+                    wakeDispatcher();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the lease lapses and the job is picked up again later
+            running.decrementAndGet();
+            freeSlots.release();
+        }
+    }
+
+    void process(IneExtractionJob job) {
+        TenantContext.setCurrentTenant(job.tenantId());
+        try {
+            PlayerResponse player = job.resultPlayerId() != null
+                    // An earlier attempt saved the player and died before finishing the job
+                    ? ineRegistrationService.getSavedPlayer(job.resultPlayerId())
+                    : register(job);
+            if (store.succeed(job, nodeId, player.getId(), objectMapper.writeValueAsString(player), LocalDateTime.now())) {
+                succeeded.increment();
+            }
+            finished(job.id());
+        } catch (BusinessRuleException | ResourceNotFoundException e) {
+            if (store.fail(job, nodeId, e.getMessage(), LocalDateTime.now())) {
+                failed.increment();
+            }
+            finished(job.id());
+        } catch (Exception e) {
+            log.warn("IneExtractionJobService: job {} attempt {} failed: {}", job.id(), job.attempts(), e.getMessage());
+            if (job.attempts() >= maxAttempts) {
+                if (store.fail(job, nodeId, GENERIC_FAILURE, LocalDateTime.now())) {
+                    failed.increment();
+                }
+                finished(job.id());
+            } else if (store.requeue(job, nodeId, e.getMessage(), LocalDateTime.now())) {
+                retried.increment();
+            }
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    // ---- Private helpers ----
+
+    /** Runs the scan; the player id is noted on the job in the same transaction that saves the player. */
+    private PlayerResponse register(IneExtractionJob job) {
+        Consumer<UUID> recordPlayer = playerId -> {
+            if (!store.recordResultPlayer(job, nodeId, playerId, LocalDateTime.now())) {
+                throw new IllegalStateException("INE job " + job.id() + " was taken over by a newer attempt");
+            }
+        };
+        return job.playerId() == null
+                ? ineRegistrationService.registerFromIne(job.tenantId(), job.image(), job.mimeType(), job.teamId(),
+                        job.jerseyNumber(), recordPlayer)
+                : ineRegistrationService.verifyFromIne(job.tenantId(), job.playerId(), job.image(), job.mimeType(),
+                        job.jerseyNumber(), recordPlayer);
+    }
+
+    private IneExtractionJob submit(UUID playerId, UUID teamId, byte[] ineImage, String mimeType, Integer jerseyNumber) {
+        UUID tenantId = requireTenant();
+        UUID jobId = UUID.randomUUID();
+        store.insert(jobId, tenantId, playerId, teamId, jerseyNumber, mimeType, ineImage, LocalDateTime.now());
+        // Read before waking the dispatcher, so the caller always gets the job as queued
+        IneExtractionJob job = getJob(jobId);
+        wakeDispatcher();
+        return job;
+    }
+
+    private UUID requireTenant() {
+        UUID tenantId = TenantContext.getCurrentTenant();
+        if (tenantId == null) {
+            throw new BusinessRuleException("No se pudo determinar la liga de la solicitud.");
+        }
+        return tenantId;
+    }
+
+    private void wakeDispatcher() {
+        if (dispatcher == null) {
+            return;
+        }
+        try {
+            dispatcher.execute(this::dispatchSafely);
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down
+        }
+    }
+
+    private void finished(UUID jobId) {
+        CompletableFuture<Void> completion = completions.asMap().remove(jobId);
+        if (completion != null) {
+            completion.complete(null);
+        }
+    }
+}
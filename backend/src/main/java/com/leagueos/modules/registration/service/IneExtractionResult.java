@@ -1,5 +1,6 @@
 package com.leagueos.modules.registration.service;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import java.time.LocalDate;
@@ -26,8 +27,9 @@ public class IneExtractionResult {
     @JsonProperty("rotation_degrees")
     private Integer rotationDegrees = 0;
 
-    /** Transient field – holds the cropped face bytes once computed on the backend */
-    private transient byte[] croppedFaceBytes;
+    /** Transient field – holds the cropped face bytes once computed on the backend (never serialized) */
+    @JsonIgnore
+    private byte[] croppedFaceBytes;
 
     @Data
     public static class FaceBox {
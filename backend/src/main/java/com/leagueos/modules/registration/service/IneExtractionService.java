@@ -1,23 +1,17 @@
 package com.leagueos.modules.registration.service;
 
-import com.drew.imaging.ImageMetadataReader;
-import com.drew.metadata.Metadata;
-import com.drew.metadata.exif.ExifIFD0Directory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leagueos.shared.domain.exception.BusinessRuleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.util.Base64;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -27,16 +21,10 @@ public class IneExtractionService {
 
     private static final Logger log = LoggerFactory.getLogger(IneExtractionService.class);
 
-    private final RestClient restClient;
-    private final String apiKey;
+    private final GeminiClient geminiClient;
+    private final IneImagePreprocessor imagePreprocessor;
     private final ObjectMapper objectMapper;
 
-    private static final List<String> MODELS = List.of(
-            "gemini-3-flash-preview",
-            "gemini-flash-latest",
-            "gemini-3.1-flash-lite-preview"
-    );
-
     /**
      * We ask Gemini for:
      *  - The data fields
@@ -78,79 +66,26 @@ public class IneExtractionService {
             "- Delimita ÚNICAMENTE la foto del rostro: desde cabello hasta barbilla, de mejilla a mejilla.\n" +
             "- Sin márgenes extra, sin incluir texto/firmas/sellos.";
 
-    public IneExtractionService(
-            @Value("${gemini.api-key}") String apiKey,
-            @Value("${gemini.model:gemini-3-flash-preview}") String model,
-            ObjectMapper objectMapper) {
-        this.restClient = RestClient.create();
-        this.apiKey = apiKey;
+    public IneExtractionService(GeminiClient geminiClient, IneImagePreprocessor imagePreprocessor, ObjectMapper objectMapper) {
+        this.geminiClient = geminiClient;
+        this.imagePreprocessor = imagePreprocessor;
         this.objectMapper = objectMapper;
     }
 
     public IneExtractionResult extractDataFromIne(byte[] imageBytes, String mimeType) {
-        // Step 1: Apply EXIF orientation so the physical pixels are correct
-        byte[] exifCorrectedBytes = applyExifOrientation(imageBytes);
-
-        String base64Image = Base64.getEncoder().encodeToString(exifCorrectedBytes);
-        String effectiveMime = (mimeType != null) ? mimeType : "image/jpeg";
-
-        Map<String, Object> requestBody = Map.of(
-                "contents", List.of(
-                        Map.of("parts", List.of(
-                                Map.of("text", PROMPT),
-                                Map.of("inline_data", Map.of(
-                                        "mime_type", effectiveMime,
-                                        "data", base64Image
-                                ))
-                        ))
-                )
-        );
-
-        String responseString = null;
-
-        for (String currentModel : MODELS) {
-            for (int attempt = 1; attempt <= 2; attempt++) {
-                try {
-                    String url = String.format(
-                            "https://generativelanguage.googleapis.com/v1beta/models/%s:generateContent?key=%s",
-                            currentModel, apiKey);
-                    log.info("Gemini OCR — model: {} attempt: {}", currentModel, attempt);
-
-                    responseString = restClient.post()
-                            .uri(url)
-                            .contentType(MediaType.APPLICATION_JSON)
-                            .body(requestBody)
-                            .retrieve()
-                            .body(String.class);
-
-                    if (responseString != null && !responseString.isEmpty()) break;
-                } catch (Exception e) {
-                    log.warn("Gemini model {} attempt {} failed: {}", currentModel, attempt, e.getMessage());
-                    try { Thread.sleep(600); } catch (InterruptedException ignored) {}
-                }
-            }
-            if (responseString != null) break;
-        }
+        // Step 1: Decode once at reduced size, upright per EXIF; reused below for the face crop
+        IneImagePreprocessor.PreparedImage image = imagePreprocessor.prepare(imageBytes, mimeType);
+        byte[] requestBody = requestBody(image);
 
-        if (responseString == null) {
-            throw new BusinessRuleException(
-                    "El servicio de IA de Google está saturado temporalmente. Intenta de nuevo en unos segundos.");
+        // Hedged across models; a response that does not parse counts as a failed call
+        IneExtractionResult result;
+        try {
+            result = geminiClient.generateContent(requestBody, this::parseExtraction);
+        } finally {
+            java.util.Arrays.fill(requestBody, (byte) 0);
         }
 
         try {
-            Map<String, Object> responseMap = objectMapper.readValue(responseString, Map.class);
-            List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseMap.get("candidates");
-            if (candidates == null || candidates.isEmpty()) {
-                throw new BusinessRuleException("No se pudo extraer información del INE.");
-            }
-
-            Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
-            List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
-            String jsonText = (String) parts.get(0).get("text");
-            jsonText = jsonText.replaceAll("(?s)```json", "").replaceAll("```", "").trim();
-
-            IneExtractionResult result = objectMapper.readValue(jsonText, IneExtractionResult.class);
-
             if (result.getCurp() != null && !result.getCurp().isBlank()) {
                 String rawCurp = result.getCurp().trim().toUpperCase();
                 
@@ -177,11 +112,11 @@ public class IneExtractionService {
             if (result.getFaceBox() != null) {
                 String ineRotation = result.getIneRotation() != null ? result.getIneRotation() : "NORMAL";
                 log.info("INE rotation reported by Gemini: {}", ineRotation);
-                result.setCroppedFaceBytes(cropFaceUpright(exifCorrectedBytes, result.getFaceBox(), ineRotation));
+                result.setCroppedFaceBytes(cropFaceUpright(image.raster(), result.getFaceBox(), ineRotation));
             }
 
             java.util.Arrays.fill(imageBytes, (byte) 0);
-            java.util.Arrays.fill(exifCorrectedBytes, (byte) 0);
+            java.util.Arrays.fill(image.bytes(), (byte) 0);
 
             return result;
         } catch (BusinessRuleException e) {
@@ -191,56 +126,57 @@ public class IneExtractionService {
         }
     }
 
-    // -------------------------------------------------------------------------
-    // EXIF correction — fixes camera-native rotation stored in JPEG metadata
-    // -------------------------------------------------------------------------
+    /**
+     * The generateContent request, written straight into its byte form: Jackson base64-encodes the image
+     * into the output buffer, so neither the base64 text nor the JSON exists as a String.
+     */
+    private byte[] requestBody(IneImagePreprocessor.PreparedImage image) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.bytes().length / 3 * 4 + PROMPT.length() * 2 + 256);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(body)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("contents");
+            json.writeStartObject();
+            json.writeArrayFieldStart("parts");
+            json.writeStartObject();
+            json.writeStringField("text", PROMPT);
+            json.writeEndObject();
+            json.writeStartObject();
+            json.writeObjectFieldStart("inline_data");
+            json.writeStringField("mime_type", image.mimeType());
+            json.writeFieldName("data");
+            json.writeBinary(image.bytes());
+            json.writeEndObject();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write Gemini request", e);
+        }
+        return body.toByteArray();
+    }
 
-    private byte[] applyExifOrientation(byte[] imageBytes) {
+    @SuppressWarnings("unchecked")
+    private IneExtractionResult parseExtraction(String responseString) {
         try {
-            Metadata metadata = ImageMetadataReader.readMetadata(new ByteArrayInputStream(imageBytes));
-            ExifIFD0Directory exifDir = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
-            int orientation = 1;
-            if (exifDir != null && exifDir.containsTag(ExifIFD0Directory.TAG_ORIENTATION)) {
-                orientation = exifDir.getInt(ExifIFD0Directory.TAG_ORIENTATION);
+            Map<String, Object> responseMap = objectMapper.readValue(responseString, Map.class);
+            List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseMap.get("candidates");
+            if (candidates == null || candidates.isEmpty()) {
+                throw new BusinessRuleException("No se pudo extraer información del INE.");
             }
-            if (orientation == 1) return imageBytes;
 
-            BufferedImage img = ImageIO.read(new ByteArrayInputStream(imageBytes));
-            if (img == null) return imageBytes;
+            Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
+            List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
+            String jsonText = (String) parts.get(0).get("text");
+            jsonText = jsonText.replaceAll("(?s)```json", "").replaceAll("```", "").trim();
 
-            BufferedImage fixed = transformByExifOrientation(img, orientation);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(fixed, "jpeg", baos);
-            log.info("Applied EXIF orientation {} to image", orientation);
-            return baos.toByteArray();
+            return objectMapper.readValue(jsonText, IneExtractionResult.class);
+        } catch (BusinessRuleException e) {
+            throw e;
         } catch (Exception e) {
-            log.warn("Could not read EXIF orientation, using image as-is: {}", e.getMessage());
-            return imageBytes;
-        }
-    }
-
-    private BufferedImage transformByExifOrientation(BufferedImage src, int orientation) {
-        int w = src.getWidth();
-        int h = src.getHeight();
-        boolean swapDims = orientation >= 5;
-        int outW = swapDims ? h : w;
-        int outH = swapDims ? w : h;
-
-        BufferedImage out = new BufferedImage(outW, outH, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = out.createGraphics();
-        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        switch (orientation) {
-            case 2 -> { g.translate(outW, 0);  g.scale(-1, 1); }
-            case 3 -> { g.translate(outW, outH); g.rotate(Math.PI); }
-            case 4 -> { g.translate(0, outH);  g.scale(1, -1); }
-            case 5 -> { g.rotate(-Math.PI / 2); g.scale(-1, 1); }
-            case 6 -> { g.translate(outW, 0);  g.rotate(Math.PI / 2); }
-            case 7 -> { g.translate(outW, outH); g.rotate(Math.PI / 2); g.scale(-1, 1); }
-            case 8 -> { g.translate(0, outH);  g.rotate(-Math.PI / 2); }
+            throw new BusinessRuleException("Error al procesar la respuesta del INE: " + e.getMessage());
         }
-        g.drawImage(src, 0, 0, null);
-        g.dispose();
-        return out;
     }
 
     // -------------------------------------------------------------------------
@@ -257,9 +193,8 @@ public class IneExtractionService {
      * Using INE text orientation is far more reliable than face orientation because
      * Gemini reads text accurately regardless of angle.
      */
-    private byte[] cropFaceUpright(byte[] imageBytes, IneExtractionResult.FaceBox origBox, String ineRotation) {
+    private byte[] cropFaceUpright(BufferedImage img, IneExtractionResult.FaceBox origBox, String ineRotation) {
         try {
-            BufferedImage img = ImageIO.read(new ByteArrayInputStream(imageBytes));
             if (img == null) return null;
 
             // How many degrees CW to rotate the image to make it NORMAL (text readable)
@@ -0,0 +1,171 @@
+package com.leagueos.modules.registration.service;
+
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Turns an uploaded INE photo into what the extraction needs, decoding it only once.
+ *
+ * Phone photos are often 12MP or more while Gemini reads the card just as well at ~2k pixels, so the
+ * JPEG is decoded with source subsampling straight to at most {@code max-dimension} pixels on the long
+ * edge; the full-resolution raster is never allocated. EXIF orientation is applied to that reduced
+ * raster, which is then both re-encoded for Gemini and kept for the face crop.
+ */
+@Slf4j
+@Component
+public class IneImagePreprocessor {
+
+    /**
+     * The upright image: {@code raster} for cropping (null if the upload could not be decoded) and
+     * {@code bytes}/{@code mimeType} to send to Gemini.
+     */
+    public record PreparedImage(BufferedImage raster, byte[] bytes, String mimeType) {
+    }
+
+    private final int maxDimension;
+    private final float jpegQuality;
+
+    public IneImagePreprocessor(
+            @Value("${gemini.image.max-dimension:2048}") int maxDimension,
+            @Value("${gemini.image.jpeg-quality:0.9}") float jpegQuality) {
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+    }
+
+    public PreparedImage prepare(byte[] upload, String mimeType) {
+        String effectiveMime = (mimeType != null) ? mimeType : "image/jpeg";
+        int orientation = exifOrientation(upload);
+        try {
+            Decoded decoded = decode(upload);
+            if (decoded == null) {
+                log.warn("Could not decode INE image ({}), sending it as uploaded", effectiveMime);
+                return new PreparedImage(null, upload, effectiveMime);
+            }
+            BufferedImage upright = orientation == 1 ? toRgb(decoded.image()) : transformByExifOrientation(decoded.image(), orientation);
+            if (orientation != 1) {
+                log.info("Applied EXIF orientation {} to image", orientation);
+            }
+            // Already small, upright JPEG: send the upload itself instead of re-encoding it
+            if (decoded.subsampling() == 1 && orientation == 1 && "image/jpeg".equals(effectiveMime)) {
+                return new PreparedImage(upright, upload, effectiveMime);
+            }
+            return new PreparedImage(upright, encodeJpeg(upright), "image/jpeg");
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not preprocess INE image, sending it as uploaded: {}", e.getMessage());
+            return new PreparedImage(null, upload, effectiveMime);
+        }
+    }
+
+    // ---- Private helpers ----
+
+    private record Decoded(BufferedImage image, int subsampling) {
+    }
+
+    private int exifOrientation(byte[] upload) {
+        try {
+            Metadata metadata = ImageMetadataReader.readMetadata(new ByteArrayInputStream(upload));
+            ExifIFD0Directory exifDir = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+            if (exifDir != null && exifDir.containsTag(ExifIFD0Directory.TAG_ORIENTATION)) {
+                return exifDir.getInt(ExifIFD0Directory.TAG_ORIENTATION);
+            }
+        } catch (Exception e) {
+            log.warn("Could not read EXIF orientation, using image as-is: {}", e.getMessage());
+        }
+        return 1;
+    }
+
+    /** Decodes every n-th pixel of every n-th row, n chosen so the long edge fits {@code maxDimension}. */
+    private Decoded decode(byte[] upload) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(upload))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = maxDimension > 0 ? Math.max(1, (longEdge + maxDimension - 1) / maxDimension) : 1;
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return new Decoded(reader.read(0, param), subsampling);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.getWidth() * image.getHeight() / 4);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /** The JPEG encoder rejects alpha (PNG screenshots), so flatten onto white. */
+    private BufferedImage toRgb(BufferedImage src) {
+        if (!src.getColorModel().hasAlpha()) {
+            return src;
+        }
+        BufferedImage out = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, out.getWidth(), out.getHeight());
+        g.drawImage(src, 0, 0, null);
+        g.dispose();
+        return out;
+    }
+
+    private BufferedImage transformByExifOrientation(BufferedImage src, int orientation) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        boolean swapDims = orientation >= 5;
+        int outW = swapDims ? h : w;
+        int outH = swapDims ? w : h;
+
+        BufferedImage out = new BufferedImage(outW, outH, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        switch (orientation) {
+            case 2 -> { g.translate(outW, 0);  g.scale(-1, 1); }
+            case 3 -> { g.translate(outW, outH); g.rotate(Math.PI); }
+            case 4 -> { g.translate(0, outH);  g.scale(1, -1); }
+            case 5 -> { g.rotate(-Math.PI / 2); g.scale(-1, 1); }
+            case 6 -> { g.translate(outW, 0);  g.rotate(Math.PI / 2); }
+            case 7 -> { g.translate(outW, outH); g.rotate(Math.PI / 2); g.scale(-1, 1); }
+            case 8 -> { g.translate(0, outH);  g.rotate(-Math.PI / 2); }
+        }
+        g.drawImage(src, 0, 0, null);
+        g.dispose();
+        return out;
+    }
+}
@@ -0,0 +1,164 @@
+package com.leagueos.modules.registration.service;
+
+import com.leagueos.modules.league.domain.Team;
+import com.leagueos.modules.league.persistence.TeamRepository;
+import com.leagueos.modules.media.service.ImageDerivativeService;
+import com.leagueos.modules.media.service.StorageService;
+import com.leagueos.modules.registration.api.dto.PlayerRegistrationRequest;
+import com.leagueos.modules.registration.api.dto.PlayerResponse;
+import com.leagueos.modules.registration.persistence.SeasonRosterRepository;
+import com.leagueos.shared.domain.exception.BusinessRuleException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Registers or verifies a Mexican player from an INE scan: Gemini extraction and face crop,
+ * business-rule pre-validation, upload of the cropped face (and its derivatives) to R2, then the database write.
+ * Shared by the synchronous endpoints and the background INE job workers.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IneRegistrationService {
+
+    private final IneExtractionService ineExtractionService;
+    private final IneExtractionCache ineExtractionCache;
+    private final StorageService storageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final PlayerRegistrationService playerRegistrationService;
+    private final TeamRepository teamRepository;
+    private final SeasonRosterRepository seasonRosterRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public PlayerResponse registerFromIne(UUID tenantId, byte[] ineImage, String mimeType, UUID teamId, Integer jerseyNumber) {
+        return registerFromIne(tenantId, ineImage, mimeType, teamId, jerseyNumber, null);
+    }
+
+    /**
+     * As above; {@code onSaved} receives the player id inside the transaction that writes the player, and
+     * rolls the registration back by throwing.
+     */
+    public PlayerResponse registerFromIne(UUID tenantId, byte[] ineImage, String mimeType, UUID teamId, Integer jerseyNumber,
+                                          Consumer<UUID> onSaved) {
+        log.info("Extracting INE image (size: {} bytes)...", ineImage.length);
+        IneExtractionResult extractedData = extract(tenantId, ineImage, mimeType);
+        log.info("Gemini extracted: name={} {}, CURP={}", extractedData.getNombre(), extractedData.getApellidoPaterno(), extractedData.getCurp());
+        byte[] faceBytes = requireFace(extractedData);
+
+        // Pre-validate business rules BEFORE uploading to R2
+        PlayerRegistrationRequest request = toRequest(extractedData, jerseyNumber);
+        request.setTeamId(teamId);
+        request.setIsForeign(false);
+        playerRegistrationService.validateRegistrationPreconditions(request, teamId, tenantId);
+
+        String faceFilename = uploadFace(tenantId, resolveTeamName(teamId, null), extractedData, faceBytes);
+        request.setProfilePhotoUrl(faceFilename);
+
+        try {
+            return save(() -> playerRegistrationService.registerPlayer(request, teamId, tenantId), onSaved);
+        } catch (RuntimeException e) {
+            log.warn("Registration failed after upload, deleting orphaned file from R2: {}", faceFilename);
+            imageDerivativeService.deleteWithDerivatives(faceFilename);
+            throw e;
+        }
+    }
+
+    public PlayerResponse verifyFromIne(UUID tenantId, UUID playerId, byte[] ineImage, String mimeType, Integer jerseyNumber) {
+        return verifyFromIne(tenantId, playerId, ineImage, mimeType, jerseyNumber, null);
+    }
+
+    /** As above, with {@code onSaved} called like in {@link #registerFromIne(UUID, byte[], String, UUID, Integer, Consumer)}. */
+    public PlayerResponse verifyFromIne(UUID tenantId, UUID playerId, byte[] ineImage, String mimeType, Integer jerseyNumber,
+                                        Consumer<UUID> onSaved) {
+        IneExtractionResult extractedData = extract(tenantId, ineImage, mimeType);
+        byte[] faceBytes = requireFace(extractedData);
+
+        // Pre-validate before uploading to R2
+        PlayerRegistrationRequest request = toRequest(extractedData, jerseyNumber);
+        playerRegistrationService.validateVerificationPreconditions(playerId, request, tenantId);
+
+        String faceFilename = uploadFace(tenantId, resolveTeamName(null, playerId), extractedData, faceBytes);
+        request.setProfilePhotoUrl(faceFilename);
+
+        try {
+            return save(() -> playerRegistrationService.verifyPlayer(playerId, request, tenantId), onSaved);
+        } catch (RuntimeException e) {
+            imageDerivativeService.deleteWithDerivatives(faceFilename);
+            throw e;
+        }
+    }
+
+    /** A player written by an earlier {@code registerFromIne}/{@code verifyFromIne} call. */
+    public PlayerResponse getSavedPlayer(UUID playerId) {
+        return playerRegistrationService.getPlayer(playerId);
+    }
+
+    public String resolveTeamName(UUID teamId, UUID playerId) {
+        if (teamId != null) {
+            return teamRepository.findById(teamId).map(Team::getName).orElse("general");
+        }
+        if (playerId != null) {
+            return seasonRosterRepository.findByPlayerId(playerId).stream()
+                    .findFirst()
+                    .map(roster -> roster.getTeam() != null ? roster.getTeam().getName() : "general")
+                    .orElse("general");
+        }
+        return "general";
+    }
+
+    // ---- Private helpers ----
+
+    private PlayerResponse save(Supplier<PlayerResponse> write, Consumer<UUID> onSaved) {
+        if (onSaved == null) {
+            return write.get();
+        }
+        return transactionTemplate.execute(status -> {
+            PlayerResponse player = write.get();
+            onSaved.accept(player.getId());
+            return player;
+        });
+    }
+
+    /** Re-uploads of the same photo (e.g. after a taken jersey number) reuse the earlier extraction. */
+    private IneExtractionResult extract(UUID tenantId, byte[] ineImage, String mimeType) {
+        return ineExtractionCache.getOrExtract(tenantId, ineImage,
+                () -> ineExtractionService.extractDataFromIne(ineImage, mimeType));
+    }
+
+    private byte[] requireFace(IneExtractionResult extractedData) {
+        byte[] faceBytes = extractedData.getCroppedFaceBytes();
+        if (faceBytes == null || faceBytes.length == 0) {
+            throw new BusinessRuleException("No se pudo extraer el rostro del INE. Intenta con una foto más clara.");
+        }
+        return faceBytes;
+    }
+
+    private PlayerRegistrationRequest toRequest(IneExtractionResult extractedData, Integer jerseyNumber) {
+        PlayerRegistrationRequest request = new PlayerRegistrationRequest();
+        request.setFirstName(extractedData.getNombre());
+
+        String lastName = extractedData.getApellidoPaterno();
+        if (extractedData.getApellidoMaterno() != null) {
+            lastName += " " + extractedData.getApellidoMaterno();
+        }
+        request.setLastName(lastName);
+        request.setBirthDate(extractedData.getFechaNacimiento());
+        request.setCurp(extractedData.getCurp());
+        request.setJerseyNumber(jerseyNumber);
+        return request;
+    }
+
+    private String uploadFace(UUID tenantId, String teamName, IneExtractionResult extractedData, byte[] faceBytes) {
+        String fullName = (extractedData.getNombre() + " " + (extractedData.getApellidoPaterno() != null ? extractedData.getApellidoPaterno() : "") + " " + (extractedData.getApellidoMaterno() != null ? extractedData.getApellidoMaterno() : "")).trim();
+        String faceFilename = storageService.buildPlayerKey(tenantId, teamName, fullName, ".jpg");
+        log.info("Uploading cropped face ({} bytes) to R2 at key {}...", faceBytes.length, faceFilename);
+        imageDerivativeService.uploadWithDerivatives(faceFilename, faceBytes, "image/jpeg");
+        return faceFilename;
+    }
+}
@@ -0,0 +1,75 @@
+package com.leagueos.modules.registration.service;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker for one Gemini model.
+ *
+ * After {@code failureThreshold} failures in a row the model is skipped for {@code openDuration};
+ * then a single trial call is let through, which closes the breaker on success or re-opens it on
+ * failure. The critical sections only touch fields, so the monitor is never held across a call.
+ */
+class ModelCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    ModelCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    ModelCircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /** Whether a call may go to this model now; a granted half-open trial must be followed by an outcome. */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) yield false;
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    /** The call was abandoned (another model answered first) or refused as a bad request: no verdict on the model's health. */
+    synchronized void onCancelled() {
+        trialInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
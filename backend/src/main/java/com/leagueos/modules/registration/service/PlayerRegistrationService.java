@@ -1,5 +1,6 @@
 package com.leagueos.modules.registration.service;
 
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
 import com.leagueos.modules.league.domain.Person;
 import com.leagueos.modules.league.domain.Season;
 import com.leagueos.modules.league.domain.SeasonStatus;
@@ -21,6 +22,7 @@ import com.leagueos.shared.domain.exception.BusinessRuleException;
 import com.leagueos.shared.domain.exception.ResourceNotFoundException;
 import com.leagueos.shared.util.NameUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,7 +45,8 @@ public class PlayerRegistrationService {
     private final PersonRepository personRepository;
     private final TenantSettingsService tenantSettingsService;
     private final SeasonRosterRepository seasonRosterRepository;
-    private final com.leagueos.modules.media.service.StorageService storageService;
+    private final com.leagueos.modules.media.service.ImageDerivativeService imageDerivativeService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void activatePlayer(UUID playerId) {
@@ -418,11 +421,12 @@ public class PlayerRegistrationService {
         if (request.getProfilePhotoUrl() != null) {
             String oldPhoto = person.getProfilePhotoUrl();
             if (oldPhoto != null && !oldPhoto.isBlank() && !oldPhoto.equals(request.getProfilePhotoUrl())) {
-                storageService.deleteFile(oldPhoto);
+                imageDerivativeService.deleteWithDerivatives(oldPhoto);
             }
             person.setProfilePhotoUrl(request.getProfilePhotoUrl());
         }
         personRepository.save(person);
+        publishPlayerSeasonsChanged(player);
 
         Season activeSeason = getActiveSeason();
         SeasonRoster roster = seasonRosterRepository.findByPlayerIdAndSeasonId(playerId, activeSeason.getId())
@@ -437,6 +441,18 @@ public class PlayerRegistrationService {
         return mapToResponse(player, roster);
     }
 
+    /** The player with their roster entry in the active season, if any. */
+    @Transactional(readOnly = true)
+    public PlayerResponse getPlayer(UUID playerId) {
+        Player player = playerRepository.findById(playerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Player not found"));
+        Season season = getActiveSeason();
+        SeasonRoster roster = season != null
+                ? seasonRosterRepository.findByPlayerIdAndSeasonId(playerId, season.getId()).orElse(null)
+                : null;
+        return mapToResponse(player, roster);
+    }
+
     @Transactional(readOnly = true)
     public List<PlayerResponse> getPlayersByTeam(UUID teamId) {
         Season season = getActiveSeason();
@@ -479,6 +495,13 @@ public class PlayerRegistrationService {
                 });
     }
 
+    /** A player's name and photo appear in the public stats of every season they are rostered in. */
+    private void publishPlayerSeasonsChanged(Player player) {
+        for (SeasonRoster roster : seasonRosterRepository.findByPlayerId(player.getId())) {
+            eventPublisher.publishEvent(new SeasonMatchesChangedEvent(player.getTenantId(), roster.getSeason().getId()));
+        }
+    }
+
     private static String normalizeUpperCase(String value) {
         return value != null ? value.trim().toUpperCase() : "";
     }
@@ -4,7 +4,10 @@ import com.leagueos.modules.tenant.domain.TenantSettings;
 import com.leagueos.modules.tenant.service.TenantSettingsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,4 +22,10 @@ public class TenantSettingsController {
     public ResponseEntity<TenantSettings> getCurrentSettings() {
         return ResponseEntity.ok(service.getCurrentSettings());
     }
+
+    @PutMapping("/current")
+    @PreAuthorize("hasRole('ROLE_LEAGUE_ADMIN')")
+    public ResponseEntity<TenantSettings> updateCurrentSettings(@RequestBody TenantSettings settings) {
+        return ResponseEntity.ok(service.updateCurrentSettings(settings));
+    }
 }
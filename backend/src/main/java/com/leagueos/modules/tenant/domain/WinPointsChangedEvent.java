@@ -0,0 +1,10 @@
+package com.leagueos.modules.tenant.domain;
+
+import java.util.UUID;
+
+/**
+ * Published when a tenant changes the points awarded for a win. Every standings table of the
+ * tenant was computed with the old value, so consumers drop and rebuild them.
+ */
+public record WinPointsChangedEvent(UUID tenantId) {
+}
@@ -1,29 +1,173 @@
 package com.leagueos.modules.tenant.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.leagueos.modules.tenant.domain.TenantSettings;
+import com.leagueos.modules.tenant.domain.WinPointsChangedEvent;
 import com.leagueos.modules.tenant.persistence.TenantSettingsRepository;
 import com.leagueos.shared.context.TenantContext;
-import lombok.RequiredArgsConstructor;
+import com.leagueos.shared.infrastructure.cache.CacheLoads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Tenant settings, cached per tenant. Settings change rarely, so reads are served from memory;
+ * writes through {@link #updateCurrentSettings} evict the tenant's entry once they commit and a
+ * short TTL bounds staleness for changes made outside this service. A new points-per-win value
+ * is announced with a {@link WinPointsChangedEvent} so the standings are recomputed.
+ *
+ * The cache holds an immutable {@link Snapshot}, never the entity: each read gets its own detached
+ * copy, so a caller changing it cannot alter what other requests see.
+ */
 @Service
-@RequiredArgsConstructor
 public class TenantSettingsService {
 
+    // Key for calls made without a tenant in context (the first settings row is used)
+    private static final UUID NO_TENANT = new UUID(0L, 0L);
+
     private final TenantSettingsRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AsyncCache<UUID, Snapshot> cache;
+
+    public TenantSettingsService(
+            TenantSettingsRepository repository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.cache.tenant-settings.ttl-minutes:5}") long ttlMinutes,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tenant-settings");
+    }
 
     public TenantSettings getCurrentSettings() {
         UUID tenantId = TenantContext.getCurrentTenant();
-        Optional<TenantSettings> settingsOpt = tenantId != null 
-                ? repository.findByTenantId(tenantId)
-                : repository.findAll().stream().findFirst();
+        return CacheLoads.getOrLoad(cache, tenantId != null ? tenantId : NO_TENANT, this::load).toSettings();
+    }
 
-        return settingsOpt.orElseGet(() -> {
-            TenantSettings defaultSettings = new TenantSettings();
-            return defaultSettings;
+    @Transactional
+    public TenantSettings updateCurrentSettings(TenantSettings changes) {
+        UUID tenantId = TenantContext.getCurrentTenant();
+        if (tenantId == null) {
+            throw new IllegalStateException("No se puede actualizar la configuración sin un tenant activo.");
+        }
+
+        TenantSettings settings = repository.findByTenantId(tenantId).orElseGet(() -> {
+            TenantSettings created = new TenantSettings();
+            created.setTenantId(tenantId);
+            return created;
         });
+        boolean winPointsChanged = settings.getWinPointsOnWin() != changes.getWinPointsOnWin();
+        settings.setShowOffenseDefenseWidgets(changes.isShowOffenseDefenseWidgets());
+        settings.setShowDisciplineWidget(changes.isShowDisciplineWidget());
+        settings.setEnableAutoSuspensions(changes.isEnableAutoSuspensions());
+        settings.setRequireJerseyNumbers(changes.isRequireJerseyNumbers());
+        settings.setMinMatchesForPlayoffs(changes.getMinMatchesForPlayoffs());
+        settings.setThemeClass(changes.getThemeClass());
+        settings.setWinPointsOnWin(changes.getWinPointsOnWin());
+        settings.setAllowMultipleTeamsPerPlayer(changes.isAllowMultipleTeamsPerPlayer());
+        settings.setRequireCurp(changes.isRequireCurp());
+
+        TenantSettings saved = repository.save(settings);
+        evictAfterCommit(tenantId);
+        if (winPointsChanged) {
+            eventPublisher.publishEvent(new WinPointsChangedEvent(tenantId));
+        }
+        return saved;
+    }
+
+    public void evict(UUID tenantId) {
+        cache.synchronous().invalidate(tenantId);
+        cache.synchronous().invalidate(NO_TENANT);
+    }
+
+    // ---- Private helpers ----
+
+    private Snapshot load(UUID key) {
+        Optional<TenantSettings> settingsOpt = !NO_TENANT.equals(key)
+                ? repository.findByTenantId(key)
+                : repository.findAll().stream().findFirst();
+
+        return Snapshot.of(settingsOpt.orElseGet(TenantSettings::new));
+    }
+
+    /** Evicts now and again after commit, so a read racing the transaction cannot re-cache the old row. */
+    private void evictAfterCommit(UUID tenantId) {
+        evict(tenantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tenantId);
+                }
+            });
+        }
+    }
+
+    /** Immutable copy of a settings row, as held by the cache. */
+    private record Snapshot(
+            UUID id,
+            UUID tenantId,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            boolean showOffenseDefenseWidgets,
+            boolean showDisciplineWidget,
+            boolean enableAutoSuspensions,
+            boolean requireJerseyNumbers,
+            Integer minMatchesForPlayoffs,
+            String themeClass,
+            int winPointsOnWin,
+            boolean allowMultipleTeamsPerPlayer,
+            boolean requireCurp) {
+
+        static Snapshot of(TenantSettings settings) {
+            return new Snapshot(
+                    settings.getId(),
+                    settings.getTenantId(),
+                    settings.getCreatedAt(),
+                    settings.getUpdatedAt(),
+                    settings.isShowOffenseDefenseWidgets(),
+                    settings.isShowDisciplineWidget(),
+                    settings.isEnableAutoSuspensions(),
+                    settings.isRequireJerseyNumbers(),
+                    settings.getMinMatchesForPlayoffs(),
+                    settings.getThemeClass(),
+                    settings.getWinPointsOnWin(),
+                    settings.isAllowMultipleTeamsPerPlayer(),
+                    settings.isRequireCurp());
+        }
+
+        TenantSettings toSettings() {
+            TenantSettings settings = new TenantSettings();
+            settings.setId(id);
+            settings.setTenantId(tenantId);
+            settings.setCreatedAt(createdAt);
+            settings.setUpdatedAt(updatedAt);
+            settings.setShowOffenseDefenseWidgets(showOffenseDefenseWidgets);
+            settings.setShowDisciplineWidget(showDisciplineWidget);
+            settings.setEnableAutoSuspensions(enableAutoSuspensions);
+            settings.setRequireJerseyNumbers(requireJerseyNumbers);
+            settings.setMinMatchesForPlayoffs(minMatchesForPlayoffs);
+            settings.setThemeClass(themeClass);
+            settings.setWinPointsOnWin(winPointsOnWin);
+            settings.setAllowMultipleTeamsPerPlayer(allowMultipleTeamsPerPlayer);
+            settings.setRequireCurp(requireCurp);
+            return settings;
+        }
     }
 }
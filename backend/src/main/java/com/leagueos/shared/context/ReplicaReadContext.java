@@ -0,0 +1,21 @@
+package com.leagueos.shared.context;
+
+/**
+ * Marks the current thread as serving a read-only request whose queries may go to the read replica
+ * even outside a read-only transaction (public endpoints run most queries without one).
+ */
+public class ReplicaReadContext {
+    private static final ThreadLocal<Boolean> replicaRead = new ThreadLocal<>();
+
+    public static void markReplicaRead() {
+        replicaRead.set(Boolean.TRUE);
+    }
+
+    public static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(replicaRead.get());
+    }
+
+    public static void clear() {
+        replicaRead.remove();
+    }
+}
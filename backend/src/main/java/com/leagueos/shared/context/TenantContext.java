@@ -1,12 +1,23 @@
 package com.leagueos.shared.context;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class TenantContext {
     private static final ThreadLocal<UUID> currentTenant = new ThreadLocal<>();
 
+    // Notified when the thread switches to a different tenant (null: leaves it), so sessions already open can follow
+    private static final List<Consumer<UUID>> tenantChangeListeners = new CopyOnWriteArrayList<>();
+
     public static void setCurrentTenant(UUID tenantId) {
+        UUID previous = currentTenant.get();
         currentTenant.set(tenantId);
+        if (!Objects.equals(tenantId, previous)) {
+            notifyListeners(tenantId);
+        }
     }
 
     public static UUID getCurrentTenant() {
@@ -14,6 +25,24 @@ public class TenantContext {
     }
 
     public static void clear() {
+        UUID previous = currentTenant.get();
         currentTenant.remove();
+        if (previous != null) {
+            notifyListeners(null);
+        }
+    }
+
+    public static void addTenantChangeListener(Consumer<UUID> listener) {
+        tenantChangeListeners.add(listener);
+    }
+
+    public static void removeTenantChangeListener(Consumer<UUID> listener) {
+        tenantChangeListeners.remove(listener);
+    }
+
+    private static void notifyListeners(UUID tenantId) {
+        for (Consumer<UUID> listener : tenantChangeListeners) {
+            listener.accept(tenantId);
+        }
     }
 }
@@ -0,0 +1,72 @@
+package com.leagueos.shared.infrastructure.aspect;
+
+import com.leagueos.shared.domain.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy for {@link RetryOnConflict} methods. Runs outside the transaction interceptor
+ * (highest precedence), so every attempt gets a fresh transaction and re-reads what the winning
+ * writer committed. Backoff grows linearly with full jitter; once attempts are exhausted the
+ * caller gets a 409 ({@link ConcurrentUpdateException}) instead of a 500.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConflictRetryAspect {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public ConflictRetryAspect(
+            @Value("${app.retry.conflict.max-attempts:4}") int maxAttempts,
+            @Value("${app.retry.conflict.backoff-ms:25}") long backoffMillis,
+            MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+        this.retries = Counter.builder("conflict.retries")
+                .description("Transactions re-run after losing an optimistic locking race")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("conflict.retries.exhausted")
+                .description("Conflicting writes that still failed after every retry")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.leagueos.shared.infrastructure.aspect.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Joined an outer transaction: it is rollback-only now, only the outermost call can retry
+            return joinPoint.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("ConflictRetryAspect: {} still conflicting after {} attempts", joinPoint.getSignature().toShortString(), attempt);
+                    throw new ConcurrentUpdateException("El registro fue modificado al mismo tiempo por otra operación. Intenta de nuevo.");
+                }
+                retries.increment();
+                log.debug("ConflictRetryAspect: retrying {} (attempt {}): {}", joinPoint.getSignature().toShortString(), attempt + 1, e.getMessage());
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+            }
+        }
+    }
+}
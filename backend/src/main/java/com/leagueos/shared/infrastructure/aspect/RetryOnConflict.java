@@ -0,0 +1,20 @@
+package com.leagueos.shared.infrastructure.aspect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional method when it loses an optimistic-locking race (or another transient
+ * concurrency failure) against a concurrent writer. Only the outermost call retries: inside an
+ * existing transaction the failure propagates so the caller's whole unit of work is replayed.
+ *
+ * @see ConflictRetryAspect
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
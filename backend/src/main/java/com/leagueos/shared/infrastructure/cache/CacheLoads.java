@@ -0,0 +1,46 @@
+package com.leagueos.shared.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache-aside loads that run the loader outside the cache's map lock.
+ *
+ * A synchronous Caffeine {@code get(key, loader)} runs the loader inside
+ * {@code ConcurrentHashMap.compute}, i.e. inside a {@code synchronized} block. When the loader does
+ * JDBC work on a virtual thread, that pins its carrier for the whole query; with a handful of
+ * carriers, a few concurrent misses can stall every other request (or deadlock waiting for a pool
+ * connection held by an unmounted thread). Here only an empty future is published under the lock;
+ * the calling thread then runs the loader itself, with its own tenant and security context, and
+ * concurrent callers for the same key wait on that future instead of loading again.
+ */
+public final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> claim = new CompletableFuture<>();
+        CompletableFuture<V> current = cache.get(key, (k, executor) -> claim);
+        if (current == claim) {
+            try {
+                // A null value completes the future without caching it, like the synchronous get
+                claim.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                // Failed futures are dropped from the cache, so the next caller loads again
+                claim.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return current.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
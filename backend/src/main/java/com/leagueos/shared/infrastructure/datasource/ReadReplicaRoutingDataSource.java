@@ -0,0 +1,89 @@
+package com.leagueos.shared.infrastructure.datasource;
+
+import com.leagueos.shared.context.ReplicaReadContext;
+import com.leagueos.shared.context.TenantContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends read-only work to the replica pool and everything else to the primary.
+ *
+ * Inside a transaction the transaction decides: read-only goes to the replica, read-write (including
+ * REQUIRES_NEW writes started from a read path) to the primary. Outside a transaction only requests
+ * marked by {@link ReplicaReadContext} use the replica. The replica is skipped while
+ * {@link ReplicaLagMonitor} reports it stale or the tenant wrote recently, and a failing replica
+ * connection falls back to the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag is only known
+ * after the transaction manager asked for the connection. Relies on spring.jpa.open-in-view=false:
+ * a request-scoped EntityManager keeps the connection of its first read, so a write transaction later
+ * in the same request would run on the replica.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor monitor;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.monitor = monitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return Route.PRIMARY;
+        } else if (!ReplicaReadContext.isReplicaRead()) {
+            return Route.PRIMARY;
+        }
+        return monitor.isUsable(TenantContext.getCurrentTenant()) ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Route.REPLICA) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                monitor.markUnavailable(e);
+            }
+        } else {
+            trackWrite();
+        }
+        return primary.getConnection();
+    }
+
+    /** Pins the tenant to the primary for the staleness window once a read-write transaction commits. */
+    private void trackWrite() {
+        UUID tenantId = TenantContext.getCurrentTenant();
+        if (tenantId == null
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                monitor.recordWrite(tenantId);
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.leagueos.shared.infrastructure.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staleness guard for the read replica.
+ *
+ * Polls the replica's replay lag and takes it out of rotation while the lag exceeds the limit or the
+ * replica cannot be reached. On top of that, a tenant that just committed a write reads from the
+ * primary for the same window, so admins see their own changes and the public pages refreshed by a
+ * result don't show the previous score. Against a non-standby database (e.g. a second pool on the
+ * primary for local testing) the lag is always 0.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements InitializingBean, DisposableBean {
+
+    // Replay lag in seconds; 0 when the replica has replayed everything it received or is not a standby
+    private static final String LAG_SQL = """
+            SELECT COALESCE(
+                CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END, 0)
+            """;
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final Cache<UUID, Boolean> recentWrites;
+    private final Counter fallbacks;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean available = true;
+    private volatile double lagSeconds;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(maxLag)
+                .build();
+        Gauge.builder("datasource.replica.lag.seconds", this, m -> m.lagSeconds)
+                .description("Last measured replay lag of the read replica")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, m -> m.available ? 1 : 0)
+                .description("1 while reads may be routed to the replica")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Replica connections that failed and were served by the primary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /** Whether a read for {@code tenantId} (null when unknown) may be served by the replica right now. */
+    public boolean isUsable(UUID tenantId) {
+        return available && (tenantId == null || recentWrites.getIfPresent(tenantId) == null);
+    }
+
+    public void recordWrite(UUID tenantId) {
+        recentWrites.put(tenantId, Boolean.TRUE);
+    }
+
+    /** A replica connection failed: fall back to the primary until the next successful check. */
+    public void markUnavailable(Exception cause) {
+        fallbacks.increment();
+        if (available) {
+            log.warn("ReplicaLagMonitor: replica unavailable, routing reads to the primary: {}", cause.getMessage());
+        }
+        available = false;
+    }
+
+    void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            lagSeconds = rs.getDouble(1);
+            boolean withinLimit = lagSeconds <= maxLag.toMillis() / 1000.0;
+            if (withinLimit != available) {
+                log.info("ReplicaLagMonitor: replica {} (lag {}s)", withinLimit ? "back in rotation" : "too stale", lagSeconds);
+            }
+            available = withinLimit;
+        } catch (Exception e) {
+            if (available) {
+                log.warn("ReplicaLagMonitor: lag check failed, routing reads to the primary: {}", e.getMessage());
+            }
+            available = false;
+        }
+    }
+}
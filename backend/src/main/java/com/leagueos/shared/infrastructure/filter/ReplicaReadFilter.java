@@ -0,0 +1,50 @@
+package com.leagueos.shared.infrastructure.filter;
+
+import com.leagueos.shared.context.ReplicaReadContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Lets GET requests on the configured read paths (public pages, team/season lists) use the read
+ * replica for queries that run outside a transaction. Writes they trigger still go to the primary.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaReadFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> readPaths;
+
+    public ReplicaReadFilter(@Value("${app.datasource.replica.read-paths}") List<String> readPaths) {
+        this.readPaths = readPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return readPaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReplicaReadContext.markReplicaRead();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaReadContext.clear();
+        }
+    }
+}
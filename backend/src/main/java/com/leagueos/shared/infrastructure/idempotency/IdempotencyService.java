@@ -0,0 +1,235 @@
+package com.leagueos.shared.infrastructure.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueos.shared.context.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for write endpoints.
+ *
+ * The first request with a key claims a row in idempotency_keys (INSERT ... ON CONFLICT, so two
+ * racing duplicates cannot both claim it), runs, and stores its response for {@code ttl-hours}.
+ * A repeat with the same key and the same request gets the stored response back; the same key
+ * with a different request is rejected with 422, and a repeat while the first one is still
+ * running gets 409. A failed request releases its key so the client can retry it. A claim whose
+ * request died mid-way (node crash) is reclaimable after a short lease.
+ *
+ * The response is stored in the same transaction as the write ({@link IdempotentTransaction}), and
+ * only while the claim is still ours: a request that outlives its lease and was reclaimed by a
+ * retry rolls back with 409 instead of applying the write a second time.
+ */
+@Slf4j
+@Component
+public class IdempotencyService implements InitializingBean, DisposableBean {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_keys (tenant_id, scope, idempotency_key, request_hash, status, created_at, expires_at)
+            VALUES (?, ?, ?, ?, 'IN_PROGRESS', ?, ?)
+            ON CONFLICT (tenant_id, scope, idempotency_key) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, status = 'IN_PROGRESS', response_status = NULL,
+                    response_body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at < EXCLUDED.created_at
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT request_hash, status, response_status, response_body
+            FROM idempotency_keys WHERE tenant_id = ? AND scope = ? AND idempotency_key = ?
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE idempotency_keys SET status = 'COMPLETED', response_status = ?, response_body = ?, expires_at = ?
+            WHERE tenant_id = ? AND scope = ? AND idempotency_key = ? AND status = 'IN_PROGRESS' AND created_at = ?
+            """;
+
+    private static final String RELEASE_SQL = """
+            DELETE FROM idempotency_keys
+            WHERE tenant_id = ? AND scope = ? AND idempotency_key = ? AND status = 'IN_PROGRESS' AND created_at = ?
+            """;
+
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at < ?";
+
+    private record StoredKey(String requestHash, String status, Integer responseStatus, String responseBody) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotentTransaction transaction;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long purgeIntervalMinutes;
+    private final Counter replays;
+    private ScheduledExecutorService purger;
+
+    public IdempotencyService(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            IdempotentTransaction transaction,
+            @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${app.idempotency.lease-seconds:120}") long leaseSeconds,
+            @Value("${app.idempotency.purge-interval-minutes:60}") long purgeIntervalMinutes,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transaction = transaction;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.purgeIntervalMinutes = purgeIntervalMinutes;
+        this.replays = Counter.builder("idempotency.replays")
+                .description("Requests answered from a stored response because their Idempotency-Key was already used")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} at most once per key within the current tenant and {@code scope}.
+     * Without a key the call simply runs. {@code request} identifies the request (path variables,
+     * parameters, body): reusing a key for a different request is a client error.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> call) {
+        if (key == null || key.isBlank()) {
+            return call.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key no puede exceder " + MAX_KEY_LENGTH + " caracteres.");
+        }
+
+        UUID tenantId = TenantContext.getCurrentTenant();
+        String requestHash = hash(request);
+        // Millisecond precision so the claim time compares equal once stored
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Timestamp claimedAt = Timestamp.valueOf(now);
+
+        int claimed = jdbcTemplate.update(CLAIM_SQL, tenantId, scope, key, requestHash,
+                claimedAt, Timestamp.valueOf(now.plus(lease)));
+        if (claimed == 0) {
+            return replay(tenantId, scope, key, requestHash);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = transaction.run(call, completed -> complete(tenantId, scope, key, claimedAt, completed));
+        } catch (RuntimeException e) {
+            jdbcTemplate.update(RELEASE_SQL, tenantId, scope, key, claimedAt);
+            throw e;
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            jdbcTemplate.update(RELEASE_SQL, tenantId, scope, key, claimedAt);
+        }
+        return response;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired, purgeIntervalMinutes, purgeIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void destroy() {
+        if (purger != null) purger.shutdownNow();
+    }
+
+    void purgeExpired() {
+        try {
+            int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now()));
+            if (purged > 0) log.debug("IdempotencyService: purged {} expired keys", purged);
+        } catch (RuntimeException e) {
+            log.warn("IdempotencyService: purge failed: {}", e.getMessage());
+        }
+    }
+
+    // ---- Private helpers ----
+
+    private void complete(UUID tenantId, String scope, String key, Timestamp claimedAt, ResponseEntity<?> response) {
+        int completed = jdbcTemplate.update(COMPLETE_SQL, response.getStatusCode().value(), toJson(response.getBody()),
+                Timestamp.valueOf(LocalDateTime.now().plus(ttl)), tenantId, scope, key, claimedAt);
+        if (completed == 0) {
+            // Our lease ran out and a retry took the key over: roll back rather than write twice
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "La solicitud con esta Idempotency-Key excedió su tiempo y se está reintentando.");
+        }
+    }
+
+    private ResponseEntity<?> replay(UUID tenantId, String scope, String key, String requestHash) {
+        List<StoredKey> rows = jdbcTemplate.query(FIND_SQL, (rs, i) -> new StoredKey(
+                rs.getString("request_hash"),
+                rs.getString("status"),
+                (Integer) rs.getObject("response_status"),
+                rs.getString("response_body")), tenantId, scope, key);
+        if (rows.isEmpty()) {
+            // Released or purged between our claim attempt and this read
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "La solicitud con esta Idempotency-Key se está reintentando. Intenta de nuevo.");
+        }
+
+        StoredKey stored = rows.get(0);
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "La Idempotency-Key ya se usó con una solicitud distinta.");
+        }
+        if (IN_PROGRESS.equals(stored.status())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Una solicitud con esta Idempotency-Key todavía se está procesando.");
+        }
+
+        replays.increment();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.responseStatus()).header(REPLAYED_HEADER, "true");
+        if (stored.responseBody() == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(stored.responseBody());
+    }
+
+    private String toJson(Object body) {
+        if (body == null) return null;
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta idempotente.", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud.", e);
+        }
+    }
+}
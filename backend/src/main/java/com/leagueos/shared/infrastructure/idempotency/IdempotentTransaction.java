@@ -0,0 +1,28 @@
+package com.leagueos.shared.infrastructure.idempotency;
+
+import com.leagueos.shared.infrastructure.aspect.RetryOnConflict;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The transactional half of {@link IdempotencyService#execute}. The call's own transaction joins
+ * this one, so storing the response commits or rolls back together with the write it answers.
+ * Conflict retries happen here because the call no longer runs at the outermost level.
+ */
+@Component
+public class IdempotentTransaction {
+
+    @RetryOnConflict
+    @Transactional
+    public ResponseEntity<?> run(Supplier<ResponseEntity<?>> call, Consumer<ResponseEntity<?>> complete) {
+        ResponseEntity<?> response = call.get();
+        if (response.getStatusCode().is2xxSuccessful()) {
+            complete.accept(response);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,76 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Hybrid tenancy: large tenants in a dedicated schema, everyone else in the shared one.
+ *
+ * Off by default. When enabled, Hibernate runs in schema multi-tenancy mode with the session's
+ * schema picked from the tenants table (isolation_mode / schema_name). The tenant filter stays
+ * active in both cases, so a dedicated schema is an extra layer of isolation, never a weaker one.
+ * Tenants are moved on demand through {@link TenantSchemaEndpoint}; Flyway then migrates their
+ * schemas along with the shared one ({@link TenantSchemaMigrator}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.tenancy.schema-per-tenant.enabled", havingValue = "true")
+public class SchemaPerTenantConfiguration {
+
+    @Bean
+    public TenantSchemaRegistry tenantSchemaRegistry(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.tenancy.shared-schema:public}") String sharedSchema,
+            @Value("${app.tenancy.schema-cache.ttl-minutes:5}") long ttlMinutes,
+            MeterRegistry meterRegistry) {
+        return new TenantSchemaRegistry(jdbcTemplate, sharedSchema, ttlMinutes, meterRegistry);
+    }
+
+    @Bean
+    public SchemaPerTenantConnectionProvider schemaPerTenantConnectionProvider(
+            DataSource dataSource, TenantSchemaRegistry registry) {
+        return new SchemaPerTenantConnectionProvider(dataSource, registry);
+    }
+
+    @Bean
+    public TenantSchemaResolver tenantSchemaResolver(TenantSchemaRegistry registry) {
+        return new TenantSchemaResolver(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer schemaPerTenantHibernateProperties(
+            SchemaPerTenantConnectionProvider connectionProvider, TenantSchemaResolver resolver) {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, connectionProvider);
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, resolver);
+        };
+    }
+
+    @Bean
+    public TenantSchemaProvisioner tenantSchemaProvisioner(
+            JdbcTemplate jdbcTemplate, DataSource dataSource, TenantSchemaRegistry registry,
+            @Value("${spring.flyway.table:flyway_schema_history}") String historyTable) {
+        // Plain JDBC transaction: provisioning runs outside of any JPA session
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return new TenantSchemaProvisioner(jdbcTemplate, transactionTemplate, registry, historyTable);
+    }
+
+    @Bean
+    public TenantSchemaEndpoint tenantSchemaEndpoint(TenantSchemaProvisioner provisioner) {
+        return new TenantSchemaEndpoint(provisioner);
+    }
+
+    @Bean
+    public TenantSchemaMigrator tenantSchemaMigrator() {
+        return new TenantSchemaMigrator();
+    }
+}
@@ -0,0 +1,82 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hands Hibernate pooled connections whose search_path points at the session's schema.
+ *
+ * Dedicated schemas only hold the league tables, so the shared schema stays on the path behind
+ * them for global tables (tenants, users, persons, ...). Connections for the shared schema are
+ * returned untouched; the others are reset before going back to the pool.
+ */
+@RequiredArgsConstructor
+public class SchemaPerTenantConnectionProvider implements MultiTenantConnectionProvider<String> {
+
+    private final DataSource dataSource;
+    private final TenantSchemaRegistry registry;
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String schema) throws SQLException {
+        Connection connection = getAnyConnection();
+        if (!registry.isShared(schema)) {
+            try {
+                setSearchPath(connection, TenantSchemaRegistry.requireValidSchemaName(schema) + ", " + registry.sharedSchema());
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    @Override
+    public void releaseConnection(String schema, Connection connection) throws SQLException {
+        try {
+            if (!registry.isShared(schema)) {
+                setSearchPath(connection, registry.sharedSchema());
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) return (T) this;
+        if (unwrapType.isInstance(dataSource)) return (T) dataSource;
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType);
+    }
+
+    private void setSearchPath(Connection connection, String searchPath) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + searchPath);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import com.leagueos.shared.context.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Enables the Hibernate tenant filter once per session instead of on every repository/service call.
+ *
+ * Every EntityManager created by the application's EntityManagerFactory (transactional, shared or
+ * open-in-view) gets the filter for the tenant in {@link TenantContext} when it is opened. When the
+ * thread switches tenant while a session is already bound to it, that session is re-scoped right away,
+ * so every query still runs with the filter of the current tenant; when the thread leaves the tenant
+ * ({@link TenantContext#clear()}) the filter is disabled on it. As before, a session opened without a
+ * tenant in context is not filtered.
+ */
+@Slf4j
+@Component
+public class TenantFilterBinder implements BeanPostProcessor, DisposableBean {
+
+    static final String FILTER_NAME = "tenantFilter";
+    static final String TENANT_PARAMETER = "tenantId";
+
+    private final List<EntityManagerFactory> factories = new CopyOnWriteArrayList<>();
+    private final Consumer<UUID> tenantChangeListener = this::rebindCurrentSessions;
+
+    public TenantFilterBinder() {
+        TenantContext.addTenantChangeListener(tenantChangeListener);
+    }
+
+    @Override
+    public void destroy() {
+        TenantContext.removeTenantChangeListener(tenantChangeListener);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof AbstractEntityManagerFactoryBean factoryBean) {
+            factoryBean.setEntityManagerInitializer(this::bind);
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof AbstractEntityManagerFactoryBean factoryBean && factoryBean.getObject() != null) {
+            // The exposed proxy is the key sessions are bound under (transactions, open-in-view)
+            factories.add(factoryBean.getObject());
+        }
+        return bean;
+    }
+
+    /** Scopes a freshly opened EntityManager to the current tenant, if any. */
+    void bind(EntityManager entityManager) {
+        UUID tenantId = TenantContext.getCurrentTenant();
+        if (tenantId != null) {
+            enable(entityManager, tenantId);
+        } else {
+            log.debug("TenantFilterBinder: no tenant in context, filter NOT enabled");
+        }
+    }
+
+    /** Re-scopes the sessions already bound to this thread after a tenant switch; null unfilters them. */
+    void rebindCurrentSessions(UUID tenantId) {
+        for (EntityManagerFactory factory : factories) {
+            if (TransactionSynchronizationManager.getResource(factory) instanceof EntityManagerHolder holder
+                    && holder.getEntityManager().isOpen()) {
+                if (tenantId != null) {
+                    enable(holder.getEntityManager(), tenantId);
+                } else {
+                    log.debug("TenantFilterBinder: tenant cleared, disabling filter");
+                    holder.getEntityManager().unwrap(Session.class).disableFilter(FILTER_NAME);
+                }
+            }
+        }
+    }
+
+    private void enable(EntityManager entityManager, UUID tenantId) {
+        log.debug("TenantFilterBinder: enabling filter for tenant {}", tenantId);
+        entityManager.unwrap(Session.class).enableFilter(FILTER_NAME).setParameter(TENANT_PARAMETER, tenantId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Operator entry point for moving tenants into their dedicated schema: GET /actuator/tenantschemas lists
+ * the flagged tenants not moved yet, POST /actuator/tenantschemas/{tenantId} moves one.
+ *
+ * Not exposed by default; add it to management.endpoints.web.exposure.include (or use JMX) where the
+ * management endpoints are reachable by operators only.
+ */
+@Endpoint(id = "tenantschemas")
+public class TenantSchemaEndpoint {
+
+    private final TenantSchemaProvisioner provisioner;
+
+    public TenantSchemaEndpoint(TenantSchemaProvisioner provisioner) {
+        this.provisioner = provisioner;
+    }
+
+    @ReadOperation
+    public List<TenantSchemaProvisioner.PendingTenant> pending() {
+        return provisioner.pendingTenants();
+    }
+
+    @WriteOperation
+    public Map<String, String> provision(@Selector UUID tenantId) {
+        boolean moved = provisioner.provision(tenantId);
+        return Map.of("tenantId", tenantId.toString(), "status", moved ? "provisioned" : "already-provisioned");
+    }
+}
@@ -0,0 +1,53 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Runs Flyway on the shared schema, then the db/tenant migrations on every provisioned dedicated schema.
+ *
+ * db/tenant holds the migrations of the league tables (see {@link TenantSchemaProvisioner#LEAGUE_TABLES}).
+ * It is also one of spring.flyway.locations, so the shared schema gets them in their usual place in
+ * the version order. Each dedicated schema keeps its own history table, baselined when it was
+ * provisioned, so only the db/tenant migrations newer than its move run there.
+ */
+@Slf4j
+public class TenantSchemaMigrator implements FlywayMigrationStrategy {
+
+    static final String TENANT_LOCATION = "classpath:db/tenant";
+
+    private static final String PROVISIONED_SCHEMAS_SQL = """
+            SELECT t.schema_name
+            FROM tenants t
+            JOIN information_schema.schemata s ON s.schema_name = t.schema_name
+            WHERE t.isolation_mode = 'SCHEMA'
+            ORDER BY t.schema_name
+            """;
+
+    @Override
+    public void migrate(Flyway flyway) {
+        flyway.migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(flyway.getConfiguration().getDataSource());
+        List<String> schemas = jdbcTemplate.queryForList(PROVISIONED_SCHEMAS_SQL, String.class);
+        for (String schemaName : schemas) {
+            String schema = TenantSchemaRegistry.requireValidSchemaName(schemaName);
+            int applied = Flyway.configure(flyway.getConfiguration().getClassLoader())
+                    .configuration(flyway.getConfiguration())
+                    .schemas(schema)
+                    .defaultSchema(schema)
+                    .createSchemas(false)
+                    .locations(TENANT_LOCATION)
+                    // A schema without history was not created by the provisioner: fail rather than guess its version
+                    .baselineOnMigrate(false)
+                    .load()
+                    .migrate()
+                    .migrationsExecuted;
+            log.info("TenantSchemaMigrator: {} migration(s) applied to schema {}", applied, schema);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves a tenant flagged as SCHEMA in the tenants table into its dedicated schema.
+ *
+ * Nothing runs at startup: a move is an explicit operation ({@link TenantSchemaEndpoint}). It creates
+ * the schema, clones the league tables (columns, defaults, checks and indexes via LIKE ... INCLUDING
+ * ALL, then the foreign keys), copies the tenant's rows over, deletes them from the shared schema and
+ * baselines the schema's Flyway history at the shared schema's current version, all in one
+ * transaction. A transaction-scoped advisory lock on the schema name serializes concurrent calls
+ * (two nodes, a retried request); the one that comes second finds the tables and does nothing.
+ *
+ * Later migrations of {@link #LEAGUE_TABLES} go to db/tenant, which {@link TenantSchemaMigrator} runs
+ * on the shared schema and on every dedicated one.
+ */
+@Slf4j
+public class TenantSchemaProvisioner {
+
+    /** Tenant-scoped tables that move, parents before children. Global tables stay shared. */
+    static final List<String> LEAGUE_TABLES = List.of(
+            "soccer_fields",
+            "divisions",
+            "seasons",
+            "teams",
+            "players",
+            "team_registrations",
+            "season_rosters",
+            "playoff_ties",
+            "matches",
+            "match_events",
+            "team_standings");
+
+    private static final String PENDING_TENANTS_SQL = """
+            SELECT t.id, t.schema_name
+            FROM tenants t
+            WHERE t.isolation_mode = 'SCHEMA'
+              AND NOT EXISTS (SELECT 1 FROM information_schema.schemata s WHERE s.schema_name = t.schema_name)
+            """;
+
+    private static final String SCHEMA_NAME_SQL =
+            "SELECT schema_name FROM tenants WHERE id = ? AND isolation_mode = 'SCHEMA'";
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext(?))";
+
+    private static final String FOREIGN_KEYS_SQL = """
+            SELECT conname, pg_get_constraintdef(oid) AS definition
+            FROM pg_constraint
+            WHERE contype = 'f' AND conrelid = ?::regclass
+            """;
+
+    private static final String CURRENT_VERSION_SQL = """
+            SELECT version FROM %s
+            WHERE success AND version IS NOT NULL
+            ORDER BY installed_rank DESC
+            LIMIT 1
+            """;
+
+    /** The row Flyway's own baseline command writes. */
+    private static final String BASELINE_SQL = """
+            INSERT INTO %s (installed_rank, version, description, type, script, checksum,
+                            installed_by, execution_time, success)
+            VALUES (1, ?, '<< Flyway Baseline >>', 'BASELINE', '<< Flyway Baseline >>', NULL, current_user, 0, true)
+            """;
+
+    public record PendingTenant(UUID tenantId, String schemaName) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantSchemaRegistry registry;
+    private final String historyTable;
+
+    public TenantSchemaProvisioner(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   TenantSchemaRegistry registry, String historyTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.registry = registry;
+        this.historyTable = TenantSchemaRegistry.requireValidSchemaName(historyTable);
+    }
+
+    /** Tenants flagged as SCHEMA whose schema does not exist yet. */
+    public List<PendingTenant> pendingTenants() {
+        return jdbcTemplate.query(PENDING_TENANTS_SQL,
+                (rs, rowNum) -> new PendingTenant(rs.getObject("id", UUID.class), rs.getString("schema_name")));
+    }
+
+    /**
+     * Moves the tenant into its schema.
+     *
+     * @return false when the schema already holds the league tables (nothing was done)
+     * @throws IllegalStateException if the tenant is not flagged as SCHEMA
+     */
+    public boolean provision(UUID tenantId) {
+        List<String> names = jdbcTemplate.queryForList(SCHEMA_NAME_SQL, String.class, tenantId);
+        if (names.isEmpty()) {
+            throw new IllegalStateException("Tenant " + tenantId + " is not flagged for a dedicated schema");
+        }
+        String schema = TenantSchemaRegistry.requireValidSchemaName(names.get(0));
+        String shared = registry.sharedSchema();
+
+        Boolean moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.query(LOCK_SQL, (RowCallbackHandler) rs -> { }, "tenant-schema:" + schema);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(?) IS NOT NULL", Boolean.class, schema + "." + LEAGUE_TABLES.get(0)))) {
+                return false;
+            }
+            log.info("TenantSchemaProvisioner: moving tenant {} into schema {}", tenantId, schema);
+
+            // Constraint definitions are rendered relative to the search_path: with only the shared
+            // schema on it, references come out unqualified and re-resolve inside the new schema.
+            jdbcTemplate.execute("SET LOCAL search_path TO " + shared);
+            List<String> foreignKeys = new ArrayList<>();
+            for (String table : LEAGUE_TABLES) {
+                jdbcTemplate.query(FOREIGN_KEYS_SQL, (RowCallbackHandler) rs -> {
+                    foreignKeys.add("ALTER TABLE " + table + " ADD CONSTRAINT " + rs.getString("conname")
+                            + " " + rs.getString("definition"));
+                }, shared + "." + table);
+            }
+
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            jdbcTemplate.execute("SET LOCAL search_path TO " + schema + ", " + shared);
+            for (String table : LEAGUE_TABLES) {
+                jdbcTemplate.execute("CREATE TABLE " + schema + "." + table
+                        + " (LIKE " + shared + "." + table + " INCLUDING ALL)");
+                jdbcTemplate.update("INSERT INTO " + schema + "." + table
+                        + " SELECT * FROM " + shared + "." + table + " WHERE tenant_id = ?", tenantId);
+            }
+            foreignKeys.forEach(jdbcTemplate::execute);
+
+            // The cloned tables are at the shared schema's version: later db/tenant migrations apply on top
+            String version = jdbcTemplate.queryForObject(
+                    CURRENT_VERSION_SQL.formatted(shared + "." + historyTable), String.class);
+            jdbcTemplate.execute("CREATE TABLE " + schema + "." + historyTable
+                    + " (LIKE " + shared + "." + historyTable + " INCLUDING ALL)");
+            jdbcTemplate.update(BASELINE_SQL.formatted(schema + "." + historyTable), version);
+
+            for (int i = LEAGUE_TABLES.size() - 1; i >= 0; i--) {
+                jdbcTemplate.update("DELETE FROM " + shared + "." + LEAGUE_TABLES.get(i) + " WHERE tenant_id = ?", tenantId);
+            }
+            for (String table : LEAGUE_TABLES) {
+                jdbcTemplate.execute("ANALYZE " + schema + "." + table);
+            }
+            return true;
+        });
+
+        registry.evict(tenantId);
+        if (Boolean.TRUE.equals(moved)) {
+            log.info("TenantSchemaProvisioner: tenant {} now served from schema {}", tenantId, schema);
+        } else {
+            log.info("TenantSchemaProvisioner: schema {} of tenant {} was already provisioned", schema, tenantId);
+        }
+        return Boolean.TRUE.equals(moved);
+    }
+}
@@ -0,0 +1,76 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueos.shared.infrastructure.cache.CacheLoads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the Postgres schema a tenant's league data lives in.
+ *
+ * A tenant maps to its dedicated schema only when the tenants row says SCHEMA and that schema
+ * has actually been provisioned; everything else (SHARED tenants, no tenant in context, a tenant
+ * flagged but not moved yet) maps to the shared schema. Lookups are cached per tenant.
+ */
+public class TenantSchemaRegistry {
+
+    private static final Pattern SCHEMA_NAME = Pattern.compile("^[a-z_][a-z0-9_]{0,62}$");
+
+    private static final String DEDICATED_SCHEMA_SQL = """
+            SELECT t.schema_name
+            FROM tenants t
+            JOIN information_schema.schemata s ON s.schema_name = t.schema_name
+            WHERE t.id = ? AND t.isolation_mode = 'SCHEMA'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sharedSchema;
+    private final AsyncCache<UUID, String> cache;
+
+    public TenantSchemaRegistry(JdbcTemplate jdbcTemplate, String sharedSchema, long ttlMinutes, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sharedSchema = requireValidSchemaName(sharedSchema);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tenant-schemas");
+    }
+
+    public String sharedSchema() {
+        return sharedSchema;
+    }
+
+    public String schemaFor(UUID tenantId) {
+        return tenantId != null ? CacheLoads.getOrLoad(cache, tenantId, this::load) : sharedSchema;
+    }
+
+    public boolean isShared(String schema) {
+        return sharedSchema.equals(schema);
+    }
+
+    public void evict(UUID tenantId) {
+        cache.synchronous().invalidate(tenantId);
+    }
+
+    /** Schema names end up in SQL text, so only plain lower-case identifiers are accepted. */
+    public static String requireValidSchemaName(String schema) {
+        if (schema == null || !SCHEMA_NAME.matcher(schema).matches()) {
+            throw new IllegalStateException("Invalid schema name: " + schema);
+        }
+        return schema;
+    }
+
+    private String load(UUID tenantId) {
+        List<String> schemas = jdbcTemplate.queryForList(DEDICATED_SCHEMA_SQL, String.class, tenantId);
+        return schemas.isEmpty() ? sharedSchema : requireValidSchemaName(schemas.get(0));
+    }
+}
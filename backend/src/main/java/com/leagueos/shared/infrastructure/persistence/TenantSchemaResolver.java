@@ -0,0 +1,26 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import com.leagueos.shared.context.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Hibernate tenant identifier for a new session: the schema of the tenant in {@link TenantContext}.
+ * Sessions are pinned to the schema they were opened with, which is why the tenant must be known
+ * before the session opens (TenantContextFilter runs ahead of open-in-view).
+ */
+@RequiredArgsConstructor
+public class TenantSchemaResolver implements CurrentTenantIdentifierResolver<String> {
+
+    private final TenantSchemaRegistry registry;
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return registry.schemaFor(TenantContext.getCurrentTenant());
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
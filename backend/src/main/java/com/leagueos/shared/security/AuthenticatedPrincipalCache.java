@@ -0,0 +1,70 @@
+package com.leagueos.shared.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Verified bearer tokens mapped to the principal they resolved to. An entry lives until the
+ * token itself expires (or is pushed out by the size bound), so repeated calls with the same
+ * token skip both signature verification and the users lookup. {@link #evictUser} drops every
+ * cached token of a user whose role, tenant or password changed.
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+
+    private record Entry(CustomUserDetails principal, Instant expiresAt) {
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public AuthenticatedPrincipalCache(
+            @Value("${app.security.principal-cache.max-entries:10000}") long maxEntries,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String token, Entry entry, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), entry.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt-principals");
+    }
+
+    public CustomUserDetails get(String token) {
+        Entry entry = cache.getIfPresent(token);
+        return entry != null ? entry.principal() : null;
+    }
+
+    public void put(String token, CustomUserDetails principal, Date tokenExpiration) {
+        if (tokenExpiration == null) return; // never cache tokens without an expiry
+        cache.put(token, new Entry(principal, tokenExpiration.toInstant()));
+    }
+
+    public void evictUser(UUID userId) {
+        if (userId == null) return;
+        cache.asMap().values().removeIf(entry -> userId.equals(entry.principal().getId()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.leagueos.shared.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +23,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,10 +31,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         String token = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(token) && tokenProvider.validateToken(token)) {
-            String username = tokenProvider.getUsernameFromJWT(token);
+        UserDetails userDetails = StringUtils.hasText(token) ? resolvePrincipal(token) : null;
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (userDetails != null) {
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -43,6 +44,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /** Cached principal for an already verified token, otherwise verify once and resolve the user. */
+    private UserDetails resolvePrincipal(String token) {
+        CustomUserDetails cached = principalCache.get(token);
+        if (cached != null) return cached;
+
+        Claims claims = tokenProvider.parseClaims(token).orElse(null);
+        if (claims == null) return null;
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (userDetails instanceof CustomUserDetails principal) {
+            principalCache.put(token, principal, claims.getExpiration());
+        }
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
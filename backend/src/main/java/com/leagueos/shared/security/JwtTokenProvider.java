@@ -7,18 +7,23 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt.secret:SecretKeyMustBeLongEnoughForHS512AlgorithmRequirementsPleaseChangeMe}")
-    private String jwtSecret;
+    private final long jwtExpirationDate;
 
-    @Value("${app.jwt.expiration-milliseconds:86400000}") // 24 hours
-    private long jwtExpirationDate;
+    // Derived once; JwtParser is immutable and thread-safe, so a single instance serves every request
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    public JwtTokenProvider(
+            @Value("${app.jwt.secret:SecretKeyMustBeLongEnoughForHS512AlgorithmRequirementsPleaseChangeMe}") String jwtSecret,
+            @Value("${app.jwt.expiration-milliseconds:86400000}") long jwtExpirationDate) { // 24 hours
+        this.jwtExpirationDate = jwtExpirationDate;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(String username, String role, String tenantId) {
@@ -31,26 +36,16 @@ public class JwtTokenProvider {
                 .claim("tenantId", tenantId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String authToken) {
+    /** Verifies the signature and expiry once and returns the claims, or empty if the token is not valid. */
+    public Optional<Claims> parseClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
+            return Optional.of(parser.parseClaimsJws(token).getBody());
         } catch (JwtException | IllegalArgumentException e) {
-            // Log exception
+            return Optional.empty();
         }
-        return false;
     }
 }
@@ -6,6 +6,7 @@ import lombok.Setter;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheEvictionListener.class)
 @Getter
 @Setter
 public class User {
@@ -0,0 +1,43 @@
+package com.leagueos.shared.security;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Drops cached principals when a user row changes (role, tenant, password, team) or is removed,
+ * so the next request re-resolves the user instead of acting on stale authorities.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final AuthenticatedPrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        evictAfterCommit(user.getId());
+    }
+
+    /**
+     * Evicts now and again after commit: the callback runs at flush, so a request resolving the user
+     * before the commit would otherwise re-cache the old row.
+     */
+    private void evictAfterCommit(UUID userId) {
+        principalCache.evictUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.evictUser(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- Persisted standings projection: one row per (season, team), maintained incrementally
+-- whenever a match result is recorded. Rows are rebuilt from matches when missing.
+CREATE TABLE team_standings (
+    id             UUID PRIMARY KEY,
+    tenant_id      UUID NOT NULL,
+    created_at     TIMESTAMP NOT NULL,
+    updated_at     TIMESTAMP,
+    season_id      UUID NOT NULL REFERENCES seasons(id),
+    team_id        UUID NOT NULL REFERENCES teams(id),
+    played         INTEGER NOT NULL DEFAULT 0,
+    won            INTEGER NOT NULL DEFAULT 0,
+    drawn          INTEGER NOT NULL DEFAULT 0,
+    lost           INTEGER NOT NULL DEFAULT 0,
+    goals_for      INTEGER NOT NULL DEFAULT 0,
+    goals_against  INTEGER NOT NULL DEFAULT 0,
+    points         INTEGER NOT NULL DEFAULT 0,
+    form           VARCHAR(5) NOT NULL DEFAULT '',
+
+    -- Also serves the per-season standings lookup (leading season_id column)
+    CONSTRAINT uk_team_standings_season_team UNIQUE (season_id, team_id)
+);
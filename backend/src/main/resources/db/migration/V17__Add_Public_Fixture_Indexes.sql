@@ -0,0 +1,8 @@
+-- Public fixture lookups: active seasons of a tenant, then their regular-stage matches
+-- in matchday/date order (PublicMatchController). Keeps the calendar an index range scan
+-- per active season no matter how many historical seasons accumulate.
+CREATE INDEX IF NOT EXISTS idx_seasons_tenant_status ON seasons(tenant_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_matches_regular_season_matchday_date
+    ON matches(season_id, matchday, match_date)
+    WHERE stage = 'REGULAR' AND matchday IS NOT NULL;
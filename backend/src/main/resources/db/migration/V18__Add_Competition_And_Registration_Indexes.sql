@@ -0,0 +1,49 @@
+-- Indexes for the hot lookups in MatchRepository, MatchEventRepository,
+-- SeasonRosterRepository and TeamRegistrationRepository. Every query also carries the
+-- tenantFilter predicate (tenant_id = ?); the season/match/team keys below are far more
+-- selective, so tenant_id only leads the indexes used by tenant-wide lookups.
+
+-- matches: results by season (standings rebuild, scheduler), ordered by date. Its season_id prefix
+-- also serves the matchday views and stage filters (playoffs); the regular-stage calendar has the
+-- partial index from V17. A season has at most a few hundred matches, so filtering the rest of the
+-- predicate is cheaper than keeping another index up to date on every result write.
+CREATE INDEX IF NOT EXISTS idx_matches_season_status_date ON matches(season_id, status, match_date);
+
+-- matches: legs of a playoff tie (only playoff matches carry one)
+CREATE INDEX IF NOT EXISTS idx_matches_playoff_tie ON matches(playoff_tie_id)
+    WHERE playoff_tie_id IS NOT NULL;
+
+-- matches: recent finished results of one team (standings form)
+CREATE INDEX IF NOT EXISTS idx_matches_home_team_finished ON matches(home_team_id, season_id, match_date)
+    WHERE status = 'FINISHED';
+CREATE INDEX IF NOT EXISTS idx_matches_away_team_finished ON matches(away_team_id, season_id, match_date)
+    WHERE status = 'FINISHED';
+
+-- matches: date-range lookups across the tenant
+CREATE INDEX IF NOT EXISTS idx_matches_tenant_date ON matches(tenant_id, match_date);
+
+-- match_events: events of a match (report load/replace, season aggregates joined from matches)
+CREATE INDEX IF NOT EXISTS idx_match_events_match_type ON match_events(match_id, event_type);
+
+-- match_events: per-player counters (profile stats, suspensions)
+CREATE INDEX IF NOT EXISTS idx_match_events_player_type_match ON match_events(player_id, event_type, match_id)
+    WHERE player_id IS NOT NULL;
+
+-- playoff_ties: bracket of a season
+CREATE INDEX IF NOT EXISTS idx_playoff_ties_season ON playoff_ties(season_id);
+
+-- season_rosters: roster of one team in a season, active counts per team
+CREATE INDEX IF NOT EXISTS idx_season_rosters_team_season_status ON season_rosters(team_id, season_id, status);
+
+-- season_rosters: whole-season roster and active counts grouped by team
+CREATE INDEX IF NOT EXISTS idx_season_rosters_season_status_team ON season_rosters(season_id, status, team_id);
+
+-- season_rosters: tenant-wide active counts
+CREATE INDEX IF NOT EXISTS idx_season_rosters_tenant_status ON season_rosters(tenant_id, status);
+
+-- team_registrations: one team's registration in a season, and (by the season_id prefix, a few
+-- dozen rows) the approved teams of a season
+CREATE INDEX IF NOT EXISTS idx_team_registrations_season_team ON team_registrations(season_id, team_id);
+
+-- team_registrations: tenant-wide lookups by status (pending approvals)
+CREATE INDEX IF NOT EXISTS idx_team_registrations_tenant_status ON team_registrations(tenant_id, status);
@@ -0,0 +1,11 @@
+-- Per-tenant storage mode. SHARED tenants live in the shared schema (tenant_id filter);
+-- SCHEMA tenants get their league tables in a dedicated Postgres schema so their indexes and
+-- planner statistics are their own (only used with app.tenancy.schema-per-tenant.enabled=true).
+ALTER TABLE tenants ADD COLUMN IF NOT EXISTS isolation_mode VARCHAR(20) NOT NULL DEFAULT 'SHARED';
+ALTER TABLE tenants ADD COLUMN IF NOT EXISTS schema_name VARCHAR(63);
+
+ALTER TABLE tenants ADD CONSTRAINT chk_tenants_isolation_mode
+    CHECK (isolation_mode IN ('SHARED', 'SCHEMA'));
+ALTER TABLE tenants ADD CONSTRAINT chk_tenants_schema_name
+    CHECK (isolation_mode = 'SHARED' OR schema_name ~ '^[a-z_][a-z0-9_]{0,62}$');
+ALTER TABLE tenants ADD CONSTRAINT uq_tenants_schema_name UNIQUE (schema_name);
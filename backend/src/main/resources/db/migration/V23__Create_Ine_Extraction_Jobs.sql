@@ -0,0 +1,28 @@
+-- Asynchronous INE scans. The uploaded image is kept only until the job reaches SUCCEEDED or FAILED.
+-- A RUNNING job's lease is renewed by the node working on it; once the lease lapses (node died or
+-- restarted) the job is queued again, up to the configured number of attempts.
+CREATE TABLE IF NOT EXISTS ine_extraction_jobs (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    player_id UUID,
+    team_id UUID,
+    jersey_number INTEGER,
+    mime_type VARCHAR(100),
+    image BYTEA,
+    status VARCHAR(16) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    claimed_by VARCHAR(64),
+    lease_expires_at TIMESTAMP,
+    result_player_id UUID,
+    result_body TEXT,
+    error_message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT chk_ine_extraction_jobs_status CHECK (status IN ('QUEUED', 'RUNNING', 'SUCCEEDED', 'FAILED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_ine_extraction_jobs_queue ON ine_extraction_jobs (status, tenant_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_ine_extraction_jobs_lease ON ine_extraction_jobs (status, lease_expires_at);
+CREATE INDEX IF NOT EXISTS idx_ine_extraction_jobs_finished_at ON ine_extraction_jobs (finished_at);
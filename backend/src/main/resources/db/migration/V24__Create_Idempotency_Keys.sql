@@ -0,0 +1,18 @@
+-- Idempotency-Key dedup for result writes. A row is claimed IN_PROGRESS for a short lease, then
+-- holds the stored response until expires_at; expired rows are reclaimed or purged. Not a league
+-- table: it stays in the shared schema when a tenant moves to a dedicated one.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    tenant_id UUID NOT NULL,
+    scope VARCHAR(64) NOT NULL,
+    idempotency_key VARCHAR(128) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    response_status INTEGER,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (tenant_id, scope, idempotency_key),
+    CONSTRAINT chk_idempotency_keys_status CHECK (status IN ('IN_PROGRESS', 'COMPLETED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
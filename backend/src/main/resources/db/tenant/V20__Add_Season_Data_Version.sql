@@ -0,0 +1,4 @@
+-- Version of the match data of a season (results, events, schedule, standings membership).
+-- Bumped in the same transaction as the change; public endpoints derive their ETag/Last-Modified from it.
+ALTER TABLE seasons ADD COLUMN IF NOT EXISTS data_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE seasons ADD COLUMN IF NOT EXISTS data_changed_at TIMESTAMP NOT NULL DEFAULT now();
@@ -0,0 +1,2 @@
+-- Optimistic locking for matches: live scorekeeping writes are conditional on the version the client last saw.
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
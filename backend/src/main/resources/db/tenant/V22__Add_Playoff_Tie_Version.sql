@@ -0,0 +1,3 @@
+-- Optimistic locking for playoff ties: resolving a tie bumps its version, so two legs finishing
+-- at once (or two ties feeding the same next tie) cannot both seed it from a stale read.
+ALTER TABLE playoff_ties ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
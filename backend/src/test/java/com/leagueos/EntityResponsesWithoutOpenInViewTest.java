@@ -0,0 +1,373 @@
+package com.leagueos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueos.modules.competition.domain.Match;
+import com.leagueos.modules.competition.domain.MatchEvent;
+import com.leagueos.modules.competition.domain.MatchStage;
+import com.leagueos.modules.competition.domain.PlayoffRound;
+import com.leagueos.modules.competition.domain.PlayoffTie;
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.domain.SeasonStatus;
+import com.leagueos.modules.league.domain.SoccerField;
+import com.leagueos.modules.league.domain.Team;
+import com.leagueos.modules.league.domain.TeamRegistration;
+import com.leagueos.modules.league.domain.Tenant;
+import com.leagueos.modules.media.service.StorageService;
+import com.leagueos.shared.infrastructure.persistence.BaseEntity;
+import com.leagueos.shared.security.JwtTokenProvider;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Calls every endpoint that returns JPA entities through the whole application (JWT and tenant
+ * filters, security, Jackson) with spring.jpa.open-in-view=false from application.properties, on an in-memory H2
+ * database. The responses are written after the service transaction has ended, so an association
+ * the service left uninitialized fails the request instead of being loaded by the view.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entity-responses;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "app.ine.jobs.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EntityResponsesWithoutOpenInViewTest {
+
+    // The league seeded by DataInitializer, whose admin signs the requests
+    private static final UUID TENANT_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private EntityManager entityManager;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean private StorageService storageService;
+
+    private Season season;
+    private Team home;
+    private Team away;
+    private Match tieLeg;
+    private SoccerField field;
+
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Tenant tenant = new Tenant();
+            tenant.setName("Liga Norte");
+            tenant.setSportType("SOCCER");
+            tenant.setSubdomain("liga-norte-" + TENANT_ID.toString().substring(0, 8));
+            persist(tenant);
+
+            season = persist(season("Apertura"));
+            home = persist(team("Halcones"));
+            away = persist(team("Pumas"));
+            register(season, home);
+            register(season, away);
+            field = new SoccerField();
+            field.setName("Unidad Deportiva");
+            persist(field);
+
+            PlayoffTie tie = new PlayoffTie();
+            tie.setSeason(season);
+            tie.setRound(PlayoffRound.FINAL);
+            tie.setHomeSeedTeam(home);
+            tie.setAwaySeedTeam(away);
+            persist(tie);
+
+            tieLeg = new Match();
+            tieLeg.setSeason(season);
+            tieLeg.setHomeTeam(home);
+            tieLeg.setAwayTeam(away);
+            tieLeg.setMatchday(1);
+            tieLeg.setMatchDate(LocalDateTime.of(2026, 6, 1, 18, 0));
+            tieLeg.setStage(MatchStage.PLAYOFFS);
+            tieLeg.setPlayoffTie(tie);
+            tieLeg.setLegNumber(1);
+            persist(tieLeg);
+
+            MatchEvent goal = new MatchEvent();
+            goal.setMatch(tieLeg);
+            goal.setTeam(home);
+            goal.setEventType(MatchEvent.MatchEventType.GOAL);
+            persist(goal);
+        });
+        // Fresh entity manager for every request from here on: nothing is initialized by the seeding
+        entityManager.clear();
+    }
+
+    // ---- Reads ----
+
+    @Test
+    void tenants() throws Exception {
+        expectJson(get("/api/leagues/tenants")).andExpect(jsonPath("$[*].name", hasItem("Liga Norte")));
+    }
+
+    @Test
+    void teams() throws Exception {
+        expectJson(get("/api/leagues/teams")).andExpect(jsonPath("$[*].name", hasItem("Halcones")));
+    }
+
+    @Test
+    void seasons() throws Exception {
+        expectJson(get("/api/leagues/seasons")).andExpect(jsonPath("$[*].name", hasItem("Apertura")));
+    }
+
+    @Test
+    void enrolledTeams() throws Exception {
+        expectJson(get("/api/leagues/seasons/{id}/teams", season.getId()))
+                .andExpect(jsonPath("$[*].team.name", hasItem("Pumas")));
+    }
+
+    @Test
+    void playoffBracket() throws Exception {
+        expectJson(get("/api/leagues/seasons/{id}/playoffs/bracket", season.getId()))
+                .andExpect(jsonPath("$[0].homeSeedTeam.name").value("Halcones"));
+    }
+
+    @Test
+    void fields() throws Exception {
+        expectJson(get("/api/leagues/fields")).andExpect(jsonPath("$[*].name", hasItem("Unidad Deportiva")));
+    }
+
+    @Test
+    void seasonMatches() throws Exception {
+        expectJson(get("/api/competition/seasons/{id}/matches", season.getId()))
+                .andExpect(jsonPath("$[0].playoffTie.awaySeedTeam.name").value("Pumas"));
+    }
+
+    @Test
+    void matchesByMatchday() throws Exception {
+        expectJson(get("/api/matches/{matchday}", 1))
+                .andExpect(jsonPath("$[*].playoffTie.homeSeedTeam.name", hasItem("Halcones")));
+    }
+
+    @Test
+    void matchReport() throws Exception {
+        expectJson(get("/api/matches/{matchId}/report", tieLeg.getId()))
+                .andExpect(jsonPath("$[0].match.playoffTie.homeSeedTeam.name").value("Halcones"));
+    }
+
+    @Test
+    void tenantSettings() throws Exception {
+        expectJson(get("/api/tenants/settings/current")).andExpect(jsonPath("$.winPointsOnWin").exists());
+    }
+
+    // ---- Writes ----
+
+    @Test
+    void createAndUpdateTeam() throws Exception {
+        String created = expectJson(post("/api/leagues/teams").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "Toros", "representative", Map.of("firstName", "Ana", "lastName", "Ruiz")))))
+                .andExpect(jsonPath("$.representativeName").value("Ana Ruiz"))
+                .andReturn().getResponse().getContentAsString();
+        UUID teamId = UUID.fromString(objectMapper.readTree(created).get("id").asText());
+
+        expectJson(put("/api/leagues/teams/{id}", teamId).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "Toros FC"))))
+                .andExpect(jsonPath("$.name").value("Toros FC"));
+    }
+
+    @Test
+    void uploadTeamLogo() throws Exception {
+        Team team = transactionTemplate.execute(status -> persist(team("Linces")));
+        when(storageService.buildTenantKey(eq(TENANT_ID), eq("teams"), anyString()))
+                .thenAnswer(invocation -> "test/tenants/" + TENANT_ID + "/teams/" + invocation.getArgument(2));
+
+        expectJson(multipart("/api/leagues/teams/{id}/logo", team.getId())
+                .file(new MockMultipartFile("file", "logo.png", "image/png", new byte[]{1, 2, 3})))
+                .andExpect(jsonPath("$.logoUrl").exists());
+    }
+
+    @Test
+    void seasonLifecycle() throws Exception {
+        String created = expectJson(post("/api/leagues/seasons").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "Clausura", "startDate", "2026-07-01", "endDate", "2026-12-01"))))
+                .andReturn().getResponse().getContentAsString();
+        UUID seasonId = UUID.fromString(objectMapper.readTree(created).get("id").asText());
+
+        expectJson(put("/api/leagues/seasons/{id}/activate", seasonId)).andExpect(jsonPath("$.status").value("ACTIVE"));
+        expectJson(put("/api/leagues/seasons/{id}/advance-matchday", seasonId)).andExpect(jsonPath("$.currentMatchday").value(2));
+        expectJson(put("/api/leagues/seasons/{id}/current-matchday", seasonId).param("matchday", "3"))
+                .andExpect(jsonPath("$.currentMatchday").value(3));
+    }
+
+    @Test
+    void enrollTeams() throws Exception {
+        Season other = transactionTemplate.execute(status -> persist(season("Copa")));
+
+        expectJson(post("/api/leagues/seasons/{id}/enroll", other.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(List.of(home.getId(), away.getId()))))
+                .andExpect(jsonPath("$[*].team.name", hasItem("Halcones")));
+    }
+
+    @Test
+    void generatedFixtures() throws Exception {
+        Season other = transactionTemplate.execute(status -> {
+            Season copa = persist(season("Copa Verano"));
+            register(copa, home);
+            register(copa, away);
+            return copa;
+        });
+
+        expectJson(post("/api/leagues/seasons/{id}/generate-fixtures/round-robin", other.getId()))
+                .andExpect(jsonPath("$[0].homeTeam.name").exists());
+    }
+
+    @Test
+    void importedCalendar() throws Exception {
+        Season other = transactionTemplate.execute(status -> {
+            Season copa = persist(season("Copa Invierno"));
+            register(copa, home);
+            register(copa, away);
+            return copa;
+        });
+
+        expectJson(multipart("/api/leagues/seasons/{id}/import-calendar", other.getId())
+                .file(new MockMultipartFile("file", "calendario.xlsx", "application/octet-stream", calendar())))
+                .andExpect(jsonPath("$[0].homeTeam.name").value("Halcones"));
+    }
+
+    @Test
+    void createAndUpdateField() throws Exception {
+        String created = expectJson(post("/api/leagues/fields").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "Campo 2"))))
+                .andReturn().getResponse().getContentAsString();
+        UUID fieldId = UUID.fromString(objectMapper.readTree(created).get("id").asText());
+
+        expectJson(put("/api/leagues/fields/{id}", fieldId).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "Campo 2B"))))
+                .andExpect(jsonPath("$.name").value("Campo 2B"));
+    }
+
+    @Test
+    void publicTeamRegistration() throws Exception {
+        expectJson(post("/api/public/teams/register").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("teamName", "Águilas", "representativeName", "Luis Gómez",
+                        "representativePhone", "5512345678", "seasonId", season.getId()))))
+                .andExpect(jsonPath("$.team.name").value("ÁGUILAS"));
+    }
+
+    @Test
+    void scheduleMatch() throws Exception {
+        expectJson(post("/api/competition/matches").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("season", Map.of("id", season.getId()), "homeTeam", Map.of("id", home.getId()),
+                        "awayTeam", Map.of("id", away.getId()), "matchday", 5))))
+                .andExpect(jsonPath("$.matchday").value(5));
+    }
+
+    @Test
+    void rescheduleAndRecordResultOfAPlayoffLeg() throws Exception {
+        expectJson(put("/api/matches/{id}/schedule", tieLeg.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("matchDate", "2026-06-02T19:00:00", "fieldId", field.getId()))))
+                .andExpect(jsonPath("$.playoffTie.homeSeedTeam.name").value("Halcones"))
+                .andExpect(jsonPath("$.field.name").value("Unidad Deportiva"));
+
+        expectJson(patch("/api/competition/matches/{id}/result", tieLeg.getId())
+                .param("homeScore", "2").param("awayScore", "1"))
+                .andExpect(jsonPath("$.playoffTie.awaySeedTeam.name").value("Pumas"));
+    }
+
+    @Test
+    void updateTenantSettings() throws Exception {
+        expectJson(put("/api/tenants/settings/current").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("winPointsOnWin", 3, "themeClass", "theme-norte"))))
+                .andExpect(jsonPath("$.themeClass").value("theme-norte"));
+    }
+
+    // ---- Helpers ----
+
+    private ResultActions expectJson(MockHttpServletRequestBuilder request) throws Exception {
+        String token = jwtTokenProvider.generateToken("admin_liga", "ROLE_LEAGUE_ADMIN", TENANT_ID.toString());
+        return mockMvc.perform(request.header("X-Tenant-ID", TENANT_ID).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private String json(Object body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private static Season season(String name) {
+        Season season = new Season();
+        season.setName(name);
+        season.setStatus(SeasonStatus.ACTIVE);
+        season.setStartDate(LocalDate.of(2026, 1, 10));
+        season.setEndDate(LocalDate.of(2026, 6, 30));
+        return season;
+    }
+
+    private static Team team(String name) {
+        Team team = new Team();
+        team.setName(name);
+        return team;
+    }
+
+    private void register(Season season, Team team) {
+        TeamRegistration registration = new TeamRegistration();
+        registration.setSeason(season);
+        registration.setTeam(team);
+        registration.setStatus(TeamRegistration.RegistrationStatus.APPROVED);
+        persist(registration);
+    }
+
+    private <T extends BaseEntity> T persist(T entity) {
+        entity.setTenantId(TENANT_ID);
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private static byte[] calendar() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Jornada");
+            header.createCell(1).setCellValue("Local");
+            header.createCell(2).setCellValue("Visitante");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue(1);
+            row.createCell(1).setCellValue("Halcones");
+            row.createCell(2).setCellValue("Pumas");
+            row.createCell(3).setCellValue("01/08/2026");
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.leagueos.modules.competition.api;
+
+import com.leagueos.modules.competition.domain.LiveScoreEvent;
+import com.leagueos.modules.competition.service.LiveScoreHub;
+import com.leagueos.modules.competition.service.StatsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Opens {@code loadtest.connections} (default 10 000) SSE connections to the live feed of one season on a
+ * local Tomcat, broadcasts a goal and measures how long it takes to reach every client. Also checks that
+ * holding the connections does not cost a thread each.
+ *
+ * Needs about two file descriptors per connection (client and server side) on this machine, so raise
+ * {@code ulimit -n} accordingly. Only runs on demand:
+ * {@code mvn test -Dtest=LiveScoreLoadTest -Dloadtest=true [-Dloadtest.connections=10000]}
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(
+        classes = LiveScoreLoadTest.LiveFeedApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.max-connections=25000",
+                "server.tomcat.threads.max=50",
+                "app.live.max-subscribers=25000",
+                "app.live.heartbeat-seconds=3600"
+        })
+class LiveScoreLoadTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 10_000);
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID seasonId = UUID.randomUUID();
+
+    @Configuration
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class
+    })
+    @Import({PublicLiveScoreController.class, LiveScoreHub.class})
+    static class LiveFeedApp {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LiveScoreHub hub;
+
+    @MockBean
+    private StatsService statsService;
+
+    @Test
+    void goalReachesEveryConnectedFan() throws Exception {
+        when(statsService.getLiveScoreSnapshot(any(), any())).thenReturn(List.of());
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(clientExecutor)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/public/matches/live/" + seasonId + "?tenantId=" + tenantId))
+                .header("Accept", "text/event-stream")
+                .build();
+
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        CountDownLatch received = new CountDownLatch(CONNECTIONS);
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONNECTIONS);
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new GoalListener(received))));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (hub.subscriberCount() < CONNECTIONS && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+        assertThat(hub.subscriberCount()).isEqualTo(CONNECTIONS);
+        int threadsConnected = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        long publishStart = System.nanoTime();
+        hub.publish(new LiveScoreEvent(tenantId, seasonId, UUID.randomUUID(), LiveScoreEvent.Type.GOAL,
+                UUID.randomUUID(), UUID.randomUUID(), 1, 0, LocalDateTime.now()));
+        boolean allReceived = received.await(30, TimeUnit.SECONDS);
+        long fanOutMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - publishStart);
+
+        System.out.printf("%n=== Live score feed, %d connections ===%n", CONNECTIONS);
+        System.out.printf("connect all  : %,d ms%n", connectMillis);
+        System.out.printf("fan-out goal : %,d ms (%d clients still waiting)%n", fanOutMillis, received.getCount());
+        System.out.printf("JVM threads  : %d before, %d with all connections open%n", threadsBefore, threadsConnected);
+
+        assertThat(allReceived).isTrue();
+        // Idle subscribers are parked on the selector, not on a request thread
+        assertThat(threadsConnected - threadsBefore).isLessThan(200);
+
+        hub.destroy();
+        responses.forEach(r -> r.cancel(true));
+        clientExecutor.shutdownNow();
+    }
+
+    /** Counts down once when the GOAL event arrives on a connection. */
+    private static final class GoalListener implements Flow.Subscriber<String> {
+        private final CountDownLatch received;
+        private boolean seen;
+
+        GoalListener(CountDownLatch received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!seen && line.equals("event:GOAL")) {
+                seen = true;
+                received.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.leagueos.modules.competition.api;
+
+import com.leagueos.modules.competition.api.dto.SeasonDataVersionDTO;
+import com.leagueos.modules.league.domain.SeasonStatus;
+import com.leagueos.modules.tenant.domain.TenantSettings;
+import com.leagueos.modules.tenant.service.TenantSettingsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PublicConditionalResponsesTest {
+
+    private final TenantSettingsService tenantSettingsService = mock(TenantSettingsService.class);
+    private final PublicConditionalResponses responses = new PublicConditionalResponses(tenantSettingsService, 15, 60);
+    private final AtomicInteger bodyCalls = new AtomicInteger();
+
+    private SeasonDataVersionDTO season;
+    private TenantSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = new TenantSettings();
+        settings.setUpdatedAt(LocalDateTime.of(2026, 2, 1, 9, 0));
+        when(tenantSettingsService.getCurrentSettings()).thenReturn(settings);
+        season = new SeasonDataVersionDTO(UUID.randomUUID(), SeasonStatus.ACTIVE, 3, 7L,
+                LocalDateTime.of(2026, 3, 1, 12, 0));
+    }
+
+    private ResponseEntity<List<String>> get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/stats/scorers/top");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        ServletWebRequest webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+        return responses.respond(webRequest, "scorers", null, List.of(season), () -> {
+            bodyCalls.incrementAndGet();
+            return List.of("row");
+        });
+    }
+
+    @Test
+    void firstRequest_returnsBodyWithValidators() {
+        ResponseEntity<List<String>> response = get(null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly("row");
+        assertThat(response.getHeaders().getETag()).startsWith("\"").doesNotStartWith("W/");
+        assertThat(response.getHeaders().getLastModified()).isPositive();
+        assertThat(response.getHeaders().getCacheControl()).contains("public", "max-age=15", "s-maxage=60");
+        assertThat(response.getHeaders().getVary()).contains("X-Tenant-ID");
+    }
+
+    @Test
+    void matchingIfNoneMatch_returns304WithoutComputingBody() {
+        String etag = get(null).getHeaders().getETag();
+
+        ResponseEntity<List<String>> response = get(etag);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(bodyCalls).hasValue(1);
+    }
+
+    @Test
+    void versionBump_changesEtag() {
+        String etag = get(null).getHeaders().getETag();
+        season.setDataVersion(8L);
+
+        ResponseEntity<List<String>> response = get(etag);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void etag_dependsOnViewAndParameters() {
+        List<SeasonDataVersionDTO> seasons = List.of(season);
+
+        assertThat(PublicConditionalResponses.etag("scorers", null, seasons, null))
+                .isEqualTo(PublicConditionalResponses.etag("scorers", null, seasons, null))
+                .isNotEqualTo(PublicConditionalResponses.etag("standings", null, seasons, null))
+                .isNotEqualTo(PublicConditionalResponses.etag("scorers", 4, seasons, null));
+    }
+
+    @Test
+    void settingsChange_changesEtagAndLastModified() {
+        ResponseEntity<List<String>> before = get(null);
+        settings.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 8, 0));
+
+        ResponseEntity<List<String>> response = get(before.getHeaders().getETag());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+        assertThat(response.getHeaders().getLastModified()).isGreaterThan(before.getHeaders().getLastModified());
+    }
+}
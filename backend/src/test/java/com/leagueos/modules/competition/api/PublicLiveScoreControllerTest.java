@@ -0,0 +1,142 @@
+package com.leagueos.modules.competition.api;
+
+import com.leagueos.modules.competition.persistence.MatchRepository;
+import com.leagueos.modules.competition.service.LiveScoreHub;
+import com.leagueos.modules.competition.service.StandingsProjectionService;
+import com.leagueos.modules.competition.service.StatsService;
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.persistence.SeasonRepository;
+import com.leagueos.modules.media.service.ImageDerivativeService;
+import com.leagueos.shared.security.AuthenticatedPrincipalCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Opens more live feeds than the connection pool has connections, with the application's own JPA
+ * web setup (application.properties decides open-in-view), on an in-memory H2 database. A feed
+ * stays open for minutes, so it must not keep the connection its snapshot query used.
+ */
+@SpringBootTest(
+        classes = PublicLiveScoreControllerTest.LiveFeedApp.class,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:live-feed;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.hikari.maximum-pool-size=2",
+                "spring.datasource.hikari.connection-timeout=1000",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.flyway.enabled=false",
+                "app.live.heartbeat-seconds=3600"
+        })
+@AutoConfigureMockMvc(addFilters = false)
+class PublicLiveScoreControllerTest {
+
+    private static final int FEEDS = 5;
+
+    @Configuration
+    @ImportAutoConfiguration({
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class
+    })
+    @EntityScan("com.leagueos")
+    @EnableJpaAuditing
+    @EnableJpaRepositories(basePackageClasses = {MatchRepository.class, SeasonRepository.class})
+    @Import({PublicLiveScoreController.class, LiveScoreHub.class, StatsService.class})
+    static class LiveFeedApp {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private DataSource dataSource;
+
+    @MockBean private StandingsProjectionService standingsProjectionService;
+    @MockBean private ImageDerivativeService imageDerivativeService;
+    @MockBean private AuthenticatedPrincipalCache principalCache;
+
+    @Test
+    void openFeeds_holdNoDatabaseConnection() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        Season season = new Season();
+        season.setTenantId(tenantId);
+        season.setName("Apertura");
+        season.setStartDate(LocalDate.of(2026, 1, 1));
+        season.setEndDate(LocalDate.of(2026, 12, 31));
+        UUID seasonId = seasonRepository.save(season).getId();
+
+        List<MvcResult> feeds = new ArrayList<>();
+        for (int i = 0; i < FEEDS; i++) {
+            feeds.add(mockMvc.perform(get("/api/public/matches/live/{seasonId}", seasonId).param("tenantId", tenantId.toString()))
+                    .andExpect(request().asyncStarted())
+                    .andReturn());
+        }
+
+        for (MvcResult feed : feeds) {
+            awaitUntil(() -> contentOf(feed).contains("event:snapshot"));
+        }
+        assertThat(((HikariDataSource) dataSource).getHikariPoolMXBean().getActiveConnections()).isZero();
+        // The rest of the API still gets connections (a held pool would time out here after 1 s)
+        assertThat(seasonRepository.findByIdAndTenantId(seasonId, tenantId)).isPresent();
+    }
+
+    private static String contentOf(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private static void awaitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.leagueos.modules.competition.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the hot repository queries can be served by the indexes from V17/V18.
+ *
+ * Needs a local Postgres (e.g. the docker-compose one): set LEAGUEOS_TEST_DB_URL and,
+ * if different from the defaults, LEAGUEOS_TEST_DB_USER / LEAGUEOS_TEST_DB_PASSWORD.
+ * The migrations run into a throwaway schema that is dropped afterwards. Sequential scans
+ * are disabled so the plan reflects which index the planner can use, not table size.
+ */
+@EnabledIfEnvironmentVariable(named = "LEAGUEOS_TEST_DB_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexQueryPlanTest {
+
+    private static final String SEASON = "'" + UUID.randomUUID() + "'";
+    private static final String OTHER_SEASON = "'" + UUID.randomUUID() + "'";
+    private static final String TEAM = "'" + UUID.randomUUID() + "'";
+    private static final String PLAYER = "'" + UUID.randomUUID() + "'";
+    private static final String MATCH = "'" + UUID.randomUUID() + "'";
+    private static final String TENANT = "'" + UUID.randomUUID() + "'";
+
+    private final String schema = "plan_test_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    private Connection connection;
+
+    @BeforeAll
+    void migrate() throws SQLException {
+        String url = System.getenv("LEAGUEOS_TEST_DB_URL");
+        String user = System.getenv().getOrDefault("LEAGUEOS_TEST_DB_USER", "leagueos_user");
+        String password = System.getenv().getOrDefault("LEAGUEOS_TEST_DB_PASSWORD", "password");
+
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(schema)
+                .locations("classpath:db/migration", "classpath:db/tenant")
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement st = connection.createStatement()) {
+            st.execute("SET search_path TO " + schema);
+            st.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    void dropSchema() throws SQLException {
+        if (connection == null) return;
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "finished matches of a season | idx_matches_season_status_date | " +
+                    "SELECT * FROM matches WHERE season_id = :season AND status = 'FINISHED' ORDER BY match_date",
+            "matchday of several seasons | idx_matches_season_status_date | " +
+                    "SELECT id FROM matches WHERE season_id IN (:season, :otherSeason) AND matchday = 3",
+            "playoff stage of a season | idx_matches_season_status_date | " +
+                    "SELECT * FROM matches WHERE season_id = :season AND stage = 'PLAYOFFS'",
+            "legs of a playoff tie | idx_matches_playoff_tie | " +
+                    "SELECT * FROM matches WHERE playoff_tie_id = :match",
+            "public calendar | idx_matches_regular_season_matchday_date | " +
+                    "SELECT * FROM matches WHERE season_id = :season AND stage = 'REGULAR' AND matchday IS NOT NULL " +
+                    "ORDER BY matchday, match_date",
+            "events of a match | idx_match_events_match_type | " +
+                    "SELECT * FROM match_events WHERE match_id = :match",
+            "player event counter | idx_match_events_player_type_match | " +
+                    "SELECT COUNT(DISTINCT match_id) FROM match_events WHERE player_id = :player AND event_type = 'GOAL'",
+            "team roster in season | idx_season_rosters_team_season_status | " +
+                    "SELECT * FROM season_rosters WHERE team_id = :team AND season_id = :season",
+            "active players per team | idx_season_rosters_season_status_team | " +
+                    "SELECT team_id, COUNT(*) FROM season_rosters WHERE season_id = :season AND status = 'ACTIVE' GROUP BY team_id",
+            "approved registrations | idx_team_registrations_season_team | " +
+                    "SELECT * FROM team_registrations WHERE season_id = :season AND status = 'APPROVED'",
+            "pending registrations of tenant | idx_team_registrations_tenant_status | " +
+                    "SELECT * FROM team_registrations WHERE tenant_id = :tenant AND status = 'PENDING'"
+    })
+    void queryUsesIndex(String description, String expectedIndex, String sql) throws SQLException {
+        String plan = explain(sql
+                .replace(":season", SEASON)
+                .replace(":otherSeason", OTHER_SEASON)
+                .replace(":team", TEAM)
+                .replace(":player", PLAYER)
+                .replace(":match", MATCH)
+                .replace(":tenant", TENANT));
+
+        assertThat(plan).as(description).contains(expectedIndex);
+    }
+
+    private String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package com.leagueos.modules.competition.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueos.modules.competition.domain.LiveScoreEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LiveScoreHubTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID seasonId = UUID.randomUUID();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LiveScoreHub hub;
+
+    @AfterEach
+    void tearDown() {
+        if (hub != null) hub.destroy();
+    }
+
+    /** Emitter that records the frames written to it; {@code gate} can hold the sender to simulate a stalled client. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> frames = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch gate;
+        volatile boolean broken;
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            if (broken) throw new IOException("Broken pipe");
+            CountDownLatch g = gate;
+            if (g != null) {
+                try {
+                    g.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (DataWithMediaType item : items) frames.add(item.getData().toString());
+        }
+    }
+
+    private LiveScoreHub newHub(int maxSubscribers, int queueCapacity, long heartbeatSeconds, List<RecordingEmitter> emitters) {
+        return new LiveScoreHub(new ObjectMapper().findAndRegisterModules(), maxSubscribers, queueCapacity, 2,
+                heartbeatSeconds, 30, registry) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static void awaitUntil(long seconds, BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %ds", seconds).isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private LiveScoreEvent goal(UUID season, int home, int away) {
+        return new LiveScoreEvent(tenantId, season, UUID.randomUUID(), LiveScoreEvent.Type.GOAL,
+                UUID.randomUUID(), UUID.randomUUID(), home, away, LocalDateTime.of(2026, 3, 1, 10, 0));
+    }
+
+    @Test
+    void publish_reachesEverySubscriberOfTheSeasonOnly() {
+        List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+        hub = newHub(100, 8, 3600, emitters);
+        hub.subscribe(tenantId, seasonId, List.of());
+        hub.subscribe(tenantId, seasonId, List.of());
+        hub.subscribe(tenantId, UUID.randomUUID(), List.of());
+
+        hub.publish(goal(seasonId, 1, 0));
+
+        awaitUntil(2, () -> emitters.get(0).frames.size() == 2 && emitters.get(1).frames.size() == 2);
+        assertThat(emitters.get(0).frames.get(0)).contains("event:snapshot").contains("data:[]");
+        assertThat(emitters.get(0).frames.get(1)).contains("event:GOAL").contains("\"homeScore\":1");
+        assertThat(emitters.get(2).frames).hasSize(1);
+        assertThat(registry.get("live.events.published").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void publish_slowSubscriber_isDroppedWithoutHoldingBackOthers() {
+        List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+        hub = newHub(100, 4, 3600, emitters);
+        hub.subscribe(tenantId, seasonId, null);
+        hub.subscribe(tenantId, seasonId, null);
+        awaitUntil(2, () -> emitters.get(0).frames.size() == 1);
+        RecordingEmitter stalled = emitters.get(0);
+        CountDownLatch gate = new CountDownLatch(1);
+        stalled.gate = gate;
+
+        // Paced so the healthy client keeps up while the stalled one's outbox (4) overflows
+        for (int i = 1; i <= 10; i++) {
+            hub.publish(goal(seasonId, i, 0));
+            int expected = i + 1;
+            awaitUntil(2, () -> emitters.get(1).frames.size() == expected);
+        }
+
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+        assertThat(registry.get("live.subscribers.dropped").counter().count()).isEqualTo(1);
+        gate.countDown();
+    }
+
+    @Test
+    void publish_brokenConnection_isRemoved() {
+        List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+        hub = newHub(100, 8, 3600, emitters);
+        hub.subscribe(tenantId, seasonId, null);
+        emitters.get(0).broken = true;
+
+        hub.publish(goal(seasonId, 1, 0));
+
+        awaitUntil(2, () -> hub.subscriberCount() == 0);
+    }
+
+    @Test
+    void heartbeat_isSentToIdleSubscribers() {
+        List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+        hub = newHub(100, 8, 1, emitters);
+        hub.subscribe(tenantId, seasonId, null);
+
+        // The initial frame plus at least one periodic one
+        awaitUntil(3, () -> emitters.get(0).frames.size() >= 2);
+        assertThat(emitters.get(0).frames).allMatch(":hb\n\n"::equals);
+    }
+
+    @Test
+    void subscribe_overTheLimit_isRejected() {
+        hub = newHub(1, 8, 3600, new CopyOnWriteArrayList<>());
+        hub.subscribe(tenantId, seasonId, null);
+
+        assertThatThrownBy(() -> hub.subscribe(tenantId, seasonId, null))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+    }
+}
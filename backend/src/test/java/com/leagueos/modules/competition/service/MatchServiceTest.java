@@ -0,0 +1,391 @@
+package com.leagueos.modules.competition.service;
+
+import com.leagueos.modules.competition.api.dto.MatchLiveStateDTO;
+import com.leagueos.modules.competition.domain.LiveScoreEvent;
+import com.leagueos.modules.competition.domain.Match;
+import com.leagueos.modules.competition.domain.MatchEvent;
+import com.leagueos.modules.competition.persistence.MatchEventRepository;
+import com.leagueos.modules.competition.persistence.MatchRepository;
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.domain.Team;
+import com.leagueos.modules.league.persistence.TeamRepository;
+import com.leagueos.modules.registration.domain.Player;
+import com.leagueos.modules.registration.persistence.PlayerRepository;
+import com.leagueos.modules.tenant.domain.TenantSettings;
+import com.leagueos.modules.tenant.service.TenantSettingsService;
+import com.leagueos.shared.context.TenantContext;
+import com.leagueos.shared.domain.exception.BusinessRuleException;
+import com.leagueos.shared.domain.exception.ConcurrentUpdateException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MatchServiceTest {
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private MatchEventRepository matchEventRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
+
+    @Mock
+    private TenantSettingsService tenantSettingsService;
+
+    @Mock
+    private PlayoffService playoffService;
+
+    @Mock
+    private StandingsProjectionService standingsProjectionService;
+
+    @Mock
+    private org.springframework.context.ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LiveScoreHub liveScoreHub;
+
+    @InjectMocks
+    private MatchService matchService;
+
+    private Match match;
+    private Team home;
+    private Team away;
+    private TenantSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        Season season = new Season();
+        season.setId(UUID.randomUUID());
+
+        home = createTeam("Home");
+        away = createTeam("Away");
+
+        match = new Match();
+        match.setId(UUID.randomUUID());
+        match.setTenantId(UUID.randomUUID());
+        match.setSeason(season);
+        match.setHomeTeam(home);
+        match.setAwayTeam(away);
+        match.setMatchday(4);
+
+        settings = new TenantSettings();
+        settings.setEnableAutoSuspensions(true);
+
+        lenient().when(matchRepository.findById(match.getId())).thenReturn(Optional.of(match));
+        lenient().when(tenantSettingsService.getCurrentSettings()).thenReturn(settings);
+        lenient().when(teamRepository.findAllById(anyCollection())).thenReturn(List.of(home, away));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private Team createTeam(String name) {
+        Team team = new Team();
+        team.setId(UUID.randomUUID());
+        team.setName(name);
+        return team;
+    }
+
+    private Player createPlayer() {
+        Player player = new Player();
+        player.setId(UUID.randomUUID());
+        return player;
+    }
+
+    private MatchEvent rawEvent(MatchEvent.MatchEventType type, Player player, Team team) {
+        MatchEvent raw = new MatchEvent();
+        raw.setEventType(type);
+        if (player != null) {
+            Player ref = new Player();
+            ref.setId(player.getId());
+            raw.setPlayer(ref);
+        }
+        Team teamRef = new Team();
+        teamRef.setId(team.getId());
+        raw.setTeam(teamRef);
+        return raw;
+    }
+
+    @Test
+    void submitMatchReport_resolvesPlayersAndTeamsInOneQueryEach() {
+        List<Player> players = List.of(createPlayer(), createPlayer(), createPlayer());
+        when(playerRepository.findAllById(anyCollection())).thenReturn(players);
+
+        List<MatchEvent> events = new ArrayList<>();
+        for (Player p : players) {
+            events.add(rawEvent(MatchEvent.MatchEventType.APPEARANCE, p, home));
+        }
+        events.add(rawEvent(MatchEvent.MatchEventType.GOAL, players.get(0), home));
+        events.add(rawEvent(MatchEvent.MatchEventType.GOAL, players.get(1), away));
+
+        matchService.submitMatchReport(match.getId(), events);
+
+        verify(playerRepository, times(1)).findAllById(anyCollection());
+        verify(teamRepository, times(1)).findAllById(anyCollection());
+        verify(playerRepository, never()).findById(any());
+        verify(teamRepository, never()).findById(any());
+        assertThat(match.getHomeScore()).isEqualTo(1);
+        assertThat(match.getAwayScore()).isEqualTo(1);
+        assertThat(match.getStatus()).isEqualTo(Match.MatchStatus.FINISHED);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitMatchReport_redCards_areAppliedAsBulkSuspension() {
+        Player first = createPlayer();
+        Player second = createPlayer();
+        when(playerRepository.findAllById(anyCollection())).thenReturn(List.of(first, second));
+
+        matchService.submitMatchReport(match.getId(), List.of(
+                rawEvent(MatchEvent.MatchEventType.RED_CARD, first, home),
+                rawEvent(MatchEvent.MatchEventType.RED_CARD, second, away)));
+
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(playerRepository, times(1)).updateSuspendedUntilMatchday(ids.capture(), eq(5), eq(match.getTenantId()), any());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(first.getId(), second.getId());
+        verify(playerRepository, never()).save(any());
+    }
+
+    @Test
+    void submitMatchReport_autoSuspensionsDisabled_skipsUpdate() {
+        settings.setEnableAutoSuspensions(false);
+        Player player = createPlayer();
+        when(playerRepository.findAllById(anyCollection())).thenReturn(List.of(player));
+
+        matchService.submitMatchReport(match.getId(), List.of(rawEvent(MatchEvent.MatchEventType.RED_CARD, player, home)));
+
+        verify(playerRepository, never()).updateSuspendedUntilMatchday(anyCollection(), any(), any(), any());
+    }
+
+    private MatchEvent storedEvent(MatchEvent.MatchEventType type, Player player, Team team) {
+        MatchEvent event = new MatchEvent();
+        event.setId(UUID.randomUUID());
+        event.setMatch(match);
+        event.setEventType(type);
+        event.setPlayer(player);
+        event.setTeam(team);
+        return event;
+    }
+
+    @Test
+    void submitMatchReport_unchangedResubmission_writesNothing() {
+        Player scorer = createPlayer();
+        when(playerRepository.findAllById(anyCollection())).thenReturn(List.of(scorer));
+        when(matchEventRepository.findByMatchId(match.getId())).thenReturn(List.of(
+                storedEvent(MatchEvent.MatchEventType.APPEARANCE, scorer, home),
+                storedEvent(MatchEvent.MatchEventType.GOAL, scorer, home)));
+        match.setStatus(Match.MatchStatus.FINISHED);
+        match.setHomeScore(1);
+        match.setAwayScore(0);
+
+        matchService.submitMatchReport(match.getId(), List.of(
+                rawEvent(MatchEvent.MatchEventType.APPEARANCE, scorer, home),
+                rawEvent(MatchEvent.MatchEventType.GOAL, scorer, home)));
+
+        verify(matchEventRepository, never()).saveAll(any());
+        verify(matchEventRepository, never()).deleteAllInBatch(any());
+        verify(matchEventRepository, never()).deleteByMatchId(any());
+        verify(standingsProjectionService, never()).applyResult(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitMatchReport_correctedReport_onlyTouchesTheDifference() {
+        Player scorer = createPlayer();
+        Player booked = createPlayer();
+        when(playerRepository.findAllById(anyCollection())).thenReturn(List.of(scorer, booked));
+        MatchEvent goal = storedEvent(MatchEvent.MatchEventType.GOAL, scorer, home);
+        MatchEvent wrongCard = storedEvent(MatchEvent.MatchEventType.YELLOW_CARD, scorer, home);
+        MatchEvent red = storedEvent(MatchEvent.MatchEventType.RED_CARD, booked, away);
+        red.setSuspensionMatchdays(1);
+        when(matchEventRepository.findByMatchId(match.getId())).thenReturn(List.of(goal, wrongCard, red));
+
+        MatchEvent redWithNotes = rawEvent(MatchEvent.MatchEventType.RED_CARD, booked, away);
+        redWithNotes.setSuspensionMatchdays(1);
+        redWithNotes.setNotes("Agresión");
+        matchService.submitMatchReport(match.getId(), List.of(
+                rawEvent(MatchEvent.MatchEventType.GOAL, scorer, home),
+                rawEvent(MatchEvent.MatchEventType.YELLOW_CARD, booked, away),
+                redWithNotes));
+
+        ArgumentCaptor<List<MatchEvent>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(matchEventRepository).saveAll(inserted.capture());
+        assertThat(inserted.getValue()).singleElement()
+                .satisfies(e -> assertThat(e.getPlayer()).isSameAs(booked));
+        verify(matchEventRepository).deleteAllInBatch(List.of(wrongCard));
+        assertThat(red.getNotes()).isEqualTo("Agresión");
+        // Same suspension length as before: no suspension rewrite
+        verify(playerRepository, never()).updateSuspendedUntilMatchday(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    void submitMatchReport_publishesNewGoalsAndCardsThenFinalScore() {
+        Player scorer = createPlayer();
+        when(playerRepository.findAllById(anyCollection())).thenReturn(List.of(scorer));
+        when(matchEventRepository.findByMatchId(match.getId())).thenReturn(List.of(
+                storedEvent(MatchEvent.MatchEventType.GOAL, scorer, home)));
+
+        matchService.submitMatchReport(match.getId(), List.of(
+                rawEvent(MatchEvent.MatchEventType.APPEARANCE, scorer, home),
+                rawEvent(MatchEvent.MatchEventType.GOAL, scorer, home),
+                rawEvent(MatchEvent.MatchEventType.GOAL, scorer, home)));
+
+        ArgumentCaptor<LiveScoreEvent> published = ArgumentCaptor.forClass(LiveScoreEvent.class);
+        verify(liveScoreHub, times(2)).publishAfterCommit(published.capture());
+        // The already reported goal and the appearance are not broadcast again
+        assertThat(published.getAllValues()).extracting(LiveScoreEvent::type)
+                .containsExactly(LiveScoreEvent.Type.GOAL, LiveScoreEvent.Type.MATCH_FINISHED);
+        assertThat(published.getAllValues().get(1).homeScore()).isEqualTo(2);
+        assertThat(published.getAllValues().get(1).seasonId()).isEqualTo(match.getSeason().getId());
+    }
+
+    // ---- Live scorekeeping ----
+
+    private void startLive() {
+        TenantContext.setCurrentTenant(match.getTenantId());
+        match.setStatus(Match.MatchStatus.IN_PROGRESS);
+        match.setVersion(3L);
+        lenient().when(matchRepository.findLiveState(match.getId()))
+                .thenReturn(new MatchLiveStateDTO(match.getId(), Match.MatchStatus.IN_PROGRESS, 0, 1, 4L));
+    }
+
+    @Test
+    void addLiveEvent_goal_movesScoreWithOneConditionalUpdate() {
+        startLive();
+        Player scorer = createPlayer();
+        when(playerRepository.findOnRoster(scorer.getId(), away.getId(), match.getSeason().getId(), match.getTenantId()))
+                .thenReturn(Optional.of(scorer));
+        when(matchRepository.applyLiveScoreDelta(eq(match.getId()), eq(0), eq(1), eq(3L), any())).thenReturn(1);
+
+        MatchLiveStateDTO state = matchService.addLiveEvent(match.getId(),
+                rawEvent(MatchEvent.MatchEventType.GOAL, scorer, away), 3L);
+
+        assertThat(state.getAwayScore()).isEqualTo(1);
+        assertThat(state.getVersion()).isEqualTo(4L);
+        verify(matchEventRepository).save(any(MatchEvent.class));
+        // Appending never reads or rewrites the events already recorded
+        verify(matchEventRepository, never()).findByMatchId(any());
+        verify(matchRepository, never()).save(any());
+        ArgumentCaptor<LiveScoreEvent> published = ArgumentCaptor.forClass(LiveScoreEvent.class);
+        verify(liveScoreHub).publishAfterCommit(published.capture());
+        assertThat(published.getValue().type()).isEqualTo(LiveScoreEvent.Type.GOAL);
+        assertThat(published.getValue().teamId()).isEqualTo(away.getId());
+    }
+
+    @Test
+    void addLiveEvent_staleVersion_isRejectedWithoutWritingTheEvent() {
+        startLive();
+        when(matchRepository.applyLiveScoreDelta(any(), anyInt(), anyInt(), anyLong(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> matchService.addLiveEvent(match.getId(),
+                rawEvent(MatchEvent.MatchEventType.YELLOW_CARD, null, home), 2L))
+                .isInstanceOf(ConcurrentUpdateException.class);
+        verify(matchEventRepository, never()).save(any());
+        verifyNoInteractions(liveScoreHub);
+    }
+
+    @Test
+    void addLiveEvent_playerNotOnTheTeamRoster_isRejected() {
+        startLive();
+        Player other = createPlayer();
+        when(playerRepository.findOnRoster(any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> matchService.addLiveEvent(match.getId(),
+                rawEvent(MatchEvent.MatchEventType.GOAL, other, home), 3L))
+                .isInstanceOf(BusinessRuleException.class);
+        verify(matchRepository, never()).applyLiveScoreDelta(any(), anyInt(), anyInt(), anyLong(), any());
+        verify(matchEventRepository, never()).save(any());
+    }
+
+    @Test
+    void addLiveEvent_matchNotInPlay_isRejected() {
+        TenantContext.setCurrentTenant(match.getTenantId());
+        match.setStatus(Match.MatchStatus.SCHEDULED);
+
+        assertThatThrownBy(() -> matchService.addLiveEvent(match.getId(),
+                rawEvent(MatchEvent.MatchEventType.GOAL, null, home), -1))
+                .isInstanceOf(BusinessRuleException.class);
+        verify(matchRepository, never()).applyLiveScoreDelta(any(), anyInt(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void retractLiveEvent_goal_decrementsTheScoringSide() {
+        startLive();
+        MatchEvent goal = storedEvent(MatchEvent.MatchEventType.GOAL, null, home);
+        when(matchEventRepository.findByIdAndMatchId(goal.getId(), match.getId())).thenReturn(Optional.of(goal));
+        when(matchRepository.applyLiveScoreDelta(eq(match.getId()), eq(-1), eq(0), eq(-1L), any())).thenReturn(1);
+
+        matchService.retractLiveEvent(match.getId(), goal.getId(), -1);
+
+        verify(matchEventRepository).delete(goal);
+        ArgumentCaptor<LiveScoreEvent> published = ArgumentCaptor.forClass(LiveScoreEvent.class);
+        verify(liveScoreHub).publishAfterCommit(published.capture());
+        assertThat(published.getValue().type()).isEqualTo(LiveScoreEvent.Type.EVENT_RETRACTED);
+    }
+
+    @Test
+    void retractLiveEvent_alreadyRetractedByAConcurrentRequest_isAConflict() {
+        startLive();
+        MatchEvent goal = storedEvent(MatchEvent.MatchEventType.GOAL, null, home);
+        when(matchEventRepository.findByIdAndMatchId(goal.getId(), match.getId())).thenReturn(Optional.of(goal));
+        when(matchRepository.applyLiveScoreDelta(any(), anyInt(), anyInt(), anyLong(), any())).thenReturn(1);
+        doThrow(new ObjectOptimisticLockingFailureException(MatchEvent.class, goal.getId()))
+                .when(matchEventRepository).flush();
+
+        assertThatThrownBy(() -> matchService.retractLiveEvent(match.getId(), goal.getId(), -1))
+                .isInstanceOf(ConcurrentUpdateException.class);
+        verifyNoInteractions(liveScoreHub);
+    }
+
+    @Test
+    void finishLiveMatch_appliesSuspensionsAndStandings() {
+        startLive();
+        match.setHomeScore(2);
+        match.setAwayScore(1);
+        Player sentOff = createPlayer();
+        when(matchRepository.saveAndFlush(match)).thenReturn(match);
+        when(matchEventRepository.findByMatchIdAndEventType(match.getId(), MatchEvent.MatchEventType.RED_CARD))
+                .thenReturn(List.of(storedEvent(MatchEvent.MatchEventType.RED_CARD, sentOff, away)));
+
+        MatchLiveStateDTO state = matchService.finishLiveMatch(match.getId(), 3L);
+
+        assertThat(state.getStatus()).isEqualTo(Match.MatchStatus.FINISHED);
+        verify(playerRepository).updateSuspendedUntilMatchday(eq(List.of(sentOff.getId())), eq(5), eq(match.getTenantId()), any());
+        verify(standingsProjectionService).applyResult(match, null);
+    }
+
+    @Test
+    void finishLiveMatch_staleVersion_isRejected() {
+        startLive();
+
+        assertThatThrownBy(() -> matchService.finishLiveMatch(match.getId(), 1L))
+                .isInstanceOf(ConcurrentUpdateException.class);
+        verify(matchRepository, never()).saveAndFlush(any());
+        assertThat(match.getStatus()).isEqualTo(Match.MatchStatus.IN_PROGRESS);
+    }
+}
@@ -0,0 +1,187 @@
+package com.leagueos.modules.competition.service;
+
+import com.leagueos.modules.competition.domain.Match;
+import com.leagueos.modules.competition.domain.PlayoffRound;
+import com.leagueos.modules.competition.domain.PlayoffTie;
+import com.leagueos.modules.competition.persistence.MatchRepository;
+import com.leagueos.modules.competition.persistence.PlayoffTieRepository;
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.domain.Team;
+import com.leagueos.modules.league.persistence.SeasonRepository;
+import com.leagueos.modules.league.persistence.TeamRepository;
+import com.leagueos.shared.domain.exception.ConcurrentUpdateException;
+import com.leagueos.shared.infrastructure.aspect.ConflictRetryAspect;
+import com.leagueos.shared.security.AuthenticatedPrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers one playoff bracket from many threads: every leg of both semi-finals is recorded over and
+ * over concurrently (double clicks, both legs finishing at once, both semis feeding the final at once).
+ * Each recording resolves its tie, so without versioning the final ends up with a lost seed or with
+ * duplicate matches, and a tie whose legs finish together may never be resolved.
+ *
+ * Runs against an in-memory H2 database in PostgreSQL mode, only on demand:
+ * {@code mvn test -Dtest=PlayoffTieConcurrencyStressTest -Dstresstest=true [-Dstresstest.threads=32]}
+ */
+@EnabledIfSystemProperty(named = "stresstest", matches = "true")
+@SpringBootTest(
+        classes = PlayoffTieConcurrencyStressTest.StressApp.class,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:playoff-stress;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.hikari.maximum-pool-size=40",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.open-in-view=false",
+                "app.retry.conflict.max-attempts=12"
+        })
+class PlayoffTieConcurrencyStressTest {
+
+    private static final int THREADS = Integer.getInteger("stresstest.threads", 32);
+    private static final int ROUNDS = Integer.getInteger("stresstest.rounds", 5);
+
+    @Configuration
+    @ImportAutoConfiguration({
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class,
+            AopAutoConfiguration.class
+    })
+    @EntityScan("com.leagueos")
+    @EnableJpaAuditing
+    @EnableJpaRepositories(basePackageClasses = {MatchRepository.class, SeasonRepository.class})
+    @Import({PlayoffService.class, MatchSchedulerService.class, ConflictRetryAspect.class})
+    static class StressApp {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private PlayoffService playoffService;
+    @Autowired private MatchSchedulerService matchSchedulerService;
+    @Autowired private PlayoffTieRepository playoffTieRepository;
+    @Autowired private MatchRepository matchRepository;
+    @Autowired private SeasonRepository seasonRepository;
+    @Autowired private TeamRepository teamRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @MockBean private StandingsProjectionService standingsProjectionService;
+    @MockBean private LiveScoreHub liveScoreHub;
+    @MockBean private AuthenticatedPrincipalCache principalCache;
+
+    @Test
+    void concurrentLegResults_seedTheFinalExactlyOnce() throws Exception {
+        for (int round = 1; round <= ROUNDS; round++) {
+            runRound(round);
+        }
+    }
+
+    private void runRound(int round) throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        UUID seasonId = transactionTemplate.execute(status -> {
+            Season season = new Season();
+            season.setTenantId(tenantId);
+            season.setName("Stress " + round);
+            season.setStartDate(LocalDate.of(2026, 1, 1));
+            season.setEndDate(LocalDate.of(2026, 12, 31));
+            seasonRepository.save(season);
+            List<UUID> teamIds = new ArrayList<>();
+            for (int i = 1; i <= 4; i++) {
+                Team team = new Team();
+                team.setTenantId(tenantId);
+                team.setName("Seed " + i);
+                teamIds.add(teamRepository.save(team).getId());
+            }
+            playoffService.generateBracket(season.getId(), PlayoffRound.SEMI_FINALS, teamIds, 2);
+            return season.getId();
+        });
+
+        List<PlayoffTie> semis = playoffTieRepository.findBySeasonId(seasonId).stream()
+                .filter(t -> t.getRound() == PlayoffRound.SEMI_FINALS).toList();
+        PlayoffTie finalTie = playoffTieRepository.findBySeasonId(seasonId).stream()
+                .filter(t -> t.getRound() == PlayoffRound.FINAL).findFirst().orElseThrow();
+        List<Match> legs = semis.stream().flatMap(t -> matchRepository.findByPlayoffTieId(t.getId()).stream()).toList();
+        assertThat(legs).hasSize(4);
+
+        // Every leg ends 2-0 to the home side; legs swap venues, so each semi is level on aggregate and
+        // the higher seed goes through.
+        Map<UUID, AtomicInteger> successes = new ConcurrentHashMap<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Match leg = legs.get(i % legs.size());
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    matchSchedulerService.recordResult(leg.getId(), 2, 0);
+                    successes.computeIfAbsent(leg.getId(), k -> new AtomicInteger()).incrementAndGet();
+                } catch (ConcurrentUpdateException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        System.out.printf("round %d: %d calls, %d gave up with 409, %.0f retries so far%n", round, THREADS,
+                conflicts.get(), meterRegistry.get("conflict.retries").counter().count());
+        assertThat(successes.keySet()).as("every leg recorded at least once").hasSize(4);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            PlayoffTie reloadedFinal = playoffTieRepository.findById(finalTie.getId()).orElseThrow();
+            List<UUID> expectedWinners = semis.stream().map(t -> t.getHomeSeedTeam().getId()).toList();
+            for (PlayoffTie semi : semis) {
+                PlayoffTie reloaded = playoffTieRepository.findById(semi.getId()).orElseThrow();
+                assertThat(reloaded.getAdvancingTeam()).as("semi resolved").isNotNull();
+                assertThat(reloaded.getAdvancingTeam().getId()).isEqualTo(reloaded.getHomeSeedTeam().getId());
+            }
+            assertThat(reloadedFinal.getHomeSeedTeam()).isNotNull();
+            assertThat(reloadedFinal.getAwaySeedTeam()).isNotNull();
+            assertThat(List.of(reloadedFinal.getHomeSeedTeam().getId(), reloadedFinal.getAwaySeedTeam().getId()))
+                    .containsExactlyInAnyOrderElementsOf(expectedWinners);
+            assertThat(matchRepository.findByPlayoffTieId(finalTie.getId())).as("final legs").hasSize(2);
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package com.leagueos.modules.competition.service;
+
+import com.leagueos.core.sport.domain.SoccerRulesStrategy;
+import com.leagueos.core.sport.domain.SportRulesService;
+import com.leagueos.modules.competition.domain.Match;
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
+import com.leagueos.modules.competition.domain.TeamStanding;
+import com.leagueos.modules.competition.persistence.MatchRepository;
+import com.leagueos.modules.competition.persistence.TeamStandingRepository;
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.domain.Team;
+import com.leagueos.modules.league.persistence.SeasonRepository;
+import com.leagueos.modules.league.persistence.TeamRegistrationRepository;
+import com.leagueos.modules.tenant.domain.TenantSettings;
+import com.leagueos.modules.tenant.domain.WinPointsChangedEvent;
+import com.leagueos.modules.tenant.service.TenantSettingsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StandingsProjectionServiceTest {
+
+    @Mock
+    private TeamStandingRepository teamStandingRepository;
+
+    @Mock
+    private TeamRegistrationRepository teamRegistrationRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private TenantSettingsService tenantSettingsService;
+
+    @Mock
+    private SportRulesService sportRulesService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SeasonRepository seasonRepository;
+
+    private StandingsProjectionService service;
+
+    private Season season;
+    private Team home;
+    private Team away;
+    private TeamStanding homeRow;
+    private TeamStanding awayRow;
+
+    @BeforeEach
+    void setUp() {
+        service = new StandingsProjectionService(teamStandingRepository, teamRegistrationRepository,
+                matchRepository, tenantSettingsService, sportRulesService, eventPublisher, seasonRepository);
+
+        season = new Season();
+        season.setId(UUID.randomUUID());
+        home = createTeam("Home");
+        away = createTeam("Away");
+        homeRow = createRow(home);
+        awayRow = createRow(away);
+
+        lenient().when(sportRulesService.getStrategy("SOCCER")).thenReturn(Optional.of(new SoccerRulesStrategy()));
+        lenient().when(tenantSettingsService.getCurrentSettings()).thenReturn(new TenantSettings());
+        lenient().when(teamStandingRepository.findForUpdate(eq(season.getId()), anyCollection()))
+                .thenReturn(List.of(homeRow, awayRow));
+        lenient().when(matchRepository.findRecentFinishedMatchSummariesByTeam(any(), any(), any()))
+                .thenReturn(List.of());
+    }
+
+    private Team createTeam(String name) {
+        Team team = new Team();
+        team.setId(UUID.randomUUID());
+        team.setName(name);
+        return team;
+    }
+
+    private TeamStanding createRow(Team team) {
+        TeamStanding row = new TeamStanding();
+        row.setSeason(season);
+        row.setTeam(team);
+        return row;
+    }
+
+    private Match createMatch(Match.MatchStatus status, int homeScore, int awayScore) {
+        Match match = new Match();
+        match.setSeason(season);
+        match.setHomeTeam(home);
+        match.setAwayTeam(away);
+        match.setHomeScore(homeScore);
+        match.setAwayScore(awayScore);
+        match.setStatus(status);
+        return match;
+    }
+
+    @Test
+    void applyResult_firstReport_addsWinAndLoss() {
+        Match match = createMatch(Match.MatchStatus.FINISHED, 2, 1);
+
+        service.applyResult(match, null);
+
+        assertThat(homeRow.getPlayed()).isEqualTo(1);
+        assertThat(homeRow.getWon()).isEqualTo(1);
+        assertThat(homeRow.getPoints()).isEqualTo(3);
+        assertThat(homeRow.getGoalDifference()).isEqualTo(1);
+        assertThat(awayRow.getLost()).isEqualTo(1);
+        assertThat(awayRow.getPoints()).isZero();
+        verify(teamStandingRepository).saveAll(anyCollection());
+    }
+
+    @Test
+    void applyResult_resubmittedReport_reversesPreviousResult() {
+        Match match = createMatch(Match.MatchStatus.FINISHED, 2, 1);
+        service.applyResult(match, null);
+
+        StandingsProjectionService.ResultSnapshot previous = StandingsProjectionService.ResultSnapshot.of(match);
+        match.setHomeScore(1);
+        match.setAwayScore(1);
+        service.applyResult(match, previous);
+
+        assertThat(homeRow.getPlayed()).isEqualTo(1);
+        assertThat(homeRow.getWon()).isZero();
+        assertThat(homeRow.getDrawn()).isEqualTo(1);
+        assertThat(homeRow.getPoints()).isEqualTo(1);
+        assertThat(homeRow.getGoalsFor()).isEqualTo(1);
+        assertThat(awayRow.getLost()).isZero();
+        assertThat(awayRow.getDrawn()).isEqualTo(1);
+        assertThat(awayRow.getPoints()).isEqualTo(1);
+    }
+
+    @Test
+    void applyResult_unfinishedMatch_isIgnored() {
+        service.applyResult(createMatch(Match.MatchStatus.SCHEDULED, 0, 0), null);
+
+        verifyNoInteractions(teamStandingRepository);
+    }
+
+    @Test
+    void applyResult_seasonNotProjected_skipsUpdate() {
+        when(teamStandingRepository.findForUpdate(eq(season.getId()), anyCollection())).thenReturn(List.of());
+
+        service.applyResult(createMatch(Match.MatchStatus.FINISHED, 3, 0), null);
+
+        verify(teamStandingRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void winPointsChanged_dropsEveryStandingsTableOfTheTenant() {
+        UUID tenantId = UUID.randomUUID();
+        Season previousSeason = new Season();
+        previousSeason.setId(UUID.randomUUID());
+        when(seasonRepository.findByTenantId(tenantId)).thenReturn(List.of(previousSeason, season));
+
+        service.on(new WinPointsChangedEvent(tenantId));
+
+        verify(teamStandingRepository).deleteBySeasonId(previousSeason.getId());
+        verify(teamStandingRepository).deleteBySeasonId(season.getId());
+        // Bumps the seasons' data versions and drops their cached stats
+        verify(eventPublisher).publishEvent(new SeasonMatchesChangedEvent(tenantId, previousSeason.getId()));
+        verify(eventPublisher).publishEvent(new SeasonMatchesChangedEvent(tenantId, season.getId()));
+    }
+}
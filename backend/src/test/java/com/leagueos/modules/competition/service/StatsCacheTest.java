@@ -0,0 +1,76 @@
+package com.leagueos.modules.competition.service;
+
+import com.leagueos.modules.competition.domain.SeasonMatchesChangedEvent;
+import com.leagueos.shared.context.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsCacheTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID seasonA = UUID.randomUUID();
+    private final UUID seasonB = UUID.randomUUID();
+
+    private SimpleMeterRegistry registry;
+    private StatsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new StatsCache(100, 30, registry);
+        TenantContext.setCurrentTenant(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void get_secondCall_isServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(StatsCache.View.TOP_SCORERS, List.of(seasonA), null, () -> List.of(loads.incrementAndGet()));
+        List<Integer> result = cache.get(StatsCache.View.TOP_SCORERS, List.of(seasonA), null,
+                () -> List.of(loads.incrementAndGet()));
+
+        assertThat(result).containsExactly(1);
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("cache", "stats").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void seasonEvent_dropsOnlyEntriesCoveringThatSeason() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(StatsCache.View.RED_CARDS_BY_TEAM, List.of(seasonA, seasonB), null, loads::incrementAndGet);
+        cache.get(StatsCache.View.STANDINGS, List.of(seasonB), null, loads::incrementAndGet);
+
+        cache.on(new SeasonMatchesChangedEvent(tenantId, seasonA));
+
+        cache.get(StatsCache.View.RED_CARDS_BY_TEAM, List.of(seasonB, seasonA), null, loads::incrementAndGet);
+        cache.get(StatsCache.View.STANDINGS, List.of(seasonB), null, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(3);
+        assertThat(registry.get("stats.cache.invalidations").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_isScopedByTenant() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(StatsCache.View.STANDINGS, List.of(seasonA), null, loads::incrementAndGet);
+
+        TenantContext.setCurrentTenant(UUID.randomUUID());
+        cache.get(StatsCache.View.STANDINGS, List.of(seasonA), null, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+}
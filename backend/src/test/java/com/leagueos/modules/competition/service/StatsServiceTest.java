@@ -0,0 +1,200 @@
+package com.leagueos.modules.competition.service;
+
+import com.leagueos.modules.competition.api.dto.PlayerProfileStatsDTO;
+import com.leagueos.modules.competition.api.dto.TeamStandingDTO;
+import com.leagueos.modules.competition.domain.Match;
+import com.leagueos.modules.competition.domain.MatchEvent;
+import com.leagueos.modules.competition.domain.TeamStanding;
+import com.leagueos.modules.competition.persistence.MatchRepository;
+import com.leagueos.modules.league.domain.Person;
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.domain.Team;
+import com.leagueos.modules.league.persistence.SeasonRepository;
+import com.leagueos.modules.media.service.ImageDerivativeService;
+import com.leagueos.modules.registration.domain.Player;
+import com.leagueos.shared.infrastructure.persistence.BaseEntity;
+import com.leagueos.shared.security.AuthenticatedPrincipalCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/** Player profile stats against an in-memory H2 database. */
+@SpringBootTest(
+        classes = StatsServiceTest.StatsApp.class,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:stats-service;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.flyway.enabled=false"
+        })
+class StatsServiceTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @Configuration
+    @ImportAutoConfiguration({
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class
+    })
+    @EntityScan("com.leagueos")
+    @EnableJpaAuditing
+    @EnableJpaRepositories(basePackageClasses = {MatchRepository.class, SeasonRepository.class})
+    @Import(StatsService.class)
+    static class StatsApp {
+    }
+
+    @Autowired private StatsService statsService;
+    @Autowired private EntityManager entityManager;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @MockBean private StandingsProjectionService standingsProjectionService;
+    @MockBean private ImageDerivativeService imageDerivativeService;
+    @MockBean private AuthenticatedPrincipalCache principalCache;
+
+    @Test
+    void suspendedPlayerWithoutEvents_reportsTheSuspension() {
+        Player player = transactionTemplate.execute(status -> player(4));
+
+        PlayerProfileStatsDTO stats = statsService.getPlayerProfileStats(player.getId());
+
+        assertThat(stats.getSuspendedUntilMatchday()).isEqualTo(4);
+        assertThat(stats.getSeasons()).isEmpty();
+        assertThat(stats.getMatchesPlayed()).isZero();
+        assertThat(stats.getGoals()).isZero();
+    }
+
+    @Test
+    void playerWithEvents_getsOneRowPerSeasonAndTheSuspension() {
+        Player player = transactionTemplate.execute(status -> {
+            Player scorer = player(7);
+            Team home = persist(team("Halcones"));
+            Team away = persist(team("Pumas"));
+            Match match = match(season("Apertura", LocalDate.of(2026, 1, 10)), home, away);
+            event(match, home, scorer, MatchEvent.MatchEventType.APPEARANCE);
+            event(match, home, scorer, MatchEvent.MatchEventType.GOAL);
+            event(match, home, scorer, MatchEvent.MatchEventType.GOAL);
+            Match later = match(season("Clausura", LocalDate.of(2026, 7, 10)), home, away);
+            event(later, home, scorer, MatchEvent.MatchEventType.YELLOW_CARD);
+            return scorer;
+        });
+
+        PlayerProfileStatsDTO stats = statsService.getPlayerProfileStats(player.getId());
+
+        assertThat(stats.getSuspendedUntilMatchday()).isEqualTo(7);
+        assertThat(stats.getSeasons()).extracting("seasonName").containsExactly("Clausura", "Apertura");
+        assertThat(stats.getMatchesPlayed()).isEqualTo(2);
+        assertThat(stats.getGoals()).isEqualTo(2);
+        assertThat(stats.getYellowCards()).isEqualTo(1);
+    }
+
+    @Test
+    void unprojectedSeason_isAnsweredFromTheRebuiltRowsWithoutReadingThemBack() {
+        UUID seasonId = UUID.randomUUID();
+        when(standingsProjectionService.hasApprovedTeams(seasonId)).thenReturn(true);
+        // The rebuild commits elsewhere; this (possibly replica-bound) transaction never sees the rows
+        when(standingsProjectionService.rebuild(seasonId)).thenReturn(List.of(standing("Pumas", 6), standing("Halcones", 3)));
+
+        List<TeamStandingDTO> standings = statsService.calculateStandings(seasonId);
+
+        assertThat(standings).extracting(TeamStandingDTO::getTeam).containsExactly("Pumas", "Halcones");
+        assertThat(standings).extracting(TeamStandingDTO::getRank).containsExactly(1, 2);
+        verify(standingsProjectionService, times(1)).rebuild(seasonId);
+    }
+
+    @Test
+    void seasonWithoutApprovedTeams_isAnsweredWithoutARebuild() {
+        UUID seasonId = UUID.randomUUID();
+
+        assertThat(statsService.calculateStandings(seasonId)).isEmpty();
+        assertThat(statsService.calculateStandings(seasonId)).isEmpty();
+
+        verify(standingsProjectionService, times(2)).hasApprovedTeams(seasonId);
+        verify(standingsProjectionService, never()).rebuild(any());
+    }
+
+    // ---- Helpers ----
+
+    private static TeamStanding standing(String teamName, int points) {
+        Team team = team(teamName);
+        team.setId(UUID.randomUUID());
+        TeamStanding row = new TeamStanding();
+        row.setTeam(team);
+        row.setPoints(points);
+        return row;
+    }
+
+    private Player player(Integer suspendedUntilMatchday) {
+        Person person = new Person();
+        person.setFirstName("Juan");
+        person.setLastName("Pérez");
+        Player player = new Player();
+        player.setPerson(persist(person));
+        player.setSuspendedUntilMatchday(suspendedUntilMatchday);
+        return persist(player);
+    }
+
+    private static Team team(String name) {
+        Team team = new Team();
+        team.setName(name);
+        return team;
+    }
+
+    private Season season(String name, LocalDate start) {
+        Season season = new Season();
+        season.setName(name);
+        season.setStartDate(start);
+        season.setEndDate(start.plusMonths(5));
+        return persist(season);
+    }
+
+    private Match match(Season season, Team home, Team away) {
+        Match match = new Match();
+        match.setSeason(season);
+        match.setHomeTeam(home);
+        match.setAwayTeam(away);
+        match.setMatchday(1);
+        match.setMatchDate(season.getStartDate().atStartOfDay().plusHours(18));
+        return persist(match);
+    }
+
+    private void event(Match match, Team team, Player player, MatchEvent.MatchEventType type) {
+        MatchEvent event = new MatchEvent();
+        event.setMatch(match);
+        event.setTeam(team);
+        event.setPlayer(player);
+        event.setEventType(type);
+        persist(event);
+    }
+
+    private <T extends BaseEntity> T persist(T entity) {
+        entity.setTenantId(TENANT_ID);
+        entityManager.persist(entity);
+        return entity;
+    }
+}
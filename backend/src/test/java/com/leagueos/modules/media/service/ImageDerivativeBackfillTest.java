@@ -0,0 +1,108 @@
+package com.leagueos.modules.media.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageDerivativeBackfillTest {
+
+    private final StorageService storageService = mock(StorageService.class);
+    private final ImageDerivativeService derivatives = mock(ImageDerivativeService.class);
+
+    @Test
+    void originalsWithoutDerivatives_getThemAndEverythingElseIsLeftAlone() throws Exception {
+        byte[] photo = ImageDerivativeServiceTest.image(300, 300, BufferedImage.TYPE_INT_RGB, "jpeg");
+        when(storageService.listObjects("dev/tenants/t/")).thenReturn(List.of(
+                new StorageService.StoredObject("dev/tenants/t/teams/club_1a2b3c4d.png", 2_000),
+                new StorageService.StoredObject("dev/tenants/t/teams/club_1a2b3c4d_64.png", 200),
+                new StorageService.StoredObject("dev/tenants/t/teams/done_2b3c4d5e.jpg", 2_000),
+                new StorageService.StoredObject("dev/tenants/t/teams/vector_3c4d5e6f.svg", 2_000),
+                new StorageService.StoredObject("dev/tenants/t/players/team/club/huge_4d5e6f7a.jpg", 40L * 1024 * 1024),
+                new StorageService.StoredObject("dev/tenants/t/players/team/club/broken_5e6f7a8b.webp", 2_000),
+                new StorageService.StoredObject("dev/tenants/t/reports/summary.png", 2_000)).stream());
+        when(derivatives.hasDerivatives("dev/tenants/t/teams/done_2b3c4d5e.jpg")).thenReturn(true);
+        when(storageService.getFileBytes(anyString())).thenReturn(photo);
+        when(derivatives.storeDerivatives("dev/tenants/t/teams/club_1a2b3c4d.png", photo)).thenReturn(true);
+
+        ImageDerivativeBackfill.Summary summary = backfill(2).run("dev/tenants/t/");
+
+        assertThat(summary).isEqualTo(new ImageDerivativeBackfill.Summary(3, 1, 1, 1, 0));
+        verify(storageService, never()).getFileBytes("dev/tenants/t/players/team/club/broken_5e6f7a8b.webp");
+        verify(storageService, never()).getFileBytes("dev/tenants/t/players/team/club/huge_4d5e6f7a.jpg");
+        verify(storageService, never()).getFileBytes("dev/tenants/t/teams/done_2b3c4d5e.jpg");
+        verify(derivatives, never()).hasDerivatives("dev/tenants/t/teams/club_1a2b3c4d_64.png");
+        verify(derivatives, never()).hasDerivatives("dev/tenants/t/reports/summary.png");
+    }
+
+    @Test
+    void noMoreThanConcurrencyOriginalsAreInMemoryAtOnce() {
+        List<StorageService.StoredObject> originals = IntStream.range(0, 12)
+                .mapToObj(i -> new StorageService.StoredObject("dev/tenants/t/players/team/club/p" + i + ".jpg", 2_000))
+                .toList();
+        when(storageService.listObjects("")).thenReturn(originals.stream());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(storageService.getFileBytes(anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return new byte[16];
+        });
+        when(derivatives.storeDerivatives(anyString(), any(byte[].class))).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return true;
+        });
+
+        ImageDerivativeBackfill.Summary summary = backfill(3).run("");
+
+        assertThat(summary.generated()).isEqualTo(12);
+        assertThat(maxInFlight.get()).isBetween(1, 3);
+    }
+
+    @Test
+    void onlyOneBackfillRunsPerPrefixAtATime() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(storageService.listObjects(anyString())).thenAnswer(invocation -> {
+            release.await();
+            return Stream.empty();
+        });
+        ImageDerivativeBackfill backfill = backfill(1);
+
+        assertThat(backfill.start("a/")).isTrue();
+        assertThat(backfill.start("a/")).isFalse();
+        assertThat(backfill.start("b/")).isTrue();
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((backfill.isRunning("a/") || backfill.isRunning("b/")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(backfill.start("a/")).isTrue();
+    }
+
+    @Test
+    void startupBackfill_coversTheTenantsOfThisEnvironment() {
+        when(storageService.buildTenantsPrefix()).thenReturn("prod/tenants/");
+        when(storageService.listObjects(anyString())).thenReturn(Stream.empty());
+
+        new ImageDerivativeBackfill(storageService, derivatives, 1, 15, true).afterPropertiesSet();
+
+        verify(storageService, timeout(5_000)).listObjects("prod/tenants/");
+    }
+
+    private ImageDerivativeBackfill backfill(int concurrency) {
+        return new ImageDerivativeBackfill(storageService, derivatives, concurrency, 15, false);
+    }
+}
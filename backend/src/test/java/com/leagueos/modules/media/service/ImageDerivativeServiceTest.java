@@ -0,0 +1,207 @@
+package com.leagueos.modules.media.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageDerivativeServiceTest {
+
+    private static final String LOGO = "dev/tenants/t/teams/club_1a2b3c4d.png";
+    private static final String PHOTO = "dev/tenants/t/players/team/club/juan_5e6f7a8b.jpg";
+
+    private final StorageService storageService = mock(StorageService.class);
+    private final Map<String, byte[]> stored = new ConcurrentHashMap<>();
+    private final List<String> uploadOrder = new ArrayList<>();
+    private ImageDerivativeService service;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            stored.put(key, invocation.getArgument(1));
+            uploadOrder.add(key);
+            return key;
+        }).when(storageService).uploadFile(anyString(), any(byte[].class), anyString());
+        when(storageService.getSignedUrl(anyString(), anyInt()))
+                .thenAnswer(invocation -> "https://r2.test/" + invocation.getArgument(0));
+        service = new ImageDerivativeService(storageService, true, 0.82f, 100, 10, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void derivativeKeys_followFromTheOriginalKey() {
+        assertThat(ImageDerivativeService.derivativeKey(LOGO, 64)).isEqualTo("dev/tenants/t/teams/club_1a2b3c4d_64.png");
+        assertThat(ImageDerivativeService.derivativeKey(PHOTO, 512)).isEqualTo("dev/tenants/t/players/team/club/juan_5e6f7a8b_512.jpg");
+        assertThat(ImageDerivativeService.derivativeKey("dev/tenants/t/teams/club_1a2b3c4d.webp", 100))
+                .isEqualTo("dev/tenants/t/teams/club_1a2b3c4d_128.jpg");
+        assertThat(ImageDerivativeService.derivativeKey(LOGO, 2000)).endsWith("_512.png");
+        assertThat(ImageDerivativeService.isDerivativeKey("dev/tenants/t/teams/club_1a2b3c4d_128.png")).isTrue();
+        assertThat(ImageDerivativeService.isDerivativeKey(LOGO)).isFalse();
+    }
+
+    @Test
+    void upload_storesTheOriginalThenEachSizeSmallestLast() throws Exception {
+        byte[] photo = image(3000, 2000, BufferedImage.TYPE_INT_RGB, "jpeg");
+
+        service.uploadWithDerivatives(PHOTO, photo, "image/jpeg");
+
+        assertThat(uploadOrder).containsExactly(PHOTO,
+                ImageDerivativeService.derivativeKey(PHOTO, 512),
+                ImageDerivativeService.derivativeKey(PHOTO, 128),
+                ImageDerivativeService.derivativeKey(PHOTO, 64));
+        assertThat(stored.get(PHOTO)).isSameAs(photo);
+        assertThat(dimensions(ImageDerivativeService.derivativeKey(PHOTO, 512))).containsExactly(512, 341);
+        assertThat(dimensions(ImageDerivativeService.derivativeKey(PHOTO, 128))).containsExactly(128, 85);
+        assertThat(dimensions(ImageDerivativeService.derivativeKey(PHOTO, 64))).containsExactly(64, 43);
+        verify(storageService).uploadFile(eq(ImageDerivativeService.derivativeKey(PHOTO, 64)),
+                any(byte[].class), eq("image/jpeg"));
+    }
+
+    @Test
+    void transparentLogos_stayPngAndSmallImagesAreNotUpscaled() throws Exception {
+        byte[] logo = image(200, 100, BufferedImage.TYPE_INT_ARGB, "png");
+
+        service.uploadWithDerivatives(LOGO, logo, "image/png");
+
+        assertThat(dimensions(ImageDerivativeService.derivativeKey(LOGO, 512))).containsExactly(200, 100);
+        assertThat(dimensions(ImageDerivativeService.derivativeKey(LOGO, 128))).containsExactly(128, 64);
+        BufferedImage icon = ImageIO.read(new ByteArrayInputStream(stored.get(ImageDerivativeService.derivativeKey(LOGO, 64))));
+        assertThat(icon.getColorModel().hasAlpha()).isTrue();
+        assertThat(icon.getRGB(0, 0) >>> 24).isZero();
+        verify(storageService).uploadFile(eq(ImageDerivativeService.derivativeKey(LOGO, 64)),
+                any(byte[].class), eq("image/png"));
+    }
+
+    @Test
+    void undecodableUploads_areServedAsUploaded() {
+        String svgKey = "dev/tenants/t/teams/club_1a2b3c4d.svg";
+        byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes(StandardCharsets.UTF_8);
+        when(storageService.exists(anyString())).thenReturn(false);
+
+        service.uploadWithDerivatives(svgKey, svg, "image/svg+xml");
+
+        assertThat(uploadOrder).containsExactly(svgKey);
+        service.getSignedUrl(svgKey, 64, 120);
+        awaitUntil(5, () -> service.getSignedUrl(svgKey, 64, 120).equals("https://r2.test/" + svgKey));
+    }
+
+    @Test
+    void signedUrl_pointsAtTheRequestedSizeOnceDerivativesAreKnown() throws Exception {
+        service.uploadWithDerivatives(PHOTO, image(800, 800, BufferedImage.TYPE_INT_RGB, "jpeg"), "image/jpeg");
+
+        assertThat(service.getSignedUrl(PHOTO, 64, 120)).isEqualTo("https://r2.test/" + ImageDerivativeService.derivativeKey(PHOTO, 64));
+        assertThat(service.getSignedUrl(PHOTO, 512, 120)).isEqualTo("https://r2.test/" + ImageDerivativeService.derivativeKey(PHOTO, 512));
+        assertThat(service.getSignedUrl("https://cdn.example/logo.png", 64, 120)).isEqualTo("https://cdn.example/logo.png");
+    }
+
+    @Test
+    void olderOriginals_useTheOriginalUntilTheBackgroundLookupFindsDerivatives() {
+        String older = "dev/tenants/t/teams/old_9a8b7c6d.png";
+        when(storageService.exists(ImageDerivativeService.derivativeKey(older, 64))).thenReturn(true);
+
+        assertThat(service.getSignedUrl(older, 128, 120)).isIn("https://r2.test/" + older,
+                "https://r2.test/" + ImageDerivativeService.derivativeKey(older, 128));
+        awaitUntil(5, () -> service.getSignedUrl(older, 128, 120)
+                .equals("https://r2.test/" + ImageDerivativeService.derivativeKey(older, 128)));
+    }
+
+    @Test
+    void derivativeLookup_headsTheIconEvenWhenTheCardIsRequested() {
+        String older = "dev/tenants/t/players/team/club/old_9a8b7c6d.jpg";
+        when(storageService.exists(ImageDerivativeService.derivativeKey(older, ImageDerivativeService.ICON))).thenReturn(true);
+
+        service.getSignedUrl(older, ImageDerivativeService.CARD, 120);
+        awaitUntil(5, () -> service.getSignedUrl(older, ImageDerivativeService.CARD, 120)
+                .equals("https://r2.test/" + ImageDerivativeService.derivativeKey(older, ImageDerivativeService.CARD)));
+
+        // The smallest derivative is written last: only its presence proves the set is complete
+        verify(storageService).exists(ImageDerivativeService.derivativeKey(older, ImageDerivativeService.ICON));
+        verify(storageService, never()).exists(ImageDerivativeService.derivativeKey(older, ImageDerivativeService.CARD));
+    }
+
+    @Test
+    void webpOriginals_areSignedAsUploadedWithoutALookup() {
+        String webp = "dev/tenants/t/players/team/club/ana_6f7a8b9c.webp";
+
+        assertThat(service.storeDerivatives(webp, new byte[16])).isFalse();
+        assertThat(service.getSignedUrl(webp, ImageDerivativeService.CARD, 120)).isEqualTo("https://r2.test/" + webp);
+        assertThat(uploadOrder).isEmpty();
+        verify(storageService, never()).exists(anyString());
+    }
+
+    @Test
+    void delete_removesTheOriginalAndEveryDerivative() throws Exception {
+        service.uploadWithDerivatives(PHOTO, image(800, 800, BufferedImage.TYPE_INT_RGB, "jpeg"), "image/jpeg");
+
+        service.deleteWithDerivatives(PHOTO);
+
+        verify(storageService).deleteFile(PHOTO);
+        for (int size : ImageDerivativeService.SIZES) {
+            verify(storageService).deleteFile(ImageDerivativeService.derivativeKey(PHOTO, size));
+        }
+        // Forgotten: the next request looks the derivatives up again
+        assertThat(service.getSignedUrl(PHOTO, 64, 120)).isEqualTo("https://r2.test/" + PHOTO);
+    }
+
+    // ---- Helpers ----
+
+    static byte[] image(int width, int height, int type, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        if (type == BufferedImage.TYPE_INT_ARGB) {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, width, height);
+            g.setComposite(AlphaComposite.SrcOver);
+        } else {
+            g.setPaint(new GradientPaint(0, 0, Color.BLUE, width, height, Color.ORANGE));
+            g.fillRect(0, 0, width, height);
+        }
+        g.setColor(Color.RED);
+        g.fillOval(width / 4, height / 4, width / 2, height / 2);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private int[] dimensions(String key) throws Exception {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(stored.get(key)));
+        return new int[]{image.getWidth(), image.getHeight()};
+    }
+
+    private static void awaitUntil(long seconds, BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %ds", seconds).isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.leagueos.modules.media.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaProxyServiceTest {
+
+    private static final String LOGO = "dev/tenants/t/teams/club_1a2b3c4d.png";
+
+    private StubS3Server r2;
+    private SimpleMeterRegistry meterRegistry;
+    private StorageService storageService;
+    private byte[] logo;
+    private String eTag;
+
+    @TempDir
+    Path cacheDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        r2 = new StubS3Server("bucket");
+        meterRegistry = new SimpleMeterRegistry();
+        storageService = new StorageService("access", "secret", r2.endpoint(), "bucket", "dev", 100, 0.75, meterRegistry);
+        logo = bytes(200_000, 7);
+        eTag = r2.put(LOGO, logo, "image/png");
+    }
+
+    @AfterEach
+    void tearDown() {
+        r2.close();
+    }
+
+    @Test
+    void object_isStreamedWithItsRealHeadersThenServedFromDisk() throws Exception {
+        MediaProxyService proxy = proxy(64, 10);
+
+        MockHttpServletResponse first = serve(proxy, LOGO, null, null);
+        MockHttpServletResponse second = serve(proxy, LOGO, null, null);
+
+        for (MockHttpServletResponse response : new MockHttpServletResponse[]{first, second}) {
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentType()).isEqualTo("image/png");
+            assertThat(response.getContentLengthLong()).isEqualTo(logo.length);
+            assertThat(response.getHeader("ETag")).isEqualTo(eTag);
+            assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+            assertThat(response.getContentAsByteArray()).isEqualTo(logo);
+        }
+        assertThat(r2.getCount()).isEqualTo(1);
+        assertThat(cachedFiles()).isEqualTo(1);
+    }
+
+    @Test
+    void matchingIfNoneMatch_isAnsweredWithNotModified() throws Exception {
+        MediaProxyService proxy = proxy(64, 10);
+
+        MockHttpServletResponse cold = serve(proxy, LOGO, null, eTag);
+        serve(proxy, LOGO, null, null);
+        MockHttpServletResponse warm = serve(proxy, LOGO, null, "W/\"other\", " + eTag);
+
+        assertThat(cold.getStatus()).isEqualTo(304);
+        assertThat(cold.getHeader("ETag")).isEqualTo(eTag);
+        assertThat(warm.getStatus()).isEqualTo(304);
+        assertThat(warm.getContentAsByteArray()).isEmpty();
+        assertThat(r2.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void ranges_areServedAsPartialContentFromR2AndFromDisk() throws Exception {
+        MediaProxyService proxy = proxy(64, 10);
+
+        MockHttpServletResponse cold = serve(proxy, LOGO, "bytes=100-199", null);
+        serve(proxy, LOGO, null, null);
+        MockHttpServletResponse warm = serve(proxy, LOGO, "bytes=100-199", null);
+        MockHttpServletResponse suffix = serve(proxy, LOGO, "bytes=-50", null);
+        MockHttpServletResponse pastTheEnd = serve(proxy, LOGO, "bytes=500000-", null);
+
+        for (MockHttpServletResponse response : new MockHttpServletResponse[]{cold, warm}) {
+            assertThat(response.getStatus()).isEqualTo(206);
+            assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 100-199/" + logo.length);
+            assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(logo, 100, 200));
+        }
+        assertThat(suffix.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(logo, logo.length - 50, logo.length));
+        assertThat(pastTheEnd.getStatus()).isEqualTo(416);
+        assertThat(pastTheEnd.getHeader("Content-Range")).isEqualTo("bytes */" + logo.length);
+        // The ranged cold read is not cached; the full read after it is
+        assertThat(r2.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rangesR2CannotServe_getTheSameAnswerAsFromDisk() throws Exception {
+        MediaProxyService proxy = proxy(64, 10);
+
+        MockHttpServletResponse coldPastTheEnd = serve(proxy, LOGO, "bytes=500000-", null);
+        MockHttpServletResponse coldSeveral = serve(proxy, LOGO, "bytes=0-9,20-29", null);
+        MockHttpServletResponse warmSeveral = serve(proxy, LOGO, "bytes=0-9,20-29", null);
+
+        assertThat(coldPastTheEnd.getStatus()).isEqualTo(416);
+        assertThat(coldPastTheEnd.getHeader("Content-Range")).isEqualTo("bytes */" + logo.length);
+        for (MockHttpServletResponse response : new MockHttpServletResponse[]{coldSeveral, warmSeveral}) {
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader("Content-Range")).isNull();
+            assertThat(response.getContentAsByteArray()).isEqualTo(logo);
+        }
+    }
+
+    @Test
+    void missingObjectsAndR2Failures_areReportedNotHidden() throws Exception {
+        MediaProxyService proxy = proxy(64, 10);
+
+        MockHttpServletResponse missing = serve(proxy, "dev/tenants/t/teams/gone.png", null, null);
+        r2.failNext(403);
+        MockHttpServletResponse failed = serve(proxy, LOGO, null, null);
+
+        assertThat(missing.getStatus()).isEqualTo(404);
+        assertThat(failed.getStatus()).isEqualTo(502);
+        assertThat(cachedFiles()).isZero();
+    }
+
+    @Test
+    void objectsOverTheSizeLimit_areStreamedButNotCached() throws Exception {
+        String photo = "dev/tenants/t/players/team/club/juan_5e6f7a8b.jpg";
+        byte[] large = bytes(2 * 1024 * 1024, 3);
+        r2.put(photo, large, "image/jpeg");
+        MediaProxyService proxy = proxy(64, 1);
+
+        serve(proxy, photo, null, null);
+        MockHttpServletResponse second = serve(proxy, photo, null, null);
+
+        assertThat(second.getContentAsByteArray()).isEqualTo(large);
+        assertThat(second.getContentType()).isEqualTo("image/jpeg");
+        assertThat(r2.getCount()).isEqualTo(2);
+        assertThat(cachedFiles()).isZero();
+    }
+
+    @Test
+    void diskUse_staysWithinTheConfiguredSize() throws Exception {
+        // 1 MB of disk for 600 KB objects: only one fits at a time
+        MediaProxyService proxy = proxy(1, 1);
+        for (int i = 0; i < 4; i++) {
+            String key = "dev/tenants/t/teams/club" + i + ".png";
+            r2.put(key, bytes(600_000, i), "image/png");
+            serve(proxy, key, null, null);
+        }
+
+        awaitUntil(5, () -> cachedBytes() <= 1024 * 1024);
+        assertThat(cachedFiles()).isLessThanOrEqualTo(1);
+    }
+
+    // ---- Helpers ----
+
+    private MediaProxyService proxy(long maxSizeMb, long maxObjectMb) {
+        MediaDiskCache cache = new MediaDiskCache(cacheDir.toString(), maxSizeMb, maxObjectMb, 60, meterRegistry);
+        return new MediaProxyService(storageService, cache);
+    }
+
+    private static MockHttpServletResponse serve(MediaProxyService proxy, String key, String range, String ifNoneMatch)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        proxy.serve(key, range, ifNoneMatch, response);
+        return response;
+    }
+
+    private static byte[] bytes(int size, int seed) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + seed);
+        }
+        return bytes;
+    }
+
+    private long cachedFiles() throws Exception {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.filter(p -> p.toString().endsWith(".bin")).count();
+        }
+    }
+
+    private long cachedBytes() {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.filter(p -> p.toString().endsWith(".bin")).mapToLong(p -> p.toFile().length()).sum();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static void awaitUntil(long seconds, BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %ds", seconds).isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
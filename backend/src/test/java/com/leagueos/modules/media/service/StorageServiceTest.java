@@ -0,0 +1,163 @@
+package com.leagueos.modules.media.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StorageServiceTest {
+
+    private SimpleMeterRegistry registry;
+    private StorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        storageService = new StorageService("access", "secret", "http://localhost:9000", "bucket", "test",
+                100, 0.75, registry);
+    }
+
+    private double cacheGets(String result) {
+        return registry.get("cache.gets").tag("cache", "presigned-urls").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private double backgroundRefreshes() {
+        return registry.get("storage.presigned-urls.refreshes").counter().count();
+    }
+
+    /** A clock the test moves by hand. */
+    private static final class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2026-03-01T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    /**
+     * A service whose presigner numbers its URLs ({@code ?signature=1}, {@code 2}, ...) and stamps
+     * them valid for the requested duration from {@code clock}; signing fails from attempt
+     * {@code failFrom} on. Background refreshes run on the calling thread.
+     */
+    private StorageService serviceSigningWith(TestClock clock, AtomicInteger signatures, int failFrom) {
+        S3Presigner presigner = mock(S3Presigner.class);
+        when(presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenAnswer(invocation -> {
+            int signature = signatures.incrementAndGet();
+            if (signature >= failFrom) {
+                throw new IllegalStateException("signing unavailable");
+            }
+            GetObjectPresignRequest request = invocation.getArgument(0);
+            PresignedGetObjectRequest presigned = mock(PresignedGetObjectRequest.class);
+            when(presigned.url()).thenReturn(new URL("https://r2.test/" + request.getObjectRequest().key() + "?signature=" + signature));
+            when(presigned.expiration()).thenReturn(clock.instant().plus(request.signatureDuration()));
+            return presigned;
+        });
+        registry = new SimpleMeterRegistry();
+        return new StorageService(mock(S3Client.class), presigner, "bucket", "test", 100, 0.75, registry,
+                clock, Runnable::run);
+    }
+
+    @Test
+    void getSignedUrl_sameKeyAndDuration_reusesPresignature() {
+        String first = storageService.getSignedUrl("dev/tenants/t/logos/a.png", 120);
+        String second = storageService.getSignedUrl("dev/tenants/t/logos/a.png", 120);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cacheGets("miss")).isEqualTo(1.0);
+        assertThat(cacheGets("hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void getSignedUrl_differentDuration_signsSeparately() {
+        String longLived = storageService.getSignedUrl("dev/tenants/t/logos/a.png", 120);
+        String shortLived = storageService.getSignedUrl("dev/tenants/t/logos/a.png", 60);
+
+        assertThat(longLived).contains("X-Amz-Expires=7200");
+        assertThat(shortLived).contains("X-Amz-Expires=3600");
+        assertThat(cacheGets("miss")).isEqualTo(2.0);
+    }
+
+    @Test
+    void getSignedUrl_pastNinetyPercentOfTheReuseWindow_resignsInTheBackground() {
+        TestClock clock = new TestClock();
+        AtomicInteger signatures = new AtomicInteger();
+        storageService = serviceSigningWith(clock, signatures, Integer.MAX_VALUE);
+        String key = "dev/tenants/t/logos/a.png";
+
+        // 120 minutes at reuse 0.75: reused for 90 minutes, re-signed from 0.9 * 90 = 81 minutes
+        String first = storageService.getSignedUrl(key, 120);
+        clock.advance(Duration.ofMinutes(80));
+        assertThat(storageService.getSignedUrl(key, 120)).isEqualTo(first);
+        assertThat(signatures).hasValue(1);
+
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(storageService.getSignedUrl(key, 120)).isEqualTo(first);
+        assertThat(signatures).hasValue(2);
+        assertThat(backgroundRefreshes()).isEqualTo(1.0);
+
+        // The refreshed URL is served from now on, past the first one's reuse window
+        String refreshed = storageService.getSignedUrl(key, 120);
+        assertThat(refreshed).isNotEqualTo(first).endsWith("signature=2");
+        clock.advance(Duration.ofMinutes(20));
+        assertThat(storageService.getSignedUrl(key, 120)).isEqualTo(refreshed);
+        assertThat(signatures).hasValue(2);
+    }
+
+    @Test
+    void getSignedUrl_failedBackgroundRefresh_keepsServingTheValidUrl() {
+        TestClock clock = new TestClock();
+        AtomicInteger signatures = new AtomicInteger();
+        storageService = serviceSigningWith(clock, signatures, 2);
+        String key = "dev/tenants/t/logos/a.png";
+
+        String first = storageService.getSignedUrl(key, 120);
+        clock.advance(Duration.ofMinutes(82));
+        assertThat(storageService.getSignedUrl(key, 120)).isEqualTo(first);
+
+        // Each later read retries the refresh; until the reuse window ends the signed URL stays in use
+        clock.advance(Duration.ofMinutes(7));
+        assertThat(storageService.getSignedUrl(key, 120)).isEqualTo(first);
+        assertThat(signatures).hasValue(3);
+        assertThat(backgroundRefreshes()).isZero();
+        assertThat(cacheGets("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void getSignedUrl_blankKey_returnsNull() {
+        assertThat(storageService.getSignedUrl("", 120)).isNull();
+        assertThat(storageService.getSignedUrl(null, 120)).isNull();
+    }
+}
@@ -0,0 +1,148 @@
+package com.leagueos.modules.media.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local S3-compatible stand-in for R2: path-style GET and HEAD of objects put with {@link #put}, with
+ * ETags, single byte ranges and If-None-Match like S3. Point a {@link StorageService} at
+ * {@link #endpoint()}; request signatures are not checked.
+ */
+public class StubS3Server implements AutoCloseable {
+
+    private record StoredObject(byte[] body, String contentType, String eTag) {
+    }
+
+    private final HttpServer server;
+    private final String bucket;
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger gets = new AtomicInteger();
+
+    public StubS3Server(String bucket) throws IOException {
+        this.bucket = bucket;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 100);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public String put(String key, byte[] body, String contentType) {
+        try {
+            String eTag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(body)) + "\"";
+            objects.put(key, new StoredObject(body, contentType, eTag));
+            return eTag;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** The next request is answered with {@code status} instead (the SDK retries 5xx on its own). */
+    public void failNext(int status) {
+        failures.add(status);
+    }
+
+    /** GET requests received, including conditional and ranged ones. */
+    public int getCount() {
+        return gets.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = URLDecoder.decode(exchange.getRequestURI().getRawPath(), StandardCharsets.UTF_8);
+            String prefix = "/" + bucket + "/";
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            if (!head) {
+                gets.incrementAndGet();
+            }
+            Integer failure = failures.poll();
+            if (failure != null) {
+                error(exchange, failure, failure == 403 ? "AccessDenied" : "InternalError", head);
+                return;
+            }
+            StoredObject object = path.startsWith(prefix) ? objects.get(path.substring(prefix.length())) : null;
+            if (object == null) {
+                error(exchange, 404, "NoSuchKey", head);
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", object.eTag());
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch != null && ifNoneMatch.contains(object.eTag())) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", object.contentType());
+            byte[] body = object.body();
+            int start = 0;
+            int end = body.length - 1;
+            int status = 200;
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range != null && range.startsWith("bytes=")) {
+                String[] bounds = range.substring(6).split("-", -1);
+                if (bounds[0].isEmpty()) {
+                    start = Math.max(0, body.length - Integer.parseInt(bounds[1]));
+                } else {
+                    start = Integer.parseInt(bounds[0]);
+                    end = bounds[1].isEmpty() ? end : Math.min(end, Integer.parseInt(bounds[1]));
+                }
+                if (start >= body.length) {
+                    exchange.getResponseHeaders().set("Content-Range", "bytes */" + body.length);
+                    error(exchange, 416, "InvalidRange", head);
+                    return;
+                }
+                status = 206;
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + body.length);
+            }
+            int length = end - start + 1;
+            if (head) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(length));
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(status, length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body, start, length);
+            }
+        } catch (IOException e) {
+            // Client closed the connection (aborted stream)
+        }
+    }
+
+    private static void error(HttpExchange exchange, int status, String code, boolean head) throws IOException {
+        byte[] xml = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code + "</Code><Message>" + code
+                + "</Message></Error>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        if (head) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, xml.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(xml);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.leagueos.modules.registration.service;
+
+import com.leagueos.shared.domain.exception.BusinessRuleException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiClientTest {
+
+    private static final String PRIMARY = "primary";
+    private static final String SECONDARY = "secondary";
+    private static final byte[] REQUEST = "{}".getBytes(StandardCharsets.UTF_8);
+    private static final Function<String, String> ACCEPT_ANY = body -> body;
+
+    private StubGeminiServer gemini;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gemini = new StubGeminiServer(20);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gemini.close();
+    }
+
+    @Test
+    void fastPrimary_isNotHedged() {
+        GeminiClient client = client(true, 200, 1_000, 3);
+
+        assertThat(client.generateContent(REQUEST, ACCEPT_ANY)).contains("candidates");
+
+        assertThat(gemini.requestCount(PRIMARY)).isEqualTo(1);
+        assertThat(gemini.requestCount(SECONDARY)).isZero();
+        assertThat(meterRegistry.counter("gemini.hedges").count()).isZero();
+    }
+
+    @Test
+    void slowPrimary_isHedgedAndTheLoserCancelled() {
+        gemini.setModelDelay(PRIMARY, 5_000);
+        GeminiClient client = client(true, 200, 1_000, 3);
+
+        long start = System.nanoTime();
+        client.generateContent(REQUEST, ACCEPT_ANY);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isLessThan(2_000);
+        assertThat(gemini.requestCount(SECONDARY)).isEqualTo(1);
+        assertThat(meterRegistry.counter("gemini.hedges").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("gemini.requests", "model", PRIMARY, "outcome", "cancelled").count()).isEqualTo(1);
+    }
+
+    @Test
+    void hedgeDelay_followsThePrimaryP95OnceThereAreSamples() {
+        // Without samples the hedge would wait 10 s; five ~20 ms answers bring it down to the 50 ms floor
+        GeminiClient client = client(true, 10_000, 50, 3, 5);
+        for (int i = 0; i < 5; i++) {
+            client.generateContent(REQUEST, ACCEPT_ANY);
+        }
+        gemini.setModelDelay(PRIMARY, 5_000);
+
+        long start = System.nanoTime();
+        client.generateContent(REQUEST, ACCEPT_ANY);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isLessThan(2_000);
+        assertThat(meterRegistry.counter("gemini.hedges").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failingModel_isSkippedOnceItsBreakerOpens() {
+        gemini.failModel(PRIMARY, 503);
+        GeminiClient client = client(false, 10_000, 50, 2);
+
+        for (int i = 0; i < 4; i++) {
+            client.generateContent(REQUEST, ACCEPT_ANY);
+        }
+
+        // Two failures open the breaker; later scans go straight to the secondary
+        assertThat(gemini.requestCount(PRIMARY)).isEqualTo(2);
+        assertThat(gemini.requestCount(SECONDARY)).isEqualTo(4);
+        assertThat(meterRegistry.counter("gemini.requests", "model", PRIMARY, "outcome", "skipped").count()).isGreaterThan(0);
+        assertThat(meterRegistry.get("gemini.circuit.open").tag("model", PRIMARY).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void allModelsFailing_reportsSaturationAfterTwoRounds() {
+        gemini.failModel(PRIMARY, 503);
+        gemini.failModel(SECONDARY, 429);
+        GeminiClient client = client(true, 10_000, 50, 5);
+
+        assertThatThrownBy(() -> client.generateContent(REQUEST, ACCEPT_ANY))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessage(GeminiClient.SATURATED_MESSAGE);
+        assertThat(gemini.requestCount(PRIMARY)).isEqualTo(2);
+        assertThat(gemini.requestCount(SECONDARY)).isEqualTo(2);
+    }
+
+    @Test
+    void responsesTheParserRejects_surfaceTheParserErrorWithoutTryingAnotherModel() {
+        GeminiClient client = client(true, 10_000, 50, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.generateContent(REQUEST, body -> {
+                throw new BusinessRuleException("No se pudo extraer información del INE.");
+            })).isInstanceOf(BusinessRuleException.class)
+                    .hasMessage("No se pudo extraer información del INE.");
+        }
+
+        // A rejected photo says nothing about the model: no hedge, no failure, breaker still closed
+        assertThat(gemini.requestCount(PRIMARY)).isEqualTo(3);
+        assertThat(gemini.requestCount(SECONDARY)).isZero();
+        assertThat(meterRegistry.counter("gemini.requests", "model", PRIMARY, "outcome", "failed").count()).isZero();
+        assertThat(meterRegistry.get("gemini.circuit.open").tag("model", PRIMARY).gauge().value()).isZero();
+    }
+
+    @Test
+    void badRequest_movesOnWithoutOpeningTheBreaker() {
+        gemini.failModel(PRIMARY, 400);
+        GeminiClient client = client(false, 10_000, 50, 1);
+
+        for (int i = 0; i < 3; i++) {
+            client.generateContent(REQUEST, ACCEPT_ANY);
+        }
+
+        assertThat(gemini.requestCount(PRIMARY)).isEqualTo(3);
+        assertThat(gemini.requestCount(SECONDARY)).isEqualTo(3);
+        assertThat(meterRegistry.counter("gemini.requests", "model", PRIMARY, "outcome", "failed").count()).isZero();
+        assertThat(meterRegistry.get("gemini.circuit.open").tag("model", PRIMARY).gauge().value()).isZero();
+    }
+
+    // ---- Helpers ----
+
+    private GeminiClient client(boolean hedge, long defaultHedgeDelayMillis, long minHedgeDelayMillis, int failureThreshold) {
+        return client(hedge, defaultHedgeDelayMillis, minHedgeDelayMillis, failureThreshold, 20);
+    }
+
+    private GeminiClient client(boolean hedge, long defaultHedgeDelayMillis, long minHedgeDelayMillis, int failureThreshold,
+                                long minSamples) {
+        return new GeminiClient("test-key", gemini.baseUrl(), List.of(PRIMARY, SECONDARY), 10_000, 20_000, hedge,
+                defaultHedgeDelayMillis, minHedgeDelayMillis, minSamples, failureThreshold, 30, meterRegistry);
+    }
+}
@@ -0,0 +1,172 @@
+package com.leagueos.modules.registration.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueos.shared.domain.exception.BusinessRuleException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IneExtractionCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID tenantId = UUID.randomUUID();
+    private final AtomicInteger extractions = new AtomicInteger();
+
+    @TempDir
+    Path spillDir;
+
+    @Test
+    void sameImage_isExtractedOnceAndEveryCallerGetsItsOwnCopy() {
+        IneExtractionCache cache = cache(64, "");
+        byte[] image = image(1, 4_000);
+
+        IneExtractionResult first = cache.getOrExtract(tenantId, image.clone(), extractor(image.length));
+        first.setNombre("CHANGED");
+        IneExtractionResult second = cache.getOrExtract(tenantId, image.clone(), extractor(image.length));
+
+        assertThat(extractions.get()).isEqualTo(1);
+        assertThat(second.getNombre()).isEqualTo("JUAN");
+        assertThat(second.getFechaNacimiento()).isEqualTo(LocalDate.of(1990, 5, 17));
+        assertThat(second.getCroppedFaceBytes()).hasSize(image.length).isNotSameAs(first.getCroppedFaceBytes());
+    }
+
+    @Test
+    void imageIsHashedBeforeTheExtractionWipesIt() {
+        IneExtractionCache cache = cache(64, "");
+        byte[] image = image(1, 4_000);
+        byte[] upload = image.clone();
+
+        cache.getOrExtract(tenantId, upload, () -> {
+            Arrays.fill(upload, (byte) 0);
+            return extractor(100).get();
+        });
+        cache.getOrExtract(tenantId, image.clone(), extractor(100));
+
+        assertThat(extractions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void sameImageInAnotherLeague_isExtractedAgain() {
+        IneExtractionCache cache = cache(64, "");
+        byte[] image = image(1, 4_000);
+
+        cache.getOrExtract(tenantId, image.clone(), extractor(100));
+        cache.getOrExtract(UUID.randomUUID(), image.clone(), extractor(100));
+
+        assertThat(extractions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failedOrFacelessExtractions_areNotCached() {
+        IneExtractionCache cache = cache(64, "");
+        byte[] image = image(1, 4_000);
+
+        assertThatThrownBy(() -> cache.getOrExtract(tenantId, image.clone(), () -> {
+            extractions.incrementAndGet();
+            throw new BusinessRuleException("El servicio de IA de Google está saturado temporalmente.");
+        })).isInstanceOf(BusinessRuleException.class);
+        cache.getOrExtract(tenantId, image.clone(), extractor(0));
+        cache.getOrExtract(tenantId, image.clone(), extractor(100));
+        cache.getOrExtract(tenantId, image.clone(), extractor(100));
+
+        assertThat(extractions.get()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentUploadsOfTheSameImage_shareOneExtraction() throws Exception {
+        IneExtractionCache cache = cache(64, "");
+        byte[] image = image(1, 4_000);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<IneExtractionResult> slow = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return extractor(100).get();
+        };
+
+        try (ExecutorService uploads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                uploads.execute(() -> cache.getOrExtract(tenantId, image.clone(), slow));
+            }
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        assertThat(extractions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void entriesPushedOutOfMemory_areServedFromDisk() {
+        // 1 MB of memory holds one of these entries; the other one spills (which one is up to the
+        // cache's admission policy, so both are asked for again)
+        IneExtractionCache cache = cache(1, spillDir.toString());
+        byte[] first = image(1, 4_000);
+        byte[] second = image(2, 4_000);
+
+        cache.getOrExtract(tenantId, first.clone(), extractor(600_000));
+        cache.getOrExtract(tenantId, second.clone(), extractor(600_000));
+        assertThat(spilledFiles()).isEqualTo(1);
+
+        for (byte[] image : List.of(first, second)) {
+            IneExtractionResult again = cache.getOrExtract(tenantId, image.clone(), extractor(600_000));
+            assertThat(again.getNombre()).isEqualTo("JUAN");
+            assertThat(again.getCroppedFaceBytes()).hasSize(600_000);
+        }
+
+        assertThat(extractions.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter("ine.cache.disk.hits").count()).isGreaterThanOrEqualTo(1);
+    }
+
+    // ---- Helpers ----
+
+    private IneExtractionCache cache(long maxMemoryMb, String diskDir) {
+        // Same-thread maintenance: spills are written before the call returns, never after the test ends
+        return new IneExtractionCache(objectMapper, true, maxMemoryMb, 30, diskDir, 16, meterRegistry, Runnable::run);
+    }
+
+    private Supplier<IneExtractionResult> extractor(int faceBytes) {
+        return () -> {
+            extractions.incrementAndGet();
+            IneExtractionResult result = new IneExtractionResult();
+            result.setNombre("JUAN");
+            result.setApellidoPaterno("PEREZ");
+            result.setFechaNacimiento(LocalDate.of(1990, 5, 17));
+            result.setCroppedFaceBytes(faceBytes > 0 ? new byte[faceBytes] : null);
+            return result;
+        };
+    }
+
+    private static byte[] image(int seed, int size) {
+        byte[] image = new byte[size];
+        Arrays.fill(image, (byte) seed);
+        return image;
+    }
+
+    private long spilledFiles() {
+        try (Stream<Path> files = Files.walk(spillDir)) {
+            return files.filter(p -> p.toString().endsWith(".bin")).count();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.leagueos.modules.registration.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueos.modules.league.persistence.TeamRepository;
+import com.leagueos.modules.media.service.ImageDerivativeService;
+import com.leagueos.modules.media.service.StorageService;
+import com.leagueos.modules.registration.api.dto.PlayerResponse;
+import com.leagueos.modules.registration.domain.IneExtractionJob;
+import com.leagueos.modules.registration.persistence.IneExtractionJobStore;
+import com.leagueos.modules.registration.persistence.SeasonRosterRepository;
+import com.leagueos.shared.context.TenantContext;
+import com.leagueos.shared.domain.exception.BusinessRuleException;
+import com.leagueos.shared.domain.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the job pipeline against an in-memory H2 copy of ine_extraction_jobs and the real
+ * {@link IneExtractionService} pointed at {@link StubGeminiServer}; only the player writes and R2 are mocked.
+ */
+class IneExtractionJobServiceTest {
+
+    private static final UUID LEAGUE_A = UUID.randomUUID();
+    private static final UUID LEAGUE_B = UUID.randomUUID();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final PlayerRegistrationService playerRegistrationService = mock(PlayerRegistrationService.class);
+    private final StorageService storageService = mock(StorageService.class);
+
+    private StubGeminiServer gemini;
+    private JdbcTemplate jdbcTemplate;
+    private IneExtractionJobStore store;
+    private IneRegistrationService ineRegistrationService;
+    private IneExtractionJobService service;
+    private byte[] image;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gemini = new StubGeminiServer(50);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:ine-jobs-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/migration/V23__Create_Ine_Extraction_Jobs.sql"));
+        }
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        store = new IneExtractionJobStore(jdbcTemplate);
+
+        GeminiClient geminiClient = new GeminiClient("test-key", gemini.baseUrl(), List.of("gemini-test"),
+                5_000, 10_000, true, 4_000, 500, 20, 3, 30, new SimpleMeterRegistry());
+        IneExtractionService extraction = new IneExtractionService(geminiClient, new IneImagePreprocessor(2048, 0.9f), objectMapper);
+        IneExtractionCache disabledCache = new IneExtractionCache(objectMapper, false, 1, 1, "", 1, new SimpleMeterRegistry());
+        ineRegistrationService = new IneRegistrationService(extraction, disabledCache, storageService,
+                mock(ImageDerivativeService.class), playerRegistrationService,
+                mock(TeamRepository.class), mock(SeasonRosterRepository.class),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+
+        when(storageService.buildPlayerKey(any(), anyString(), anyString(), anyString())).thenReturn("players/face.jpg");
+        when(playerRegistrationService.registerPlayer(any(), any(), any())).thenAnswer(invocation -> player());
+
+        image = sampleJpeg();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.destroy();
+        gemini.close();
+        TenantContext.clear();
+    }
+
+    @Test
+    void submittedScan_isProcessedInTheBackgroundAndDropsTheImage() throws Exception {
+        service = startService(4, 2);
+
+        IneExtractionJob submitted = submitAs(LEAGUE_A);
+        assertThat(submitted.status()).isEqualTo(IneExtractionJob.Status.QUEUED);
+
+        IneExtractionJob finished = awaitFinished(submitted.id(), LEAGUE_A);
+        assertThat(finished.status()).isEqualTo(IneExtractionJob.Status.SUCCEEDED);
+        assertThat(finished.attempts()).isEqualTo(1);
+        assertThat(finished.finishedAt()).isNotNull();
+        assertThat(service.readResult(finished).getFirstName()).isEqualTo("JUAN");
+        assertThat(storedImage(submitted.id())).isNull();
+    }
+
+    @Test
+    void busyLeague_doesNotStarveAnotherLeague() throws Exception {
+        // Each league's registrations wait at their own gate, so the test decides which job finishes next
+        Map<UUID, Semaphore> gates = Map.of(LEAGUE_A, new Semaphore(0), LEAGUE_B, new Semaphore(0));
+        List<UUID> started = Collections.synchronizedList(new ArrayList<>());
+        when(playerRegistrationService.registerPlayer(any(), any(), any())).thenAnswer(invocation -> {
+            UUID tenantId = invocation.getArgument(2);
+            started.add(tenantId);
+            gates.get(tenantId).acquire();
+            return player();
+        });
+        service = newService(2, 2);
+        for (int i = 0; i < 12; i++) {
+            submitAs(LEAGUE_A);
+        }
+        submitAs(LEAGUE_B);
+        submitAs(LEAGUE_B);
+        service.afterPropertiesSet();
+
+        try {
+            // Arrival order would start league B 13th and 14th. Fair dispatch starts it next to league A's
+            // first job, and whichever league frees a worker, the other one's share decides the next start
+            awaitUntil(() -> started.size() == 2);
+            assertThat(started).containsExactlyInAnyOrder(LEAGUE_A, LEAGUE_B);
+
+            gates.get(LEAGUE_A).release();
+            awaitUntil(() -> started.size() == 3);
+            assertThat(started.get(2)).isEqualTo(LEAGUE_A);
+
+            gates.get(LEAGUE_B).release();
+            awaitUntil(() -> started.size() == 4);
+            assertThat(started.get(3)).isEqualTo(LEAGUE_B);
+        } finally {
+            gates.values().forEach(gate -> gate.release(100));
+        }
+    }
+
+    @Test
+    void businessRuleFailure_isFinalAndNotRetried() throws Exception {
+        when(playerRegistrationService.registerPlayer(any(), any(), any()))
+                .thenThrow(new BusinessRuleException("Ya existe un jugador con esa CURP."));
+        service = startService(4, 2);
+
+        IneExtractionJob finished = awaitFinished(submitAs(LEAGUE_A).id(), LEAGUE_A);
+
+        assertThat(finished.status()).isEqualTo(IneExtractionJob.Status.FAILED);
+        assertThat(finished.errorMessage()).isEqualTo("Ya existe un jugador con esa CURP.");
+        assertThat(finished.attempts()).isEqualTo(1);
+    }
+
+    @Test
+    void unexpectedFailure_isRetried() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        when(playerRegistrationService.registerPlayer(any(), any(), any())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("connection reset");
+            }
+            return player();
+        });
+        service = startService(4, 2);
+
+        IneExtractionJob finished = awaitFinished(submitAs(LEAGUE_A).id(), LEAGUE_A);
+
+        assertThat(finished.status()).isEqualTo(IneExtractionJob.Status.SUCCEEDED);
+        assertThat(finished.attempts()).isEqualTo(2);
+    }
+
+    @Test
+    void jobAbandonedByAnotherNode_isPickedUpOnceItsLeaseLapses() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        store.insert(jobId, LEAGUE_A, null, null, 10, "image/jpeg", image, now.minusMinutes(5));
+        assertThat(store.claim(jobId, "dead-node", now.minusMinutes(2), now.minusMinutes(1))).isPresent();
+
+        service = startService(4, 2);
+        IneExtractionJob finished = awaitFinished(jobId, LEAGUE_A);
+
+        assertThat(finished.status()).isEqualTo(IneExtractionJob.Status.SUCCEEDED);
+        assertThat(finished.attempts()).isEqualTo(2);
+    }
+
+    @Test
+    void retryAfterThePlayerWasSaved_returnsThatPlayerInsteadOfRegisteringAgain() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        UUID savedPlayerId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        store.insert(jobId, LEAGUE_A, null, null, 10, "image/jpeg", image, now.minusMinutes(5));
+        IneExtractionJob claimed = store.claim(jobId, "dead-node", now.minusMinutes(2), now.minusMinutes(1)).orElseThrow();
+        // The node saved the player, then died before marking the job as succeeded
+        assertThat(store.recordResultPlayer(claimed, "dead-node", savedPlayerId, now.minusMinutes(2))).isTrue();
+        PlayerResponse saved = player();
+        saved.setId(savedPlayerId);
+        when(playerRegistrationService.getPlayer(savedPlayerId)).thenReturn(saved);
+
+        service = startService(4, 2);
+        IneExtractionJob finished = awaitFinished(jobId, LEAGUE_A);
+
+        assertThat(finished.status()).isEqualTo(IneExtractionJob.Status.SUCCEEDED);
+        assertThat(finished.attempts()).isEqualTo(2);
+        assertThat(finished.resultPlayerId()).isEqualTo(savedPlayerId);
+        verify(playerRegistrationService, never()).registerPlayer(any(), any(), any());
+    }
+
+    @Test
+    void attemptThatLostItsJob_cannotRecordAPlayer() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        store.insert(jobId, LEAGUE_A, null, null, 10, "image/jpeg", image, now);
+        IneExtractionJob first = store.claim(jobId, "slow-node", now, now.minusSeconds(1)).orElseThrow();
+        store.recoverExpired(now, 3, "x");
+        IneExtractionJob second = store.claim(jobId, "other-node", now, now.plusMinutes(1)).orElseThrow();
+
+        assertThat(store.recordResultPlayer(first, "slow-node", UUID.randomUUID(), now)).isFalse();
+        assertThat(store.recordResultPlayer(second, "other-node", UUID.randomUUID(), now)).isTrue();
+    }
+
+    @Test
+    void jobOfAnotherLeague_isNotVisible() {
+        service = newService(4, 2);
+        IneExtractionJob submitted = submitAs(LEAGUE_A);
+
+        TenantContext.setCurrentTenant(LEAGUE_B);
+        assertThatThrownBy(() -> service.getJob(submitted.id()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    // ---- Helpers ----
+
+    private IneExtractionJobService newService(int workers, int maxRunningPerTenant) {
+        return new IneExtractionJobService(store, ineRegistrationService, objectMapper, true, workers,
+                maxRunningPerTenant, 3, 50, 60, 72, new SimpleMeterRegistry());
+    }
+
+    private IneExtractionJobService startService(int workers, int maxRunningPerTenant) {
+        IneExtractionJobService started = newService(workers, maxRunningPerTenant);
+        started.afterPropertiesSet();
+        return started;
+    }
+
+    private IneExtractionJob submitAs(UUID tenantId) {
+        TenantContext.setCurrentTenant(tenantId);
+        try {
+            return service.submitRegistration(image.clone(), "image/jpeg", null, 10);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private IneExtractionJob awaitFinished(UUID jobId, UUID tenantId) throws Exception {
+        CompletableFuture<Void> completion = service.whenFinished(jobId);
+        IneExtractionJob job = service.getJob(jobId, tenantId);
+        if (!job.status().isFinished()) {
+            completion.get(20, TimeUnit.SECONDS);
+            job = service.getJob(jobId, tenantId);
+        }
+        return job;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private byte[] storedImage(UUID jobId) {
+        return jdbcTemplate.queryForObject("SELECT image FROM ine_extraction_jobs WHERE id = ?", byte[].class, jobId);
+    }
+
+    private static PlayerResponse player() {
+        PlayerResponse response = new PlayerResponse();
+        response.setId(UUID.randomUUID());
+        response.setFirstName("JUAN");
+        response.setLastName("PEREZ LOPEZ");
+        return response;
+    }
+
+    private static byte[] sampleJpeg() throws Exception {
+        BufferedImage image = new BufferedImage(640, 400, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,91 @@
+package com.leagueos.modules.registration.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time and heap allocation per INE scan, full-resolution decode vs. subsampled decode.
+ *
+ * Runs the whole {@link IneExtractionService#extractDataFromIne} path (EXIF, decode, re-encode, request
+ * body, face crop) on a 12MP phone-sized photo rotated by EXIF, against a zero-latency
+ * {@link StubGeminiServer}. "full" sets {@code max-dimension} to 0, which decodes, rotates and crops
+ * at full size as the service did before; "reduced" uses the default 2048. Allocation is what the
+ * scanning thread allocated, so the HTTP client's own threads are not counted.
+ *
+ * Only runs on demand: {@code mvn test -Dtest=IneImagePreprocessingBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IneImagePreprocessingBenchmarkTest {
+
+    private static final int WARMUP_SCANS = 5;
+    private static final int MEASURED_SCANS = 20;
+
+    private static StubGeminiServer gemini;
+    private static byte[] photo;
+
+    private record Result(double millisPerScan, double megabytesPerScan) {
+    }
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        gemini = new StubGeminiServer(0);
+        photo = IneImagePreprocessorTest.withExifOrientation(
+                IneImagePreprocessorTest.sampleImage(4000, 3000, BufferedImage.TYPE_INT_RGB, "jpeg"), 6);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        gemini.close();
+    }
+
+    @Test
+    void timeAndAllocationPerScan() {
+        IneExtractionService full = service(0);
+        IneExtractionService reduced = service(2048);
+        run(full, WARMUP_SCANS);
+        run(reduced, WARMUP_SCANS);
+
+        Result before = run(full, MEASURED_SCANS);
+        Result after = run(reduced, MEASURED_SCANS);
+
+        System.out.printf("INE scan of a %d KB 12MP photo: full %.1f ms / %.1f MB allocated, reduced %.1f ms / %.1f MB allocated%n",
+                photo.length / 1024, before.millisPerScan(), before.megabytesPerScan(),
+                after.millisPerScan(), after.megabytesPerScan());
+        assertThat(after.megabytesPerScan()).isLessThan(before.megabytesPerScan());
+    }
+
+    private Result run(IneExtractionService service, int scans) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < scans; i++) {
+            // The service wipes the upload, so every scan gets a fresh copy (not counted)
+            byte[] upload = photo.clone();
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            IneExtractionResult result = service.extractDataFromIne(upload, "image/jpeg");
+            nanos += System.nanoTime() - start;
+            bytes += threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+            assertThat(result.getCroppedFaceBytes()).isNotEmpty();
+        }
+        return new Result(nanos / 1e6 / scans, bytes / 1024.0 / 1024.0 / scans);
+    }
+
+    private static IneExtractionService service(int maxDimension) {
+        GeminiClient geminiClient = new GeminiClient("test-key", gemini.baseUrl(), List.of("gemini-test"),
+                10_000, 20_000, false, 4_000, 500, 20, 3, 30, new SimpleMeterRegistry());
+        return new IneExtractionService(geminiClient, new IneImagePreprocessor(maxDimension, 0.9f),
+                new ObjectMapper().findAndRegisterModules());
+    }
+}
@@ -0,0 +1,112 @@
+package com.leagueos.modules.registration.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IneImagePreprocessorTest {
+
+    private final IneImagePreprocessor preprocessor = new IneImagePreprocessor(2048, 0.9f);
+
+    @Test
+    void largePhoto_isDecodedAtReducedSize() throws Exception {
+        byte[] upload = sampleImage(4000, 3000, BufferedImage.TYPE_INT_RGB, "jpeg");
+
+        IneImagePreprocessor.PreparedImage prepared = preprocessor.prepare(upload, "image/jpeg");
+
+        assertThat(prepared.raster().getWidth()).isEqualTo(2000);
+        assertThat(prepared.raster().getHeight()).isEqualTo(1500);
+        assertThat(prepared.mimeType()).isEqualTo("image/jpeg");
+        assertThat(prepared.bytes().length).isLessThan(upload.length);
+        assertThat(ImageIO.read(new ByteArrayInputStream(prepared.bytes())).getWidth()).isEqualTo(2000);
+    }
+
+    @Test
+    void exifOrientation_isAppliedToTheReducedRaster() throws Exception {
+        byte[] upload = withExifOrientation(sampleImage(4000, 2000, BufferedImage.TYPE_INT_RGB, "jpeg"), 6);
+
+        IneImagePreprocessor.PreparedImage prepared = preprocessor.prepare(upload, "image/jpeg");
+
+        assertThat(prepared.raster().getWidth()).isEqualTo(1000);
+        assertThat(prepared.raster().getHeight()).isEqualTo(2000);
+        BufferedImage sent = ImageIO.read(new ByteArrayInputStream(prepared.bytes()));
+        assertThat(sent.getWidth()).isEqualTo(1000);
+        assertThat(sent.getHeight()).isEqualTo(2000);
+    }
+
+    @Test
+    void smallUprightJpeg_isSentAsUploaded() throws Exception {
+        byte[] upload = sampleImage(640, 400, BufferedImage.TYPE_INT_RGB, "jpeg");
+
+        IneImagePreprocessor.PreparedImage prepared = preprocessor.prepare(upload, "image/jpeg");
+
+        assertThat(prepared.bytes()).isSameAs(upload);
+        assertThat(prepared.raster().getWidth()).isEqualTo(640);
+    }
+
+    @Test
+    void transparentPng_isFlattenedAndSentAsJpeg() throws Exception {
+        byte[] upload = sampleImage(3000, 1000, BufferedImage.TYPE_INT_ARGB, "png");
+
+        IneImagePreprocessor.PreparedImage prepared = preprocessor.prepare(upload, "image/png");
+
+        assertThat(prepared.mimeType()).isEqualTo("image/jpeg");
+        assertThat(prepared.raster().getColorModel().hasAlpha()).isFalse();
+        assertThat(prepared.raster().getWidth()).isEqualTo(1500);
+    }
+
+    @Test
+    void undecodableUpload_isSentAsUploadedWithoutRaster() {
+        byte[] upload = "not an image".getBytes(StandardCharsets.UTF_8);
+
+        IneImagePreprocessor.PreparedImage prepared = preprocessor.prepare(upload, "image/heic");
+
+        assertThat(prepared.raster()).isNull();
+        assertThat(prepared.bytes()).isSameAs(upload);
+        assertThat(prepared.mimeType()).isEqualTo("image/heic");
+    }
+
+    // ---- Helpers ----
+
+    static byte[] sampleImage(int width, int height, int type, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(200, 40, 120), width, height, new Color(230, 230, 250)));
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.DARK_GRAY);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, Math.max(12, height / 20)));
+        for (int y = height / 10; y < height; y += height / 8) {
+            g.drawString("INSTITUTO NACIONAL ELECTORAL  PEREZ LOPEZ JUAN", width / 3, y);
+        }
+        g.fillOval(width / 20, height / 5, width / 4, height / 2);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    /** Inserts a minimal big-endian EXIF APP1 segment holding only the orientation tag. */
+    static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer tiff = ByteBuffer.allocate(26);
+        tiff.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+        byte[] header = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+
+        ByteBuffer out = ByteBuffer.allocate(jpeg.length + 4 + header.length + tiff.capacity());
+        out.put(jpeg, 0, 2);
+        out.put((byte) 0xFF).put((byte) 0xE1).putShort((short) (2 + header.length + tiff.capacity()));
+        out.put(header).put(tiff.array());
+        out.put(jpeg, 2, jpeg.length - 2);
+        return out.array();
+    }
+}
@@ -0,0 +1,62 @@
+package com.leagueos.modules.registration.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final ModelCircuitBreaker breaker = new ModelCircuitBreaker(2, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(ModelCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(ModelCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneTrialThroughAfterTheOpenPeriod() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(ModelCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopens_cancelledTrialDoesNot() {
+        breaker.onFailure();
+        breaker.onFailure();
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onCancelled();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(ModelCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+}
@@ -0,0 +1,131 @@
+package com.leagueos.modules.registration.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Gemini generateContent endpoint, for tests that drive the real
+ * {@link IneExtractionService} (point {@code gemini.base-url} at {@link #baseUrl()}).
+ *
+ * Answers every model with a well-formed INE extraction after {@code delayMillis}; queued status
+ * codes ({@link #failNext}) are returned first, one per request, to simulate overload. Single models
+ * can be slowed down ({@link #setModelDelay}) or made to fail ({@link #failModel}).
+ */
+public class StubGeminiServer implements AutoCloseable {
+
+    public static final String DEFAULT_EXTRACTION = """
+            {"nombre": "JUAN", "apellido_paterno": "PEREZ", "apellido_materno": "LOPEZ", "sexo": "H",
+             "fecha_nacimiento": "1990-05-17", "ine_rotation": "NORMAL",
+             "face_box": {"x": 0.05, "y": 0.2, "w": 0.3, "h": 0.5}}
+            """;
+
+    private final HttpServer server;
+    private final Queue<Integer> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Map<String, AtomicInteger> requestsByModel = new ConcurrentHashMap<>();
+    private final Map<String, Long> modelDelays = new ConcurrentHashMap<>();
+    private final Map<String, Integer> modelFailures = new ConcurrentHashMap<>();
+    private volatile long delayMillis;
+    private volatile String extraction = DEFAULT_EXTRACTION;
+
+    public StubGeminiServer(long delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public int requestCount(String model) {
+        AtomicInteger count = requestsByModel.get(model);
+        return count != null ? count.get() : 0;
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    /** The JSON the model "reads" off the INE (the text part of the first candidate). */
+    public void setExtraction(String extraction) {
+        this.extraction = extraction;
+    }
+
+    public void failNext(int statusCode, int times) {
+        for (int i = 0; i < times; i++) {
+            failures.add(statusCode);
+        }
+    }
+
+    public void setModelDelay(String model, long delayMillis) {
+        modelDelays.put(model, delayMillis);
+    }
+
+    /** Every request to {@code model} answers {@code statusCode} until {@link #recoverModel}. */
+    public void failModel(String model, int statusCode) {
+        modelFailures.put(model, statusCode);
+    }
+
+    public void recoverModel(String model) {
+        modelFailures.remove(model);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            respond(exchange);
+        } catch (IOException e) {
+            // The client gave up on this call (hedged request cancelled)
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        // Path is /v1beta/models/{model}:generateContent
+        String path = exchange.getRequestURI().getPath();
+        String model = path.substring(path.lastIndexOf('/') + 1).replace(":generateContent", "");
+        requestsByModel.computeIfAbsent(model, m -> new AtomicInteger()).incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(modelDelays.getOrDefault(model, delayMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Integer failure = modelFailures.containsKey(model) ? modelFailures.get(model) : failures.poll();
+        byte[] body = failure != null
+                ? "{\"error\":{\"code\":503,\"message\":\"The model is overloaded.\"}}".getBytes(StandardCharsets.UTF_8)
+                : candidate(extraction).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(failure != null ? failure : 200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static String candidate(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + escaped + "\"}]}}]}";
+    }
+}
@@ -0,0 +1,205 @@
+package com.leagueos.modules.registration.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed load on a local Tomcat with the default 200-thread pool: {@code bench.ine.clients} (default 300)
+ * clients keep posting INE scans through the real {@link IneExtractionService}, whose Gemini calls go to a
+ * stub that answers after {@code bench.gemini.delay-ms} (default 1500), while {@code bench.public.clients}
+ * (default 32) clients keep hitting a cheap public endpoint. Runs once with platform threads and once with
+ * spring.threads.virtual.enabled and prints throughput and public latency for both.
+ *
+ * Only runs on demand: {@code mvn test -Dtest=VirtualThreadMixedLoadBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadMixedLoadBenchmarkTest {
+
+    private static final int INE_CLIENTS = Integer.getInteger("bench.ine.clients", 300);
+    private static final int PUBLIC_CLIENTS = Integer.getInteger("bench.public.clients", 32);
+    private static final int GEMINI_DELAY_MS = Integer.getInteger("bench.gemini.delay-ms", 1500);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 15);
+
+    @Configuration
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class
+    })
+    @Import({IneExtractionService.class, IneImagePreprocessor.class, GeminiClient.class, BenchController.class})
+    static class BenchApp {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @RestController
+    static class BenchController {
+        private final IneExtractionService ineExtractionService;
+
+        BenchController(IneExtractionService ineExtractionService) {
+            this.ineExtractionService = ineExtractionService;
+        }
+
+        @PostMapping("/bench/ine")
+        Map<String, Object> scan(@RequestBody byte[] image) {
+            return Map.of("nombre", ineExtractionService.extractDataFromIne(image, "image/jpeg").getNombre());
+        }
+
+        @GetMapping("/bench/public")
+        Map<String, Object> fixtures() {
+            return Map.of("virtual", Thread.currentThread().isVirtual());
+        }
+    }
+
+    private record Result(String mode, int ineDone, int publicDone, long publicP50, long publicP99, long publicMax,
+                          boolean servedOnVirtualThreads) {
+    }
+
+    @Test
+    void virtualThreads_keepPublicTrafficFlowingUnderBlockingIneScans() throws Exception {
+        try (StubGeminiServer gemini = new StubGeminiServer(GEMINI_DELAY_MS)) {
+            byte[] image = sampleJpeg();
+            Result platform = run(false, gemini.baseUrl(), image);
+            Result virtual = run(true, gemini.baseUrl(), image);
+
+            System.out.printf("%n=== %d INE clients (Gemini %d ms) + %d public clients, %d s, Tomcat threads.max=200 ===%n",
+                    INE_CLIENTS, GEMINI_DELAY_MS, PUBLIC_CLIENTS, SECONDS);
+            System.out.printf("%-9s %10s %12s %10s %10s %10s%n", "mode", "INE/s", "public/s", "p50 ms", "p99 ms", "max ms");
+            for (Result r : List.of(platform, virtual)) {
+                System.out.printf("%-9s %10.1f %12.1f %10d %10d %10d%n", r.mode(), r.ineDone() / (double) SECONDS,
+                        r.publicDone() / (double) SECONDS, r.publicP50(), r.publicP99(), r.publicMax());
+            }
+
+            assertThat(platform.servedOnVirtualThreads()).isFalse();
+            assertThat(virtual.servedOnVirtualThreads()).isTrue();
+            assertThat(virtual.publicP99()).isLessThan(platform.publicP99());
+            assertThat(virtual.ineDone()).isGreaterThanOrEqualTo(platform.ineDone());
+        }
+    }
+
+    private Result run(boolean virtualThreads, String geminiBaseUrl, byte[] image) throws Exception {
+        try (ServletWebServerApplicationContext app = (ServletWebServerApplicationContext) new SpringApplicationBuilder(BenchApp.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=200",
+                        "--gemini.base-url=" + geminiBaseUrl,
+                        "--gemini.api-key=bench",
+                        "--logging.level.com.leagueos=WARN",
+                        "--spring.main.banner-mode=off")) {
+            String base = "http://localhost:" + app.getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            HttpRequest scan = HttpRequest.newBuilder(URI.create(base + "/bench/ine"))
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(image))
+                    .build();
+            HttpRequest fixtures = HttpRequest.newBuilder(URI.create(base + "/bench/public")).build();
+
+            // Warm up both paths before measuring
+            client.send(scan, HttpResponse.BodyHandlers.discarding());
+            boolean servedOnVirtual = client.send(fixtures, HttpResponse.BodyHandlers.ofString()).body().contains("true");
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicInteger ineDone = new AtomicInteger();
+            List<Long> publicLatencies = Collections.synchronizedList(new ArrayList<>());
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < INE_CLIENTS; i++) {
+                    clients.execute(() -> loop(running, () -> {
+                        if (client.send(scan, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            ineDone.incrementAndGet();
+                        }
+                    }));
+                }
+                // Let the scans occupy the request threads before public traffic starts
+                Thread.sleep(Math.min(GEMINI_DELAY_MS, 1000));
+                for (int i = 0; i < PUBLIC_CLIENTS; i++) {
+                    clients.execute(() -> loop(running, () -> {
+                        long start = System.nanoTime();
+                        if (client.send(fixtures, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            publicLatencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        }
+                    }));
+                }
+                Thread.sleep(TimeUnit.SECONDS.toMillis(SECONDS));
+                running.set(false);
+            }
+
+            List<Long> sorted = new ArrayList<>(publicLatencies);
+            Collections.sort(sorted);
+            return new Result(virtualThreads ? "virtual" : "platform", ineDone.get(), sorted.size(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1),
+                    servedOnVirtual);
+        }
+    }
+
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    private static void loop(AtomicBoolean running, Call call) {
+        while (running.get()) {
+            try {
+                call.run();
+            } catch (Exception ignored) {
+                // Counted as not done
+            }
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) return Long.MAX_VALUE;
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(p * sorted.size())));
+    }
+
+    private static byte[] sampleJpeg() throws Exception {
+        BufferedImage image = new BufferedImage(640, 400, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,118 @@
+package com.leagueos.modules.tenant.service;
+
+import com.leagueos.modules.tenant.domain.TenantSettings;
+import com.leagueos.modules.tenant.domain.WinPointsChangedEvent;
+import com.leagueos.modules.tenant.persistence.TenantSettingsRepository;
+import com.leagueos.shared.context.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantSettingsServiceTest {
+
+    @Mock
+    private TenantSettingsRepository repository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry registry;
+    private TenantSettingsService service;
+    private UUID tenantId;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        service = new TenantSettingsService(repository, eventPublisher, 5, registry);
+        tenantId = UUID.randomUUID();
+        TenantContext.setCurrentTenant(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private TenantSettings settings(int winPoints) {
+        TenantSettings settings = new TenantSettings();
+        settings.setTenantId(tenantId);
+        settings.setWinPointsOnWin(winPoints);
+        return settings;
+    }
+
+    @Test
+    void getCurrentSettings_isLoadedOncePerTenant() {
+        when(repository.findByTenantId(tenantId)).thenReturn(Optional.of(settings(3)));
+
+        service.getCurrentSettings();
+        TenantSettings second = service.getCurrentSettings();
+
+        assertThat(second.getWinPointsOnWin()).isEqualTo(3);
+        verify(repository, times(1)).findByTenantId(tenantId);
+        assertThat(registry.get("cache.gets").tag("cache", "tenant-settings").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getCurrentSettings_returnsCopiesTheCallerCannotChangeForOthers() {
+        TenantSettings stored = settings(3);
+        when(repository.findByTenantId(tenantId)).thenReturn(Optional.of(stored));
+
+        TenantSettings first = service.getCurrentSettings();
+        first.setWinPointsOnWin(1);
+        TenantSettings second = service.getCurrentSettings();
+
+        assertThat(first).isNotSameAs(stored);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getWinPointsOnWin()).isEqualTo(3);
+        assertThat(second.getTenantId()).isEqualTo(tenantId);
+        verify(repository, times(1)).findByTenantId(tenantId);
+    }
+
+    @Test
+    void updateCurrentSettings_evictsCachedEntry() {
+        TenantSettings stored = settings(3);
+        when(repository.findByTenantId(tenantId)).thenReturn(Optional.of(stored));
+        when(repository.save(any(TenantSettings.class))).thenAnswer(inv -> inv.getArgument(0));
+        service.getCurrentSettings();
+
+        service.updateCurrentSettings(settings(2));
+        TenantSettings reloaded = service.getCurrentSettings();
+
+        assertThat(reloaded.getWinPointsOnWin()).isEqualTo(2);
+        // initial load, update lookup, reload after eviction
+        verify(repository, times(3)).findByTenantId(tenantId);
+    }
+
+    @Test
+    void updateCurrentSettings_announcesOnlyANewWinPointsValue() {
+        when(repository.findByTenantId(tenantId)).thenReturn(Optional.of(settings(3)));
+        when(repository.save(any(TenantSettings.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateCurrentSettings(settings(3));
+        verifyNoInteractions(eventPublisher);
+
+        service.updateCurrentSettings(settings(2));
+        verify(eventPublisher).publishEvent(new WinPointsChangedEvent(tenantId));
+    }
+
+    @Test
+    void getCurrentSettings_missingRow_returnsDefaults() {
+        when(repository.findByTenantId(tenantId)).thenReturn(Optional.empty());
+
+        assertThat(service.getCurrentSettings().getWinPointsOnWin()).isEqualTo(3);
+    }
+}
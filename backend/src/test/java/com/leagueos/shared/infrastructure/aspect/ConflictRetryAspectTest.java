@@ -0,0 +1,85 @@
+package com.leagueos.shared.infrastructure.aspect;
+
+import com.leagueos.shared.domain.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConflictRetryAspectTest {
+
+    static class ResultWriter {
+        final AtomicInteger calls = new AtomicInteger();
+        int failures;
+
+        @RetryOnConflict
+        public String write() {
+            if (calls.incrementAndGet() <= failures) {
+                throw new ObjectOptimisticLockingFailureException("Match", "m1");
+            }
+            return "ok";
+        }
+
+        @RetryOnConflict
+        public String failBusiness() {
+            calls.incrementAndGet();
+            throw new IllegalStateException("not a conflict");
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ResultWriter target;
+    private ResultWriter proxy;
+
+    @BeforeEach
+    void setUp() {
+        target = new ResultWriter();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ConflictRetryAspect(3, 1, registry));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void conflict_isRetriedUntilItSucceeds() {
+        target.failures = 2;
+
+        assertThat(proxy.write()).isEqualTo("ok");
+        assertThat(target.calls).hasValue(3);
+        assertThat(registry.get("conflict.retries").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void conflict_exhaustingAttempts_becomesConcurrentUpdate() {
+        target.failures = 10;
+
+        assertThatThrownBy(() -> proxy.write()).isInstanceOf(ConcurrentUpdateException.class);
+        assertThat(target.calls).hasValue(3);
+        assertThat(registry.get("conflict.retries.exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void otherFailures_areNotRetried() {
+        assertThatThrownBy(() -> proxy.failBusiness()).isInstanceOf(IllegalStateException.class);
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    void insideAnOuterTransaction_conflictPropagatesForTheOuterRetry() {
+        target.failures = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(() -> proxy.write()).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+            assertThat(target.calls).hasValue(1);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+}
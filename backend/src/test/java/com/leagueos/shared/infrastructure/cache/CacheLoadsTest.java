@@ -0,0 +1,96 @@
+package com.leagueos.shared.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leagueos.shared.context.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheLoadsTest {
+
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().maximumSize(100).buildAsync();
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void loaderRunsOnCallingThread_withItsThreadLocals() {
+        UUID tenantId = UUID.randomUUID();
+        TenantContext.setCurrentTenant(tenantId);
+
+        String value = CacheLoads.getOrLoad(cache, "k", k -> String.valueOf(TenantContext.getCurrentTenant()));
+
+        assertThat(value).isEqualTo(tenantId.toString());
+        assertThat(CacheLoads.getOrLoad(cache, "k", k -> "reloaded")).isEqualTo(tenantId.toString());
+    }
+
+    @Test
+    void concurrentMisses_loadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> CacheLoads.getOrLoad(cache, "k", k -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "v";
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<String>> waiters = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                waiters.add(executor.submit(() -> CacheLoads.getOrLoad(cache, "k", k -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("v");
+            for (Future<String> waiter : waiters) {
+                assertThat(waiter.get()).isEqualTo("v");
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void failedLoad_propagatesAndIsNotCached() {
+        assertThatThrownBy(() -> CacheLoads.getOrLoad(cache, "k", k -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("db down");
+
+        assertThat(CacheLoads.getOrLoad(cache, "k", k -> "v")).isEqualTo("v");
+    }
+
+    @Test
+    void nullValue_isReturnedButNotCached() {
+        assertThat(CacheLoads.getOrLoad(cache, "k", k -> null)).isNull();
+        assertThat(CacheLoads.getOrLoad(cache, "k", k -> "v")).isEqualTo("v");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.leagueos.shared.infrastructure.datasource;
+
+import com.leagueos.shared.context.ReplicaReadContext;
+import com.leagueos.shared.context.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReplicaLagMonitor monitor;
+    private ReadReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), Duration.ofSeconds(2), new SimpleMeterRegistry());
+        routing = new ReadReplicaRoutingDataSource(primary, replica, monitor);
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaReadContext.clear();
+        TenantContext.clear();
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @Test
+    void readOnlyTransaction_usesReplica() throws SQLException {
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void readWriteTransaction_usesPrimaryEvenOnReplicaReadPath() throws SQLException {
+        ReplicaReadContext.markReplicaRead();
+        beginTransaction(false);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void noTransaction_usesReplicaOnlyOnReadPaths() throws SQLException {
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        ReplicaReadContext.markReplicaRead();
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void replicaFailure_fallsBackToPrimaryAndLeavesRotation() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(monitor.isUsable(null)).isFalse();
+    }
+
+    @Test
+    void committedWrite_pinsTenantToPrimary() throws SQLException {
+        UUID tenantId = UUID.randomUUID();
+        TenantContext.setCurrentTenant(tenantId);
+        beginTransaction(false);
+
+        routing.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(monitor.isUsable(UUID.randomUUID())).isTrue();
+    }
+}
@@ -0,0 +1,185 @@
+package com.leagueos.shared.infrastructure.datasource;
+
+import com.leagueos.modules.league.domain.Season;
+import com.leagueos.modules.league.persistence.SeasonRepository;
+import com.leagueos.shared.infrastructure.filter.ReplicaReadFilter;
+import com.leagueos.shared.security.AuthenticatedPrincipalCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Service;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A GET on a replica read path that reads, then calls a read-write service, with the application's own
+ * JPA web setup (application.properties decides open-in-view). Primary and replica are two separate
+ * in-memory H2 databases, so a write that reused the replica connection of the earlier read shows up
+ * on the wrong one.
+ */
+@SpringBootTest(
+        classes = ReplicaReadPathWriteTest.ReplicaApp.class,
+        properties = {
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.flyway.enabled=false",
+                "app.datasource.replica.enabled=true",
+                "app.datasource.replica.read-paths=/api/public/**"
+        })
+class ReplicaReadPathWriteTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @Configuration
+    @ImportAutoConfiguration({
+            HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class
+    })
+    @EntityScan("com.leagueos")
+    @EnableJpaAuditing
+    @EnableJpaRepositories(basePackageClasses = SeasonRepository.class)
+    @Import({ReplicaReadFilter.class, ReadThenWriteController.class, SeasonWriter.class})
+    static class ReplicaApp {
+        @Bean
+        HikariDataSource primaryDataSource() {
+            return h2("replica-test-primary");
+        }
+
+        @Bean
+        HikariDataSource replicaDataSource() {
+            return h2("replica-test-replica");
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                              @Qualifier("replicaDataSource") DataSource replica) {
+            // The lag probe is Postgres-only; the replica stays in rotation
+            ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), Duration.ofSeconds(2),
+                    new SimpleMeterRegistry()) {
+                @Override
+                void check() {
+                }
+            };
+            return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica, monitor));
+        }
+
+        private static HikariDataSource h2(String name) {
+            return DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName("org.h2.Driver")
+                    .url("jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                    .username("sa")
+                    .build();
+        }
+    }
+
+    @RestController
+    static class ReadThenWriteController {
+        private final SeasonRepository seasonRepository;
+        private final SeasonWriter seasonWriter;
+
+        ReadThenWriteController(SeasonRepository seasonRepository, SeasonWriter seasonWriter) {
+            this.seasonRepository = seasonRepository;
+            this.seasonWriter = seasonWriter;
+        }
+
+        @GetMapping("/api/public/read-then-write")
+        int readThenWrite() {
+            int before = seasonRepository.findAll().size();
+            seasonWriter.create();
+            return before;
+        }
+    }
+
+    @Service
+    static class SeasonWriter {
+        private final SeasonRepository seasonRepository;
+
+        SeasonWriter(SeasonRepository seasonRepository) {
+            this.seasonRepository = seasonRepository;
+        }
+
+        @Transactional
+        public void create() {
+            Season season = new Season();
+            season.setTenantId(TENANT_ID);
+            season.setName("Clausura");
+            season.setStartDate(LocalDate.of(2026, 1, 1));
+            season.setEndDate(LocalDate.of(2026, 6, 30));
+            seasonRepository.save(season);
+        }
+    }
+
+    @Autowired private WebApplicationContext context;
+    @Autowired private ReplicaReadFilter replicaReadFilter;
+    @Autowired @Qualifier("primaryDataSource") private DataSource primary;
+    @Autowired @Qualifier("replicaDataSource") private DataSource replica;
+
+    @MockBean private AuthenticatedPrincipalCache principalCache;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // Hibernate created the schema through the routing DataSource, i.e. on the primary only
+        JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        List<String> script = primaryJdbc.queryForList("SCRIPT NODATA", String.class);
+        script.forEach(replicaJdbc::execute);
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(replicaReadFilter).build();
+    }
+
+    @Test
+    void writeServiceCalledFromReplicaReadPath_writesToPrimary() throws Exception {
+        mockMvc.perform(get("/api/public/read-then-write")).andExpect(status().isOk());
+
+        assertThat(countSeasons(primary)).isEqualTo(1);
+        assertThat(countSeasons(replica)).isZero();
+    }
+
+    private static int countSeasons(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM seasons WHERE tenant_id = ?", Integer.class, TENANT_ID);
+    }
+}
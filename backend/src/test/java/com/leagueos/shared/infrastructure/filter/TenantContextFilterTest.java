@@ -0,0 +1,141 @@
+package com.leagueos.shared.infrastructure.filter;
+
+import com.leagueos.shared.context.TenantContext;
+import com.leagueos.shared.security.CustomUserDetails;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tenant and principal are thread-locals; with spring.threads.virtual.enabled every request runs on
+ * its own virtual thread, which may move between carrier threads whenever it blocks.
+ */
+class TenantContextFilterTest {
+
+    private final TenantContextFilter filter = new TenantContextFilter();
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void publicRequest_setsTenantFromHeaderAndClearsItAfterwards() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Tenant-ID", tenantId.toString());
+        AtomicReference<UUID> seen = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.set(TenantContext.getCurrentTenant()));
+
+        assertThat(seen.get()).isEqualTo(tenantId);
+        assertThat(TenantContext.getCurrentTenant()).isNull();
+    }
+
+    @Test
+    void failingRequest_stillClearsTenant() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Tenant-ID", UUID.randomUUID().toString());
+        FilterChain failing = (req, res) -> {
+            throw new ServletException("boom");
+        };
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), failing))
+                .isInstanceOf(ServletException.class);
+        assertThat(TenantContext.getCurrentTenant()).isNull();
+    }
+
+    @Test
+    void concurrentRequestsOnVirtualThreads_neverSeeAnotherRequestsTenantOrPrincipal() throws Exception {
+        int requests = 5_000;
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                boolean authenticated = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    runRequest(authenticated, violations);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(violations).isEmpty();
+    }
+
+    private void runRequest(boolean authenticated, Queue<String> violations) throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Authentication authentication = null;
+        if (authenticated) {
+            CustomUserDetails user = new CustomUserDetails("user-" + tenantId, "hash",
+                    List.of(new SimpleGrantedAuthority("ROLE_LEAGUE_ADMIN")), UUID.randomUUID(), tenantId.toString(), null);
+            authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+            // What JwtAuthenticationFilter does earlier in the chain
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        } else {
+            request.addHeader("X-Tenant-ID", tenantId.toString());
+        }
+        Authentication expectedAuthentication = authentication;
+
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                check(tenantId, expectedAuthentication, "before blocking", violations);
+                try {
+                    // Blocking unmounts the virtual thread; it may resume on a different carrier
+                    Thread.sleep(2);
+                    Thread child = Thread.ofVirtual().start(() -> {
+                        if (TenantContext.getCurrentTenant() != null
+                                || SecurityContextHolder.getContext().getAuthentication() != null) {
+                            violations.add("a thread started by the request inherited its context");
+                        }
+                    });
+                    child.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                check(tenantId, expectedAuthentication, "after blocking", violations);
+            });
+            if (TenantContext.getCurrentTenant() != null) {
+                violations.add("tenant left behind after the request");
+            }
+        } finally {
+            // SecurityContextHolderFilter's job at the end of a real request
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static void check(UUID tenantId, Authentication authentication, String when, Queue<String> violations) {
+        if (!tenantId.equals(TenantContext.getCurrentTenant())) {
+            violations.add("wrong tenant " + when);
+        }
+        if (SecurityContextHolder.getContext().getAuthentication() != authentication) {
+            violations.add("wrong principal " + when);
+        }
+    }
+}
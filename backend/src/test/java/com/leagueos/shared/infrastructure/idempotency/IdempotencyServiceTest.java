@@ -0,0 +1,170 @@
+package com.leagueos.shared.infrastructure.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leagueos.shared.context.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(jdbcTemplate, objectMapper, new IdempotentTransaction(), 24, 120, 60, new SimpleMeterRegistry());
+        TenantContext.setCurrentTenant(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    /** Makes the FIND query return one stored row with the hash the service computes for {@code request}. */
+    @SuppressWarnings("unchecked")
+    private void storedKey(Object request, String status, Integer responseStatus, String body) throws Exception {
+        String hash = hashOf(request);
+        when(jdbcTemplate.query(startsWith("SELECT request_hash"), any(RowMapper.class), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getString("request_hash")).thenReturn(hash);
+                    when(rs.getString("status")).thenReturn(status);
+                    when(rs.getObject("response_status")).thenReturn(responseStatus);
+                    when(rs.getString("response_body")).thenReturn(body);
+                    return List.of(((RowMapper<Object>) invocation.getArgument(1)).mapRow(rs, 0));
+                });
+    }
+
+    private String hashOf(Object request) throws Exception {
+        byte[] digest = java.security.MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        return java.util.HexFormat.of().formatHex(digest);
+    }
+
+    @Test
+    void execute_withoutKey_justRuns() {
+        ResponseEntity<?> response = service.execute("match-result", null, List.of("m1"), () -> ResponseEntity.ok("done"));
+
+        assertThat(response.getBody()).isEqualTo("done");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void execute_firstUse_runsAndStoresTheResponse() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE idempotency_keys"), any(Object[].class))).thenReturn(1);
+
+        ResponseEntity<?> response = service.execute("match-result", "k1", List.of("m1", 2, 1),
+                () -> ResponseEntity.ok(Map.of("homeScore", 2)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(startsWith("UPDATE idempotency_keys SET status = 'COMPLETED'"), args.capture());
+        assertThat(args.getValue()[0]).isEqualTo(200);
+        assertThat(args.getValue()[1]).isEqualTo("{\"homeScore\":2}");
+    }
+
+    @Test
+    void execute_repeatedKey_replaysWithoutRunningAgain() throws Exception {
+        List<Object> request = List.of("m1", 2, 1);
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"), any(Object[].class))).thenReturn(0);
+        storedKey(request, "COMPLETED", 200, "{\"homeScore\":2}");
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<?> response = service.execute("match-result", "k1", request, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok().build();
+        });
+
+        assertThat(runs).hasValue(0);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("{\"homeScore\":2}");
+        assertThat(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void execute_keyReusedForADifferentRequest_isRejected() throws Exception {
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"), any(Object[].class))).thenReturn(0);
+        storedKey(List.of("m1", 2, 1), "COMPLETED", 200, null);
+
+        assertThatThrownBy(() -> service.execute("match-result", "k1", List.of("m1", 3, 1), () -> ResponseEntity.ok().build()))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    void execute_duplicateWhileFirstIsRunning_isRejectedWithConflict() throws Exception {
+        List<Object> request = List.of("m1", 2, 1);
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"), any(Object[].class))).thenReturn(0);
+        storedKey(request, "IN_PROGRESS", null, null);
+
+        assertThatThrownBy(() -> service.execute("match-result", "k1", request, () -> ResponseEntity.ok().build()))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void execute_failedCall_releasesTheKey() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"), any(Object[].class))).thenReturn(1);
+
+        assertThatThrownBy(() -> service.execute("match-report", "k1", List.of("m1"), () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(jdbcTemplate).update(startsWith("DELETE FROM idempotency_keys"), eq(tenantId), eq("match-report"), eq("k1"), any());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE"), any(Object[].class));
+    }
+
+    @Test
+    void execute_claimTakenOverBeforeCompletion_failsSoTheWriteRollsBack() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO idempotency_keys"), any(Object[].class))).thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE idempotency_keys"), any(Object[].class))).thenReturn(0);
+
+        assertThatThrownBy(() -> service.execute("match-result", "k1", List.of("m1", 2, 1), () -> ResponseEntity.ok().build()))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        // The release only matches our own claim, so the retry that took the key over keeps it
+        ArgumentCaptor<Object[]> claim = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO idempotency_keys"), claim.capture());
+        verify(jdbcTemplate).update(startsWith("DELETE FROM idempotency_keys"), eq(tenantId), eq("match-result"), eq("k1"), eq(claim.getValue()[4]));
+    }
+
+    @Test
+    void execute_overlongKey_isRejected() {
+        assertThatThrownBy(() -> service.execute("match-report", "k".repeat(129), List.of(), () -> ResponseEntity.ok().build()))
+                .isInstanceOf(ResponseStatusException.class);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
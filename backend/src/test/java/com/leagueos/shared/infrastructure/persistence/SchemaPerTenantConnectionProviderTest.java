@@ -0,0 +1,72 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaPerTenantConnectionProviderTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private TenantSchemaRegistry registry;
+
+    private SchemaPerTenantConnectionProvider provider;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        provider = new SchemaPerTenantConnectionProvider(dataSource, registry);
+        when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.createStatement()).thenReturn(statement);
+        lenient().when(registry.sharedSchema()).thenReturn("public");
+        lenient().when(registry.isShared("public")).thenReturn(true);
+    }
+
+    @Test
+    void sharedSchema_connectionIsUsedAsIs() throws SQLException {
+        Connection result = provider.getConnection("public");
+        provider.releaseConnection("public", result);
+
+        verify(connection, never()).createStatement();
+        verify(connection).close();
+    }
+
+    @Test
+    void dedicatedSchema_setsSearchPathAndResetsOnRelease() throws SQLException {
+        Connection result = provider.getConnection("liga_grande");
+        provider.releaseConnection("liga_grande", result);
+
+        assertThat(result).isSameAs(connection);
+        verify(statement).execute("SET search_path TO liga_grande, public");
+        verify(statement).execute("SET search_path TO public");
+        verify(connection).close();
+    }
+
+    @Test
+    void invalidSchemaName_isRejectedAndConnectionClosed() throws SQLException {
+        assertThatThrownBy(() -> provider.getConnection("x; DROP TABLE users"))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(connection, never()).createStatement();
+        verify(connection).close();
+    }
+}
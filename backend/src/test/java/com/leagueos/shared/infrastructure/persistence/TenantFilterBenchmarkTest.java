@@ -0,0 +1,129 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import com.leagueos.shared.context.TenantContext;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-call overhead of tenant scoping, old aspect vs. session-level binding.
+ *
+ * "before" replays what TenantFilterAspect did: every proxied repository/service call is intercepted
+ * and unwraps the Session to re-enable the filter. "after" enables it once when the session opens and
+ * then calls straight through. Both run against a real Hibernate SessionFactory (no database needed,
+ * enabling a filter never touches JDBC) and simulate a request making {@link #CALLS_PER_SESSION} calls.
+ *
+ * Only runs on demand: {@code mvn test -Dtest=TenantFilterBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TenantFilterBenchmarkTest {
+
+    private static final int CALLS_PER_SESSION = 40;
+    private static final int WARMUP_SESSIONS = 20_000;
+    private static final int MEASURED_SESSIONS = 50_000;
+
+    private static StandardServiceRegistry registry;
+    private static SessionFactory sessionFactory;
+
+    // Stands in for the shared EntityManager the aspect unwrapped: resolves to the session of the "request"
+    private Session currentSession;
+
+    @Entity
+    @Table(name = "probes")
+    static class Probe extends BaseEntity {
+    }
+
+    interface Lookup {
+        int find(int i);
+    }
+
+    @BeforeAll
+    static void buildSessionFactory() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Probe.class)
+                .buildMetadata()
+                .buildSessionFactory();
+    }
+
+    @AfterAll
+    static void close() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void perCallOverhead() {
+        TenantContext.setCurrentTenant(UUID.randomUUID());
+        try {
+            run(WARMUP_SESSIONS, true);
+            run(WARMUP_SESSIONS, false);
+
+            double before = run(MEASURED_SESSIONS, true);
+            double after = run(MEASURED_SESSIONS, false);
+
+            System.out.printf("tenant filter overhead per call: aspect %.1f ns, session binding %.1f ns (%d calls/session)%n",
+                    before, after, CALLS_PER_SESSION);
+            assertThat(after).isLessThan(before);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /** @return average nanoseconds per call, including opening the session */
+    private double run(int sessions, boolean perCallAdvice) {
+        Lookup target = i -> i + 1;
+        Lookup lookup = perCallAdvice ? advised(target) : target;
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int s = 0; s < sessions; s++) {
+            try (Session session = sessionFactory.openSession()) {
+                currentSession = session;
+                if (!perCallAdvice) {
+                    bind(session);
+                }
+                for (int i = 0; i < CALLS_PER_SESSION; i++) {
+                    sink += lookup.find(i);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(sink).isPositive();
+        return (double) elapsed / ((long) sessions * CALLS_PER_SESSION);
+    }
+
+    /** Old behaviour: an AOP proxy re-enables the filter before every call. */
+    private Lookup advised(Lookup target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addInterface(Lookup.class);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            currentSession.unwrap(Session.class).enableFilter(TenantFilterBinder.FILTER_NAME)
+                    .setParameter(TenantFilterBinder.TENANT_PARAMETER, TenantContext.getCurrentTenant());
+            return invocation.proceed();
+        });
+        return (Lookup) factory.getProxy();
+    }
+
+    /** New behaviour: the filter is enabled once when the session opens. */
+    private void bind(Session session) {
+        session.enableFilter(TenantFilterBinder.FILTER_NAME)
+                .setParameter(TenantFilterBinder.TENANT_PARAMETER, TenantContext.getCurrentTenant());
+    }
+}
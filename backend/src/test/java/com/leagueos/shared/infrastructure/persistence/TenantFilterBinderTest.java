@@ -0,0 +1,157 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import com.leagueos.shared.context.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Filter;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantFilterBinderTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Filter filter;
+
+    private TenantFilterBinder binder;
+
+    @BeforeEach
+    void setUp() {
+        binder = new TenantFilterBinder();
+        lenient().when(factoryBean.getObject()).thenReturn(entityManagerFactory);
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().when(entityManager.isOpen()).thenReturn(true);
+        lenient().when(session.enableFilter(TenantFilterBinder.FILTER_NAME)).thenReturn(filter);
+        binder.postProcessBeforeInitialization(factoryBean, "entityManagerFactory");
+        binder.postProcessAfterInitialization(factoryBean, "entityManagerFactory");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        binder.destroy();
+        if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        }
+    }
+
+    @Test
+    void postProcess_installsInitializerOnFactoryBean() {
+        verify(factoryBean).setEntityManagerInitializer(any());
+    }
+
+    @Test
+    void bind_withTenant_enablesFilterOnNewSession() {
+        UUID tenantId = UUID.randomUUID();
+        TenantContext.setCurrentTenant(tenantId);
+
+        binder.bind(entityManager);
+
+        verify(filter).setParameter(TenantFilterBinder.TENANT_PARAMETER, tenantId);
+    }
+
+    @Test
+    void bind_withoutTenant_leavesSessionUnfiltered() {
+        binder.bind(entityManager);
+
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void tenantSwitch_rescopesSessionBoundToThread() {
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        TenantContext.setCurrentTenant(first);
+        TenantContext.setCurrentTenant(first);
+        TenantContext.setCurrentTenant(second);
+
+        verify(filter).setParameter(TenantFilterBinder.TENANT_PARAMETER, first);
+        verify(filter).setParameter(TenantFilterBinder.TENANT_PARAMETER, second);
+        verify(session, times(2)).enableFilter(TenantFilterBinder.FILTER_NAME);
+    }
+
+    @Test
+    void clear_unfiltersSessionBoundToThread() {
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        TenantContext.setCurrentTenant(UUID.randomUUID());
+
+        TenantContext.clear();
+
+        verify(session).disableFilter(TenantFilterBinder.FILTER_NAME);
+    }
+
+    @Test
+    void requestWithoutTenant_afterATenantRequest_seesNoFilter() {
+        // Tenant request on a pooled thread: its session is filtered, then the request ends
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        TenantContext.setCurrentTenant(UUID.randomUUID());
+        TenantContext.clear();
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+
+        // Next request on the same thread, no tenant
+        EntityManager next = mock(EntityManager.class);
+        binder.bind(next);
+
+        verifyNoInteractions(next);
+        verify(session).disableFilter(TenantFilterBinder.FILTER_NAME);
+    }
+
+    @Test
+    void everyRegisteredBinder_followsTheTenant() {
+        TenantFilterBinder other = new TenantFilterBinder();
+        EntityManagerFactory otherFactory = mock(EntityManagerFactory.class);
+        LocalContainerEntityManagerFactoryBean otherFactoryBean = mock(LocalContainerEntityManagerFactoryBean.class);
+        when(otherFactoryBean.getObject()).thenReturn(otherFactory);
+        other.postProcessAfterInitialization(otherFactoryBean, "otherEntityManagerFactory");
+        EntityManager otherEntityManager = mock(EntityManager.class);
+        Session otherSession = mock(Session.class);
+        when(otherEntityManager.unwrap(Session.class)).thenReturn(otherSession);
+        when(otherEntityManager.isOpen()).thenReturn(true);
+        when(otherSession.enableFilter(TenantFilterBinder.FILTER_NAME)).thenReturn(mock(Filter.class));
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        TransactionSynchronizationManager.bindResource(otherFactory, new EntityManagerHolder(otherEntityManager));
+        try {
+            TenantContext.setCurrentTenant(UUID.randomUUID());
+
+            verify(session).enableFilter(TenantFilterBinder.FILTER_NAME);
+            verify(otherSession).enableFilter(TenantFilterBinder.FILTER_NAME);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(otherFactory);
+            other.destroy();
+        }
+    }
+
+    @Test
+    void tenantSwitch_withoutBoundSession_doesNothing() {
+        TenantContext.setCurrentTenant(UUID.randomUUID());
+
+        verifyNoInteractions(entityManager);
+    }
+}
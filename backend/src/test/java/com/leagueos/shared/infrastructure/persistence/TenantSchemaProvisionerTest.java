@@ -0,0 +1,96 @@
+package com.leagueos.shared.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantSchemaProvisionerTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TenantSchemaRegistry registry;
+
+    private TenantSchemaProvisioner provisioner;
+
+    @BeforeEach
+    void setUp() {
+        provisioner = new TenantSchemaProvisioner(jdbcTemplate, new TransactionTemplate(transactionManager),
+                registry, "flyway_schema_history");
+        lenient().when(registry.sharedSchema()).thenReturn("public");
+        lenient().when(jdbcTemplate.queryForList(contains("FROM tenants WHERE id"), eq(String.class), eq(TENANT_ID)))
+                .thenReturn(List.of("liga_grande"));
+    }
+
+    @Test
+    void construction_touchesNothing() {
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void provision_locksThenMovesTheTenantInOneTransaction() {
+        when(jdbcTemplate.queryForObject(contains("to_regclass"), eq(Boolean.class), eq("liga_grande.soccer_fields")))
+                .thenReturn(false);
+        when(jdbcTemplate.queryForObject(contains("public.flyway_schema_history"), eq(String.class))).thenReturn("23");
+
+        assertThat(provisioner.provision(TENANT_ID)).isTrue();
+
+        InOrder order = inOrder(transactionManager, jdbcTemplate, registry);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock(hashtext(?))"), any(RowCallbackHandler.class),
+                eq("tenant-schema:liga_grande"));
+        order.verify(jdbcTemplate).execute("CREATE SCHEMA IF NOT EXISTS liga_grande");
+        order.verify(jdbcTemplate).execute("CREATE TABLE liga_grande.soccer_fields (LIKE public.soccer_fields INCLUDING ALL)");
+        order.verify(jdbcTemplate).execute(
+                "CREATE TABLE liga_grande.flyway_schema_history (LIKE public.flyway_schema_history INCLUDING ALL)");
+        order.verify(jdbcTemplate).update(contains("INSERT INTO liga_grande.flyway_schema_history"), eq("23"));
+        order.verify(jdbcTemplate).update("DELETE FROM public.team_standings WHERE tenant_id = ?", TENANT_ID);
+        order.verify(transactionManager).commit(any());
+        order.verify(registry).evict(TENANT_ID);
+    }
+
+    @Test
+    void provision_alreadyMoved_doesNothingUnderTheLock() {
+        when(jdbcTemplate.queryForObject(contains("to_regclass"), eq(Boolean.class), eq("liga_grande.soccer_fields")))
+                .thenReturn(true);
+
+        assertThat(provisioner.provision(TENANT_ID)).isFalse();
+
+        verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock(hashtext(?))"), any(RowCallbackHandler.class),
+                eq("tenant-schema:liga_grande"));
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void provision_tenantNotFlagged_isRejected() {
+        UUID other = UUID.randomUUID();
+        when(jdbcTemplate.queryForList(contains("FROM tenants WHERE id"), eq(String.class), eq(other)))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> provisioner.provision(other)).isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,92 @@
+package com.leagueos.shared.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "TestSecretKeyMustBeLongEnoughForHS512AlgorithmRequirementsTestOnlyValue";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private JwtTokenProvider tokenProvider;
+    private AuthenticatedPrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+    private CustomUserDetails admin;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 60_000);
+        principalCache = new AuthenticatedPrincipalCache(100, new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, principalCache);
+        admin = new CustomUserDetails("admin", "hash", List.of(new SimpleGrantedAuthority("ROLE_LEAGUE_ADMIN")),
+                UUID.randomUUID(), UUID.randomUUID().toString(), null);
+        lenient().when(userDetailsService.loadUserByUsername("admin")).thenReturn(admin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void call(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    @Test
+    void repeatedToken_resolvesUserOnce() throws Exception {
+        String token = tokenProvider.generateToken("admin", "ROLE_LEAGUE_ADMIN", admin.getTenantId());
+
+        call(token);
+        call(token);
+
+        verify(userDetailsService, times(1)).loadUserByUsername("admin");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(admin);
+    }
+
+    @Test
+    void evictUser_forcesReload() throws Exception {
+        String token = tokenProvider.generateToken("admin", "ROLE_LEAGUE_ADMIN", admin.getTenantId());
+        call(token);
+
+        principalCache.evictUser(admin.getId());
+        call(token);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("admin");
+    }
+
+    @Test
+    void tamperedToken_isRejectedAndNotCached() throws Exception {
+        String token = tokenProvider.generateToken("admin", "ROLE_LEAGUE_ADMIN", admin.getTenantId());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        call(tampered);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        assertThat(principalCache.get(tampered)).isNull();
+    }
+}
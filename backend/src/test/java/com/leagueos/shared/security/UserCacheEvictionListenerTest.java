@@ -0,0 +1,58 @@
+package com.leagueos.shared.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheEvictionListenerTest {
+
+    @Mock
+    private AuthenticatedPrincipalCache principalCache;
+
+    @InjectMocks
+    private UserCacheEvictionListener listener;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changeInsideATransaction_isEvictedAtFlushAndAgainAfterCommit() {
+        User user = user();
+        TransactionSynchronizationManager.initSynchronization();
+
+        listener.onUserChanged(user);
+        verify(principalCache, times(1)).evictUser(user.getId());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(principalCache, times(2)).evictUser(user.getId());
+    }
+
+    @Test
+    void changeOutsideATransaction_isEvictedOnce() {
+        User user = user();
+
+        listener.onUserChanged(user);
+
+        verify(principalCache, times(1)).evictUser(user.getId());
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
@@ -1,6 +1,6 @@
 import { useEffect, useState, useMemo } from 'react';
 import { X, Calendar as CalendarIcon, Loader2, MapPin, Clock } from 'lucide-react';
-import { leagueApi, Match } from '@/shared/api/league-api';
+import { leagueApi, PublicMatchDTO } from '@/shared/api/league-api';
 import { useTenantSettings } from '@/shared/hooks/useTenantSettings';
 import { TeamLogo } from '@/shared/components/TeamLogo';
 import { Link, useParams } from 'react-router-dom';
@@ -13,7 +13,7 @@ interface FullCalendarModalProps {
 export const FullCalendarModal = ({ isOpen, onClose }: FullCalendarModalProps) => {
     const { settings } = useTenantSettings();
     const { leagueSlug } = useParams<{ leagueSlug: string }>();
-    const [matches, setMatches] = useState<Match[]>([]);
+    const [matches, setMatches] = useState<PublicMatchDTO[]>([]);
     const [loading, setLoading] = useState(true);
     const [activeMatchday, setActiveMatchday] = useState<number>(1);
 
@@ -48,9 +48,9 @@ export const FullCalendarModal = ({ isOpen, onClose }: FullCalendarModalProps) =
     const availableSeasons = useMemo(() => {
         const seasonMap = new Map<string, string>();
         matches.forEach(m => {
-            const id = m.seasonId || m.season?.id;
+            const id = m.seasonId;
             if (id) {
-                seasonMap.set(id, m.season?.name || 'Categoría');
+                seasonMap.set(id, m.seasonName || 'Categoría');
             }
         });
         return Array.from(seasonMap.entries()).map(([id, name]) => ({ id, name }));
@@ -67,7 +67,7 @@ export const FullCalendarModal = ({ isOpen, onClose }: FullCalendarModalProps) =
 
     const seasonMatches = useMemo(() => {
         if (!activeSeasonId) return [];
-        return matches.filter(m => (m.seasonId === activeSeasonId) || (m.season?.id === activeSeasonId));
+        return matches.filter(m => m.seasonId === activeSeasonId);
     }, [matches, activeSeasonId]);
 
     // Calculate available matchdays for the tabs based on selected season
@@ -198,9 +198,9 @@ export const FullCalendarModal = ({ isOpen, onClose }: FullCalendarModalProps) =
                                                                 </span>
                                                             </div>
                                                             {match.location && (
-                                                                match.field?.locationUrl ? (
+                                                                match.fieldLocationUrl ? (
                                                                     <a
-                                                                        href={match.field.locationUrl}
+                                                                        href={match.fieldLocationUrl}
                                                                         target="_blank"
                                                                         rel="noopener noreferrer"
                                                                         onClick={(e) => e.stopPropagation()}
@@ -237,13 +237,13 @@ export const FullCalendarModal = ({ isOpen, onClose }: FullCalendarModalProps) =
                                                         <div className="flex flex-col items-center gap-3 w-[30%]">
                                                             <div className="w-14 h-14 rounded-full bg-slate-800 flex items-center justify-center font-bold text-base text-slate-300 relative overflow-hidden group-hover:bg-slate-700 transition-colors shadow-inner ring-1 ring-white/10">
                                                                 <TeamLogo 
-                                                                    teamName={match.homeTeam?.name || 'Local'} 
-                                                                    logoUrl={match.homeTeam?.signedLogoUrl || match.homeTeam?.logoUrl} 
+                                                                    teamName={match.homeTeamName || 'Local'} 
+                                                                    logoUrl={match.homeTeamLogoUrl} 
                                                                     fallbackClass="text-sm font-bold text-slate-300"
                                                                 />
                                                             </div>
                                                             <Link to={getTeamLink(match.homeTeamId)} className={`text-xs text-center leading-tight hover:text-blue-400 line-clamp-3 ${homeWon ? 'font-black text-white' : 'font-semibold text-slate-400'}`}>
-                                                                {match.homeTeam?.name || 'Local'}
+                                                                {match.homeTeamName || 'Local'}
                                                             </Link>
                                                         </div>
 
@@ -262,13 +262,13 @@ export const FullCalendarModal = ({ isOpen, onClose }: FullCalendarModalProps) =
                                                         <div className="flex flex-col items-center gap-3 w-[30%]">
                                                             <div className="w-14 h-14 rounded-full bg-slate-800 flex items-center justify-center font-bold text-base text-slate-300 relative overflow-hidden group-hover:bg-slate-700 transition-colors shadow-inner ring-1 ring-white/10">
                                                                 <TeamLogo 
-                                                                    teamName={match.awayTeam?.name || 'Visitante'} 
-                                                                    logoUrl={match.awayTeam?.signedLogoUrl || match.awayTeam?.logoUrl} 
+                                                                    teamName={match.awayTeamName || 'Visitante'} 
+                                                                    logoUrl={match.awayTeamLogoUrl} 
                                                                     fallbackClass="text-sm font-bold text-slate-300"
                                                                 />
                                                             </div>
                                                             <Link to={getTeamLink(match.awayTeamId)} className={`text-xs text-center leading-tight hover:text-blue-400 line-clamp-3 ${awayWon ? 'font-black text-white' : 'font-semibold text-slate-400'}`}>
-                                                                {match.awayTeam?.name || 'Visitante'}
+                                                                {match.awayTeamName || 'Visitante'}
                                                             </Link>
                                                         </div>
                                                     </div>
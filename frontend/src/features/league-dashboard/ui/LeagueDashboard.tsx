@@ -9,7 +9,7 @@ import { GlobalFooter } from './GlobalFooter';
 import { useTenantSettings } from '@/shared/hooks/useTenantSettings';
 import { FullCalendarModal } from './FullCalendarModal';
 import { SponsorsCarousel } from './SponsorsCarousel';
-import { leagueApi, Season, Match, PlayerScorerDTO } from '@/shared/api/league-api';
+import { leagueApi, Season, PublicMatchDTO, PlayerScorerDTO } from '@/shared/api/league-api';
 
 export const LeagueDashboard = () => {
     const { settings } = useTenantSettings();
@@ -19,7 +19,7 @@ export const LeagueDashboard = () => {
     const [isCalendarModalOpen, setIsCalendarModalOpen] = useState(false);
     const [activeSeason, setActiveSeason] = useState<Season | null>(null);
     const [allActiveSeasons, setAllActiveSeasons] = useState<Season[]>([]);
-    const [upcomingMatches, setUpcomingMatches] = useState<Match[]>([]);
+    const [upcomingMatches, setUpcomingMatches] = useState<PublicMatchDTO[]>([]);
     const [loadingUpcoming, setLoadingUpcoming] = useState(true);
 
     const [topScorers, setTopScorers] = useState<PlayerScorerDTO[]>([]);
@@ -3,12 +3,12 @@ import { useEffect, useState } from 'react';
 import { Calendar, ChevronRight, MapPin } from 'lucide-react';
 import { Link, useParams } from 'react-router-dom';
 import { useTenantSettings } from '@/shared/hooks/useTenantSettings';
-import { leagueApi, Match, Season } from '@/shared/api/league-api';
+import { leagueApi, PublicMatchDTO, Season } from '@/shared/api/league-api';
 import { TeamLogo } from '@/shared/components/TeamLogo';
 
 interface MatchdayCarouselProps {
     activeSeasons: Season[];
-    upcomingMatches: Match[];
+    upcomingMatches: PublicMatchDTO[];
     onViewAll?: () => void;
 }
 
@@ -35,7 +35,7 @@ export const MatchdayCarousel = ({ activeSeasons, upcomingMatches, onViewAll }:
     const seasonName = currentSeason?.name || '';
     const cleanSeasonName = seasonName.includes(' - ') ? seasonName.split(' - ')[1] : seasonName;
 
-    const matches = upcomingMatches.filter(m => (m.seasonId === activeTabId) || (m.season?.id === activeTabId));
+    const matches = upcomingMatches.filter(m => m.seasonId === activeTabId);
 
     if (!matches || matches.length === 0) {
         return (
@@ -141,9 +141,9 @@ export const MatchdayCarousel = ({ activeSeasons, upcomingMatches, onViewAll }:
                                             : 'Horario por definir'}
                                     </span>
                                     {match.location && (
-                                        match.field?.locationUrl ? (
+                                        match.fieldLocationUrl ? (
                                             <a
-                                                href={match.field.locationUrl}
+                                                href={match.fieldLocationUrl}
                                                 target="_blank"
                                                 rel="noopener noreferrer"
                                                 onClick={(e) => e.stopPropagation()}
@@ -167,13 +167,13 @@ export const MatchdayCarousel = ({ activeSeasons, upcomingMatches, onViewAll }:
                                         <div className="flex items-center gap-2">
                                             <div className="w-6 h-6 rounded-full bg-white/10 flex items-center justify-center overflow-hidden shrink-0">
                                                 <TeamLogo 
-                                                    teamName={match.homeTeam?.name || match.homeTeamId} 
-                                                    logoUrl={match.homeTeam?.signedLogoUrl || match.homeTeam?.logoUrl} 
+                                                    teamName={match.homeTeamName || match.homeTeamId} 
+                                                    logoUrl={match.homeTeamLogoUrl} 
                                                     fallbackClass="text-[10px] font-bold text-white"
                                                 />
                                             </div>
-                                            <Link to={getTeamLink(match.homeTeam?.id || match.homeTeamId)} className={`text-sm font-medium hover:text-primary hover:underline ${match.status !== 'SCHEDULED' && (match.homeScore || 0) > (match.awayScore || 0) ? 'text-white' : 'text-slate-400'}`}>
-                                                {match.homeTeam?.name || 'Local'}
+                                            <Link to={getTeamLink(match.homeTeamId)} className={`text-sm font-medium hover:text-primary hover:underline ${match.status !== 'SCHEDULED' && (match.homeScore || 0) > (match.awayScore || 0) ? 'text-white' : 'text-slate-400'}`}>
+                                                {match.homeTeamName || 'Local'}
                                             </Link>
                                         </div>
                                         <span className="font-black text-2xl text-white">{match.homeScore ?? '-'}</span>
@@ -184,13 +184,13 @@ export const MatchdayCarousel = ({ activeSeasons, upcomingMatches, onViewAll }:
                                         <div className="flex items-center gap-2">
                                             <div className="w-6 h-6 rounded-full bg-white/10 flex items-center justify-center overflow-hidden shrink-0">
                                                 <TeamLogo 
-                                                    teamName={match.awayTeam?.name || match.awayTeamId} 
-                                                    logoUrl={match.awayTeam?.signedLogoUrl || match.awayTeam?.logoUrl} 
+                                                    teamName={match.awayTeamName || match.awayTeamId} 
+                                                    logoUrl={match.awayTeamLogoUrl} 
                                                     fallbackClass="text-[10px] font-bold text-white"
                                                 />
                                             </div>
-                                            <Link to={getTeamLink(match.awayTeam?.id || match.awayTeamId)} className={`text-sm font-medium hover:text-primary hover:underline ${match.status !== 'SCHEDULED' && (match.awayScore || 0) > (match.homeScore || 0) ? 'text-white' : 'text-slate-400'}`}>
-                                                {match.awayTeam?.name || 'Visitante'}
+                                            <Link to={getTeamLink(match.awayTeamId)} className={`text-sm font-medium hover:text-primary hover:underline ${match.status !== 'SCHEDULED' && (match.awayScore || 0) > (match.homeScore || 0) ? 'text-white' : 'text-slate-400'}`}>
+                                                {match.awayTeamName || 'Visitante'}
                                             </Link>
                                         </div>
                                         <span className="font-black text-2xl text-white">{match.awayScore ?? '-'}</span>
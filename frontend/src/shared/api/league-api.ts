@@ -106,6 +106,29 @@ export interface Match {
     status: 'SCHEDULED' | 'IN_PROGRESS' | 'FINISHED' | 'CANCELLED';
 }
 
+/**
+ * Flat fixture card returned by the public match endpoints.
+ * Team logo URLs are already signed.
+ */
+export interface PublicMatchDTO {
+    id: string;
+    seasonId: string;
+    seasonName: string;
+    matchday?: number;
+    matchDate?: string;
+    location?: string;
+    fieldLocationUrl?: string;
+    homeTeamId: string;
+    homeTeamName: string;
+    homeTeamLogoUrl?: string;
+    awayTeamId: string;
+    awayTeamName: string;
+    awayTeamLogoUrl?: string;
+    homeScore?: number;
+    awayScore?: number;
+    status: Match['status'];
+}
+
 /**
  * Lightweight preview DTO for round-robin fixture generation.
  * matchDate is always null ("Por definir") — dates are set manually by the admin.
@@ -224,8 +247,8 @@ export const leagueApi = {
     downloadCalendarTemplate: () =>
         api.get('/templates/calendar', { responseType: 'blob' }),
     getUpcomingMatches: (tenantId: string) =>
-        api.get<Match[]>('/public/matches/upcoming', { headers: { 'X-Tenant-ID': tenantId } }),
-    getAllMatches: (tenantId: string) => api.get<Match[]>('/public/matches/season', { headers: { 'X-Tenant-ID': tenantId } }),
+        api.get<PublicMatchDTO[]>('/public/matches/upcoming', { headers: { 'X-Tenant-ID': tenantId } }),
+    getAllMatches: (tenantId: string) => api.get<PublicMatchDTO[]>('/public/matches/season', { headers: { 'X-Tenant-ID': tenantId } }),
 
     // Statistics
     getTopScorers: (tenantId: string) =>